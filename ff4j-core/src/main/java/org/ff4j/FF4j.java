@@ -22,6 +22,10 @@ package org.ff4j;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,6 +33,8 @@ import org.ff4j.audit.EventPublisher;
 import org.ff4j.audit.EventType;
 import org.ff4j.audit.repository.EventRepository;
 import org.ff4j.audit.repository.InMemoryEventRepository;
+import org.ff4j.cache.CacheWarmUpResult;
+import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.conf.XmlParser;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
@@ -40,6 +46,7 @@ import org.ff4j.property.store.InMemoryPropertyStore;
 import org.ff4j.property.store.PropertyStore;
 import org.ff4j.security.AuthorizationsManager;
 import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
 
 /**
  * Main class, it allows to work with features.
@@ -144,7 +151,69 @@ public class FF4j {
      * @return current feature status
      */
     public boolean check(String featureID, FlippingExecutionContext executionContext) {
-        Feature fp = getFeature(featureID);
+        return check(getFeature(featureID), getFeatureStore(), executionContext);
+    }
+
+    /**
+     * Ask for several features at once. Requested features are read with a single bulk read of the feature store (served by
+     * the cache when the store is a {@link FeatureStoreCacheProxy}), followed by a second one for the features their
+     * expressions ({@link ExpressionFlipStrategy}) refer to. Every feature is then evaluated against this same snapshot.
+     * <p>
+     * The two bulk reads are not atomic: a feature written between them may be seen before the change while a feature it refers
+     * to is seen after it. Statuses are thus not guaranteed to reflect a single consistent state of the store.
+     * <p>
+     * Strategies are given an {@link InMemoryFeatureStore} holding only the snapshot, not the feature store. A strategy other
+     * than {@link ExpressionFlipStrategy} reading other features through it only sees the requested features and the ones
+     * referenced by expressions: any other feature is reported as not found.
+     * 
+     * @param featureIDs
+     *            features unique identifiers.
+     * @param executionContext
+     *            execution context shared by all evaluations
+     * @return status of each feature, in requested order
+     */
+    public Map<String, Boolean> checkAll(Collection<String> featureIDs, FlippingExecutionContext executionContext) {
+        if (featureIDs == null) {
+            throw new IllegalArgumentException("Feature identifiers cannot be null");
+        }
+        // Unknown features are not returned, they are handled below
+        Map<String, Feature> features = new HashMap<String, Feature>(getFeatureStore().readAll(featureIDs));
+        Set<String> referenced = new HashSet<String>();
+        for (Feature fp : features.values()) {
+            if (fp.getFlippingStrategy() instanceof ExpressionFlipStrategy) {
+                ExpressionFlipStrategy expression = (ExpressionFlipStrategy) fp.getFlippingStrategy();
+                referenced.addAll(expression.getReferencedFeatures(fp.getUid(), executionContext));
+            }
+        }
+        referenced.removeAll(features.keySet());
+        if (!referenced.isEmpty()) {
+            features.putAll(getFeatureStore().readAll(referenced));
+        }
+        FeatureStore snapshot = new InMemoryFeatureStore(features);
+        Map<String, Boolean> statuses = new LinkedHashMap<String, Boolean>();
+        for (String featureID : featureIDs) {
+            Feature fp = features.get(featureID);
+            if (fp == null) {
+                // Not in snapshot, autocreate or FeatureNotFoundException
+                fp = getFeature(featureID);
+            }
+            statuses.put(featureID, check(fp, snapshot, executionContext));
+        }
+        return statuses;
+    }
+
+    /**
+     * Evaluate a feature against a store.
+     * 
+     * @param fp
+     *            current feature
+     * @param store
+     *            store given to strategy
+     * @param executionContext
+     *            current execution context
+     * @return current feature status
+     */
+    private boolean check(Feature fp, FeatureStore store, FlippingExecutionContext executionContext) {
         boolean flipped = fp.isEnable();
 
         // If authorization manager provided, apply security filter
@@ -154,13 +223,13 @@ public class FF4j {
 
         // If custom strategy has been defined, delegate flipping to
         if (flipped && fp.getFlippingStrategy() != null) {
-            flipped = flipped && fp.getFlippingStrategy().evaluate(featureID, getFeatureStore(), executionContext);
+            flipped = flipped && fp.getFlippingStrategy().evaluate(fp.getUid(), store, executionContext);
         }
         // Update current context
         currentExecutionContext.set(executionContext);
         
         // Any access is logged into audit system
-        getEventPublisher().publish(featureID, flipped);
+        getEventPublisher().publish(fp.getUid(), flipped);
 
         return flipped;
     }
@@ -417,6 +486,49 @@ public class FF4j {
         return this;
     }
 
+    /**
+     * Fill the cache with every feature of the store in one bulk read, to be invoked before accepting traffic.
+     * 
+     * @return number of cached features and time spent
+     */
+    public CacheWarmUpResult warmUpCache() {
+        return getCacheProxy().warmUp();
+    }
+
+    /**
+     * Fill the cache with a subset of features in one bulk read.
+     * 
+     * @param featureIds
+     *            identifiers of features to cache
+     * @return number of cached features and time spent
+     */
+    public CacheWarmUpResult warmUpCache(Collection<String> featureIds) {
+        return getCacheProxy().warmUp(featureIds);
+    }
+
+    /**
+     * Fill the cache with the features of a group in one bulk read.
+     * 
+     * @param groupName
+     *            target group
+     * @return number of cached features and time spent
+     */
+    public CacheWarmUpResult warmUpCacheGroup(String groupName) {
+        return getCacheProxy().warmUpGroup(groupName);
+    }
+
+    /**
+     * Access cache proxy of feature store.
+     * 
+     * @return cache proxy
+     */
+    private FeatureStoreCacheProxy getCacheProxy() {
+        if (!(getFeatureStore() instanceof FeatureStoreCacheProxy)) {
+            throw new IllegalArgumentException("ff4j-core: Cannot warm up cache, feature store is not a FeatureStoreCacheProxy");
+        }
+        return (FeatureStoreCacheProxy) getFeatureStore();
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -0,0 +1,207 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Superclass of in-memory caches (features, properties): time-to-live, eviction and statistics are handled here, subclasses
+ * give the key of the cached objects.
+ * 
+ * @param <T>
+ *            cached object
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public abstract class AbstractInMemoryCacheManager<T> {
+
+    /** Default TTL is one hour. */
+    public static final long DEFAULT_TTL = 3600L;
+
+    /** externalized as constant. */
+    public static final long TO_MILLIS = 1000L;
+
+    /** Cached objects by key. */
+    private final Map<String, InMemoryCacheEntry<T>> cache;
+
+    /** Kind of cached object, used in error messages. */
+    private final String entryName;
+
+    /**
+     * Time to live : The maximum number of seconds an element can exist in the cache regardless of use. The element expires at
+     * this limit and will no longer be returned from the cache.
+     */
+    private long ttl = DEFAULT_TTL;
+
+    /** Usage counters. */
+    private final CacheStatisticsCounter statistics = new CacheStatisticsCounter();
+
+    /**
+     * Parameterized constructor.
+     * 
+     * @param cache
+     *            map holding cached objects
+     * @param entryName
+     *            kind of cached object, used in error messages
+     */
+    protected AbstractInMemoryCacheManager(Map<String, InMemoryCacheEntry<T>> cache, String entryName) {
+        this.cache = cache;
+        this.entryName = entryName;
+    }
+
+    /**
+     * Key of an object in cache.
+     * 
+     * @param entry
+     *            cached object
+     * @return key
+     */
+    protected abstract String getKey(T entry);
+
+    /**
+     * Remove everything present within cache.
+     */
+    public void clear() {
+        statistics.recordEviction(cache.size());
+        cache.clear();
+    }
+
+    /**
+     * Remove an object from cache.
+     * 
+     * @param key
+     *            key of object
+     */
+    public void evict(String key) {
+        if (key != null && cache.remove(key) != null) {
+            statistics.recordEviction(1);
+        }
+    }
+
+    /**
+     * Add object to cache.
+     * 
+     * @param entry
+     *            object to be cached
+     */
+    public void put(T entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("ff4j-core: Cannot insert null " + entryName + " into cache");
+        }
+        String key = getKey(entry);
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("ff4j-core: Cannot insert " + entryName + " with null identifier into cache");
+        }
+        cache.put(key, new InMemoryCacheEntry<T>(entry));
+    }
+
+    /**
+     * Return object stored in cache.
+     * 
+     * @param key
+     *            key of object
+     * @return cached object, null if not cached or expired
+     */
+    public T get(String key) {
+        InMemoryCacheEntry<T> ice = (key == null) ? null : cache.get(key);
+        if (ice != null) {
+            // an object is stored in cache with this key
+            if ((System.currentTimeMillis() - ice.getInsertedDate()) >= (TO_MILLIS * ttl)) {
+                // it has reach its time-to-live
+                evict(key);
+            } else {
+                // return cached value
+                statistics.recordHit();
+                return ice.getEntry();
+            }
+        }
+        // not in cache
+        statistics.recordMiss();
+        return null;
+    }
+
+    /**
+     * Keys of objects in cache.
+     * 
+     * @return keys
+     */
+    protected Set<String> listCachedKeys() {
+        return cache.keySet();
+    }
+
+    /**
+     * Get name of expected cache.
+     * 
+     * @return target cache name
+     */
+    public String getCacheProviderName() {
+        return "In-Memory";
+    }
+
+    /**
+     * Access to embedded implementation of cache.
+     * 
+     * @return native implementation of cache.
+     */
+    public Object getNativeCache() {
+        return cache;
+    }
+
+    /**
+     * Record the time spent to load an object from the target store after a cache miss.
+     * 
+     * @param loadTime
+     *            loading time in nanoseconds
+     */
+    public void recordLoad(long loadTime) {
+        statistics.recordLoad(loadTime);
+    }
+
+    /**
+     * Access usage figures of the cache (hits, misses, loads, evictions and size).
+     * 
+     * @return snapshot of statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        return statistics.toStatistics(cache.size());
+    }
+
+    /**
+     * Getter accessor for attribute 'ttl'.
+     * 
+     * @return current value of 'ttl'
+     */
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Setter accessor for attribute 'ttl'.
+     * 
+     * @param ttl
+     *            new value for 'ttl '
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+}
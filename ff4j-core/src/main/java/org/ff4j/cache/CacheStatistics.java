@@ -0,0 +1,200 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of cache usage figures returned by {@link FeatureCacheManager#getCacheStatistics()}. Values are read at creation and
+ * won't change afterwards.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class CacheStatistics implements Serializable {
+
+    /** serial. */
+    private static final long serialVersionUID = 4925318452711356812L;
+
+    /** Conversion factor. */
+    private static final double NANOS_TO_MILLIS = 1000000.0;
+
+    /** Number of get() which returned a feature. */
+    private final long hitCount;
+
+    /** Number of get() which returned nothing. */
+    private final long missCount;
+
+    /** Number of features loaded from target store after a miss. */
+    private final long loadCount;
+
+    /** Cumulated time spent in loading, in nanoseconds. */
+    private final long totalLoadTime;
+
+    /** Longest load, in nanoseconds. */
+    private final long maxLoadTime;
+
+    /** Number of entries removed from cache (evict, clear, time-to-live). */
+    private final long evictionCount;
+
+    /** Number of entries currently in the cache. */
+    private final long size;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param hitCount
+     *            number of hits
+     * @param missCount
+     *            number of misses
+     * @param loadCount
+     *            number of loads
+     * @param totalLoadTime
+     *            cumulated loading time in nanoseconds
+     * @param maxLoadTime
+     *            longest loading time in nanoseconds
+     * @param evictionCount
+     *            number of evictions
+     * @param size
+     *            current number of entries
+     */
+    public CacheStatistics(long hitCount, long missCount, long loadCount, long totalLoadTime, long maxLoadTime, long evictionCount, long size) {
+        this.hitCount       = hitCount;
+        this.missCount      = missCount;
+        this.loadCount      = loadCount;
+        this.totalLoadTime  = totalLoadTime;
+        this.maxLoadTime    = maxLoadTime;
+        this.evictionCount  = evictionCount;
+        this.size           = size;
+    }
+
+    /**
+     * Total number of requests to the cache.
+     *
+     * @return hits plus misses
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Ratio of requests served from cache, 1 if no request yet.
+     *
+     * @return hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        long requests = getRequestCount();
+        return (requests == 0) ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Average time spent loading a feature from target store.
+     *
+     * @return average load time in milliseconds
+     */
+    public double getAverageLoadTime() {
+        return (loadCount == 0) ? 0.0 : (totalLoadTime / (double) loadCount) / NANOS_TO_MILLIS;
+    }
+
+    /**
+     * Longest time spent loading a feature from target store.
+     *
+     * @return max load time in milliseconds
+     */
+    public double getMaxLoadTime() {
+        return maxLoadTime / NANOS_TO_MILLIS;
+    }
+
+    /**
+     * Serialized as a JSON String.
+     *
+     * @return json expression
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"hitCount\":" + hitCount);
+        sb.append(",\"missCount\":" + missCount);
+        sb.append(",\"hitRatio\":" + getHitRatio());
+        sb.append(",\"loadCount\":" + loadCount);
+        sb.append(",\"averageLoadTime\":" + getAverageLoadTime());
+        sb.append(",\"maxLoadTime\":" + getMaxLoadTime());
+        sb.append(",\"evictionCount\":" + evictionCount);
+        sb.append(",\"size\":" + size);
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Getter accessor for attribute 'hitCount'.
+     *
+     * @return
+     *       current value of 'hitCount'
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'missCount'.
+     *
+     * @return
+     *       current value of 'missCount'
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadCount'.
+     *
+     * @return
+     *       current value of 'loadCount'
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'evictionCount'.
+     *
+     * @return
+     *       current value of 'evictionCount'
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'size'.
+     *
+     * @return
+     *       current value of 'size'
+     */
+    public long getSize() {
+        return size;
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counters used by {@link FeatureCacheManager} implementations to build their {@link CacheStatistics}.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class CacheStatisticsCounter {
+
+    /** hits. */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /** misses. */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** loads. */
+    private final AtomicLong loadCount = new AtomicLong();
+
+    /** cumulated load time (nanoseconds). */
+    private final AtomicLong totalLoadTime = new AtomicLong();
+
+    /** max load time (nanoseconds). */
+    private final AtomicLong maxLoadTime = new AtomicLong();
+
+    /** evictions. */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * A feature has been found in cache.
+     */
+    public void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    /**
+     * A feature has not been found in cache.
+     */
+    public void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    /**
+     * A feature has been loaded from target store.
+     *
+     * @param loadTime
+     *            time spent loading in nanoseconds
+     */
+    public void recordLoad(long loadTime) {
+        loadCount.incrementAndGet();
+        totalLoadTime.addAndGet(loadTime);
+        long currentMax = maxLoadTime.get();
+        while (loadTime > currentMax && !maxLoadTime.compareAndSet(currentMax, loadTime)) {
+            currentMax = maxLoadTime.get();
+        }
+    }
+
+    /**
+     * Entries have been removed from cache.
+     *
+     * @param count
+     *            number of removed entries
+     */
+    public void recordEviction(long count) {
+        evictionCount.addAndGet(count);
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void reset() {
+        hitCount.set(0);
+        missCount.set(0);
+        loadCount.set(0);
+        totalLoadTime.set(0);
+        maxLoadTime.set(0);
+        evictionCount.set(0);
+    }
+
+    /**
+     * Build a snapshot of current counters.
+     *
+     * @param size
+     *            current number of entries in cache
+     * @return statistics
+     */
+    public CacheStatistics toStatistics(long size) {
+        return new CacheStatistics(hitCount.get(), missCount.get(), loadCount.get(),
+                totalLoadTime.get(), maxLoadTime.get(), evictionCount.get(), size);
+    }
+
+    /**
+     * Build a snapshot for providers relying on counters of the underlying cache. Load figures are still the ones recorded here.
+     *
+     * @param nativeHitCount
+     *            hits counted by underlying cache
+     * @param nativeMissCount
+     *            misses counted by underlying cache
+     * @param nativeEvictionCount
+     *            evictions counted by underlying cache, added to the removals recorded here
+     * @param size
+     *            current number of entries in cache
+     * @return statistics
+     */
+    public CacheStatistics toStatistics(long nativeHitCount, long nativeMissCount, long nativeEvictionCount, long size) {
+        return new CacheStatistics(nativeHitCount, nativeMissCount, loadCount.get(),
+                totalLoadTime.get(), maxLoadTime.get(), evictionCount.get() + nativeEvictionCount, size);
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+
+/**
+ * Outcome of a cache warm-up performed by {@link FeatureStoreCacheProxy#warmUp()}: number of features put in cache and time
+ * spent.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class CacheWarmUpResult implements Serializable {
+
+    /** serial. */
+    private static final long serialVersionUID = -3093451720585136470L;
+
+    /** Number of features put in cache. */
+    private final int entryCount;
+
+    /** Time spent reading target store and filling cache, in milliseconds. */
+    private final long duration;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param entryCount
+     *            number of features put in cache
+     * @param duration
+     *            time spent in milliseconds
+     */
+    public CacheWarmUpResult(int entryCount, long duration) {
+        this.entryCount = entryCount;
+        this.duration   = duration;
+    }
+
+    /**
+     * Serialized as a JSON String.
+     *
+     * @return json expression
+     */
+    public String toJson() {
+        return "{\"entryCount\":" + entryCount + ",\"duration\":" + duration + "}";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Getter accessor for attribute 'entryCount'.
+     *
+     * @return
+     *       current value of 'entryCount'
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'duration'.
+     *
+     * @return
+     *       current value of 'duration' in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+}
@@ -86,4 +86,19 @@ public interface FeatureCacheManager {
      */
     String getCacheProviderName();
 
+    /**
+     * Record the time spent to load a feature from the target store after a cache miss. Invoked by {@link FeatureStoreCacheProxy}.
+     *
+     * @param loadTime
+     *            loading time in nanoseconds
+     */
+    void recordLoad(long loadTime);
+
+    /**
+     * Access usage figures of the cache (hits, misses, loads, evictions and size).
+     *
+     * @return snapshot of statistics
+     */
+    CacheStatistics getCacheStatistics();
+
 }
@@ -20,6 +20,10 @@ package org.ff4j.cache;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -103,7 +107,9 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         Feature fp = getCacheManager().get(featureUid);
         // not in cache but may has been created from now
         if (null == fp) {
+            long start = System.nanoTime();
             fp = getTarget().read(featureUid);
+            getCacheManager().recordLoad(System.nanoTime() - start);
             getCacheManager().put(fp);
         }
         return fp;
@@ -116,6 +122,35 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         return getTarget().readAll();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        List<String> missing = new ArrayList<String>();
+        for (String uid : featureIds) {
+            Feature fp = getCacheManager().get(uid);
+            if (fp == null) {
+                missing.add(uid);
+            } else {
+                features.put(uid, fp);
+            }
+        }
+        // Features not in cache are loaded with a single bulk read
+        if (!missing.isEmpty()) {
+            long start = System.nanoTime();
+            Map<String, Feature> loaded = getTarget().readAll(missing);
+            getCacheManager().recordLoad(System.nanoTime() - start);
+            for (Feature fp : loaded.values()) {
+                getCacheManager().put(fp);
+            }
+            features.putAll(loaded);
+        }
+        return features;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
@@ -139,6 +174,33 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         getCacheManager().evict(fp.getUid());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void createAll(Collection<Feature> features) {
+        getTarget().createAll(features);
+        for (Feature fp : features) {
+            getCacheManager().evict(fp.getUid());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        getTarget().updateAll(features);
+        for (Feature fp : features) {
+            getCacheManager().evict(fp.getUid());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteAll(Collection<String> featureIds) {
+        getTarget().deleteAll(featureIds);
+        for (String featureId : featureIds) {
+            getCacheManager().evict(featureId);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void grantRoleOnFeature(String featureId, String roleName) {
@@ -197,6 +259,57 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         getCacheManager().evict(featureId);
     }
 
+    // ------------ Warm-up --------------------
+
+    /**
+     * Load every feature of target store with a single bulk read and put them in cache, to be invoked before accepting traffic.
+     * 
+     * @return number of cached features and time spent
+     */
+    public CacheWarmUpResult warmUp() {
+        long start = System.currentTimeMillis();
+        Map<String, Feature> features = getTarget().readAll();
+        for (Feature feature : features.values()) {
+            getCacheManager().put(feature);
+        }
+        return new CacheWarmUpResult(features.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Load a subset of features with a single bulk read and put them in cache, unknown identifiers are ignored.
+     * 
+     * @param featureIds
+     *            identifiers of features to cache
+     * @return number of cached features and time spent
+     */
+    public CacheWarmUpResult warmUp(Collection<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("ff4j-core: Feature identifiers to warm up cannot be null");
+        }
+        long start = System.currentTimeMillis();
+        Map<String, Feature> features = getTarget().readAll(featureIds);
+        for (Feature feature : features.values()) {
+            getCacheManager().put(feature);
+        }
+        return new CacheWarmUpResult(features.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Load features of a group with a single bulk read and put them in cache.
+     * 
+     * @param groupName
+     *            target group
+     * @return number of cached features and time spent
+     */
+    public CacheWarmUpResult warmUpGroup(String groupName) {
+        long start = System.currentTimeMillis();
+        Map<String, Feature> features = getTarget().readGroup(groupName);
+        for (Feature feature : features.values()) {
+            getCacheManager().put(feature);
+        }
+        return new CacheWarmUpResult(features.size(), System.currentTimeMillis() - start);
+    }
+
     /**
      * Getter accessor for attribute 'target'.
      * 
@@ -20,7 +20,6 @@ package org.ff4j.cache;
  * #L%
  */
 
-import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 
@@ -34,108 +33,28 @@ import org.ff4j.core.Feature;
  * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
-public class InMemoryCacheManager implements FeatureCacheManager {
-
-    /** Default TTL is one hour. */
-    public static final long DEFAULT_TTL = 3600L;
-
-    /** externalized as constant. */
-    public static final long TO_MILLIS = 1000L;
+public class InMemoryCacheManager extends AbstractInMemoryCacheManager<Feature> implements FeatureCacheManager {
 
     /** cache name if several caches within memory. */
     public static final String DEFAULT_CACHENAME = "ff4j-cache";
 
-    /** Cached Feature Map */
-    private final Map<String, InMemoryCacheEntry<Feature>> cache = new WeakHashMap<String, InMemoryCacheEntry<Feature>>();
-
     /**
-     * Time to live : The maximum number of seconds an element can exist in the cache regardless of use. The element expires at
-     * this limit and will no longer be returned from the cache. The default value is 0, which means no TTL eviction takes place
-     * (infinite lifetime).
+     * Default constructor.
      */
-    private long ttl = DEFAULT_TTL;
-
-    /** {@inheritDoc} */
-    @Override
-    public void clear() {
-        cache.clear();
+    public InMemoryCacheManager() {
+        super(new WeakHashMap<String, InMemoryCacheEntry<Feature>>(), "feature");
     }
 
     /** {@inheritDoc} */
     @Override
-    public void evict(String featureId) {
-        if (cache.containsKey(featureId)) {
-            cache.remove(featureId);
-        }
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public void put(Feature feat) {
-        if (feat == null) {
-            throw new IllegalArgumentException("ff4j-core: Cannot insert null feature into cache");
-        }
-        if (feat.getUid() == null || feat.getUid().isEmpty()) {
-            throw new IllegalArgumentException("ff4j-core: Cannot insert feature with null identifier into cache");
-        }
-        cache.put(feat.getUid(), new InMemoryCacheEntry<Feature>(feat));
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public Feature get(String featureId) {
-        InMemoryCacheEntry<Feature> ice = cache.get(featureId);
-        if (ice != null) {
-            // a feature is stored in cache with this identifier
-            if ((System.currentTimeMillis() - ice.getInsertedDate()) >= (TO_MILLIS * ttl)) {
-                // it has reach its time-to-live
-                evict(featureId);
-            } else {
-                // return cached value
-                return ice.getEntry();
-            }
-        }
-        // not in cache
-        return null;
-    }
-    
-    /** {@inheritDoc} */
-    @Override
-    public String getCacheProviderName() {
-        return "In-Memory";
+    protected String getKey(Feature feat) {
+        return feat.getUid();
     }
 
     /** {@inheritDoc} */
     @Override
     public Set<String> listCachedFeatureNames() {
-        return cache.keySet();
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public Object getNativeCache() {
-        return cache;
+        return listCachedKeys();
     }
 
-    /**
-     * Getter accessor for attribute 'ttl'.
-     * 
-     * @return current value of 'ttl'
-     */
-    public long getTtl() {
-        return ttl;
-    }
-
-    /**
-     * Setter accessor for attribute 'ttl'.
-     * 
-     * @param ttl
-     *            new value for 'ttl '
-     */
-    public void setTtl(long ttl) {
-        this.ttl = ttl;
-    }
-
-   
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ff4j.property.AbstractProperty;
+
+/**
+ * Proposition of inmemory cache implementation for properties.
+ * 
+ * Warn : DO NOT USE THIS CACHE WHEN WORKING WITH EXTERNAL PROPERTYSTORE (as Database) and cluster application : EACH NODE GOT ITS
+ * MEMORY AND AN MODIFICATION IN STORE WON'T REFRESH THIS CACHE. Please use REDIS implementation.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class InMemoryPropertyCacheManager extends AbstractInMemoryCacheManager<AbstractProperty<?>> implements PropertyCacheManager {
+
+    /**
+     * Default constructor.
+     */
+    public InMemoryPropertyCacheManager() {
+        super(new ConcurrentHashMap<String, InMemoryCacheEntry<AbstractProperty<?>>>(), "property");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getKey(AbstractProperty<?> property) {
+        return property.getName();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> listCachedPropertyNames() {
+        return listCachedKeys();
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.store.PropertyStore;
+
+/**
+ * Cache Layer on top of {@link PropertyStore} to enhance performances.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public interface PropertyCacheManager {
+
+    /**
+     * Remove everything present within cache.
+     */
+    void clear();
+
+    /**
+     * Remove a property from cache by its name. Invoked for any modification of target property through store.
+     * 
+     * @param propertyName
+     *            property name
+     */
+    void evict(String propertyName);
+
+    /**
+     * Add property to cache.
+     * 
+     * @param property
+     *            target property to be cached
+     */
+    void put(AbstractProperty<?> property);
+
+    /**
+     * Return property stored in cache.
+     * 
+     * @param propertyName
+     *            target property name
+     * @return target property if cached, null otherwise
+     */
+    AbstractProperty<?> get(String propertyName);
+
+    /**
+     * List property names in cache.
+     *
+     * @return
+     *      property names in cache
+     */
+    Set < String > listCachedPropertyNames();
+
+    /**
+     * Access to embedded implementation of cache.
+     * 
+     * @return native implementation of cache.
+     */
+    Object getNativeCache();
+
+    /**
+     * Get name of expected cache.
+     * 
+     * @return target cache name
+     */
+    String getCacheProviderName();
+
+    /**
+     * Record the time spent to load a property from the target store after a cache miss. Invoked by {@link PropertyStoreCacheProxy}.
+     *
+     * @param loadTime
+     *            loading time in nanoseconds
+     */
+    void recordLoad(long loadTime);
+
+    /**
+     * Access usage figures of the cache (hits, misses, loads, evictions and size).
+     *
+     * @return snapshot of statistics
+     */
+    CacheStatistics getCacheStatistics();
+
+}
@@ -0,0 +1,185 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.store.AbstractPropertyStore;
+import org.ff4j.property.store.PropertyStore;
+
+/**
+ * Access to {@link PropertyStore} could generate some overhead (SQL round trip, instanciation of properties). Reads are served
+ * from a {@link PropertyCacheManager} and any modification evicts the related property.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreCacheProxy extends AbstractPropertyStore {
+
+    /** Target property store to be proxified to cache properties. */
+    private PropertyStore target;
+
+    /** cache manager. */
+    private PropertyCacheManager cacheManager;
+
+    /**
+     * Allow Ioc and defeine default constructor.
+     */
+    public PropertyStoreCacheProxy() {}
+
+    /**
+     * Initialization through constructor.
+     * 
+     * @param store
+     *            target store to retrieve properties
+     * @param cache
+     *            cache manager to limit overhead of store
+     */
+    public PropertyStoreCacheProxy(PropertyStore store, PropertyCacheManager cache) {
+        this.target = store;
+        this.cacheManager = cache;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String name) {
+        // not in cache but maybe created from last access
+        if (getCacheManager().get(name) == null) {
+            return getTarget().exist(name);
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void create(AbstractProperty<T> value) {
+        getTarget().create(value);
+        if (value != null) {
+            getCacheManager().evict(value.getName());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractProperty<?> read(String name) {
+        AbstractProperty<?> ap = getCacheManager().get(name);
+        // not in cache but may has been created from now
+        if (null == ap) {
+            long start = System.nanoTime();
+            ap = getTarget().read(name);
+            getCacheManager().recordLoad(System.nanoTime() - start);
+            getCacheManager().put(ap);
+        }
+        return ap;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(String name, String newValue) {
+        getTarget().update(name, newValue);
+        getCacheManager().evict(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void update(AbstractProperty<T> prop) {
+        getTarget().update(prop);
+        getCacheManager().evict(prop.getName());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String name) {
+        getTarget().delete(name);
+        getCacheManager().evict(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void createAll(Collection<AbstractProperty<?>> properties) {
+        getTarget().createAll(properties);
+        for (AbstractProperty<?> ap : properties) {
+            getCacheManager().evict(ap.getName());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateAll(Collection<AbstractProperty<?>> properties) {
+        getTarget().updateAll(properties);
+        for (AbstractProperty<?> ap : properties) {
+            getCacheManager().evict(ap.getName());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, AbstractProperty<?>> readAllProperties() {
+        // Cannot be sure of whole cache : accessing PropertyStore
+        return getTarget().readAllProperties();
+    }
+
+    /**
+     * Getter accessor for attribute 'target'.
+     * 
+     * @return current value of 'target'
+     */
+    public PropertyStore getTarget() {
+        if (target == null) {
+            throw new IllegalArgumentException("ff4j-core: Target for cache proxy has not been provided");
+        }
+        return target;
+    }
+
+    /**
+     * Setter accessor for attribute 'target'.
+     * 
+     * @param target
+     *            new value for 'target '
+     */
+    public void setTarget(PropertyStore target) {
+        this.target = target;
+    }
+
+    /**
+     * Getter accessor for attribute 'cacheManager'.
+     * 
+     * @return current value of 'cacheManager'
+     */
+    public PropertyCacheManager getCacheManager() {
+        if (cacheManager == null) {
+            throw new IllegalArgumentException("ff4j-core: CacheManager for cache proxy has not been provided but it's required");
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Setter accessor for attribute 'cacheManager'.
+     * 
+     * @param cacheManager
+     *            new value for 'cacheManager '
+     */
+    public void setCacheManager(PropertyCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+}
@@ -20,6 +20,7 @@ package org.ff4j.core;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -76,6 +77,15 @@ public interface FeatureStore {
      */
     Map<String, Feature> readAll();
 
+    /**
+     * Read several features at once, unknown identifiers are ignored.
+     * 
+     * @param featureIds
+     *            identifiers of features to read
+     * @return features found in store, indexed by identifier
+     */
+    Map<String, Feature> readAll(Collection<String> featureIds);
+
     /**
      * Remove fliPoint from store.
      * 
@@ -159,6 +169,30 @@ public interface FeatureStore {
      */
     void removeFromGroup(String featureId, String groupName);
     
+    /**
+     * Create several features (with roles and custom properties), none of them must exist.
+     * 
+     * @param features
+     *            features to create
+     */
+    void createAll(Collection<Feature> features);
+
+    /**
+     * Update several features, all of them must exist.
+     * 
+     * @param features
+     *            new values of features
+     */
+    void updateAll(Collection<Feature> features);
+
+    /**
+     * Delete several features, all of them must exist.
+     * 
+     * @param featureIds
+     *            identifiers of features to delete
+     */
+    void deleteAll(Collection<String> featureIds);
+
     /**
      * Return a set of existing groups.
      * 
@@ -0,0 +1,49 @@
+package org.ff4j.core;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.store.FeatureChanges;
+
+/**
+ * {@link FeatureStore} maintaining a version incremented by each write, shared by every client of the underlying storage. A
+ * version identifies the content of the store: it can be used as an entity tag or to fetch changes only.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public interface VersionedFeatureStore extends FeatureStore {
+
+    /**
+     * Current version of the store, to be given later to {@link #readChangesSince(long)}.
+     * 
+     * @return last version given to a change
+     */
+    long getCurrentVersion();
+
+    /**
+     * Read features created, modified or deleted after a version.
+     * 
+     * @param version
+     *            last version known by the client, 0 for every feature
+     * @return changes since this version
+     */
+    FeatureChanges readChangesSince(long version);
+
+}
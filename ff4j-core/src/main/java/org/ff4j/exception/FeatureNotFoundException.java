@@ -21,6 +21,9 @@ public class FeatureNotFoundException extends RuntimeException {
     /** serial. */
     private static final long serialVersionUID = -232699648959802172L;
 
+    /** Feature not found. */
+    private final String featureName;
+
     /**
      * Parameterized constructor.
      * 
@@ -29,6 +32,17 @@ public class FeatureNotFoundException extends RuntimeException {
      **/
     public FeatureNotFoundException(String featureName) {
         super(featureName + " does not exist in store");
+        this.featureName = featureName;
+    }
+
+    /**
+     * Getter accessor for attribute 'featureName'.
+     *
+     * @return
+     *       current value of 'featureName'
+     */
+    public String getFeatureName() {
+        return featureName;
     }
 
 }
@@ -4,6 +4,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Create {@link AbstractProperty} from name type and value.
@@ -12,6 +14,9 @@ import java.util.List;
  */
 public class PropertyFactory {
 
+    /** Constructors (name, value) per property type, introspection is done once per class. */
+    private static final ConcurrentMap<String, Constructor<?>> CONSTRUCTORS = new ConcurrentHashMap<String, Constructor<?>>();
+
     /**
      * Hide constructor as util class.
      */
@@ -49,11 +54,10 @@ public class PropertyFactory {
         if (pType == null)
             throw new IllegalArgumentException("Type (param#1) is expected to create property");
 
-        AbstractProperty<?> ap = new Property(pName, pValue);
+        AbstractProperty<?> ap = null;
         try {
             // Construction by dedicated constructor with introspection
-            Constructor<?> constr = Class.forName(pType).getConstructor(String.class, String.class);
-            ap = (AbstractProperty<?>) constr.newInstance(pName, pValue);
+            ap = (AbstractProperty<?>) getConstructor(pType).newInstance(pName, pValue);
         } catch (InstantiationException e) {
             throw new IllegalArgumentException("Cannot instantiate '" + pType + "' check default constructor : " + e.getMessage(), e);
         } catch (IllegalAccessException e) {
@@ -89,4 +93,25 @@ public class PropertyFactory {
         }
         return ap;
     }
+
+    /**
+     * Retrieve constructor (name, value) of a property type, looking up the class only on first call.
+     *
+     * @param pType
+     *            property type
+     * @return constructor
+     * @throws ClassNotFoundException
+     *             type not found within classpath
+     * @throws NoSuchMethodException
+     *             type does not have the expected constructor
+     */
+    private static Constructor<?> getConstructor(String pType) throws ClassNotFoundException, NoSuchMethodException {
+        Constructor<?> constr = CONSTRUCTORS.get(pType);
+        if (constr == null) {
+            constr = Class.forName(pType).getConstructor(String.class, String.class);
+            CONSTRUCTORS.putIfAbsent(pType, constr);
+        }
+        return constr;
+    }
+
 }
@@ -1,11 +1,14 @@
 package org.ff4j.property.store;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
 import org.ff4j.conf.XmlConfiguration;
 import org.ff4j.conf.XmlParser;
+import org.ff4j.exception.PropertyAlreadyExistException;
+import org.ff4j.exception.PropertyNotFoundException;
 import org.ff4j.property.AbstractProperty;
 
 /*
@@ -42,6 +45,26 @@ public abstract class AbstractPropertyStore implements PropertyStore {
      *      xml configuration file
      */
     public  Map<String, AbstractProperty<?>> importPropertiesFromXmlFile(String xmlConfFile) {
+        Map<String, AbstractProperty<?>> properties = parseXmlFile(xmlConfFile);
+        // Override existing configuration within database
+        for (String featureName : properties.keySet()) {
+            if (exist(featureName)) {
+                delete(featureName);
+            }
+            create(properties.get(featureName));
+        }
+        return properties;
+    }
+
+    /**
+     * Read properties from XML Configuration File, without altering the store.
+     *
+     * @param xmlConfFile
+     *      xml configuration file
+     * @return
+     *      properties defined in file
+     */
+    protected Map<String, AbstractProperty<?>> parseXmlFile(String xmlConfFile) {
         // Argument validation
         if (xmlConfFile == null || xmlConfFile.isEmpty()) {
             throw new IllegalArgumentException("Configuration filename cannot be null nor empty");
@@ -53,16 +76,62 @@ public abstract class AbstractPropertyStore implements PropertyStore {
         }
         // Use the Feature Parser
         XmlConfiguration conf = new XmlParser().parseConfigurationFile(xmlIS);
-        Map<String, AbstractProperty<?>> properties = conf.getProperties();
+        return conf.getProperties();
+    }
 
-        // Override existing configuration within database
-        for (String featureName : properties.keySet()) {
-            if (exist(featureName)) {
-                delete(featureName);
+    /**
+     * Create properties one by one, after checking that none of them exists. Stores able to send several statements at once
+     * should override.
+     *
+     * @param properties
+     *      properties to create
+     */
+    public void createAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        for (AbstractProperty<?> ap : properties) {
+            if (exist(ap.getName())) {
+                throw new PropertyAlreadyExistException(ap.getName());
+            }
+        }
+        for (AbstractProperty<?> ap : properties) {
+            create(ap);
+        }
+    }
+
+    /**
+     * Update properties one by one, after checking that all of them exist. Stores able to send several statements at once
+     * should override.
+     *
+     * @param properties
+     *      new values of properties
+     */
+    public void updateAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        for (AbstractProperty<?> ap : properties) {
+            if (!exist(ap.getName())) {
+                throw new PropertyNotFoundException(ap.getName());
+            }
+        }
+        for (AbstractProperty<?> ap : properties) {
+            update(ap);
+        }
+    }
+
+    /**
+     * Validate parameter of bulk operations.
+     *
+     * @param properties
+     *      properties to write
+     */
+    protected void assertProperties(Collection<AbstractProperty<?>> properties) {
+        if (properties == null) {
+            throw new IllegalArgumentException("Properties cannot be null");
+        }
+        for (AbstractProperty<?> ap : properties) {
+            if (ap == null || ap.getName() == null || ap.getName().isEmpty()) {
+                throw new IllegalArgumentException("Property cannot be null nor have empty name");
             }
-            create(properties.get(featureName));
         }
-        return properties;
     }
     
     /** {@inheritDoc} */
@@ -32,4 +32,45 @@ public class JdbcPropertyMapper implements JdbcStoreConstants {
         return PropertyFactory.createProperty(propertyName, propertyType, propertyValue, description, fixedValues);
     }
     
+    /**
+     * Parameters of {@link #SQL_PROPERTY_CREATE}.
+     *
+     * @param ap
+     *      target property
+     * @return
+     *      name, type, value, description and fixed values
+     */
+    public String[] mapCreateParams(AbstractProperty<?> ap) {
+        return new String[] {ap.getName(), ap.getType(), ap.asString(), ap.getDescription(), mapFixedValues(ap)};
+    }
+    
+    /**
+     * Parameters of {@link #SQL_PROPERTY_UPDATE_FULL}.
+     *
+     * @param ap
+     *      target property
+     * @return
+     *      type, value, description, fixed values and name
+     */
+    public String[] mapUpdateParams(AbstractProperty<?> ap) {
+        return new String[] {ap.getType(), ap.asString(), ap.getDescription(), mapFixedValues(ap), ap.getName()};
+    }
+    
+    /**
+     * Column FIXEDVALUES of a property.
+     *
+     * @param ap
+     *      target property
+     * @return
+     *      fixed values separated by comma, null if none
+     */
+    private String mapFixedValues(AbstractProperty<?> ap) {
+        if (ap.getFixedValues() == null || ap.getFixedValues().isEmpty()) {
+            return null;
+        }
+        String fixedValues = ap.getFixedValues().toString();
+        return fixedValues.substring(1, fixedValues.length() - 1);
+    }
+    
+
 }
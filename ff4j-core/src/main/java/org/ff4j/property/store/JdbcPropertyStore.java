@@ -1,11 +1,22 @@
 package org.ff4j.property.store;
 
+import static org.ff4j.utils.JdbcUtils.buildStatement;
+import static org.ff4j.utils.JdbcUtils.closeConnection;
+import static org.ff4j.utils.JdbcUtils.closeResultSet;
+import static org.ff4j.utils.JdbcUtils.closeStatement;
+import static org.ff4j.utils.JdbcUtils.rollback;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -49,6 +60,12 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     /** Mapper. */
     private JdbcPropertyMapper JDBC_MAPPER = new JdbcPropertyMapper();
 
+    /** Number of rows fetched per round trip when loading all properties. */
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /** Number of statements sent per JDBC batch when writing many properties. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     /**
      * Constructor from DataSource.
      * 
@@ -74,20 +91,14 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     @Override
     public boolean exist(String name) {
         Util.assertHasLength(name);
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        Connection sqlConn = null;
         try {
-            ps = buildStatement(SQL_PROPERTY_EXIST, name);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return 1 == rs.getInt(1);
-            }
-            return false;
+            sqlConn = getDataSource().getConnection();
+            return exist(sqlConn, name);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
+            closeConnection(sqlConn);
         }
     }
 
@@ -97,53 +108,32 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
         if (ap == null) {
             throw new IllegalArgumentException("Property cannot be null nor empty");
         }
-        if (exist(ap.getName())) {
-            throw new PropertyAlreadyExistException(ap.getName());
-        }
-        PreparedStatement ps = null;
+        Connection sqlConn = null;
         try {
-            Connection sqlConn = getDataSource().getConnection();
-            ps = sqlConn.prepareStatement(SQL_PROPERTY_CREATE);
-            ps.setString(1, ap.getName());
-            ps.setString(2, ap.getType());
-            ps.setString(3, ap.asString());
-            ps.setString(4, ap.getDescription());
-            if (ap.getFixedValues() != null && ap.getFixedValues().size() > 0) {
-                String fixedValues = ap.getFixedValues().toString();
-                ps.setString(5, fixedValues.substring(1, fixedValues.length() - 1));
-            } else {
-                ps.setString(5, null);
+            sqlConn = getDataSource().getConnection();
+            if (exist(sqlConn, ap.getName())) {
+                throw new PropertyAlreadyExistException(ap.getName());
             }
-            ps.executeUpdate();
+            executeUpdate(sqlConn, SQL_PROPERTY_CREATE, JDBC_MAPPER.mapCreateParams(ap));
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot update properties database, SQL ERROR", sqlEX);
         } finally {
-            // Connection is closed alse here within clos statement
-            closeStatement(ps);
+            closeConnection(sqlConn);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public AbstractProperty<?> read(String name) {
-        PreparedStatement ps = null;
-        ResultSet rs = null;
         Util.assertHasLength(name);
-        
+        Connection sqlConn = null;
         try {
-            // Returns features
-            ps = buildStatement(SQL_PROPERTY_READ, name);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return JDBC_MAPPER.map(rs);
-            } else {
-                throw new PropertyNotFoundException(name);
-            }
+            sqlConn = getDataSource().getConnection();
+            return read(sqlConn, name);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check property existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
+            closeConnection(sqlConn);
         }
     }
 
@@ -151,21 +141,17 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     @Override
     public void update(String name, String newValue) {
         Util.assertHasLength(name);
-        if (!exist(name)) {
-            throw new PropertyNotFoundException(name);
-        }
-        // Update
-        AbstractProperty<?> current = read(name);
-        current.setValueFromString(newValue);
-        //
-        PreparedStatement ps = null;
+        Connection sqlConn = null;
         try {
-            ps = buildStatement(SQL_PROPERTY_UPDATE, newValue, name);
-            ps.executeUpdate();
+            sqlConn = getDataSource().getConnection();
+            // Check existence and validate new value against type and fixed values
+            AbstractProperty<?> current = read(sqlConn, name);
+            current.setValueFromString(newValue);
+            executeUpdate(sqlConn, SQL_PROPERTY_UPDATE, newValue, name);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot update property database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
+            closeConnection(sqlConn);
         }
     }
 
@@ -175,10 +161,17 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
         if (prop == null || prop.getName() == null) {
             throw new IllegalArgumentException("Cannot update property, please provide property name");
         }
-        // Delete
-        delete(prop.getName());
-        // Create
-        create(prop);
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            if (0 == executeUpdate(sqlConn, SQL_PROPERTY_UPDATE_FULL, JDBC_MAPPER.mapUpdateParams(prop))) {
+                throw new PropertyNotFoundException(prop.getName());
+            }
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot update property database, SQL ERROR", sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
     }
 
     /** {@inheritDoc} */
@@ -187,17 +180,16 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Property identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(name)) {
-            throw new PropertyNotFoundException(name);
-        }
-        PreparedStatement ps = null;
+        Connection sqlConn = null;
         try {
-            ps = buildStatement(SQL_PROPERTY_DELETE,name);
-            ps.executeUpdate();
+            sqlConn = getDataSource().getConnection();
+            if (0 == executeUpdate(sqlConn, SQL_PROPERTY_DELETE, name)) {
+                throw new PropertyNotFoundException(name);
+            }
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot delete property database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
+            closeConnection(sqlConn);
         }
     }
     
@@ -205,25 +197,351 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     @Override
     public Map<String, AbstractProperty<?>> readAllProperties() {
         Map<String, AbstractProperty<?>> properties = new LinkedHashMap<String, AbstractProperty<?>>();
+        Connection sqlConn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            ps = buildStatement(SQL_PROPERTY_READ);
+            sqlConn = getDataSource().getConnection();
+            ps = sqlConn.prepareStatement(SQL_PROPERTY_READALL);
+            ps.setFetchSize(fetchSize);
             rs = ps.executeQuery();
             while (rs.next()) {
                 AbstractProperty<?> ap = JDBC_MAPPER.map(rs);
-                properties.put(ap.getName(),ap);
+                properties.put(ap.getName(), ap);
             }
-            ps.executeUpdate();
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot read properties within database, SQL ERROR", sqlEX);
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
+            closeConnection(sqlConn);
+        }
+        return properties;
+    }
+
+    /**
+     * Insert properties with JDBC batches within a single transaction, existence is checked with a single query.
+     *
+     * @param properties
+     *            properties to create
+     */
+    @Override
+    public void createAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            sqlConn.setAutoCommit(false);
+            List<String> names = new ArrayList<String>();
+            for (AbstractProperty<?> ap : properties) {
+                names.add(ap.getName());
+            }
+            Set<String> existingNames = readExistingNames(sqlConn, names);
+            List<String[]> createParams = new ArrayList<String[]>();
+            for (AbstractProperty<?> ap : properties) {
+                if (existingNames.contains(ap.getName())) {
+                    throw new PropertyAlreadyExistException(ap.getName());
+                }
+                createParams.add(JDBC_MAPPER.mapCreateParams(ap));
+            }
+            executeBatch(sqlConn, SQL_PROPERTY_CREATE, createParams);
+            sqlConn.commit();
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot create properties, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Update properties with JDBC batches within a single transaction, nothing is written if one of them does not exist.
+     *
+     * @param properties
+     *            new values of properties
+     */
+    @Override
+    public void updateAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        List<String[]> updateParams = new ArrayList<String[]>();
+        for (AbstractProperty<?> ap : properties) {
+            updateParams.add(JDBC_MAPPER.mapUpdateParams(ap));
         }
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            sqlConn.setAutoCommit(false);
+            int[] counts = executeBatch(sqlConn, SQL_PROPERTY_UPDATE_FULL, updateParams);
+            // Name is the last parameter of the update
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    String[] params = updateParams.get(i);
+                    throw new PropertyNotFoundException(params[params.length - 1]);
+                }
+            }
+            sqlConn.commit();
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot update properties, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Create or overwrite a property. The row is updated first and only inserted if the update did not match anything, there is
+     * no existence check.
+     *
+     * @param ap
+     *            property to save
+     */
+    public <T> void upsert(AbstractProperty<T> ap) {
+        if (ap == null || ap.getName() == null || ap.getName().isEmpty()) {
+            throw new IllegalArgumentException("Property cannot be null nor have empty name");
+        }
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            if (0 == executeUpdate(sqlConn, SQL_PROPERTY_UPDATE_FULL, JDBC_MAPPER.mapUpdateParams(ap))) {
+                executeUpdate(sqlConn, SQL_PROPERTY_CREATE, JDBC_MAPPER.mapCreateParams(ap));
+            }
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot save property, SQL ERROR", sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Create or overwrite several properties within a single transaction: existing names among them are read with indexed
+     * queries, then updates and inserts are sent as JDBC batches.
+     *
+     * @param properties
+     *            properties to save, last occurrence wins if a name is present twice
+     */
+    public void upsertAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        Map<String, AbstractProperty<?>> toSave = new LinkedHashMap<String, AbstractProperty<?>>();
+        for (AbstractProperty<?> ap : properties) {
+            toSave.put(ap.getName(), ap);
+        }
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            sqlConn.setAutoCommit(false);
+            Set<String> existingNames = readExistingNames(sqlConn, new ArrayList<String>(toSave.keySet()));
+            List<String[]> createParams = new ArrayList<String[]>();
+            List<String[]> updateParams = new ArrayList<String[]>();
+            for (AbstractProperty<?> ap : toSave.values()) {
+                if (existingNames.contains(ap.getName())) {
+                    updateParams.add(JDBC_MAPPER.mapUpdateParams(ap));
+                } else {
+                    createParams.add(JDBC_MAPPER.mapCreateParams(ap));
+                }
+            }
+            executeBatch(sqlConn, SQL_PROPERTY_UPDATE_FULL, updateParams);
+            executeBatch(sqlConn, SQL_PROPERTY_CREATE, createParams);
+            sqlConn.commit();
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot save properties, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Overwrite existing properties with a single transaction.
+     *
+     * @param xmlConfFile
+     *            xml configuration file
+     */
+    @Override
+    public Map<String, AbstractProperty<?>> importPropertiesFromXmlFile(String xmlConfFile) {
+        Map<String, AbstractProperty<?>> properties = parseXmlFile(xmlConfFile);
+        upsertAll(properties.values());
         return properties;
     }
 
+    /**
+     * Check existence of a property with an opened connection.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param name
+     *            target property name
+     * @return if the property exists
+     * @throws SQLException
+     *             error during reading
+     */
+    private boolean exist(Connection sqlConn, String name) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = buildStatement(sqlConn, SQL_PROPERTY_EXIST, name);
+            rs = ps.executeQuery();
+            return rs.next() && 1 == rs.getInt(1);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Read a property with an opened connection.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param name
+     *            target property name
+     * @return property
+     * @throws SQLException
+     *             error during reading
+     */
+    private AbstractProperty<?> read(Connection sqlConn, String name) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = buildStatement(sqlConn, SQL_PROPERTY_READ, name);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new PropertyNotFoundException(name);
+            }
+            return JDBC_MAPPER.map(rs);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Names of properties already stored among the given ones, with an IN clause sent by chunks: cost depends on the number of
+     * names and not on the size of the table.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param names
+     *            names to look for
+     * @return existing names
+     * @throws SQLException
+     *             error during reading
+     */
+    private Set<String> readExistingNames(Connection sqlConn, List<String> names) throws SQLException {
+        Set<String> existingNames = new HashSet<String>();
+        for (int start = 0; start < names.size(); start += MAX_IN_CLAUSE_SIZE) {
+            List<String> chunk = names.subList(start, Math.min(start + MAX_IN_CLAUSE_SIZE, names.size()));
+            StringBuilder inClause = new StringBuilder("(?");
+            for (int idx = 1; idx < chunk.size(); idx++) {
+                inClause.append(",?");
+            }
+            inClause.append(")");
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                ps = buildStatement(sqlConn, SQL_PROPERTY_NAMES + inClause, chunk.toArray(new String[chunk.size()]));
+                ps.setFetchSize(fetchSize);
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    existingNames.add(rs.getString(COL_PROPERTY_ID));
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+        }
+        return existingNames;
+    }
+
+    /**
+     * Execute a single update with an opened connection.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param query
+     *            query template
+     * @param params
+     *            current parameters
+     * @return number of rows affected
+     * @throws SQLException
+     *             error during execution
+     */
+    private int executeUpdate(Connection sqlConn, String query, String... params) throws SQLException {
+        PreparedStatement ps = null;
+        try {
+            ps = buildStatement(sqlConn, query, params);
+            return ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Execute the same statement for each set of parameters, sent by batches of {@link #getBatchSize()}.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param query
+     *            query template
+     * @param paramsList
+     *            parameters of each execution
+     * @return number of rows affected by each execution, in order
+     * @throws SQLException
+     *             error during execution
+     */
+    private int[] executeBatch(Connection sqlConn, String query, List<String[]> paramsList) throws SQLException {
+        int[] counts = new int[paramsList.size()];
+        if (paramsList.isEmpty()) {
+            return counts;
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = sqlConn.prepareStatement(query);
+            int pending = 0;
+            int offset  = 0;
+            for (String[] params : paramsList) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setString(i + 1, params[i]);
+                }
+                ps.addBatch();
+                if (++pending == batchSize) {
+                    offset = copyCounts(ps.executeBatch(), counts, offset);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                copyCounts(ps.executeBatch(), counts, offset);
+            }
+        } finally {
+            closeStatement(ps);
+        }
+        return counts;
+    }
+
+    /**
+     * Append counts of a batch to the overall counts.
+     * 
+     * @param batchCounts
+     *            counts returned by the driver
+     * @param counts
+     *            overall counts
+     * @param offset
+     *            current position in overall counts
+     * @return next position
+     */
+    private int copyCounts(int[] batchCounts, int[] counts, int offset) {
+        System.arraycopy(batchCounts, 0, counts, offset, batchCounts.length);
+        return offset + batchCounts.length;
+    }
+
     /**
      * Getter accessor for attribute 'dataSource'.
      *
@@ -242,62 +560,50 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     public void setDataSource(DataSource dataSource) {
         this.dataSource = dataSource;
     }
-    
+
     /**
-     * Build {@link PreparedStatement} from parameters
+     * Getter accessor for attribute 'fetchSize'.
      * 
-     * @param query
-     *            query template
-     * @param params
-     *            current parameters
-     * @return working {@link PreparedStatement}
-     * @throws SQLException
-     *             sql error when working with statement
+     * @return current value of 'fetchSize'
      */
-    public PreparedStatement buildStatement(String query, String... params) throws SQLException {
-        Connection sqlConn = getDataSource().getConnection();
-        PreparedStatement ps = sqlConn.prepareStatement(query);
-        if (params != null && params.length > 0) {
-            for (int i = 0; i < params.length; i++) {
-                ps.setString(i + 1, params[i]);
-            }
-        }
-        return ps;
+    public int getFetchSize() {
+        return fetchSize;
     }
-    
+
     /**
-     * Close resultset.
+     * Setter accessor for attribute 'fetchSize', number of rows fetched per round trip by readAllProperties (0 for driver
+     * default).
      * 
-     * @param rs
-     *            target resultset
+     * @param fetchSize
+     *            new value for 'fetchSize '
      */
-    private void closeResultSet(ResultSet rs) {
-        try {
-            if (rs != null) {
-                rs.close();
-            }
-        } catch (SQLException e) {
-            throw new FeatureAccessException("An error occur when closing resultset", e);
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size cannot be negative");
         }
+        this.fetchSize = fetchSize;
     }
 
     /**
-     * Utility method to close statement properly.
+     * Getter accessor for attribute 'batchSize'.
      * 
-     * @param ps
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize', number of statements sent per JDBC batch by bulk writes.
      * 
+     * @param batchSize
+     *            new value for 'batchSize '
      */
-    private void closeStatement(PreparedStatement ps) {
-        try {
-            if (ps != null && !ps.isClosed()) {
-                 if (ps.getConnection() != null && !ps.getConnection().isClosed()) {
-                     ps.getConnection().close();
-                 }
-                 ps.close();
-            }
-        } catch (SQLException e) {
-            throw new FeatureAccessException("An error occur when closing statement", e);
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
         }
+        this.batchSize = batchSize;
     }
 
 }
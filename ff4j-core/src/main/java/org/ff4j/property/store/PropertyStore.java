@@ -1,5 +1,6 @@
 package org.ff4j.property.store;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.ff4j.property.AbstractProperty;
@@ -94,5 +95,21 @@ public interface PropertyStore {
      *      all properties from store
      */
     Map<String, AbstractProperty<?> > readAllProperties();
+    
+    /**
+     * Create several properties, none of them must exist.
+     *
+     * @param properties
+     *      properties to create
+     */
+    void createAll(Collection<AbstractProperty<?>> properties);
+    
+    /**
+     * Update several properties, all of them must exist.
+     *
+     * @param properties
+     *      new values of properties
+     */
+    void updateAll(Collection<AbstractProperty<?>> properties);
 
 }
@@ -21,6 +21,8 @@ package org.ff4j.store;
  */
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -28,6 +30,8 @@ import org.ff4j.conf.XmlConfiguration;
 import org.ff4j.conf.XmlParser;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureAlreadyExistException;
+import org.ff4j.exception.FeatureNotFoundException;
 
 /**
  * SuperClass for stores.
@@ -43,6 +47,26 @@ public abstract class AbstractFeatureStore implements FeatureStore {
      *      xml configuration file
      */
     public Map < String, Feature > importFeaturesFromXmlFile(String xmlConfFile) {
+        Map < String, Feature > features = parseXmlFile(xmlConfFile);
+        // Override existing configuration within database
+        for (String featureName : features.keySet()) {
+            if (exist(featureName)) {
+                delete(featureName);
+            }
+            create(features.get(featureName));
+        }
+        return features;
+    }
+
+    /**
+     * Read features from XML Configuration File, without altering the store.
+     *
+     * @param xmlConfFile
+     *      xml configuration file
+     * @return
+     *      features defined in file
+     */
+    protected Map < String, Feature > parseXmlFile(String xmlConfFile) {
         // Argument validation
         if (xmlConfFile == null || xmlConfFile.isEmpty()) {
             throw new IllegalArgumentException("Configuration filename cannot be null nor empty");
@@ -54,19 +78,119 @@ public abstract class AbstractFeatureStore implements FeatureStore {
         }
         // Use the Feature Parser
         XmlConfiguration conf = new XmlParser().parseConfigurationFile(xmlIS);
-        Map < String, Feature > features = conf.getFeatures();
+        return conf.getFeatures();
+    }
+    
+    /**
+     * Create features one by one, after checking that none of them exists. Stores able to send several statements at once
+     * should override.
+     * 
+     * @param features
+     *            features to create
+     */
+    public void createAll(Collection<Feature> features) {
+        assertFeatures(features);
+        for (Feature fp : features) {
+            if (exist(fp.getUid())) {
+                throw new FeatureAlreadyExistException(fp.getUid());
+            }
+        }
+        for (Feature fp : features) {
+            create(fp);
+        }
+    }
 
-        // Override existing configuration within database
-        for (String featureName : features.keySet()) {
-            if (exist(featureName)) {
-                delete(featureName);
+    /**
+     * Update features one by one, after checking that all of them exist. Stores able to send several statements at once should
+     * override.
+     * 
+     * @param features
+     *            new values of features
+     */
+    public void updateAll(Collection<Feature> features) {
+        assertFeatures(features);
+        for (Feature fp : features) {
+            if (!exist(fp.getUid())) {
+                throw new FeatureNotFoundException(fp.getUid());
+            }
+        }
+        for (Feature fp : features) {
+            update(fp);
+        }
+    }
+
+    /**
+     * Read features one by one, unknown identifiers are ignored. Stores able to read several features in a single query should
+     * override.
+     * 
+     * @param featureIds
+     *            identifiers of features to read
+     * @return features found in store
+     */
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String uid : featureIds) {
+            if (exist(uid)) {
+                features.put(uid, read(uid));
             }
-            create(features.get(featureName));
         }
         return features;
     }
-    
-    
+
+    /**
+     * Delete features one by one, after checking that all of them exist. Stores able to send several statements at once should
+     * override.
+     * 
+     * @param featureIds
+     *            identifiers of features to delete
+     */
+    public void deleteAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        for (String uid : featureIds) {
+            if (!exist(uid)) {
+                throw new FeatureNotFoundException(uid);
+            }
+        }
+        for (String uid : featureIds) {
+            delete(uid);
+        }
+    }
+
+    /**
+     * Validate parameter of bulk operations.
+     * 
+     * @param features
+     *            features to write
+     */
+    protected void assertFeatures(Collection<Feature> features) {
+        if (features == null) {
+            throw new IllegalArgumentException("Features cannot be null");
+        }
+        for (Feature fp : features) {
+            if (fp == null || fp.getUid() == null || fp.getUid().isEmpty()) {
+                throw new IllegalArgumentException("Feature cannot be null nor have empty identifier");
+            }
+        }
+    }
+
+    /**
+     * Validate parameter of bulk operations.
+     * 
+     * @param featureIds
+     *            target feature identifiers
+     */
+    protected void assertFeatureIds(Collection<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers cannot be null");
+        }
+        for (String uid : featureIds) {
+            if (uid == null || uid.isEmpty()) {
+                throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     public String toJson() {
         StringBuilder sb = new StringBuilder("{");
@@ -0,0 +1,133 @@
+package org.ff4j.store;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+
+/**
+ * Features created, modified or deleted between two versions of a store. A client keeping a local copy applies the changes then
+ * polls again with {@link #getToVersion()}.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChanges implements Serializable {
+
+    /** serial. */
+    private static final long serialVersionUID = -2284160093178523307L;
+
+    /** Version given by the client (excluded). */
+    private final long fromVersion;
+
+    /** Version of the store when changes have been read (included). */
+    private final long toVersion;
+
+    /** Features created or modified, with their roles and custom properties. */
+    private final Map<String, Feature> updatedFeatures;
+
+    /** Identifiers of deleted features. */
+    private final Set<String> deletedFeatures;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param fromVersion
+     *            version given by the client
+     * @param toVersion
+     *            version of the store
+     * @param updatedFeatures
+     *            features created or modified
+     * @param deletedFeatures
+     *            identifiers of deleted features
+     */
+    public FeatureChanges(long fromVersion, long toVersion, Map<String, Feature> updatedFeatures, Set<String> deletedFeatures) {
+        this.fromVersion     = fromVersion;
+        this.toVersion       = toVersion;
+        this.updatedFeatures = updatedFeatures;
+        this.deletedFeatures = deletedFeatures;
+    }
+
+    /**
+     * Check if something changed.
+     *
+     * @return true if no feature has been modified nor deleted
+     */
+    public boolean isEmpty() {
+        return updatedFeatures.isEmpty() && deletedFeatures.isEmpty();
+    }
+
+    /**
+     * Apply changes to a local copy of the features.
+     *
+     * @param features
+     *            local copy to update
+     */
+    public void applyTo(Map<String, Feature> features) {
+        for (String uid : deletedFeatures) {
+            features.remove(uid);
+        }
+        features.putAll(updatedFeatures);
+    }
+
+    /**
+     * Getter accessor for attribute 'fromVersion'.
+     *
+     * @return
+     *       current value of 'fromVersion'
+     */
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    /**
+     * Getter accessor for attribute 'toVersion'.
+     *
+     * @return
+     *       current value of 'toVersion'
+     */
+    public long getToVersion() {
+        return toVersion;
+    }
+
+    /**
+     * Getter accessor for attribute 'updatedFeatures'.
+     *
+     * @return
+     *       current value of 'updatedFeatures'
+     */
+    public Map<String, Feature> getUpdatedFeatures() {
+        return updatedFeatures;
+    }
+
+    /**
+     * Getter accessor for attribute 'deletedFeatures'.
+     *
+     * @return
+     *       current value of 'deletedFeatures'
+     */
+    public Set<String> getDeletedFeatures() {
+        return deletedFeatures;
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.ff4j.store;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+
+/**
+ * Figures of a bulk import of features: number of features created and replaced, roles and custom properties written, time spent.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureImportReport implements Serializable {
+
+    /** serial. */
+    private static final long serialVersionUID = 6120361843570412211L;
+
+    /** Features which did not exist. */
+    private final int createdCount;
+
+    /** Features which existed and have been overwritten. */
+    private final int updatedCount;
+
+    /** Roles written. */
+    private final int roleCount;
+
+    /** Custom properties written. */
+    private final int propertyCount;
+
+    /** Time spent in milliseconds. */
+    private final long duration;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param createdCount
+     *            features created
+     * @param updatedCount
+     *            features overwritten
+     * @param roleCount
+     *            roles written
+     * @param propertyCount
+     *            custom properties written
+     * @param duration
+     *            time spent in milliseconds
+     */
+    public FeatureImportReport(int createdCount, int updatedCount, int roleCount, int propertyCount, long duration) {
+        this.createdCount  = createdCount;
+        this.updatedCount  = updatedCount;
+        this.roleCount     = roleCount;
+        this.propertyCount = propertyCount;
+        this.duration      = duration;
+    }
+
+    /**
+     * Number of imported features.
+     *
+     * @return created plus updated features
+     */
+    public int getFeatureCount() {
+        return createdCount + updatedCount;
+    }
+
+    /**
+     * Serialized as a JSON String.
+     *
+     * @return json expression
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"createdCount\":" + createdCount);
+        sb.append(",\"updatedCount\":" + updatedCount);
+        sb.append(",\"roleCount\":" + roleCount);
+        sb.append(",\"propertyCount\":" + propertyCount);
+        sb.append(",\"duration\":" + duration);
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Getter accessor for attribute 'createdCount'.
+     *
+     * @return
+     *       current value of 'createdCount'
+     */
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'updatedCount'.
+     *
+     * @return
+     *       current value of 'updatedCount'
+     */
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'roleCount'.
+     *
+     * @return
+     *       current value of 'roleCount'
+     */
+    public int getRoleCount() {
+        return roleCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'propertyCount'.
+     *
+     * @return
+     *       current value of 'propertyCount'
+     */
+    public int getPropertyCount() {
+        return propertyCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'duration'.
+     *
+     * @return
+     *       current value of 'duration' in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+}
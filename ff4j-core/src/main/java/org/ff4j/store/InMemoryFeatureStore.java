@@ -12,6 +12,7 @@ package org.ff4j.store;
  */
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -363,6 +364,20 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
         return featuresMap;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String uid : featureIds) {
+            Feature feature = featuresMap.get(uid);
+            if (feature != null) {
+                features.put(uid, feature);
+            }
+        }
+        return features;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -20,12 +20,15 @@ package org.ff4j.store;
  * #L%
  */
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingStrategy;
 import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.PropertyFactory;
 import org.ff4j.utils.ParameterUtils;
 
 /**
@@ -68,5 +71,112 @@ public class JdbcFeatureMapper implements JdbcStoreConstants {
         return f;
     }
 
+    /**
+     * Enrich feature with role and custom property of a row joining FF4J_FEATURES, FF4J_ROLES and FF4J_CUSTOM_PROPERTIES. As a
+     * feature spans several rows, values already mapped are skipped.
+     * 
+     * @param f
+     *            feature mapped from first row
+     * @param rs
+     *            current resultSet
+     * @throws SQLException
+     *             error accured when parsing resultSet
+     */
+    public void mapJoinedRow(Feature f, ResultSet rs) throws SQLException {
+        String role = rs.getString(COL_ROLE_ROLENAME);
+        if (role != null) {
+            f.getPermissions().add(role);
+        }
+        String propertyName = rs.getString(COL_PROPERTY_ID);
+        if (propertyName != null && !f.getCustomProperties().containsKey(propertyName)) {
+            AbstractProperty<?> ap = PropertyFactory.createProperty(propertyName, 
+                    rs.getString(COL_PROPERTY_TYPE), 
+                    rs.getString(COL_PROPERTY_VALUE), 
+                    rs.getString(COL_JOIN_PROPERTY_DESCRIPTION), 
+                    rs.getString(COL_PROPERTY_FIXED));
+            f.getCustomProperties().put(ap.getName(), ap);
+        }
+    }
+
+    /**
+     * Parameters of {@link JdbcStoreConstants#SQL_CREATE} for a feature.
+     * 
+     * @param fp
+     *            target feature
+     * @param version
+     *            change version given to the row
+     * @return version, uid, enable, description, strategy, expression, group
+     */
+    public Object[] mapCreateParams(Feature fp, long version) {
+        String[] strategy = mapStrategyColumns(fp);
+        return new Object[] {version, fp.getUid(), fp.isEnable() ? "1" : "0", fp.getDescription(), strategy[0], strategy[1], fp.getGroup()};
+    }
+
+    /**
+     * Parameters of {@link JdbcStoreConstants#SQL_UPDATE} for a feature.
+     * 
+     * @param fp
+     *            target feature
+     * @param version
+     *            change version given to the row
+     * @return version, enable, description, strategy, expression, group, uid
+     */
+    public Object[] mapUpdateParams(Feature fp, long version) {
+        String[] strategy = mapStrategyColumns(fp);
+        return new Object[] {version, fp.isEnable() ? "1" : "0", fp.getDescription(), strategy[0], strategy[1], fp.getGroup(), fp.getUid()};
+    }
+
+    /**
+     * Parameters of {@link JdbcStoreConstants#SQL_CREATE_CUSTOMPROPERTY} for a custom property.
+     * 
+     * @param uid
+     *            feature identifier
+     * @param pp
+     *            custom property
+     * @return name, type, value, fixed values, uid
+     */
+    public String[] mapCustomPropertyParams(String uid, AbstractProperty<?> pp) {
+        String fixedValues = null;
+        if (pp.getFixedValues() != null && pp.getFixedValues().size() > 0) {
+            fixedValues = pp.getFixedValues().toString();
+            fixedValues = fixedValues.substring(1, fixedValues.length() - 1);
+        }
+        return new String[] {pp.getName(), pp.getType(), pp.asString(), fixedValues, uid};
+    }
+
+    /**
+     * Columns STRATEGY and EXPRESSION of a feature.
+     * 
+     * @param fp
+     *            target feature
+     * @return strategy class name and serialized init parameters, null if no strategy
+     */
+    private String[] mapStrategyColumns(Feature fp) {
+        if (fp.getFlippingStrategy() == null) {
+            return new String[] {null, null};
+        }
+        return new String[] {fp.getFlippingStrategy().getClass().getCanonicalName(), 
+                ParameterUtils.fromMap(fp.getFlippingStrategy().getInitParams())};
+    }
+
+    /**
+     * Bind statement parameters, versions are BIGINT columns and bound as long, other values as strings.
+     * 
+     * @param ps
+     *            target statement
+     * @param params
+     *            parameters built by this mapper
+     * @throws SQLException
+     *             error when binding
+     */
+    public void bindParams(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            if (params[i] instanceof Long) {
+                ps.setLong(i + 1, (Long) params[i]);
+            } else {
+                ps.setString(i + 1, (String) params[i]);
+            }
+        }
+    }
 
 }
@@ -20,9 +20,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +32,7 @@ import javax.sql.DataSource;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.core.VersionedFeatureStore;
 import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.exception.FeatureAlreadyExistException;
 import org.ff4j.exception.FeatureNotFoundException;
@@ -39,12 +42,20 @@ import org.ff4j.property.store.JdbcPropertyMapper;
 import org.ff4j.utils.ParameterUtils;
 import org.ff4j.utils.Util;
 
-;/**
+/**
  * Implementation of {@link FeatureStore} to work with RDBMS through JDBC.
  * 
+ * Each operation borrows a single connection: a feature is read with its roles and custom properties in one query and updates
+ * rely on the number of affected rows instead of a preliminary existence check. Statement caching across operations is left to
+ * the connection pool (for instance 'poolPreparedStatements' or 'cachePrepStmts' settings).
+ * 
+ * Every write takes a new version from the FF4J_VERSION counter within its transaction and stamps the modified features with it,
+ * deleted features leave a tombstone. Clients keeping a local copy poll {@link #readChangesSince(long)} instead of readAll().
+ * Schemas created before versions were introduced are upgraded with 'schema-upgrade-version.sql'.
+ * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
-public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStoreConstants {
+public class JdbcFeatureStore extends AbstractFeatureStore implements VersionedFeatureStore, JdbcStoreConstants {
 
     /** Access to storage. */
     private DataSource dataSource;
@@ -55,6 +66,12 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
     /** Mapper. */
     private JdbcFeatureMapper JDBC_FEATURE_MAPPER = new JdbcFeatureMapper();
 
+    /** Number of rows fetched per round trip when loading many features. */
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /** Number of statements sent per JDBC batch when writing many features. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     /** Default Constructor. */
     public JdbcFeatureStore() {}
 
@@ -85,10 +102,10 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        // No row updated means no feature
+        if (0 == updateVersioned(SQL_ENABLE, uid)) {
             throw new FeatureNotFoundException(uid);
         }
-        update(SQL_ENABLE, uid);
     }
 
     /** {@inheritDoc} */
@@ -97,10 +114,9 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        if (0 == updateVersioned(SQL_DISABLE, uid)) {
             throw new FeatureNotFoundException(uid);
         }
-        update(SQL_DISABLE, uid);
     }
 
     /** {@inheritDoc} */
@@ -109,28 +125,13 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        Connection          sqlConn = null;
-        PreparedStatement   ps = null;
-        ResultSet           rs = null;
+        Connection sqlConn = null;
         try {
-            // Pick connection
             sqlConn = getDataSource().getConnection();
-            
-            // Query Exist
-            ps = sqlConn.prepareStatement(SQL_EXIST);
-            ps.setString(1, uid);
-            
-            // Execute
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return 1 == rs.getInt(1);
-            }
-            return false;
+            return exist(sqlConn, uid);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
             closeConnection(sqlConn);
         }
     }
@@ -141,47 +142,17 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        
-        Connection          sqlConn = null;
-        PreparedStatement   ps = null;
-        ResultSet           rs = null;
+        Connection sqlConn = null;
         try {
-            // Pick connection
             sqlConn = getDataSource().getConnection();
-            
-            // Read a feature by its ID (tables FEATURES)
-            ps = sqlConn.prepareStatement(SQLQUERY_GET_FEATURE_BY_ID);
-            ps.setString(1, uid);
-            rs = ps.executeQuery();
-            Feature f = null;
-            if (rs.next()) {
-                f = JDBC_FEATURE_MAPPER.mapFeature(rs);
-            } else {
+            Feature f = read(sqlConn, uid);
+            if (f == null) {
                 throw new FeatureNotFoundException(uid);
             }
-
-            // Enrich to get roles 2nd request
-            ps = sqlConn.prepareStatement(SQL_GET_ROLES);
-            ps.setString(1, uid);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                f.getPermissions().add(rs.getString("ROLE_NAME"));
-            }
-            
-            // Enrich with properties 3d request to get custom properties by uid
-            ps = sqlConn.prepareStatement(SQL_GET_CUSTOMPROPERTIES_BYFEATUREID);
-            ps.setString(1, uid);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                AbstractProperty<?> ap = JDBC_PROPERTY_MAPPER.map(rs);
-                f.getCustomProperties().put(ap.getName(), ap);
-            }
             return f;
         } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+            throw new FeatureAccessException("Cannot read feature, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
             closeConnection(sqlConn);
         }
     }
@@ -192,62 +163,42 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
-        }
         Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
         PreparedStatement ps = null;
         try {
-
             // Create connection
             sqlConn = getDataSource().getConnection();
+            if (exist(sqlConn, fp.getUid())) {
+                throw new FeatureAlreadyExistException(fp.getUid());
+            }
             
             // Begin TX
+            previousAutoCommit = sqlConn.getAutoCommit();
             sqlConn.setAutoCommit(false);
+            long version = nextVersion(sqlConn);
 
-            // Create feature
+            // Create feature, a previous deletion is forgotten
             ps = sqlConn.prepareStatement(SQL_CREATE);
-            ps.setString(1, fp.getUid());
-            ps.setInt(2, fp.isEnable() ? 1 : 0);
-            ps.setString(3, fp.getDescription());
+            ps.setLong(1, version);
+            ps.setString(2, fp.getUid());
+            ps.setInt(3, fp.isEnable() ? 1 : 0);
+            ps.setString(4, fp.getDescription());
             String strategyColumn = null;
             String expressionColumn = null;
             if (fp.getFlippingStrategy() != null) {
                 strategyColumn   = fp.getFlippingStrategy().getClass().getCanonicalName();
                 expressionColumn = ParameterUtils.fromMap(fp.getFlippingStrategy().getInitParams());
             }
-            ps.setString(4, strategyColumn);
-            ps.setString(5, expressionColumn);
-            ps.setString(6, fp.getGroup());
+            ps.setString(5, strategyColumn);
+            ps.setString(6, expressionColumn);
+            ps.setString(7, fp.getGroup());
             ps.executeUpdate();
+            executeUpdate(sqlConn, SQL_TOMBSTONE_DELETE, fp.getUid());
 
-            // Create roles
-            if (fp.getPermissions() != null) {
-                for (String role : fp.getPermissions()) {
-                    ps = sqlConn.prepareStatement(SQL_ADD_ROLE);
-                    ps.setString(1, fp.getUid());
-                    ps.setString(2, role);
-                    ps.executeUpdate();
-                }
-            }
-            
-            // Create customproperties
-            if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-                for (AbstractProperty<?> pp : fp.getCustomProperties().values()) {
-                    ps = sqlConn.prepareStatement(SQL_CREATE_CUSTOMPROPERTY);
-                    ps.setString(1, pp.getName());
-                    ps.setString(2, pp.getType());
-                    ps.setString(3, pp.asString());
-                    if (pp.getFixedValues() != null && pp.getFixedValues().size() > 0) {
-                        String fixedValues = pp.getFixedValues().toString();
-                        ps.setString(4, fixedValues.substring(1, fixedValues.length() - 1));
-                    } else {
-                        ps.setString(4, null);
-                    }
-                    ps.setString(5, fp.getUid());
-                    ps.executeUpdate();
-                }
-            }
+            // Create roles and custom properties
+            createRoles(sqlConn, fp.getUid(), fp.getPermissions());
+            createCustomProperties(sqlConn, fp.getUid(), fp.getCustomProperties());
 
             // Commit
             sqlConn.commit();
@@ -255,9 +206,12 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         } catch (SQLException sqlEX) {
             rollback(sqlConn);
             throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
         } finally {
             closeStatement(ps);
-            closeConnection(sqlConn);
+            closeConnection(sqlConn, previousAutoCommit);
         }
     }
 
@@ -267,42 +221,27 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
         Connection sqlConn = null;
-        PreparedStatement ps = null;
+        Boolean previousAutoCommit = null;
         try {
-            Feature fp = read(uid);
-
             // Create connection
             sqlConn = getDataSource().getConnection();
+            previousAutoCommit = sqlConn.getAutoCommit();
             sqlConn.setAutoCommit(false);
+            // Version row is locked first, as by every writer
+            long version = nextVersion(sqlConn);
             
-            // Delete Properties
-            if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-                for (String property : fp.getCustomProperties().keySet()) {
-                    ps = sqlConn.prepareStatement(SQL_DELETE_CUSTOMPROPERTY);
-                    ps.setString(1, property);
-                    ps.setString(2, fp.getUid());
-                    ps.executeUpdate();
-                }
-            }
-
-            // Delete Roles
-            if (fp.getPermissions() != null) {
-                for (String role : fp.getPermissions()) {
-                    ps = sqlConn.prepareStatement(SQL_DELETE_ROLE);
-                    ps.setString(1, fp.getUid());
-                    ps.setString(2, role);
-                    ps.executeUpdate();
-                }
+            // Delete children then feature, no row deleted means no feature
+            executeUpdate(sqlConn, SQL_DELETE_CUSTOMPROPERTIES, uid);
+            executeUpdate(sqlConn, SQL_DELETE_ROLES, uid);
+            if (0 == executeUpdate(sqlConn, SQL_DELETE, uid)) {
+                rollback(sqlConn);
+                throw new FeatureNotFoundException(uid);
             }
-
-            // Delete Feature
-            ps = sqlConn.prepareStatement(SQL_DELETE);
-            ps.setString(1, fp.getUid());
-            ps.executeUpdate();
+            
+            // Tombstone for clients synchronizing with versions
+            executeUpdate(sqlConn, SQL_TOMBSTONE_DELETE, uid);
+            executeUpdate(sqlConn, SQL_TOMBSTONE_CREATE, version, uid);
 
             // Commit
             sqlConn.commit();
@@ -310,12 +249,107 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         } catch (SQLException sqlEX) {
             rollback(sqlConn);
             throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
         } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            closeConnection(sqlConn, previousAutoCommit);
         }
     }
   
+    /**
+     * Initialize store from XML Configuration File with a single batched transaction, see {@link #importFeatures(Collection)}.
+     *
+     * @param xmlConfFile
+     *      xml configuration file
+     */
+    @Override
+    public Map<String, Feature> importFeaturesFromXmlFile(String xmlConfFile) {
+        Map<String, Feature> features = parseXmlFile(xmlConfFile);
+        importFeatures(features.values());
+        return features;
+    }
+
+    /**
+     * Upsert features with their roles and custom properties using JDBC batches in a single transaction. Existing features are
+     * overwritten.
+     * 
+     * @param features
+     *            features to import
+     * @return counts and time spent
+     */
+    public FeatureImportReport importFeatures(Collection<Feature> features) {
+        if (features == null) {
+            throw new IllegalArgumentException("Features to import cannot be null");
+        }
+        long start = System.currentTimeMillis();
+        // Last occurence wins if an identifier is present twice
+        Map<String, Feature> toImport = new LinkedHashMap<String, Feature>();
+        for (Feature fp : features) {
+            if (fp == null || fp.getUid() == null || fp.getUid().isEmpty()) {
+                throw new IllegalArgumentException("Feature to import cannot be null nor have empty identifier");
+            }
+            toImport.put(fp.getUid(), fp);
+        }
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
+            
+            // Split between creations and updates with a single query
+            long version = nextVersion(sqlConn);
+            Set<String> existingUids = readAllUids(sqlConn);
+            List<Object[]> createParams   = new ArrayList<Object[]>();
+            List<Object[]> updateParams   = new ArrayList<Object[]>();
+            List<String[]> updatedUids    = new ArrayList<String[]>();
+            List<String[]> createdUids    = new ArrayList<String[]>();
+            List<String[]> roleParams     = new ArrayList<String[]>();
+            List<String[]> propertyParams = new ArrayList<String[]>();
+            for (Feature fp : toImport.values()) {
+                if (existingUids.contains(fp.getUid())) {
+                    updateParams.add(JDBC_FEATURE_MAPPER.mapUpdateParams(fp, version));
+                    updatedUids.add(new String[] {fp.getUid()});
+                } else {
+                    createParams.add(JDBC_FEATURE_MAPPER.mapCreateParams(fp, version));
+                    createdUids.add(new String[] {fp.getUid()});
+                }
+                if (fp.getPermissions() != null) {
+                    for (String role : fp.getPermissions()) {
+                        roleParams.add(new String[] {fp.getUid(), role});
+                    }
+                }
+                if (fp.getCustomProperties() != null) {
+                    for (AbstractProperty<?> pp : fp.getCustomProperties().values()) {
+                        propertyParams.add(JDBC_FEATURE_MAPPER.mapCustomPropertyParams(fp.getUid(), pp));
+                    }
+                }
+            }
+            
+            // Overwritten features lose their roles and properties
+            executeBatch(sqlConn, SQL_DELETE_CUSTOMPROPERTIES, updatedUids);
+            executeBatch(sqlConn, SQL_DELETE_ROLES, updatedUids);
+            executeBatch(sqlConn, SQL_UPDATE, updateParams);
+            executeBatch(sqlConn, SQL_CREATE, createParams);
+            executeBatch(sqlConn, SQL_TOMBSTONE_DELETE, createdUids);
+            executeBatch(sqlConn, SQL_ADD_ROLE, roleParams);
+            executeBatch(sqlConn, SQL_CREATE_CUSTOMPROPERTY, propertyParams);
+            sqlConn.commit();
+            
+            return new FeatureImportReport(createParams.size(), updateParams.size(), 
+                    roleParams.size(), propertyParams.size(), System.currentTimeMillis() - start);
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot import features, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn, previousAutoCommit);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void grantRoleOnFeature(String uid, String roleName) {
@@ -325,10 +359,28 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
+            // Feature is stamped first, no row updated means no feature
+            if (0 == executeUpdate(sqlConn, SQL_TOUCH, nextVersion(sqlConn), uid)) {
+                rollback(sqlConn);
+                throw new FeatureNotFoundException(uid);
+            }
+            executeUpdate(sqlConn, SQL_ADD_ROLE, uid, roleName);
+            sqlConn.commit();
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn, previousAutoCommit);
         }
-        update(SQL_ADD_ROLE, uid, roleName);
     }
 
     /** {@inheritDoc} */
@@ -340,39 +392,119 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
+            if (0 == executeUpdate(sqlConn, SQL_TOUCH, nextVersion(sqlConn), uid)) {
+                rollback(sqlConn);
+                throw new FeatureNotFoundException(uid);
+            }
+            executeUpdate(sqlConn, SQL_DELETE_ROLE, uid, roleName);
+            sqlConn.commit();
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn, previousAutoCommit);
         }
-        update(SQL_DELETE_ROLE, uid, roleName);
     }
     
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            return readBulk(sqlConn, SQLQUERY_ALLFEATURES, SQL_GET_ALLROLES, SQL_GET_ALLCUSTOMPROPERTIES);
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot read features, error related to database", sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        List<String> uids = new ArrayList<String>(new HashSet<String>(featureIds));
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            // Same three queries as readAll, restricted with an IN clause sent by chunks
+            for (int start = 0; start < uids.size(); start += MAX_IN_CLAUSE_SIZE) {
+                List<String> chunk = uids.subList(start, Math.min(start + MAX_IN_CLAUSE_SIZE, uids.size()));
+                StringBuilder where = new StringBuilder(" WHERE FEAT_UID IN (?");
+                for (int idx = 1; idx < chunk.size(); idx++) {
+                    where.append(",?");
+                }
+                where.append(")");
+                mapFP.putAll(readBulk(sqlConn, SQLQUERY_ALLFEATURES + where, SQL_GET_ALLROLES + where, 
+                        SQL_GET_ALLCUSTOMPROPERTIES + where, chunk.toArray()));
+            }
+            return mapFP;
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot read features, error related to database", sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getCurrentVersion() {
+        Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            return readVersion(sqlConn);
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot read version, error related to database", sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Read features created, modified or deleted after a version with indexed range queries. As a version is taken under the
+     * lock of the counter row, versions lower or equal to the returned {@link FeatureChanges#getToVersion()} are all committed
+     * and a client polling with this value does not miss any change.
+     * 
+     * @param version
+     *            last version known by the client, 0 for every feature
+     * @return changes since this version
+     */
+    @Override
+    public FeatureChanges readChangesSince(long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
         Connection sqlConn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQLQUERY_ALLFEATURES);
+            sqlConn = getDataSource().getConnection();
+            long current = readVersion(sqlConn);
+            // Seeded or upgraded rows have version 0, a first synchronization must return them
+            long after = (version == 0) ? -1 : version;
+            Map<String, Feature> updated = readBulk(sqlConn, SQLQUERY_FEATURES_CHANGES, 
+                    SQL_GET_ROLES_CHANGES, SQL_GET_CUSTOMPROPERTIES_CHANGES, after, current);
+            // Tombstones
+            Set<String> deleted = new HashSet<String>();
+            ps = buildBulkStatement(sqlConn, SQL_TOMBSTONE_CHANGES, after, current);
             rs = ps.executeQuery();
             while (rs.next()) {
-                Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
-                mapFP.put(f.getUid(), f);
-            }
-
-            // Returns Roles
-            rs = ps.getConnection().prepareStatement(SQL_GET_ALLROLES).executeQuery();
-            while (rs.next()) {
-                String uid = rs.getString(COL_ROLE_FEATID);
-                mapFP.get(uid).getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                deleted.add(rs.getString(COL_FEAT_UID));
             }
-            return mapFP;
-
+            return new FeatureChanges(version, current, updated, deleted);
         } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+            throw new FeatureAccessException("Cannot read changes, error related to database", sqlEX);
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
@@ -389,8 +521,9 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         ResultSet rs = null;
         try {
             // Returns features
-            sqlConn = dataSource.getConnection();
+            sqlConn = getDataSource().getConnection();
             ps = sqlConn.prepareStatement(SQLQUERY_ALLGROUPS);
+            ps.setFetchSize(fetchSize);
             rs = ps.executeQuery();
             while (rs.next()) {
                 String groupName = rs.getString(COL_FEAT_GROUPNAME);
@@ -411,91 +544,348 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
-        /**
-         * TODO : THIS OPERATION IS NOT PERFORMED IN A SINGLE TX but leverage on sub method
-         * Create a single Connect and COMMIT at end
-         */
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        Feature fpExist = read(fp.getUid());
-        String enable = "0";
-        if (fp.isEnable()) {
-            enable = "1";
-        }
         String fStrategy = null;
         String fExpression = null;
         if (fp.getFlippingStrategy() != null) {
             fStrategy = fp.getFlippingStrategy().getClass().getCanonicalName();
             fExpression = ParameterUtils.fromMap(fp.getFlippingStrategy().getInitParams());
         }
-        update(SQL_UPDATE, enable, fp.getDescription(), fStrategy, fExpression, fp.getGroup(), fp.getUid());
-
-        // ROLES
-        
-        // To be deleted (not in new value but was at first)
-        Set<String> toBeDeleted = new HashSet<String>();
-        toBeDeleted.addAll(fpExist.getPermissions());
-        toBeDeleted.removeAll(fp.getPermissions());
-        for (String roleToBeDelete : toBeDeleted) {
-            removeRoleFromFeature(fpExist.getUid(), roleToBeDelete);
-        }
-
-        // To be created : in second but not in first
-        Set<String> toBeAdded = new HashSet<String>();
-        toBeAdded.addAll(fp.getPermissions());
-        toBeAdded.removeAll(fpExist.getPermissions());
-        for (String addee : toBeAdded) {
-            grantRoleOnFeature(fpExist.getUid(), addee);
-        }
-        
-        // REMOVE EXISTING CUSTOM PROPERTIES
-        if (fpExist.getCustomProperties() != null && !fpExist.getCustomProperties().isEmpty()) {
-            Connection sqlConn = null;
-            PreparedStatement ps = null;
-            try {
-                sqlConn = dataSource.getConnection();
-                ps = sqlConn.prepareStatement(SQL_DELETE_CUSTOMPROPERTIES);
-                ps.setString(1, fpExist.getUid());
-                ps.executeUpdate();
-            } catch (SQLException sqlEX) {
-                throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
-            } finally {
-                closeStatement(ps);
-                closeConnection(sqlConn);
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
+        try {
+            // Single connection and single transaction
+            sqlConn = getDataSource().getConnection();
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
+            
+            // Feature row, no row updated means no feature
+            long version = nextVersion(sqlConn);
+            String enable = fp.isEnable() ? "1" : "0";
+            if (0 == executeUpdate(sqlConn, SQL_UPDATE, version, enable, fp.getDescription(), fStrategy, fExpression, fp.getGroup(), fp.getUid())) {
+                rollback(sqlConn);
+                throw new FeatureNotFoundException(fp.getUid());
+            }
+            
+            // Replace roles and custom properties
+            executeUpdate(sqlConn, SQL_DELETE_ROLES, fp.getUid());
+            createRoles(sqlConn, fp.getUid(), fp.getPermissions());
+            executeUpdate(sqlConn, SQL_DELETE_CUSTOMPROPERTIES, fp.getUid());
+            createCustomProperties(sqlConn, fp.getUid(), fp.getCustomProperties());
+            
+            sqlConn.commit();
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn, previousAutoCommit);
+        }
+    }
+
+    /**
+     * Load complete features (roles and custom properties included) with three set-based queries sharing the same parameters.
+     * Rows are streamed with the configured fetch size and features assembled in one pass.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param queryFeatures
+     *            query on features
+     * @param queryRoles
+     *            query on roles of the same features
+     * @param queryProperties
+     *            query on custom properties of the same features
+     * @param params
+     *            parameters of the three queries
+     * @return features by identifier
+     * @throws SQLException
+     *             error during reading
+     */
+    private Map<String, Feature> readBulk(Connection sqlConn, String queryFeatures, String queryRoles, String queryProperties, Object... params) 
+    throws SQLException {
+        Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            // Features
+            ps = buildBulkStatement(sqlConn, queryFeatures, params);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
+                mapFP.put(f.getUid(), f);
             }
+            closeResultSet(rs);
+            closeStatement(ps);
+            if (mapFP.isEmpty()) {
+                return mapFP;
+            }
+
+            // Roles
+            ps = buildBulkStatement(sqlConn, queryRoles, params);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                Feature f = mapFP.get(rs.getString(COL_ROLE_FEATID));
+                if (f != null) {
+                    f.getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                }
+            }
+            closeResultSet(rs);
+            closeStatement(ps);
+            
+            // Custom properties
+            ps = buildBulkStatement(sqlConn, queryProperties, params);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                Feature f = mapFP.get(rs.getString(COL_PROPERTY_FEATID));
+                if (f != null) {
+                    AbstractProperty<?> ap = JDBC_PROPERTY_MAPPER.map(rs);
+                    f.getCustomProperties().put(ap.getName(), ap);
+                }
+            }
+            return mapFP;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
         }
-        
-        // CREATE PROPERTIES
-        if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-            createCustomProperties(fp.getUid(), fp.getCustomProperties().values());
-        }   
     }
-    
+
+    /**
+     * Prepare bulk query with configured fetch size.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param query
+     *            target query
+     * @param params
+     *            query parameters (group name, versions)
+     * @return statement ready to be executed
+     * @throws SQLException
+     *             error when preparing statement
+     */
+    private PreparedStatement buildBulkStatement(Connection sqlConn, String query, Object... params) throws SQLException {
+        PreparedStatement ps = sqlConn.prepareStatement(query);
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+        ps.setFetchSize(fetchSize);
+        return ps;
+    }
+
     /**
-     * Ease creation of properties in Database.
+     * Take next version, the counter row stays locked until the end of current transaction so that versions are committed in
+     * order.
      * 
+     * @param sqlConn
+     *            current connection, within a transaction
+     * @return new version
+     * @throws SQLException
+     *             error during update
+     */
+    private long nextVersion(Connection sqlConn) throws SQLException {
+        executeUpdate(sqlConn, SQL_VERSION_INCREMENT);
+        return readVersion(sqlConn);
+    }
+
+    /**
+     * Read last version given to a change.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @return version
+     * @throws SQLException
+     *             error during reading
+     */
+    private long readVersion(Connection sqlConn) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = sqlConn.prepareStatement(SQL_VERSION_READ);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new IllegalStateException("Version counter has not been initialized, check FF4J_VERSION table");
+            }
+            return rs.getLong(1);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * List identifiers of every feature.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @return feature identifiers
+     * @throws SQLException
+     *             error during reading
+     */
+    private Set<String> readAllUids(Connection sqlConn) throws SQLException {
+        Set<String> uids = new HashSet<String>();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = sqlConn.prepareStatement(SQLQUERY_ALLFEATURE_UIDS);
+            ps.setFetchSize(fetchSize);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                uids.add(rs.getString(COL_FEAT_UID));
+            }
+            return uids;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Execute the same statement for each set of parameters, sent by batches of {@link #getBatchSize()} statements.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param query
+     *            target query
+     * @param paramsList
+     *            parameters of each execution
+     * @throws SQLException
+     *             error during execution
+     */
+    private void executeBatch(Connection sqlConn, String query, List<? extends Object[]> paramsList) throws SQLException {
+        if (paramsList.isEmpty()) {
+            return;
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = sqlConn.prepareStatement(query);
+            int pending = 0;
+            for (Object[] params : paramsList) {
+                JDBC_FEATURE_MAPPER.bindParams(ps, params);
+                ps.addBatch();
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Read feature with its roles and custom properties with a single query.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param uid
+     *            target unique identifier
+     * @return feature or null if not found
+     * @throws SQLException
+     *             error during reading
+     */
+    private Feature read(Connection sqlConn, String uid) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = sqlConn.prepareStatement(SQLQUERY_GET_FEATURE_FULL_BY_ID);
+            ps.setString(1, uid);
+            rs = ps.executeQuery();
+            Feature f = null;
+            while (rs.next()) {
+                if (f == null) {
+                    f = JDBC_FEATURE_MAPPER.mapFeature(rs);
+                }
+                JDBC_FEATURE_MAPPER.mapJoinedRow(f, rs);
+            }
+            return f;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Check existence of a feature with an existing connection.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param uid
+     *            target unique identifier
+     * @return if the feature exists
+     * @throws SQLException
+     *             error during reading
+     */
+    private boolean exist(Connection sqlConn, String uid) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = sqlConn.prepareStatement(SQL_EXIST);
+            ps.setString(1, uid);
+            rs = ps.executeQuery();
+            return rs.next() && 1 == rs.getInt(1);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Insert roles of a feature as a single batch.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param uid
+     *            target unique identifier
+     * @param roles
+     *            roles to insert
+     * @throws SQLException
+     *             error during insertion
+     */
+    private void createRoles(Connection sqlConn, String uid, Set<String> roles) throws SQLException {
+        if (roles == null || roles.isEmpty()) {
+            return;
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = sqlConn.prepareStatement(SQL_ADD_ROLE);
+            for (String role : roles) {
+                ps.setString(1, uid);
+                ps.setString(2, role);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Insert custom properties of a feature as a single batch.
+     * 
+     * @param sqlConn
+     *            current connection
      * @param uid
-     *      target unique identifier
+     *            target unique identifier
      * @param props
-     *      target properties.
+     *            target properties.
+     * @throws SQLException
+     *             error during insertion
      */
-    private void createCustomProperties(String uid, Collection <AbstractProperty<?> > props) {
+    private void createCustomProperties(Connection sqlConn, String uid, Map<String, AbstractProperty<?>> props) throws SQLException {
         Util.assertNotNull(uid);
-        if (props == null | props.isEmpty()) return;
-       
-        Connection sqlConn = null;
+        if (props == null || props.isEmpty()) {
+            return;
+        }
         PreparedStatement ps = null;
-        
         try {
-            sqlConn = dataSource.getConnection();
-            
-            // Begin TX
-            sqlConn.setAutoCommit(false);
-            
-            // Queries
-            for (AbstractProperty<?> pp : props) {
-                ps = sqlConn.prepareStatement(SQL_CREATE_CUSTOMPROPERTY);
+            ps = sqlConn.prepareStatement(SQL_CREATE_CUSTOMPROPERTY);
+            for (AbstractProperty<?> pp : props.values()) {
                 ps.setString(1, pp.getName());
                 ps.setString(2, pp.getType());
                 ps.setString(3, pp.asString());
@@ -506,17 +896,11 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
                     ps.setString(4, null);
                 }
                 ps.setString(5, uid);
-                ps.executeUpdate();
+                ps.addBatch();
             }
-            
-            // End TX
-            sqlConn.commit();
-            
-        } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+            ps.executeBatch();
         } finally {
             closeStatement(ps);
-            closeConnection(sqlConn);
         }
     }
 
@@ -527,23 +911,37 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
         Connection sqlConn = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            return existGroup(sqlConn, groupName);
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+        } finally {
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Check if a feature references the group.
+     * 
+     * @param sqlConn
+     *            current connection
+     * @param groupName
+     *            target group
+     * @return if the group exists
+     * @throws SQLException
+     *             error during reading
+     */
+    private boolean existGroup(Connection sqlConn, String groupName) throws SQLException {
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQL_EXIST_GROUP);
-            ps.setString(1, groupName);
+            ps = buildStatement(sqlConn, SQL_EXIST_GROUP, groupName);
             rs = ps.executeQuery();
-            if (rs.next()) {
-                return (rs.getInt(1) > 0);
-            }
-            return false;
-        } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+            return rs.next() && rs.getInt(1) > 0;
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
-            closeConnection(sqlConn);
         }
     }
 
@@ -553,10 +951,10 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
+        // No row updated means no feature in the group
+        if (0 == updateVersioned(SQL_ENABLE_GROUP, groupName)) {
             throw new GroupNotFoundException(groupName);
         }
-        update(SQL_ENABLE_GROUP, groupName);
     }
 
     /** {@inheritDoc} */
@@ -565,10 +963,9 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
+        if (0 == updateVersioned(SQL_DISABLE_GROUP, groupName)) {
             throw new GroupNotFoundException(groupName);
         }
-        update(SQL_DISABLE_GROUP, groupName);
     }
 
     /** {@inheritDoc} */
@@ -577,42 +974,21 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        Map<String, Feature> mapFP = null;
         Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQLQUERY_GET_FEATURE_GROUP);
-            ps.setString(1, groupName);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
-                mapFP.put(f.getUid(), f);
-            }
-
-            // Returns Roles
-            rs = ps.getConnection().prepareStatement(SQL_GET_ALLROLES).executeQuery();
-            while (rs.next()) {
-                String uid = rs.getString(COL_ROLE_FEATID);
-                // only feature in the group must be processed
-                if (mapFP.containsKey(uid)) {
-                    mapFP.get(uid).getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
-                }
-            }
-            return mapFP;
-
+            sqlConn = getDataSource().getConnection();
+            mapFP = readBulk(sqlConn, SQLQUERY_GET_FEATURE_GROUP, SQL_GET_ROLES_GROUP, SQL_GET_CUSTOMPROPERTIES_GROUP, groupName);
         } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+            throw new FeatureAccessException("Cannot read features, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
             closeConnection(sqlConn);
         }
+        // A group exists as long as a feature references it
+        if (mapFP.isEmpty()) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return mapFP;
     }
 
     /** {@inheritDoc} */
@@ -624,10 +1000,9 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        if (0 == updateVersioned(SQL_ADD_TO_GROUP, groupName, uid)) {
             throw new FeatureNotFoundException(uid);
         }
-        update(SQL_ADD_TO_GROUP, groupName, uid);
     }
 
     /** {@inheritDoc} */
@@ -639,17 +1014,39 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        Feature feat = read(uid);
-        if (feat.getGroup() != null && !feat.getGroup().equals(groupName)) {
-            throw new IllegalArgumentException("'" + uid + "' is not in group '" + groupName + "'");
+        Connection sqlConn = null;
+        Boolean previousAutoCommit = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            previousAutoCommit = sqlConn.getAutoCommit();
+            sqlConn.setAutoCommit(false);
+            // Single statement in the nominal case, the feature must be in the group
+            if (0 < executeUpdate(sqlConn, SQL_REMOVE_FROM_GROUP, nextVersion(sqlConn), uid, groupName)) {
+                sqlConn.commit();
+                return;
+            }
+            // Nothing updated, find out why on the same connection
+            Feature feat = read(sqlConn, uid);
+            boolean groupExist = existGroup(sqlConn, groupName);
+            rollback(sqlConn);
+            if (feat == null) {
+                throw new FeatureNotFoundException(uid);
+            }
+            if (!groupExist) {
+                throw new GroupNotFoundException(groupName);
+            }
+            if (feat.getGroup() != null && !feat.getGroup().isEmpty()) {
+                throw new IllegalArgumentException("'" + uid + "' is not in group '" + groupName + "'");
+            }
+        } catch (SQLException sqlEX) {
+            rollback(sqlConn);
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConn);
+            throw ex;
+        } finally {
+            closeConnection(sqlConn, previousAutoCommit);
         }
-        update(SQL_ADD_TO_GROUP, "", uid);
     }
 
     /** {@inheritDoc} */
@@ -721,36 +1118,72 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
      * @throws SQLException
      *             sql error when working with statement
      */
-    private PreparedStatement buildStatement(Connection sqlConn, String query, String... params) throws SQLException {
+    private PreparedStatement buildStatement(Connection sqlConn, String query, Object... params) throws SQLException {
         PreparedStatement ps = sqlConn.prepareStatement(query);
         if (params != null && params.length > 0) {
-            for (int i = 0; i < params.length; i++) {
-                ps.setString(i + 1, params[i]);
-            }
+            JDBC_FEATURE_MAPPER.bindParams(ps, params);
         }
         return ps;
     }
     
     /**
-     * Utility method to perform UPDATE and DELETE operations.
+     * Perform UPDATE and DELETE operations with an existing connection.
      * 
+     * @param sqlConn
+     *            current connection
      * @param query
      *            target query
      * @param params
      *            sql query params
+     * @return number of rows affected
+     * @throws SQLException
+     *             sql error when working with statement
      */
-    private void update(String query, String... params) {
-        Connection sqlConnection = null;
+    private int executeUpdate(Connection sqlConn, String query, Object... params) throws SQLException {
         PreparedStatement ps = null;
         try {
-            sqlConnection = dataSource.getConnection();
-            ps = buildStatement(sqlConnection, query, params);
-            ps.executeUpdate();
+            ps = buildStatement(sqlConn, query, params);
+            return ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+    
+    /**
+     * Utility method to perform UPDATE operations on features in their own transaction, the new version being given as first
+     * parameter of the query. Nothing is committed if no row is affected.
+     * 
+     * @param query
+     *            target query
+     * @param params
+     *            sql query params after version
+     * @return number of rows affected
+     */
+    private int updateVersioned(String query, Object... params) {
+        Connection sqlConnection = null;
+        Boolean previousAutoCommit = null;
+        try {
+            sqlConnection = getDataSource().getConnection();
+            previousAutoCommit = sqlConnection.getAutoCommit();
+            sqlConnection.setAutoCommit(false);
+            Object[] versionedParams = new Object[params.length + 1];
+            versionedParams[0] = nextVersion(sqlConnection);
+            System.arraycopy(params, 0, versionedParams, 1, params.length);
+            int count = executeUpdate(sqlConnection, query, versionedParams);
+            if (count == 0) {
+                rollback(sqlConnection);
+            } else {
+                sqlConnection.commit();
+            }
+            return count;
         } catch (SQLException sqlEX) {
+            rollback(sqlConnection);
             throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } catch (RuntimeException ex) {
+            rollback(sqlConnection);
+            throw ex;
         } finally {
-            closeStatement(ps);
-            closeConnection(sqlConnection);
+            closeConnection(sqlConnection, previousAutoCommit);
         }
     }
 
@@ -776,4 +1209,49 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         this.dataSource = dataSource;
     }
 
+    /**
+     * Getter accessor for attribute 'fetchSize'.
+     * 
+     * @return current value of 'fetchSize'
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'fetchSize', number of rows fetched per round trip by readAll and readGroup (0 for driver
+     * default).
+     * 
+     * @param fetchSize
+     *            new value for 'fetchSize '
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size cannot be negative");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     * 
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize', number of statements sent per JDBC batch by bulk writes.
+     * 
+     * @param batchSize
+     *            new value for 'batchSize '
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
 }
@@ -20,6 +20,21 @@ import org.ff4j.audit.EventType;
  */
 public interface JdbcStoreConstants {
 
+    /** default number of rows fetched per round trip for bulk reads. */
+    int DEFAULT_FETCH_SIZE = 500;
+
+    /** default number of statements sent per JDBC batch for bulk writes. */
+    int DEFAULT_BATCH_SIZE = 500;
+
+    /** maximum number of identifiers in a single IN clause (Oracle rejects more than 1000). */
+    int MAX_IN_CLAUSE_SIZE = 500;
+
+    /** sql query expression */
+    String SQLQUERY_ALLFEATURE_UIDS = "SELECT FEAT_UID FROM FF4J_FEATURES";
+
+    /** sql query expression, to be completed with the list of parameters: (?,?,...). */
+    String SQLQUERY_FEATURE_UIDS_IN = "SELECT FEAT_UID FROM FF4J_FEATURES WHERE FEAT_UID IN ";
+
     /** sql query expression */
     String SQLQUERY_ALLFEATURES = "SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM FF4J_FEATURES";
 
@@ -32,38 +47,81 @@ public interface JdbcStoreConstants {
     /** sql query expression */
     String SQLQUERY_GET_FEATURE_BY_ID = "SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM FF4J_FEATURES WHERE FEAT_UID = ?";
 
+    /** sql query expression, feature with its roles and custom properties in a single round trip. */
+    String SQLQUERY_GET_FEATURE_FULL_BY_ID = "SELECT F.FEAT_UID,F.ENABLE,F.DESCRIPTION,F.STRATEGY,F.EXPRESSION,F.GROUPNAME,"
+            + "R.ROLE_NAME,P.PROPERTY_ID,P.CLAZZ,P.CURRENTVALUE,P.FIXEDVALUES,P.DESCRIPTION AS PROPERTY_DESCRIPTION "
+            + "FROM FF4J_FEATURES F "
+            + "LEFT JOIN FF4J_ROLES R ON F.FEAT_UID = R.FEAT_UID "
+            + "LEFT JOIN FF4J_CUSTOM_PROPERTIES P ON F.FEAT_UID = P.FEAT_UID "
+            + "WHERE F.FEAT_UID = ?";
+
     /** sql query expression */
     String SQL_EXIST = "SELECT COUNT(FEAT_UID) FROM FF4J_FEATURES WHERE FEAT_UID = ?";
 
     /** sql query expression */
-    String SQL_DISABLE = "UPDATE FF4J_FEATURES SET ENABLE = 0 WHERE FEAT_UID = ?";
+    String SQL_DISABLE = "UPDATE FF4J_FEATURES SET VERSION = ?, ENABLE = 0 WHERE FEAT_UID = ?";
 
     /** sql query expression */
-    String SQL_ADD_TO_GROUP = "UPDATE FF4J_FEATURES SET GROUPNAME = ? WHERE FEAT_UID = ?";
+    String SQL_ADD_TO_GROUP = "UPDATE FF4J_FEATURES SET VERSION = ?, GROUPNAME = ? WHERE FEAT_UID = ?";
 
     /** sql query expression */
-    String SQL_REMOVE_FROM_GROUP = "UPDATE FF4J_FEATURES SET GROUPNAME = NULL WHERE FEAT_UID = ?";
+    String SQL_REMOVE_FROM_GROUP = "UPDATE FF4J_FEATURES SET VERSION = ?, GROUPNAME = NULL WHERE FEAT_UID = ? AND GROUPNAME = ?";
 
     /** sql query expression */
-    String SQL_ENABLE = "UPDATE FF4J_FEATURES SET ENABLE = 1 WHERE FEAT_UID = ?";
+    String SQL_ENABLE = "UPDATE FF4J_FEATURES SET VERSION = ?, ENABLE = 1 WHERE FEAT_UID = ?";
 
     /** sql query expression */
-    String SQL_ENABLE_GROUP = "UPDATE FF4J_FEATURES SET ENABLE = 1 WHERE GROUPNAME = ?";
+    String SQL_ENABLE_GROUP = "UPDATE FF4J_FEATURES SET VERSION = ?, ENABLE = 1 WHERE GROUPNAME = ?";
 
     /** sql query expression */
-    String SQL_DISABLE_GROUP = "UPDATE FF4J_FEATURES SET ENABLE = 0 WHERE GROUPNAME = ?";
+    String SQL_DISABLE_GROUP = "UPDATE FF4J_FEATURES SET VERSION = ?, ENABLE = 0 WHERE GROUPNAME = ?";
 
     /** sql query expression */
     String SQL_EXIST_GROUP = "SELECT COUNT(*) FROM FF4J_FEATURES WHERE GROUPNAME = ?";
 
     /** sql query expression */
-    String SQL_CREATE = "INSERT INTO FF4J_FEATURES(FEAT_UID, ENABLE, DESCRIPTION, STRATEGY,EXPRESSION, GROUPNAME) VALUES(?, ?, ?, ?, ?, ?)";
+    String SQL_CREATE = "INSERT INTO FF4J_FEATURES(VERSION, FEAT_UID, ENABLE, DESCRIPTION, STRATEGY,EXPRESSION, GROUPNAME) VALUES(?, ?, ?, ?, ?, ?, ?)";
 
     /** sql query expression */
     String SQL_DELETE = "DELETE FROM FF4J_FEATURES WHERE FEAT_UID = ?";
 
     /** sql query expression */
-    String SQL_UPDATE = "UPDATE FF4J_FEATURES SET ENABLE=?,DESCRIPTION=?,STRATEGY=?,EXPRESSION=?,GROUPNAME=? WHERE FEAT_UID = ?";
+    String SQL_UPDATE = "UPDATE FF4J_FEATURES SET VERSION=?,ENABLE=?,DESCRIPTION=?,STRATEGY=?,EXPRESSION=?,GROUPNAME=? WHERE FEAT_UID = ?";
+
+    /** sql query expression, mark a feature as modified when only its roles change. */
+    String SQL_TOUCH = "UPDATE FF4J_FEATURES SET VERSION = ? WHERE FEAT_UID = ?";
+
+    // ------- Versions -------------
+
+    /** sql query expression, take next version (locks the counter row until commit). */
+    String SQL_VERSION_INCREMENT = "UPDATE FF4J_VERSION SET VERSION = VERSION + 1 WHERE VERSION_ID = 'FEATURES'";
+
+    /** sql query expression */
+    String SQL_VERSION_READ = "SELECT VERSION FROM FF4J_VERSION WHERE VERSION_ID = 'FEATURES'";
+
+    /** sql query expression */
+    String SQL_TOMBSTONE_CREATE = "INSERT INTO FF4J_FEATURES_DELETED(VERSION, FEAT_UID) VALUES(?, ?)";
+
+    /** sql query expression */
+    String SQL_TOMBSTONE_DELETE = "DELETE FROM FF4J_FEATURES_DELETED WHERE FEAT_UID = ?";
+
+    /** sql query expression */
+    String SQL_TOMBSTONE_CHANGES = "SELECT FEAT_UID FROM FF4J_FEATURES_DELETED WHERE VERSION > ? AND VERSION <= ?";
+
+    /** sql query expression */
+    String SQLQUERY_FEATURES_CHANGES = "SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM FF4J_FEATURES "
+            + "WHERE VERSION > ? AND VERSION <= ?";
+
+    /** sql query expression */
+    String SQL_GET_ROLES_CHANGES = "SELECT R.FEAT_UID,R.ROLE_NAME FROM FF4J_ROLES R "
+            + "INNER JOIN FF4J_FEATURES F ON R.FEAT_UID = F.FEAT_UID WHERE F.VERSION > ? AND F.VERSION <= ?";
+
+    /** sql query expression */
+    String SQL_GET_CUSTOMPROPERTIES_CHANGES = "SELECT P.PROPERTY_ID,P.CLAZZ,P.CURRENTVALUE,P.DESCRIPTION,P.FIXEDVALUES,P.FEAT_UID "
+            + "FROM FF4J_CUSTOM_PROPERTIES P "
+            + "INNER JOIN FF4J_FEATURES F ON P.FEAT_UID = F.FEAT_UID WHERE F.VERSION > ? AND F.VERSION <= ?";
+
+    // ------- Roles -------------
 
     /** sql query expression */
     String SQL_ADD_ROLE = "INSERT INTO FF4J_ROLES(FEAT_UID, ROLE_NAME) VALUES (?,?)";
@@ -71,11 +129,18 @@ public interface JdbcStoreConstants {
     /** sql query expression */
     String SQL_DELETE_ROLE = "DELETE FROM FF4J_ROLES WHERE FEAT_UID = ? AND ROLE_NAME = ?";
 
+    /** sql query expression */
+    String SQL_DELETE_ROLES = "DELETE FROM FF4J_ROLES WHERE FEAT_UID = ?";
+
     /** sql query expression */
     String SQL_GET_ROLES = "SELECT ROLE_NAME FROM FF4J_ROLES WHERE FEAT_UID = ?";
     
     /** sql query expression */
     String SQL_GET_ALLROLES = "SELECT FEAT_UID,ROLE_NAME FROM FF4J_ROLES";
+
+    /** sql query expression */
+    String SQL_GET_ROLES_GROUP = "SELECT R.FEAT_UID,R.ROLE_NAME FROM FF4J_ROLES R "
+            + "INNER JOIN FF4J_FEATURES F ON R.FEAT_UID = F.FEAT_UID WHERE F.GROUPNAME = ?";
     
     // ------- Properties -------------
     
@@ -84,6 +149,15 @@ public interface JdbcStoreConstants {
             + "FROM FF4J_CUSTOM_PROPERTIES "
             + "WHERE FEAT_UID = ?";
     
+    /** sql query expression */
+    String SQL_GET_ALLCUSTOMPROPERTIES = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID "
+            + "FROM FF4J_CUSTOM_PROPERTIES";
+
+    /** sql query expression */
+    String SQL_GET_CUSTOMPROPERTIES_GROUP = "SELECT P.PROPERTY_ID,P.CLAZZ,P.CURRENTVALUE,P.DESCRIPTION,P.FIXEDVALUES,P.FEAT_UID "
+            + "FROM FF4J_CUSTOM_PROPERTIES P "
+            + "INNER JOIN FF4J_FEATURES F ON P.FEAT_UID = F.FEAT_UID WHERE F.GROUPNAME = ?";
+
     /** sql query expression */
     String SQL_GET_CUSTOMPROPERTY_BYID = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,FIXEDVALUES,FEAT_UID "
             + "FROM FF4J_CUSTOM_PROPERTIES "
@@ -114,7 +188,13 @@ public interface JdbcStoreConstants {
     String SQL_PROPERTY_UPDATE = "UPDATE FF4J_PROPERTIES SET CURRENTVALUE = ? WHERE PROPERTY_ID = ?";
 
     /** sql query expression */
-    String SQL_PROPERTY_READALL = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID FROM FF4J_PROPERTIES";
+    String SQL_PROPERTY_READALL = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES FROM FF4J_PROPERTIES";
+
+    /** Overwrite every column of a property, parameters are CLAZZ, CURRENTVALUE, DESCRIPTION, FIXEDVALUES then PROPERTY_ID. */
+    String SQL_PROPERTY_UPDATE_FULL = "UPDATE FF4J_PROPERTIES SET CLAZZ = ?, CURRENTVALUE = ?, DESCRIPTION = ?, FIXEDVALUES = ? WHERE PROPERTY_ID = ?";
+
+    /** Names of properties among a list, the IN clause is appended. */
+    String SQL_PROPERTY_NAMES = "SELECT PROPERTY_ID FROM FF4J_PROPERTIES WHERE PROPERTY_ID IN ";
     
     // ------- AUDIT -------------
     
@@ -203,5 +283,8 @@ public interface JdbcStoreConstants {
     
     /** sql column name from table FF4J_PROPERTIES. */
     String COL_PROPERTY_DESCRIPTION = "DESCRIPTION";
+
+    /** alias of custom property description when joined with table FF4J_FEATURES. */
+    String COL_JOIN_PROPERTY_DESCRIPTION = "PROPERTY_DESCRIPTION";
    
 }
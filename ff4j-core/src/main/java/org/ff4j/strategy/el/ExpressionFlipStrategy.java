@@ -13,8 +13,10 @@ package org.ff4j.strategy.el;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
@@ -65,17 +67,64 @@ public class ExpressionFlipStrategy extends AbstractFlipStrategy {
     }
 
     /**
-     * Evaluate expression, put it in cache is required.
+     * Features whose status is read when evaluating a feature, the store given to evaluation needs only them.
+     * 
+     * @param featureName
+     *            evaluated feature
+     * @param executionContext
+     *            execution context, may override expression
+     * @return names of features used in expression
+     */
+    public Set<String> getReferencedFeatures(String featureName, FlippingExecutionContext executionContext) {
+        Set<String> names = new HashSet<String>();
+        if ((null != executionContext) && executionContext.containsKey(PARAM_EXPRESSION)) {
+            collectValues(parseExpression(executionContext.getString(PARAM_EXPRESSION)), names);
+        } else if (mapOfValue.containsKey(featureName)) {
+            collectValues(parseExpression(mapOfValue.get(featureName)), names);
+        }
+        return names;
+    }
+
+    /**
+     * Collect feature names of an expression tree.
+     * 
+     * @param node
+     *            current node
+     * @param names
+     *            collected names
+     */
+    private static void collectValues(ExpressionNode node, Set<String> names) {
+        if (node.getValue() != null && !node.getValue().isEmpty()) {
+            names.add(node.getValue());
+        }
+        for (ExpressionNode subNode : node.getSubNodes()) {
+            collectValues(subNode, names);
+        }
+    }
+
+    /**
+     * Parse expression, put it in cache is required.
      * 
      * @param expression
      *            target expression
-     * @return expression evaluation value
+     * @return syntax tree
      */
-    private boolean evaluateExpression(String expression, FeatureStore currentStore) {
+    private ExpressionNode parseExpression(String expression) {
         if (!cachedExpression.containsKey(expression)) {
             cachedExpression.put(expression, ExpressionParser.parseExpression(expression));
         }
-        return cachedExpression.get(expression).evalue(getFeaturesStatus(currentStore));
+        return cachedExpression.get(expression);
+    }
+
+    /**
+     * Evaluate expression, put it in cache is required.
+     * 
+     * @param expression
+     *            target expression
+     * @return expression evaluation value
+     */
+    private boolean evaluateExpression(String expression, FeatureStore currentStore) {
+        return parseExpression(expression).evalue(getFeaturesStatus(currentStore));
     }
 
     /**
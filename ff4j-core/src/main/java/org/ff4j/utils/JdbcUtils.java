@@ -109,14 +109,34 @@ public class JdbcUtils {
     }
     
     /**
-     * Utility method to perform rollback in correct way.
+     * Return connection used for a transaction to pool, with its previous auto-commit mode restored.
+     *
+     * @param sqlConnection
+     *            current sql connection, can be null
+     * @param previousAutoCommit
+     *            auto-commit mode before the transaction, null if it has not been changed
+     */
+    public static void closeConnection(Connection sqlConnection, Boolean previousAutoCommit) {
+        try {
+            if (sqlConnection != null && previousAutoCommit != null && !sqlConnection.isClosed()) {
+                sqlConnection.setAutoCommit(previousAutoCommit);
+            }
+        } catch (SQLException e) {
+            throw new FeatureAccessException("Cannot restore auto-commit mode, SQL ERROR", e);
+        } finally {
+            closeConnection(sqlConnection);
+        }
+    }
+    
+    /**
+     * Utility method to perform rollback in correct way, nothing is done without connection or transaction.
      * 
      * @param sqlConn
-     *            current sql connection
+     *            current sql connection, can be null
      */
     public static void rollback(Connection sqlConn) {
         try {
-            if (!sqlConn.isClosed()) {
+            if (sqlConn != null && !sqlConn.isClosed() && !sqlConn.getAutoCommit()) {
                 sqlConn.rollback();
             }
         } catch (SQLException e) {
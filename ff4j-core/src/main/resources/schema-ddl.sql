@@ -6,8 +6,26 @@ CREATE TABLE FF4J_FEATURES (
   "STRATEGY"		VARCHAR(255),
   "EXPRESSION"	    VARCHAR(255),
   "GROUPNAME"		VARCHAR(255),
+  "VERSION"		BIGINT DEFAULT 0 NOT NULL,
   PRIMARY KEY("FEAT_UID")
 );
+CREATE INDEX FF4J_FEATURES_VERSION_IDX ON FF4J_FEATURES("VERSION");
+
+-- Deleted features (tombstones) for delta synchronization
+CREATE TABLE FF4J_FEATURES_DELETED (
+  "FEAT_UID"     VARCHAR(100),
+  "VERSION"      BIGINT NOT NULL,
+  PRIMARY KEY("FEAT_UID")
+);
+CREATE INDEX FF4J_FEATURES_DELETED_VERSION_IDX ON FF4J_FEATURES_DELETED("VERSION");
+
+-- Last version given to a change of features, single row
+CREATE TABLE FF4J_VERSION (
+  "VERSION_ID"   VARCHAR(20),
+  "VERSION"      BIGINT NOT NULL,
+  PRIMARY KEY("VERSION_ID")
+);
+INSERT INTO FF4J_VERSION("VERSION_ID", "VERSION") VALUES('FEATURES', 0);
 
 -- Roles to store ACL, FK to main table
 CREATE TABLE FF4J_ROLES (
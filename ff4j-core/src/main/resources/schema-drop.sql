@@ -2,4 +2,6 @@ DROP TABLE FF4J_AUDIT;
 DROP TABLE FF4J_PROPERTIES;
 DROP TABLE FF4J_CUSTOM_PROPERTIES;
 DROP TABLE FF4J_ROLES;
+DROP TABLE FF4J_VERSION;
+DROP TABLE FF4J_FEATURES_DELETED;
 DROP TABLE FF4J_FEATURES;
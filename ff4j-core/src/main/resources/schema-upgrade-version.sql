@@ -0,0 +1,22 @@
+-- Upgrade of a schema created before versioned features (see schema-ddl.sql for new databases)
+-- Existing features get version 0 and are therefore returned by a first synchronization from version 0
+
+-- Version of last change on each feature
+ALTER TABLE FF4J_FEATURES ADD "VERSION" BIGINT DEFAULT 0 NOT NULL;
+CREATE INDEX FF4J_FEATURES_VERSION_IDX ON FF4J_FEATURES("VERSION");
+
+-- Deleted features (tombstones) for delta synchronization
+CREATE TABLE FF4J_FEATURES_DELETED (
+  "FEAT_UID"     VARCHAR(100),
+  "VERSION"      BIGINT NOT NULL,
+  PRIMARY KEY("FEAT_UID")
+);
+CREATE INDEX FF4J_FEATURES_DELETED_VERSION_IDX ON FF4J_FEATURES_DELETED("VERSION");
+
+-- Last version given to a change of features, single row
+CREATE TABLE FF4J_VERSION (
+  "VERSION_ID"   VARCHAR(20),
+  "VERSION"      BIGINT NOT NULL,
+  PRIMARY KEY("VERSION_ID")
+);
+INSERT INTO FF4J_VERSION("VERSION_ID", "VERSION") VALUES('FEATURES', 0);
@@ -26,10 +26,14 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Map;
 
 import org.junit.Assert;
 
 import org.ff4j.FF4j;
+import org.ff4j.cache.CacheWarmUpResult;
+import org.ff4j.cache.FeatureStoreCacheProxy;
+import org.ff4j.cache.InMemoryCacheManager;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingExecutionContext;
 import org.ff4j.exception.FeatureNotFoundException;
@@ -164,6 +168,71 @@ public class FF4jTest extends AbstractFf4jTest {
         Assert.assertNotNull(ff4j.exportFeatures());
     }
 
+    @Test
+    public void testWarmUpCache() {
+        InMemoryCacheManager cacheManager = new InMemoryCacheManager();
+        FF4j cachedFF4j = new FF4j();
+        cachedFF4j.setFeatureStore(new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), cacheManager));
+        CacheWarmUpResult result = cachedFF4j.warmUpCache();
+        Assert.assertEquals(5, result.getEntryCount());
+        Assert.assertEquals(5, cacheManager.listCachedFeatureNames().size());
+        // Every read is now served from cache
+        cachedFF4j.check("first");
+        Assert.assertEquals(0, cacheManager.getCacheStatistics().getMissCount());
+    }
+
+    @Test
+    public void testWarmUpCacheSubsetAndGroup() {
+        InMemoryCacheManager cacheManager = new InMemoryCacheManager();
+        FF4j cachedFF4j = new FF4j();
+        cachedFF4j.setFeatureStore(new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), cacheManager));
+        Assert.assertEquals(1, cachedFF4j.warmUpCache(Arrays.asList("first", "does-not-exist")).getEntryCount());
+        Assert.assertEquals(2, cachedFF4j.warmUpCacheGroup("GRP1").getEntryCount());
+        Assert.assertEquals(3, cacheManager.listCachedFeatureNames().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWarmUpCacheRequiresCacheProxy() {
+        ff4j.warmUpCache();
+    }
+
+    @Test
+    public void testCheckAll() {
+        Map<String, Boolean> statuses = ff4j.checkAll(Arrays.asList("forth", "first", "second"), null);
+        // Requested order is kept
+        Assert.assertEquals(Arrays.asList("forth", "first", "second"), Arrays.asList(statuses.keySet().toArray()));
+        for (Map.Entry<String, Boolean> status : statuses.entrySet()) {
+            Assert.assertEquals(ff4j.check(status.getKey()), status.getValue());
+        }
+    }
+
+    @Test
+    public void testCheckAllReadsRequestedAndReferencedFeaturesThroughCache() {
+        InMemoryCacheManager cacheManager = new InMemoryCacheManager();
+        FF4j cachedFF4j = new FF4j();
+        cachedFF4j.setFeatureStore(new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), cacheManager));
+        Map<String, Boolean> statuses = cachedFF4j.checkAll(Arrays.asList("forth"), null);
+        Assert.assertEquals(ff4j.check("forth"), statuses.get("forth"));
+        // 'forth' and the features of its expression, not the whole store
+        Assert.assertEquals(3, cacheManager.listCachedFeatureNames().size());
+        Assert.assertTrue(cacheManager.listCachedFeatureNames().contains("third"));
+        Assert.assertTrue(cacheManager.listCachedFeatureNames().contains("second"));
+        // Served from cache afterwards
+        long misses = cacheManager.getCacheStatistics().getMissCount();
+        cachedFF4j.checkAll(Arrays.asList("forth"), null);
+        Assert.assertEquals(misses, cacheManager.getCacheStatistics().getMissCount());
+    }
+
+    @Test(expected = FeatureNotFoundException.class)
+    public void testCheckAllFeatureNotFound() {
+        ff4j.checkAll(Arrays.asList("first", "does-not-exist"), new FlippingExecutionContext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCheckAllNull() {
+        ff4j.checkAll(null, null);
+    }
+
 
 
 }
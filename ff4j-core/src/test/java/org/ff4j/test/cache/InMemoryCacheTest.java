@@ -22,6 +22,7 @@ package org.ff4j.test.cache;
 
 import org.junit.Assert;
 
+import org.ff4j.cache.CacheStatistics;
 import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.cache.InMemoryCacheManager;
 import org.ff4j.core.Feature;
@@ -91,4 +92,23 @@ public class InMemoryCacheTest extends AbstractStoreTest {
         Assert.assertTrue(fscp.exist("first"));
     }
 
+    @Test
+    public void testStatisticsThroughProxy() {
+        InMemoryCacheManager cacheManager = new InMemoryCacheManager();
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), cacheManager);
+        // First read is a miss and loads from target, second one is a hit
+        fscp.read("first");
+        fscp.read("first");
+        CacheStatistics stats = cacheManager.getCacheStatistics();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(1, stats.getLoadCount());
+        Assert.assertEquals(1, stats.getSize());
+        Assert.assertEquals(0.5, stats.getHitRatio(), 0.001);
+        // Modification evicts the entry
+        fscp.disable("first");
+        Assert.assertEquals(1, cacheManager.getCacheStatistics().getEvictionCount());
+        Assert.assertEquals(0, cacheManager.getCacheStatistics().getSize());
+    }
+
 }
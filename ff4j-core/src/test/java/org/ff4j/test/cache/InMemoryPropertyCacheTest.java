@@ -0,0 +1,82 @@
+package org.ff4j.test.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.cache.CacheStatistics;
+import org.ff4j.cache.InMemoryPropertyCacheManager;
+import org.ff4j.cache.PropertyStoreCacheProxy;
+import org.ff4j.property.Property;
+import org.ff4j.property.store.InMemoryPropertyStore;
+import org.ff4j.property.store.PropertyStore;
+import org.ff4j.test.property.AbstractPropertyStoreJunitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link PropertyStoreCacheProxy} with {@link InMemoryPropertyCacheManager}.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class InMemoryPropertyCacheTest extends AbstractPropertyStoreJunitTest {
+
+    /** {@inheritDoc} */
+    @Override
+    protected PropertyStore initPropertyStore() {
+        return new PropertyStoreCacheProxy(new InMemoryPropertyStore("ff4j.xml"), new InMemoryPropertyCacheManager());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNullisIlegal() {
+        new InMemoryPropertyCacheManager().put(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiredArgumentTarget() {
+        new PropertyStoreCacheProxy().getTarget();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiredArgumentCacheManager() {
+        new PropertyStoreCacheProxy().getCacheManager();
+    }
+
+    @Test
+    public void testReadsAreCachedAndWritesEvict() {
+        InMemoryPropertyCacheManager cacheManager = new InMemoryPropertyCacheManager();
+        PropertyStoreCacheProxy proxy = new PropertyStoreCacheProxy(new InMemoryPropertyStore("ff4j.xml"), cacheManager);
+        // First read is a miss and loads from target, second one is a hit
+        proxy.read("a");
+        proxy.read("a");
+        CacheStatistics stats = cacheManager.getCacheStatistics();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(1, stats.getLoadCount());
+        Assert.assertTrue(cacheManager.listCachedPropertyNames().contains("a"));
+        // Modification evicts the entry
+        proxy.update("a", "EAST");
+        Assert.assertFalse(cacheManager.listCachedPropertyNames().contains("a"));
+        // Creation evicts any stale entry
+        proxy.create(new Property("newProp", "v1"));
+        Assert.assertEquals("v1", proxy.read("newProp").getValue());
+        proxy.delete("newProp");
+        Assert.assertFalse(proxy.exist("newProp"));
+    }
+
+}
@@ -22,11 +22,15 @@ import java.util.Date;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.ff4j.core.FeatureStore;
 import org.ff4j.exception.PropertyAlreadyExistException;
 import org.ff4j.exception.PropertyNotFoundException;
 import org.ff4j.property.AbstractProperty;
 import org.ff4j.property.Property;
+import org.ff4j.property.PropertyInt;
 import org.ff4j.property.PropertyDate;
 import org.ff4j.property.PropertyLogLevel;
 import org.ff4j.property.PropertyLogLevel.LogLevel;
@@ -335,4 +339,75 @@ public abstract class AbstractPropertyStoreJunitTest {
         Assert.assertFalse(testedStore.exist("toto"));
     }
     
+    // ------------------ bulk -------------------- 
+    
+    /** TDD. */
+    @Test
+    public void createAllAndUpdateAllOK() {
+        // Given
+        Assert.assertFalse(testedStore.exist("bulk1"));
+        Assert.assertFalse(testedStore.exist("bulk2"));
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        properties.add(new Property("bulk1", "v1"));
+        properties.add(new PropertyInt("bulk2", 2));
+        // When
+        testedStore.createAll(properties);
+        // Then
+        Assert.assertEquals("v1", testedStore.read("bulk1").getValue());
+        Assert.assertEquals(2, testedStore.read("bulk2").getValue());
+        // When
+        properties.clear();
+        properties.add(new Property("bulk1", "v2"));
+        properties.add(new PropertyInt("bulk2", 3));
+        testedStore.updateAll(properties);
+        // Then
+        Assert.assertEquals("v2", testedStore.read("bulk1").getValue());
+        Assert.assertEquals(3, testedStore.read("bulk2").getValue());
+    }
+    
+    /** TDD. */
+    @Test
+    public void createAllKO_AlreadyExist() {
+        // Given
+        testedStore.create(new Property("bulk1", "v1"));
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        properties.add(new Property("bulk2", "v2"));
+        properties.add(new Property("bulk1", "v1"));
+        // When
+        try {
+            testedStore.createAll(properties);
+            Assert.fail();
+        } catch (PropertyAlreadyExistException paee) {
+            // Then, nothing has been created
+            Assert.assertFalse(testedStore.exist("bulk2"));
+        }
+    }
+    
+    /** TDD. */
+    @Test
+    public void updateAllKO_doesnotExist() {
+        // Given
+        testedStore.create(new Property("bulk1", "v1"));
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        properties.add(new Property("bulk1", "v2"));
+        properties.add(new Property("invalid", "v2"));
+        // When
+        try {
+            testedStore.updateAll(properties);
+            Assert.fail();
+        } catch (PropertyNotFoundException pnfe) {
+            // Then, nothing has been updated
+            Assert.assertEquals("v1", testedStore.read("bulk1").getValue());
+        }
+    }
+    
+    /** TDD. */
+    @Test(expected = IllegalArgumentException.class)
+    public void createAllKO_null() {
+        // When
+        testedStore.createAll(null);
+        // Expected Error
+        Assert.fail();
+    }
+
 }
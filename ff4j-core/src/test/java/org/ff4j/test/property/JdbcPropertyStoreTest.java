@@ -20,10 +20,20 @@ package org.ff4j.test.property;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.Property;
+import org.ff4j.property.PropertyInt;
 import org.ff4j.property.store.JdbcPropertyStore;
 import org.ff4j.property.store.PropertyStore;
+import org.ff4j.store.JdbcStoreConstants;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
@@ -68,6 +78,80 @@ public class JdbcPropertyStoreTest  extends AbstractPropertyStoreJunitTest {
     public void tearDown() throws Exception {
         db.shutdown();
     }
+
+    /** TDD. */
+    @Test
+    public void testReadAllProperties() {
+        // When
+        Map<String, AbstractProperty<?>> properties = testedStore.readAllProperties();
+        // Then
+        Assert.assertTrue(properties.containsKey("a"));
+        Assert.assertTrue(properties.containsKey("g"));
+        Assert.assertEquals(12, properties.get("b").getValue());
+        Assert.assertEquals(2, properties.get("a").getFixedValues().size());
+    }
+
+    /** TDD. */
+    @Test
+    public void testUpsert() {
+        // Given
+        JdbcPropertyStore jdbcStore = (JdbcPropertyStore) testedStore;
+        Assert.assertFalse(jdbcStore.exist("upsert"));
+        // When
+        jdbcStore.upsert(new Property("upsert", "v1"));
+        // Then
+        Assert.assertEquals("v1", jdbcStore.read("upsert").getValue());
+        // When
+        jdbcStore.upsert(new PropertyInt("upsert", 12));
+        // Then
+        Assert.assertEquals(12, jdbcStore.read("upsert").getValue());
+    }
+
+    /** TDD. */
+    @Test
+    public void testUpsertAll() {
+        // Given
+        JdbcPropertyStore jdbcStore = (JdbcPropertyStore) testedStore;
+        jdbcStore.setBatchSize(1);
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        properties.add(new PropertyInt("b", 13));
+        properties.add(new Property("upsert1", "v1"));
+        properties.add(new Property("upsert2", "v2"));
+        // When
+        jdbcStore.upsertAll(properties);
+        // Then
+        Assert.assertEquals(13, jdbcStore.read("b").getValue());
+        Assert.assertEquals("v1", jdbcStore.read("upsert1").getValue());
+        Assert.assertEquals("v2", jdbcStore.read("upsert2").getValue());
+    }
+
+    /** TDD. */
+    @Test
+    public void testUpsertAllMoreNamesThanInClause() {
+        // Given, existing property in the second chunk of names
+        JdbcPropertyStore jdbcStore = (JdbcPropertyStore) testedStore;
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        for (int i = 0; i < JdbcStoreConstants.MAX_IN_CLAUSE_SIZE; i++) {
+            properties.add(new Property("bulk" + i, "v" + i));
+        }
+        properties.add(new PropertyInt("b", 14));
+        // When
+        jdbcStore.upsertAll(properties);
+        // Then
+        Assert.assertEquals(14, jdbcStore.read("b").getValue());
+        Assert.assertEquals("v0", jdbcStore.read("bulk0").getValue());
+        Assert.assertTrue(jdbcStore.exist("bulk" + (JdbcStoreConstants.MAX_IN_CLAUSE_SIZE - 1)));
+    }
+
+    /** TDD. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        // When
+        ((JdbcPropertyStore) testedStore).setBatchSize(0);
+        // Expected Error
+        Assert.fail();
+    }
+
     
 
 }
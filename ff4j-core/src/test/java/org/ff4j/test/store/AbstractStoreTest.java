@@ -996,5 +996,77 @@ public abstract class AbstractStoreTest implements TestConstantsFF4j {
         Assert.assertTrue(groups.contains(G1));
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testBulkCreateUpdateDelete() {
+        // Given
+        assertFf4j.assertThatStoreHasSize(EXPECTED_FEATURES_NUMBERS);
+        Feature fa = new Feature("bulk-a", true, "desc", G1, Arrays.asList(ROLE_ADMIN));
+        Feature fb = new Feature("bulk-b", false);
+        // When
+        testedStore.createAll(Arrays.asList(fa, fb));
+        // Then
+        assertFf4j.assertThatStoreHasSize(EXPECTED_FEATURES_NUMBERS + 2);
+        assertFf4j.assertThatFeatureHasRole("bulk-a", ROLE_ADMIN);
+        assertFf4j.assertThatFeatureIsInGroup("bulk-a", G1);
+        // When
+        fa.setEnable(false);
+        fb.setEnable(true);
+        testedStore.updateAll(Arrays.asList(fa, fb));
+        // Then
+        assertFf4j.assertThatFeatureIsDisabled("bulk-a");
+        assertFf4j.assertThatFeatureIsEnabled("bulk-b");
+        // When
+        testedStore.deleteAll(Arrays.asList("bulk-a", "bulk-b"));
+        // Then
+        assertFf4j.assertThatStoreHasSize(EXPECTED_FEATURES_NUMBERS);
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testBulkCreateExistingFeature() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F1);
+        // When
+        try {
+            testedStore.createAll(Arrays.asList(new Feature("bulk-a", true), new Feature(F1, true)));
+            Assert.fail();
+        } catch (FeatureAlreadyExistException faee) {
+            // Then : nothing created
+            assertFf4j.assertThatFeatureDoesNotExist("bulk-a");
+        }
+    }
+
+    /**
+     * TDD.
+     */
+    @Test(expected = FeatureNotFoundException.class)
+    public void testBulkDeleteUnknownFeature() {
+        // Given
+        assertFf4j.assertThatFeatureDoesNotExist(FEATURE_NEW);
+        // When
+        testedStore.deleteAll(Arrays.asList(F1, FEATURE_NEW));
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testBulkReadIgnoresUnknownFeature() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F1);
+        assertFf4j.assertThatFeatureExist(F2);
+        assertFf4j.assertThatFeatureDoesNotExist(FEATURE_NEW);
+        // When
+        Map<String, Feature> features = testedStore.readAll(Arrays.asList(F1, F2, FEATURE_NEW));
+        // Then
+        Assert.assertEquals(2, features.size());
+        Assert.assertEquals(testedStore.read(F1).getPermissions(), features.get(F1).getPermissions());
+        Assert.assertEquals(testedStore.read(F2).getCustomProperties().keySet(), features.get(F2).getCustomProperties().keySet());
+    }
 
 }
@@ -11,10 +11,22 @@ package org.ff4j.test.store;
  * governing permissions and limitations under the License. #L%
  */
 
+import java.util.Arrays;
+import java.util.Map;
+
+import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.property.Property;
+import org.ff4j.property.PropertyInt;
+import org.ff4j.store.FeatureChanges;
+import org.ff4j.store.FeatureImportReport;
 import org.ff4j.store.JdbcFeatureStore;
+import org.ff4j.strategy.PonderationStrategy;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
@@ -56,4 +68,118 @@ public class JdbcFeatureStoreCoreTest extends AbstractStoreTest {
     public void tearDown() throws Exception {
         db.shutdown();
     }
+
+    /** Roles and custom properties are joined in a single query, each must be mapped once. */
+    @Test
+    public void testReadJoinedRolesAndProperties() {
+        Feature f = new Feature("joined", true, "desc", "GRP9", Arrays.asList("R1", "R2", "R3"));
+        f.getCustomProperties().put("p1", new Property("p1", "v1"));
+        f.getCustomProperties().put("p2", new PropertyInt("p2", "2"));
+        testedStore.create(f);
+        Feature read = testedStore.read("joined");
+        Assert.assertEquals(3, read.getPermissions().size());
+        Assert.assertEquals(2, read.getCustomProperties().size());
+        Assert.assertEquals(2, read.getProperty("p2").asInt());
+        Assert.assertEquals("GRP9", read.getGroup());
+    }
+
+    /** Existence is given by the number of updated rows. */
+    @Test(expected = FeatureNotFoundException.class)
+    public void testEnableUnknownFeature() {
+        testedStore.enable("does-not-exist");
+    }
+
+    /** Bulk loading brings complete features. */
+    @Test
+    public void testReadAllWithCustomProperties() {
+        ((JdbcFeatureStore) testedStore).setFetchSize(2);
+        Feature first = testedStore.readAll().get("first");
+        Assert.assertEquals(testedStore.read("first").getCustomProperties().keySet(), first.getCustomProperties().keySet());
+        Assert.assertTrue(first.getPermissions().contains("USER"));
+        Assert.assertEquals(2, testedStore.readGroup("GRP1").get("forth").getPermissions().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeFetchSize() {
+        ((JdbcFeatureStore) testedStore).setFetchSize(-1);
+    }
+
+    /** Import upserts features, replacing roles and properties of existing ones. */
+    @Test
+    public void testImportFeatures() {
+        JdbcFeatureStore jdbcStore = (JdbcFeatureStore) testedStore;
+        jdbcStore.setBatchSize(1);
+        Feature existing = new Feature("first", false, "imported", "GRP9", Arrays.asList("ADMIN"));
+        Feature created  = new Feature("imported", true, "new one", null, Arrays.asList("R1", "R2"));
+        created.getCustomProperties().put("p1", new Property("p1", "v1"));
+        FeatureImportReport report = jdbcStore.importFeatures(Arrays.asList(existing, created));
+        Assert.assertEquals(1, report.getCreatedCount());
+        Assert.assertEquals(1, report.getUpdatedCount());
+        Assert.assertEquals(3, report.getRoleCount());
+        Assert.assertEquals(1, report.getPropertyCount());
+        Feature first = testedStore.read("first");
+        Assert.assertFalse(first.isEnable());
+        Assert.assertEquals("GRP9", first.getGroup());
+        Assert.assertEquals(1, first.getPermissions().size());
+        Assert.assertTrue(first.getCustomProperties().isEmpty());
+        Assert.assertEquals("v1", testedStore.read("imported").getProperty("p1").asString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        ((JdbcFeatureStore) testedStore).setBatchSize(0);
+    }
+
+    /** A runtime error in the middle of a write rolls the transaction back. */
+    @Test
+    public void testCreateRollbackOnRuntimeException() {
+        JdbcFeatureStore jdbcStore = (JdbcFeatureStore) testedStore;
+        long version = jdbcStore.getCurrentVersion();
+        Feature broken = new Feature("broken", true);
+        broken.setFlippingStrategy(new PonderationStrategy() {
+            /** {@inheritDoc} */
+            @Override
+            public Map<String, String> getInitParams() {
+                throw new IllegalStateException("Cannot serialize strategy");
+            }
+        });
+        try {
+            testedStore.create(broken);
+            Assert.fail();
+        } catch (IllegalStateException ise) {
+            Assert.assertFalse(testedStore.exist("broken"));
+            Assert.assertEquals(version, jdbcStore.getCurrentVersion());
+        }
+    }
+
+    /** Only features modified after a version are returned, deletions as tombstones. */
+    @Test
+    public void testReadChangesSince() {
+        JdbcFeatureStore jdbcStore = (JdbcFeatureStore) testedStore;
+        Assert.assertEquals(0, jdbcStore.getCurrentVersion());
+        // Seeded features have version 0, first synchronization returns all of them
+        FeatureChanges all = jdbcStore.readChangesSince(0);
+        Assert.assertEquals(testedStore.readAll().keySet(), all.getUpdatedFeatures().keySet());
+        Assert.assertTrue(all.getDeletedFeatures().isEmpty());
+        testedStore.disable("forth");
+        long version = jdbcStore.getCurrentVersion();
+        Assert.assertTrue(jdbcStore.readChangesSince(version).isEmpty());
+        testedStore.enable("second");
+        testedStore.grantRoleOnFeature("third", "R9");
+        testedStore.delete("first");
+        FeatureChanges changes = jdbcStore.readChangesSince(version);
+        Assert.assertEquals(2, changes.getUpdatedFeatures().size());
+        Assert.assertTrue(changes.getUpdatedFeatures().get("second").isEnable());
+        Assert.assertTrue(changes.getUpdatedFeatures().get("third").getPermissions().contains("R9"));
+        Assert.assertEquals(1, changes.getDeletedFeatures().size());
+        Assert.assertTrue(changes.getDeletedFeatures().contains("first"));
+        Assert.assertTrue(changes.getToVersion() > version);
+        // Nothing new after last poll, recreation removes tombstone
+        Assert.assertTrue(jdbcStore.readChangesSince(changes.getToVersion()).isEmpty());
+        testedStore.create(new Feature("first", true));
+        changes = jdbcStore.readChangesSince(changes.getToVersion());
+        Assert.assertTrue(changes.getUpdatedFeatures().containsKey("first"));
+        Assert.assertTrue(jdbcStore.readChangesSince(version).getDeletedFeatures().isEmpty());
+    }
+
 }
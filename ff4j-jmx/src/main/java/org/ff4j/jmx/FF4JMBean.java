@@ -21,11 +21,14 @@ package org.ff4j.jmx;
  */
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.ff4j.FF4j;
+import org.ff4j.cache.CacheStatistics;
+import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.core.Feature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
@@ -65,6 +68,28 @@ public class FF4JMBean {
         return mapsOfBool;
     }
 
+    /**
+     * Publication of cache statistics through JMX.
+     * 
+     * @return map of statistics, empty if store is not cached
+     */
+    @ManagedAttribute(description = "Returns usage statistics of the cache (hits, misses, loads, evictions, size)")
+    public Map<String, Number> getCacheStatistics() {
+        Map<String, Number> mapOfStats = new LinkedHashMap<String, Number>();
+        if (getFf4j().getFeatureStore().isCached()) {
+            CacheStatistics stats = ((FeatureStoreCacheProxy) getFf4j().getFeatureStore()).getCacheManager().getCacheStatistics();
+            mapOfStats.put("hitCount", stats.getHitCount());
+            mapOfStats.put("missCount", stats.getMissCount());
+            mapOfStats.put("hitRatio", stats.getHitRatio());
+            mapOfStats.put("loadCount", stats.getLoadCount());
+            mapOfStats.put("averageLoadTime", stats.getAverageLoadTime());
+            mapOfStats.put("maxLoadTime", stats.getMaxLoadTime());
+            mapOfStats.put("evictionCount", stats.getEvictionCount());
+            mapOfStats.put("size", stats.getSize());
+        }
+        return mapOfStats;
+    }
+
     /**
      * Exposition of 'enable' method
      * 
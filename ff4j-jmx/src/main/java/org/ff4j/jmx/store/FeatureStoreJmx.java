@@ -1,5 +1,7 @@
 package org.ff4j.jmx.store;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -64,6 +66,17 @@ public class FeatureStoreJmx implements FeatureStore {
         return null;
     }
 
+    @Override
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String uid : featureIds) {
+            if (exist(uid)) {
+                features.put(uid, read(uid));
+            }
+        }
+        return features;
+    }
+
     @Override
     public void delete(String fpId) {
         // TODO Auto-generated method stub
@@ -124,6 +137,27 @@ public class FeatureStoreJmx implements FeatureStore {
         
     }
 
+    @Override
+    public void createAll(Collection<Feature> features) {
+        for (Feature fp : features) {
+            create(fp);
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        for (Feature fp : features) {
+            update(fp);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> featureIds) {
+        for (String uid : featureIds) {
+            delete(uid);
+        }
+    }
+
     @Override
     public Set<String> readAllGroups() {
         // TODO Auto-generated method stub
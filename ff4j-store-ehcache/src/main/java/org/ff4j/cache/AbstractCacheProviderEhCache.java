@@ -0,0 +1,270 @@
+package org.ff4j.cache;
+
+/*
+ * #%L ff4j-cache-ehcache %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.Statistics;
+import net.sf.ehcache.config.CacheConfiguration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Superclass of cache-aside implementations with EHCACHE (features, properties): creation of the cache from its configuration,
+ * eviction and statistics are handled here, subclasses give the key of the cached objects.
+ * 
+ * @param <T>
+ *            cached object
+ */
+public abstract class AbstractCacheProviderEhCache<T> {
+
+    /** Logger for the class. */
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /** Configuration used to create the cache if it does not exist. */
+    private CacheConfiguration cacheConfiguration;
+
+    /** Cache manager holding the cache, singleton if not provided. */
+    private CacheManager cacheManager;
+
+    /** Eh Cache - cache-aside mode utlization. */
+    private Cache cache = null;
+
+    /** Usage counters (loads and explicit removals, hits and misses come from native statistics). */
+    private final CacheStatisticsCounter statistics = new CacheStatisticsCounter();
+
+    /**
+     * Initialization with a full configuration, the cache is created in the singleton {@link CacheManager}.
+     * 
+     * @param cacheConfiguration
+     *            cache configuration
+     */
+    protected AbstractCacheProviderEhCache(CacheConfiguration cacheConfiguration) {
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    /**
+     * Initialization with a full configuration and the cache manager to create the cache in.
+     * 
+     * @param cacheManager
+     *            target cache manager
+     * @param cacheConfiguration
+     *            cache configuration
+     */
+    protected AbstractCacheProviderEhCache(CacheManager cacheManager, CacheConfiguration cacheConfiguration) {
+        this.cacheManager = cacheManager;
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    /**
+     * Initialization with an existing cache (for instance defined in ehcache.xml).
+     * 
+     * @param cache
+     *            target cache
+     */
+    protected AbstractCacheProviderEhCache(Cache cache) {
+        this.cache = cache;
+        this.cacheManager = cache.getCacheManager();
+        this.cacheConfiguration = cache.getCacheConfiguration();
+        enableStatistics();
+    }
+
+    /**
+     * Key of an object in cache.
+     * 
+     * @param entry
+     *            cached object
+     * @return key
+     */
+    protected abstract String getKey(T entry);
+
+    /**
+     * Remove everything present within cache.
+     */
+    public void clear() {
+        statistics.recordEviction(getCache().getSize());
+        getCache().removeAll();
+    }
+
+    /**
+     * Remove an object from cache.
+     * 
+     * @param key
+     *            key of object
+     */
+    public void evict(String key) {
+        if (key != null && getCache().remove(key)) {
+            statistics.recordEviction(1);
+        }
+    }
+
+    /**
+     * Add object to cache.
+     * 
+     * @param entry
+     *            object to be cached
+     */
+    public void put(T entry) {
+        getCache().put(new Element(getKey(entry), entry));
+    }
+
+    /**
+     * Return object stored in cache.
+     * 
+     * @param key
+     *            key of object
+     * @return cached object, null if not cached
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Element e = getCache().get(key);
+        if (e != null) {
+            return (T) e.getObjectValue();
+        }
+        return null;
+    }
+
+    /**
+     * Access to embedded implementation of cache.
+     * 
+     * @return native implementation of cache.
+     */
+    public Object getNativeCache() {
+        return getCache();
+    }
+
+    /**
+     * Keys of objects in cache.
+     * 
+     * @return keys
+     */
+    @SuppressWarnings("unchecked")
+    protected Set<String> listCachedKeys() {
+        return new HashSet<String>(getCache().getKeys());
+    }
+
+    /**
+     * Get name of expected cache.
+     * 
+     * @return target cache name
+     */
+    public String getCacheProviderName() {
+        return "EHCACHE";
+    }
+
+    /**
+     * Record the time spent to load an object from the target store after a cache miss.
+     * 
+     * @param loadTime
+     *            loading time in nanoseconds
+     */
+    public void recordLoad(long loadTime) {
+        statistics.recordLoad(loadTime);
+    }
+
+    /**
+     * Access usage figures of the cache (hits, misses, loads, evictions and size).
+     * 
+     * @return snapshot of statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        Statistics nativeStats = getCache().getStatistics();
+        return statistics.toStatistics(nativeStats.getCacheHits(), nativeStats.getCacheMisses(), 
+                nativeStats.getEvictionCount(), getCache().getSize());
+    }
+
+    /**
+     * Retrieve cache. If not exist, created from configuration
+     * 
+     * @return
+     */
+    public synchronized Cache getCache() {
+        if (cache == null) {
+            initializeCache();
+        }
+        return cache;
+    }
+
+    /**
+     * Ininitialize cache
+     */
+    private void initializeCache() {
+        if (cacheManager == null) {
+            cacheManager = CacheManager.create();
+        }
+        String cacheName = cacheConfiguration.getName();
+        if (!cacheManager.cacheExists(cacheName)) {
+            cacheManager.addCache(new Cache(cacheConfiguration));
+        }
+        cache = cacheManager.getCache(cacheName);
+        enableStatistics();
+        log.debug("CacheManager initialized as '{}'", cache.getName());
+    }
+
+    /**
+     * Hits, misses and evictions are read from EhCache statistics.
+     */
+    private void enableStatistics() {
+        if (!cache.isStatisticsEnabled()) {
+            cache.setStatisticsEnabled(true);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'cacheConfiguration'.
+     *
+     * @return
+     *       current value of 'cacheConfiguration'
+     */
+    public CacheConfiguration getCacheConfiguration() {
+        return cacheConfiguration;
+    }
+
+    /**
+     * Setter accessor for attribute 'cacheConfiguration', used when the cache is created.
+     * 
+     * @param cacheConfiguration
+     *            new value for 'cacheConfiguration '
+     */
+    public void setCacheConfiguration(CacheConfiguration cacheConfiguration) {
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    /**
+     * Getter accessor for attribute 'cacheManager'.
+     *
+     * @return
+     *       current value of 'cacheManager'
+     */
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    /**
+     * Setter accessor for attribute 'cacheManager', used when the cache is created.
+     * 
+     * @param cacheManager
+     *            new value for 'cacheManager '
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+}
@@ -11,16 +11,15 @@ package org.ff4j.cache;
  * governing permissions and limitations under the License. #L%
  */
 
-import java.util.HashSet;
 import java.util.Set;
 
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.MemoryUnit;
+import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 
 import org.ff4j.core.Feature;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Cache-aside implementation with EHCACHE.
@@ -28,100 +27,128 @@ import org.slf4j.LoggerFactory;
  * Application code uses the cache directly. This means that application code which accesses the system-of-record (SOR) should
  * consult the cache first, and if the cache contains the data, then return the data directly from the cache, bypassing the SOR.
  * 
+ * The cache is created from a {@link CacheConfiguration} (heap entries, off-heap bytes, TTL/TTI, eviction policy) or an existing
+ * {@link Cache} can be provided. The off-heap tier (overflowToOffHeap) requires BigMemory on the classpath, values are then
+ * serialized and every {@link org.ff4j.core.FlippingStrategy} used must be {@link java.io.Serializable}.
+ * 
  * * Warn : DO NOT USE THIS CACHE WHEN WORKING WITH EXTERNAL FEATURESTORE (as Database) and cluster application : EACH NODE GOT
  * ITS MEMORY AND AN MODIFICATION IN STORE WON'T REFRESH THIS CACHE. Please use REDIS/MEMCACHED implementations.
  */
-public class FeatureCacheProviderEhCache implements FeatureCacheManager {
-
-    /** Logger for the class. */
-    private static final Logger LOG = LoggerFactory.getLogger(FeatureStoreCacheProxy.class);
+public class FeatureCacheProviderEhCache extends AbstractCacheProviderEhCache<Feature> implements FeatureCacheManager {
 
-    /** Default TTL is one hour. */
+    /** Default TTL is two minutes. */
     public static final long DEFAULT_TIME_TO_LIVE = 120L;
 
     /** Default time to idle. */
     public static final long DEFAULT_TIME_TO_IDLE = 120L;
 
+    /** Default number of features kept on heap. */
+    public static final long DEFAULT_MAX_ENTRIES_LOCAL_HEAP = 10000L;
+
     /** Default cache name. */
     public static final String DEFAULT_CACHENAME = "ff4j-cache";
 
-    /** Eh Cache - cache-aside mode utlization. */
-    private Cache cache = null;
-
     /**
      * Default constructor to allow IoC.
      */
-    public FeatureCacheProviderEhCache() {}
+    public FeatureCacheProviderEhCache() {
+        this(DEFAULT_CACHENAME, DEFAULT_MAX_ENTRIES_LOCAL_HEAP, 0, DEFAULT_TIME_TO_LIVE, DEFAULT_TIME_TO_IDLE,
+                MemoryStoreEvictionPolicy.LRU.toString());
+    }
 
-    /** {@inheritDoc} */
-    @Override
-    public void clear() {
-        getCache().flush();
+    /**
+     * Initialization with cache sizing and expiration.
+     * 
+     * @param cacheName
+     *            name of the cache
+     * @param maxEntriesLocalHeap
+     *            number of features kept on heap
+     * @param maxBytesLocalOffHeap
+     *            size of the off-heap tier in bytes, 0 to disable it
+     * @param timeToLive
+     *            time to live in seconds
+     * @param timeToIdle
+     *            time to idle in seconds
+     * @param evictionPolicy
+     *            eviction policy (LRU, LFU, FIFO)
+     */
+    public FeatureCacheProviderEhCache(String cacheName, long maxEntriesLocalHeap, long maxBytesLocalOffHeap, long timeToLive,
+            long timeToIdle, String evictionPolicy) {
+        super(createConfiguration(cacheName, maxEntriesLocalHeap, maxBytesLocalOffHeap, timeToLive, timeToIdle, evictionPolicy));
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void evict(String featureId) {
-        getCache().remove(featureId);
+    /**
+     * Initialization with a full configuration, the cache is created in the singleton {@link CacheManager}.
+     * 
+     * @param cacheConfiguration
+     *            cache configuration
+     */
+    public FeatureCacheProviderEhCache(CacheConfiguration cacheConfiguration) {
+        super(cacheConfiguration);
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void put(Feature feat) {
-        getCache().put(new Element(feat.getUid(), feat));
+    /**
+     * Initialization with a full configuration and the cache manager to create the cache in.
+     * 
+     * @param cacheManager
+     *            target cache manager
+     * @param cacheConfiguration
+     *            cache configuration
+     */
+    public FeatureCacheProviderEhCache(CacheManager cacheManager, CacheConfiguration cacheConfiguration) {
+        super(cacheManager, cacheConfiguration);
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public Feature get(String featureId) {
-        Element e = getCache().get(featureId);
-        if (e != null) {
-            return (Feature) e.getObjectValue();
-        }
-        return null;
+    /**
+     * Initialization with an existing cache (for instance defined in ehcache.xml).
+     * 
+     * @param cache
+     *            target cache
+     */
+    public FeatureCacheProviderEhCache(Cache cache) {
+        super(cache);
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public Object getNativeCache() {
-        return getCache();
+    /**
+     * Build cache configuration from sizing and expiration.
+     * 
+     * @param cacheName
+     *            name of the cache
+     * @param maxEntriesLocalHeap
+     *            number of entries kept on heap
+     * @param maxBytesLocalOffHeap
+     *            size of the off-heap tier in bytes, 0 to disable it
+     * @param timeToLive
+     *            time to live in seconds
+     * @param timeToIdle
+     *            time to idle in seconds
+     * @param evictionPolicy
+     *            eviction policy (LRU, LFU, FIFO)
+     * @return cache configuration
+     */
+    static CacheConfiguration createConfiguration(String cacheName, long maxEntriesLocalHeap, long maxBytesLocalOffHeap,
+            long timeToLive, long timeToIdle, String evictionPolicy) {
+        CacheConfiguration config = new CacheConfiguration(cacheName, (int) maxEntriesLocalHeap);
+        config.timeToLiveSeconds(timeToLive);
+        config.timeToIdleSeconds(timeToIdle);
+        config.memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.fromString(evictionPolicy));
+        if (maxBytesLocalOffHeap > 0) {
+            config.overflowToOffHeap(true);
+            config.maxBytesLocalOffHeap(maxBytesLocalOffHeap, MemoryUnit.BYTES);
+        }
+        return config;
     }
-    
+
     /** {@inheritDoc} */
     @Override
-    @SuppressWarnings("unchecked")
-    public Set<String> listCachedFeatureNames() {
-        return new HashSet<String>(getCache().getKeys());
+    protected String getKey(Feature feat) {
+        return feat.getUid();
     }
 
     /** {@inheritDoc} */
     @Override
-    public String getCacheProviderName() {
-        return "EHCACHE";
-    }
-
-    /**
-     * Retrieve cache. If not exist, created default cache
-     * 
-     * @return
-     */
-    private Cache getCache() {
-        if (cache == null) {
-            initializeCache();
-        }
-        return cache;
+    public Set<String> listCachedFeatureNames() {
+        return listCachedKeys();
     }
 
-    /**
-     * Ininitialize cache
-     */
-    private void initializeCache() {
-        CacheManager cacheManager = CacheManager.create();
-        if (!cacheManager.cacheExists(DEFAULT_CACHENAME)) {
-            cacheManager.addCache(DEFAULT_CACHENAME);
-        }
-        cache = cacheManager.getCache(DEFAULT_CACHENAME);
-        LOG.debug("CacheManager initialized as '{}'", cache.getName());
-    }   
-
 }
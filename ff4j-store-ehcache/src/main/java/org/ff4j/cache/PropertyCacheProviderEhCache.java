@@ -0,0 +1,88 @@
+package org.ff4j.cache;
+
+/*
+ * #%L ff4j-cache-ehcache %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.Set;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+
+import org.ff4j.property.AbstractProperty;
+
+/**
+ * Cache-aside implementation with EHCACHE for properties, to be used with {@link PropertyStoreCacheProxy}.
+ * 
+ * * Warn : DO NOT USE THIS CACHE WHEN WORKING WITH EXTERNAL PROPERTYSTORE (as Database) and cluster application : EACH NODE GOT
+ * ITS MEMORY AND AN MODIFICATION IN STORE WON'T REFRESH THIS CACHE. Please use REDIS implementation.
+ */
+public class PropertyCacheProviderEhCache extends AbstractCacheProviderEhCache<AbstractProperty<?>> implements PropertyCacheManager {
+
+    /** Default cache name, distinct from the features one. */
+    public static final String DEFAULT_CACHENAME = "ff4j-property-cache";
+
+    /**
+     * Default constructor to allow IoC.
+     */
+    public PropertyCacheProviderEhCache() {
+        super(FeatureCacheProviderEhCache.createConfiguration(DEFAULT_CACHENAME,
+                FeatureCacheProviderEhCache.DEFAULT_MAX_ENTRIES_LOCAL_HEAP, 0, 
+                FeatureCacheProviderEhCache.DEFAULT_TIME_TO_LIVE, FeatureCacheProviderEhCache.DEFAULT_TIME_TO_IDLE,
+                MemoryStoreEvictionPolicy.LRU.toString()));
+    }
+
+    /**
+     * Initialization with a full configuration, the cache is created in the singleton {@link CacheManager}.
+     * 
+     * @param cacheConfiguration
+     *            cache configuration
+     */
+    public PropertyCacheProviderEhCache(CacheConfiguration cacheConfiguration) {
+        super(cacheConfiguration);
+    }
+
+    /**
+     * Initialization with a full configuration and the cache manager to create the cache in.
+     * 
+     * @param cacheManager
+     *            target cache manager
+     * @param cacheConfiguration
+     *            cache configuration
+     */
+    public PropertyCacheProviderEhCache(CacheManager cacheManager, CacheConfiguration cacheConfiguration) {
+        super(cacheManager, cacheConfiguration);
+    }
+
+    /**
+     * Initialization with an existing cache (for instance defined in ehcache.xml).
+     * 
+     * @param cache
+     *            target cache
+     */
+    public PropertyCacheProviderEhCache(Cache cache) {
+        super(cache);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getKey(AbstractProperty<?> property) {
+        return property.getName();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> listCachedPropertyNames() {
+        return listCachedKeys();
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-store-ehcache
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+
+import org.ff4j.core.Feature;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check that cache configuration is applied to the EhCache provider.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class EhCacheConfigurationTest {
+
+    @Test
+    public void testCacheCreatedFromSettings() {
+        // Given
+        FeatureCacheProviderEhCache provider = new FeatureCacheProviderEhCache("ff4j-cache-settings", 2, 0, 30, 10, "LFU");
+        // When
+        Cache cache = (Cache) provider.getNativeCache();
+        // Then
+        CacheConfiguration config = cache.getCacheConfiguration();
+        Assert.assertEquals("ff4j-cache-settings", cache.getName());
+        Assert.assertEquals(2, config.getMaxEntriesLocalHeap());
+        Assert.assertEquals(30, config.getTimeToLiveSeconds());
+        Assert.assertEquals(10, config.getTimeToIdleSeconds());
+        Assert.assertEquals(MemoryStoreEvictionPolicy.LFU, config.getMemoryStoreEvictionPolicy());
+        Assert.assertFalse(config.isOverflowToOffHeap());
+    }
+
+    @Test
+    public void testHeapLimitEvictsFeatures() {
+        // Given
+        FeatureCacheProviderEhCache provider = new FeatureCacheProviderEhCache("ff4j-cache-small", 2, 0, 60, 60, "LRU");
+        provider.clear();
+        // When
+        provider.put(new Feature("f1", true));
+        provider.put(new Feature("f2", true));
+        provider.put(new Feature("f3", true));
+        // Then
+        Assert.assertEquals(2, provider.listCachedFeatureNames().size());
+        Assert.assertTrue(provider.getCacheStatistics().getEvictionCount() >= 1);
+    }
+
+    @Test
+    public void testExistingCache() {
+        // Given
+        FeatureCacheProviderEhCache first = new FeatureCacheProviderEhCache(new CacheConfiguration("ff4j-cache-shared", 100));
+        first.put(new Feature("shared", true));
+        // When
+        FeatureCacheProviderEhCache second = new FeatureCacheProviderEhCache(first.getCache());
+        // Then
+        Assert.assertNotNull(second.get("shared"));
+        Assert.assertEquals(1, second.getCacheStatistics().getHitCount());
+    }
+
+}
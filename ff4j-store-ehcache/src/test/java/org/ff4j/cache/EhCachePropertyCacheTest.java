@@ -0,0 +1,77 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-store-ehcache
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.property.Property;
+import org.ff4j.property.store.InMemoryPropertyStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test {@link PropertyStoreCacheProxy} with {@link PropertyCacheProviderEhCache}.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class EhCachePropertyCacheTest {
+
+    /** Cache Manager. */
+    private final PropertyCacheProviderEhCache cache = new PropertyCacheProviderEhCache();
+
+    /** Tested store. */
+    private final PropertyStoreCacheProxy proxy = new PropertyStoreCacheProxy(new InMemoryPropertyStore(), cache);
+
+    /**
+     * Clear all elements
+     */
+    @After
+    public void tearDown() {
+        cache.clear();
+    }
+
+    @Test
+    public void testReadsAreCached() {
+        // Given
+        proxy.create(new Property("p1", "v1"));
+        // When
+        Assert.assertEquals("v1", proxy.read("p1").getValue());
+        Assert.assertEquals("v1", proxy.read("p1").getValue());
+        // Then
+        Assert.assertTrue(cache.listCachedPropertyNames().contains("p1"));
+        Assert.assertEquals(1, cache.getCacheStatistics().getLoadCount());
+        Assert.assertTrue(proxy.exist("p1"));
+    }
+
+    @Test
+    public void testWritesEvict() {
+        // Given
+        proxy.create(new Property("p2", "v1"));
+        proxy.read("p2");
+        // When
+        proxy.update("p2", "v2");
+        // Then
+        Assert.assertFalse(cache.listCachedPropertyNames().contains("p2"));
+        Assert.assertEquals("v2", proxy.read("p2").getValue());
+        proxy.delete("p2");
+        Assert.assertFalse(proxy.exist("p2"));
+    }
+
+}
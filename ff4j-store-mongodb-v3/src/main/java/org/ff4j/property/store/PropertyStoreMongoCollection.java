@@ -0,0 +1,374 @@
+package org.ff4j.property.store;
+
+/*
+ * #%L ff4j-store-jdbc %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.ff4j.exception.PropertyAlreadyExistException;
+import org.ff4j.exception.PropertyNotFoundException;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.store.mongodb.FeatureStoreMongoConstants;
+import org.ff4j.store.mongodb.PropertyDocumentMapper;
+import org.ff4j.utils.Util;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Implementation of {@link PropertyStore} to work with MongoDB, one document per property identified by its name.
+ * 
+ * Values are stored with their native BSON type (see {@link PropertyDocumentMapper}). Lookups by name use the index on '_id',
+ * several properties are read with a single query and written with unordered bulk writes.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreMongoCollection extends AbstractPropertyStore implements FeatureStoreMongoConstants {
+
+    /** Map from Document to property. */
+    private static final PropertyDocumentMapper MAPPER = new PropertyDocumentMapper();
+
+    /** Projection fetching identifier only. */
+    private static final Document ID_ONLY = new Document(UUID, 1);
+
+    /** default number of documents sent in each bulk write. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** MongoDB collection. */
+    private final MongoCollection<Document> collection;
+
+    /** number of documents sent in each bulk write. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** write concern of bulk writes, null to use the one of the collection. */
+    private WriteConcern writeConcern = null;
+
+    /**
+     * Parameterized constructor with collection.
+     * 
+     * @param collection
+     *            the collection to set
+     */
+    public PropertyStoreMongoCollection(MongoCollection<Document> collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * Parameterized constructor with collection.
+     * 
+     * @param collection
+     *            the collection to set
+     * @param xmlConfFile
+     *            xml configuration file
+     */
+    public PropertyStoreMongoCollection(MongoCollection<Document> collection, String xmlConfFile) {
+        this(collection);
+        importPropertiesFromXmlFile(xmlConfFile);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String name) {
+        Util.assertHasLength(name);
+        return collection.find(new Document(UUID, name)).projection(ID_ONLY).first() != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void create(AbstractProperty<T> ap) {
+        if (ap == null) {
+            throw new IllegalArgumentException("Property cannot be null nor empty");
+        }
+        Util.assertHasLength(ap.getName());
+        // Unique index of '_id' is the existence check
+        try {
+            collection.insertOne(MAPPER.toDocument(ap));
+        } catch (MongoWriteException mwe) {
+            if (ErrorCategory.DUPLICATE_KEY == mwe.getError().getCategory()) {
+                throw new PropertyAlreadyExistException(ap.getName());
+            }
+            throw mwe;
+        }
+        collection.updateOne(new Document(UUID, ap.getName()), touch(new Document()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractProperty<?> read(String name) {
+        Util.assertHasLength(name);
+        Document document = collection.find(new Document(UUID, name)).first();
+        if (document == null) {
+            throw new PropertyNotFoundException(name);
+        }
+        return MAPPER.mapProperty(document);
+    }
+
+    /**
+     * Read several properties with a single query.
+     * 
+     * @param names
+     *            property names
+     * @return existing properties
+     */
+    public Map<String, AbstractProperty<?>> readProperties(Collection<String> names) {
+        if (names == null) {
+            throw new IllegalArgumentException("Property names cannot be null");
+        }
+        Map<String, AbstractProperty<?>> properties = new LinkedHashMap<String, AbstractProperty<?>>();
+        if (!names.isEmpty()) {
+            Document query = new Document(UUID, new Document("$in", new ArrayList<String>(names)));
+            for (Document document : collection.find(query)) {
+                AbstractProperty<?> ap = MAPPER.mapProperty(document);
+                properties.put(ap.getName(), ap);
+            }
+        }
+        return properties;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(String name, String newValue) {
+        // Check existence and validate new value against type
+        AbstractProperty<?> ap = read(name);
+        ap.setValueFromString(newValue);
+        Document newFields = new Document(PROPERTY_VALUE, MAPPER.toBson(ap.getValue()));
+        UpdateResult result = collection.updateOne(new Document(UUID, name), touch(new Document(MONGO_SET, newFields)));
+        if (result.getMatchedCount() == 0) {
+            throw new PropertyNotFoundException(name);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void update(AbstractProperty<T> prop) {
+        if (prop == null || prop.getName() == null || prop.getName().isEmpty()) {
+            throw new IllegalArgumentException("Cannot update property, please provide property name");
+        }
+        UpdateResult result = collection.updateOne(new Document(UUID, prop.getName()), toUpdate(prop));
+        if (result.getMatchedCount() == 0) {
+            throw new PropertyNotFoundException(prop.getName());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String name) {
+        Util.assertHasLength(name);
+        DeleteResult result = collection.deleteOne(new Document(UUID, name));
+        if (result.getDeletedCount() == 0) {
+            throw new PropertyNotFoundException(name);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, AbstractProperty<?>> readAllProperties() {
+        Map<String, AbstractProperty<?>> properties = new LinkedHashMap<String, AbstractProperty<?>>();
+        for (Document document : collection.find()) {
+            AbstractProperty<?> ap = MAPPER.mapProperty(document);
+            properties.put(ap.getName(), ap);
+        }
+        return properties;
+    }
+
+    /**
+     * Check existence of all properties with a single query, then insert them with unordered bulk writes. Date of last change is
+     * set afterwards with a single update.
+     * 
+     * @param properties
+     *            properties to create
+     */
+    @Override
+    public void createAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        Set<String> existing = readExistingNames(properties);
+        List<WriteModel<Document>> inserts = new ArrayList<WriteModel<Document>>();
+        List<String> names = new ArrayList<String>();
+        for (AbstractProperty<?> ap : properties) {
+            if (existing.contains(ap.getName())) {
+                throw new PropertyAlreadyExistException(ap.getName());
+            }
+            inserts.add(new InsertOneModel<Document>(MAPPER.toDocument(ap)));
+            names.add(ap.getName());
+        }
+        bulkWrite(inserts);
+        collection.updateMany(new Document(UUID, new Document("$in", names)), touch(new Document()));
+    }
+
+    /**
+     * Check existence of all properties with a single query, then overwrite them with unordered bulk writes.
+     * 
+     * @param properties
+     *            new values of properties
+     */
+    @Override
+    public void updateAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        Set<String> existing = readExistingNames(properties);
+        List<WriteModel<Document>> replacements = new ArrayList<WriteModel<Document>>();
+        for (AbstractProperty<?> ap : properties) {
+            if (!existing.contains(ap.getName())) {
+                throw new PropertyNotFoundException(ap.getName());
+            }
+            replacements.add(new UpdateOneModel<Document>(new Document(UUID, ap.getName()), toUpdate(ap)));
+        }
+        bulkWrite(replacements);
+    }
+
+    /**
+     * Import properties with unordered bulk upserts, existing properties are overwritten.
+     * 
+     * @param xmlConfFile
+     *      xml configuration file
+     */
+    @Override
+    public Map<String, AbstractProperty<?>> importPropertiesFromXmlFile(String xmlConfFile) {
+        Map<String, AbstractProperty<?>> properties = parseXmlFile(xmlConfFile);
+        UpdateOptions upsert = new UpdateOptions().upsert(true);
+        List<WriteModel<Document>> upserts = new ArrayList<WriteModel<Document>>();
+        for (AbstractProperty<?> ap : properties.values()) {
+            upserts.add(new UpdateOneModel<Document>(new Document(UUID, ap.getName()), toUpdate(ap), upsert));
+        }
+        bulkWrite(upserts);
+        return properties;
+    }
+
+    /**
+     * Update writing every attribute of a property, documents are never replaced as a replacement cannot hold operators.
+     * 
+     * @param ap
+     *            property to write
+     * @return update operators
+     */
+    private Document toUpdate(AbstractProperty<?> ap) {
+        Document fields = MAPPER.toDocument(ap);
+        fields.remove(UUID);
+        Document update = new Document(MONGO_SET, fields);
+        if (!fields.containsKey(PROPERTY_FIXED_VALUES)) {
+            update.append(MONGO_UNSET, new Document(PROPERTY_FIXED_VALUES, ""));
+        }
+        return touch(update);
+    }
+
+    /**
+     * Add date of last change to an update. Date is set by the server so that dates written by several clients are comparable.
+     * 
+     * @param update
+     *            update operators
+     * @return same update with '$currentDate' of {@link #LAST_MODIFIED}
+     */
+    private Document touch(Document update) {
+        return update.append(MONGO_CURRENT_DATE, new Document(LAST_MODIFIED, true));
+    }
+
+    /**
+     * Read which properties already exist with a single query, fetching identifiers only.
+     * 
+     * @param properties
+     *            target properties
+     * @return names of existing properties
+     */
+    private Set<String> readExistingNames(Collection<AbstractProperty<?>> properties) {
+        List<String> names = new ArrayList<String>();
+        for (AbstractProperty<?> ap : properties) {
+            names.add(ap.getName());
+        }
+        Set<String> existing = new HashSet<String>();
+        if (!names.isEmpty()) {
+            Document query = new Document(UUID, new Document("$in", names));
+            for (Document document : collection.find(query).projection(ID_ONLY)) {
+                existing.add(document.getString(UUID));
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Send writes as unordered bulks of {@link #batchSize} documents.
+     * 
+     * @param writes
+     *            write operations
+     */
+    private void bulkWrite(List<WriteModel<Document>> writes) {
+        MongoCollection<Document> target = (writeConcern == null) ? collection : collection.withWriteConcern(writeConcern);
+        BulkWriteOptions unordered = new BulkWriteOptions().ordered(false);
+        for (int idx = 0; idx < writes.size(); idx += batchSize) {
+            target.bulkWrite(writes.subList(idx, Math.min(idx + batchSize, writes.size())), unordered);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     * 
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize'.
+     * 
+     * @param batchSize
+     *            new value for 'batchSize '
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Getter accessor for attribute 'writeConcern'.
+     * 
+     * @return current value of 'writeConcern'
+     */
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    /**
+     * Setter accessor for attribute 'writeConcern', null to use the one of the collection.
+     * 
+     * @param writeConcern
+     *            new value for 'writeConcern '
+     */
+    public void setWriteConcern(WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
+    /**
+     * Getter accessor for attribute 'collection'.
+     * 
+     * @return current value of 'collection'
+     */
+    public MongoCollection<Document> getCollection() {
+        return collection;
+    }
+
+}
@@ -11,9 +11,12 @@ package org.ff4j.store;
  * governing permissions and limitations under the License. #L%
  */
 
-import com.mongodb.client.MongoCollection;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -27,6 +30,16 @@ import org.ff4j.store.mongodb.FeatureDocumentBuilder;
 import org.ff4j.store.mongodb.FeatureDocumentMapper;
 import org.ff4j.store.mongodb.FeatureStoreMongoConstants;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+
 /**
  * Implementation of {@link FeatureStore} to work with MongoDB.
  * 
@@ -41,17 +54,44 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
     /** Build fields. */
     private static final FeatureDocumentBuilder BUILDER = new FeatureDocumentBuilder();
 
+    /** Projection fetching identifier only. */
+    private static final Document ID_ONLY = new Document(UUID, 1);
+
+    /** default number of documents sent in each bulk write. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     /** MongoDB collection. */
     private final MongoCollection<Document> collection;
 
+    /** number of documents sent in each bulk write. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** write concern of bulk writes, null to use the one of the collection. */
+    private WriteConcern writeConcern = null;
+
     /**
-     * Parameterized constructor with collection.
+     * Parameterized constructor with collection, indexes are created if missing.
      * 
      * @param collection
      *            the collection to set
      */
     public FeatureStoreMongoCollection(MongoCollection<Document> collection) {
+        this(collection, true);
+    }
+
+    /**
+     * Parameterized constructor with collection.
+     * 
+     * @param collection
+     *            the collection to set
+     * @param createIndexes
+     *            create indexes if missing, false when they are managed at deployment (no command is then sent by the constructor)
+     */
+    public FeatureStoreMongoCollection(MongoCollection<Document> collection, boolean createIndexes) {
         this.collection = collection;
+        if (createIndexes) {
+            createIndexes();
+        }
     }
     
     /**
@@ -61,10 +101,20 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
      *            the collection to set
      */
     public FeatureStoreMongoCollection(MongoCollection<Document> collection, String xmlConfFile) {
-        this.collection = collection;
+        this(collection);
         importFeaturesFromXmlFile(xmlConfFile);
     }
 
+    /**
+     * Create indexes used by queries of the store, no-op if they already exist. Feature identifier is the '_id' attribute and
+     * thus already has its unique index. Invoked by constructors unless disabled, {@link FeatureStoreMongoCollectionReplica} also
+     * does it when started.
+     */
+    public void createIndexes() {
+        collection.createIndex(new Document(GROUPNAME, 1));
+        collection.createIndex(new Document(LAST_MODIFIED, 1));
+    }
+
     /** {@inheritDoc} */
     @Override
     public void enable(String featId) {
@@ -89,12 +139,67 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        updateFeature(uid, new Document(MONGO_SET, BUILDER.getEnable(enable)));
+    }
+
+    /**
+     * Update a single feature, existence is checked with the number of matched documents (single command).
+     * 
+     * @param uid
+     *            feature id
+     * @param update
+     *            update operators
+     */
+    private void updateFeature(String uid, Document update) {
+        UpdateResult result = collection.updateOne(BUILDER.getFeatUid(uid), touch(update));
+        if (result.getMatchedCount() == 0) {
             throw new FeatureNotFoundException(uid);
         }
-        Document target = BUILDER.getFeatUid(uid);
-        Object enabledd = BUILDER.getEnable(enable);
-        collection.updateOne(target, new Document(MONGO_SET, enabledd));
+    }
+
+    /**
+     * Add date of last change to an update, used by {@link FeatureStoreMongoCollectionReplica} to fetch changes. Date is set by
+     * the server so that dates written by several clients are comparable.
+     * 
+     * @param update
+     *            update operators
+     * @return same update with '$currentDate' of {@link #LAST_MODIFIED}
+     */
+    private Document touch(Document update) {
+        return update.append(MONGO_CURRENT_DATE, new Document(LAST_MODIFIED, true));
+    }
+
+    /**
+     * Update writing every attribute of a feature, documents are never replaced as a replacement cannot hold operators.
+     * 
+     * @param fp
+     *            feature to write
+     * @param operator
+     *            '$set' to overwrite or '$setOnInsert' to write only new documents
+     * @return update operators
+     */
+    private Document toUpdate(Feature fp, String operator) {
+        Document fields = MAPPER.toDocument(fp);
+        fields.remove(UUID);
+        return touch(new Document(operator, fields));
+    }
+
+    /**
+     * Update all features of a group with a single command.
+     * 
+     * @param groupName
+     *            target group
+     * @param update
+     *            update operators
+     */
+    private void updateGroup(String groupName, Document update) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        UpdateResult result = collection.updateMany(BUILDER.getGroupName(groupName), touch(update));
+        if (result.getMatchedCount() == 0) {
+            throw new GroupNotFoundException(groupName);
+        }
     }
 
     /** {@inheritDoc} */
@@ -122,10 +227,17 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
+        // Unique index of '_id' is the existence check, an existing document is left untouched
+        try {
+            collection.insertOne(MAPPER.toDocument(fp));
+        } catch (MongoWriteException mwe) {
+            if (ErrorCategory.DUPLICATE_KEY == mwe.getError().getCategory()) {
+                throw new FeatureAlreadyExistException(fp.getUid());
+            }
+            throw mwe;
         }
-        collection.insertOne(MAPPER.toDocument(fp));
+        // Date of last change is set by the server
+        collection.updateOne(BUILDER.getFeatUid(fp.getUid()), touch(new Document()));
     }
 
     /** {@inheritDoc} */
@@ -149,10 +261,7 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        collection.updateOne(BUILDER.getFeatUid(uid), new Document("$addToSet", BUILDER.getRoles(roleName)));
+        updateFeature(uid, new Document("$addToSet", BUILDER.getRoles(roleName)));
     }
 
     /** {@inheritDoc} */
@@ -164,10 +273,7 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        collection.updateOne(BUILDER.getFeatUid(uid), new Document("$pull", BUILDER.getRoles(roleName)));
+        updateFeature(uid, new Document("$pull", BUILDER.getRoles(roleName)));
     }
 
     /** {@inheritDoc} */
@@ -181,6 +287,35 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         return mapFP;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        if (featureIds.isEmpty()) {
+            return mapFP;
+        }
+        Document query = new Document(UUID, new Document("$in", new ArrayList<String>(featureIds)));
+        for(Document document : collection.find(query)) {
+            Feature feature = MAPPER.mapFeature(document);
+            mapFP.put(feature.getUid(), feature);
+        }
+        return mapFP;
+    }
+
+    /**
+     * Read identifiers of all features, only '_id' is fetched.
+     * 
+     * @return identifiers of features
+     */
+    private Set<String> readAllUids() {
+        Set<String> uids = new LinkedHashSet<String>();
+        for (Document document : collection.find().projection(ID_ONLY)) {
+            uids.add(document.getString(UUID));
+        }
+        return uids;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
@@ -188,7 +323,7 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
         Feature fpExist = read(fp.getUid());
-        collection.updateOne(BUILDER.getFeatUid(fp.getUid()), new Document(MONGO_SET, MAPPER.toDocument(fp)));
+        collection.updateOne(BUILDER.getFeatUid(fp.getUid()), toUpdate(fp, MONGO_SET));
         // enable/disable
         if (fp.isEnable() != fpExist.isEnable()) {
             if (fp.isEnable()) {
@@ -199,21 +334,144 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         }
     }
 
+    /**
+     * Check existence of all features with a single query, then insert them with unordered bulk upserts.
+     * 
+     * @param features
+     *            features to create
+     */
+    @Override
+    public void createAll(Collection<Feature> features) {
+        assertFeatures(features);
+        Set<String> existing = readExistingUids(features);
+        UpdateOptions upsert = new UpdateOptions().upsert(true);
+        List<WriteModel<Document>> inserts = new ArrayList<WriteModel<Document>>();
+        for (Feature fp : features) {
+            if (existing.contains(fp.getUid())) {
+                throw new FeatureAlreadyExistException(fp.getUid());
+            }
+            inserts.add(new UpdateOneModel<Document>(BUILDER.getFeatUid(fp.getUid()), toUpdate(fp, MONGO_SET_ON_INSERT), upsert));
+        }
+        bulkWrite(inserts);
+    }
+
+    /**
+     * Check existence of all features with a single query, then overwrite them with unordered bulk writes.
+     * 
+     * @param features
+     *            new values of features
+     */
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        assertFeatures(features);
+        Set<String> existing = readExistingUids(features);
+        List<WriteModel<Document>> replacements = new ArrayList<WriteModel<Document>>();
+        for (Feature fp : features) {
+            if (!existing.contains(fp.getUid())) {
+                throw new FeatureNotFoundException(fp.getUid());
+            }
+            replacements.add(new UpdateOneModel<Document>(BUILDER.getFeatUid(fp.getUid()), toUpdate(fp, MONGO_SET)));
+        }
+        bulkWrite(replacements);
+    }
+
+    /**
+     * Import features with unordered bulk upserts, existing features are overwritten.
+     * 
+     * @param xmlConfFile
+     *      xml configuration file
+     */
+    @Override
+    public Map<String, Feature> importFeaturesFromXmlFile(String xmlConfFile) {
+        Map<String, Feature> features = parseXmlFile(xmlConfFile);
+        importFeatures(features.values());
+        return features;
+    }
+
+    /**
+     * Upsert features with unordered bulk writes. Existing features are overwritten.
+     * 
+     * @param features
+     *            features to import
+     * @return counts and time spent
+     */
+    public FeatureImportReport importFeatures(Collection<Feature> features) {
+        if (features == null) {
+            throw new IllegalArgumentException("Features to import cannot be null");
+        }
+        long start = System.currentTimeMillis();
+        // Last occurence wins if an identifier is present twice
+        Map<String, Feature> toImport = new LinkedHashMap<String, Feature>();
+        for (Feature fp : features) {
+            if (fp == null || fp.getUid() == null || fp.getUid().isEmpty()) {
+                throw new IllegalArgumentException("Feature to import cannot be null nor have empty identifier");
+            }
+            toImport.put(fp.getUid(), fp);
+        }
+        Set<String> existing = readExistingUids(toImport.values());
+        UpdateOptions upsert = new UpdateOptions().upsert(true);
+        List<WriteModel<Document>> upserts = new ArrayList<WriteModel<Document>>();
+        int roleCount = 0;
+        for (Feature fp : toImport.values()) {
+            upserts.add(new UpdateOneModel<Document>(BUILDER.getFeatUid(fp.getUid()), toUpdate(fp, MONGO_SET), upsert));
+            roleCount += fp.getPermissions() == null ? 0 : fp.getPermissions().size();
+        }
+        bulkWrite(upserts);
+        return new FeatureImportReport(toImport.size() - existing.size(), existing.size(), 
+                roleCount, 0, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Read which features already exist with a single query, fetching identifiers only.
+     * 
+     * @param features
+     *            target features
+     * @return identifiers of existing features
+     */
+    private Set<String> readExistingUids(Collection<Feature> features) {
+        List<String> uids = new ArrayList<String>();
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
+        }
+        Set<String> existing = new HashSet<String>();
+        if (!uids.isEmpty()) {
+            Document query = new Document(UUID, new Document("$in", uids));
+            for (Document document : collection.find(query).projection(ID_ONLY)) {
+                existing.add(document.getString(UUID));
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Send writes as unordered bulks of {@link #batchSize} documents.
+     * 
+     * @param writes
+     *            write operations
+     */
+    private void bulkWrite(List<WriteModel<Document>> writes) {
+        MongoCollection<Document> target = (writeConcern == null) ? collection : collection.withWriteConcern(writeConcern);
+        BulkWriteOptions unordered = new BulkWriteOptions().ordered(false);
+        for (int idx = 0; idx < writes.size(); idx += batchSize) {
+            target.bulkWrite(writes.subList(idx, Math.min(idx + batchSize, writes.size())), unordered);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        return collection.count(BUILDER.getGroupName(groupName)) > 0;
+        return collection.find(BUILDER.getGroupName(groupName)).projection(ID_ONLY).first() != null;
     }
 
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
         Set<String> setOfGroups = new HashSet<String>();
-        for (Document document : collection.find()) {
-            setOfGroups.add(document.getString(GROUPNAME));
+        for (String groupName : collection.distinct(GROUPNAME, String.class)) {
+            setOfGroups.add(groupName);
         }
         setOfGroups.remove(null);
         setOfGroups.remove("");
@@ -240,31 +498,13 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
     /** {@inheritDoc} */
     @Override
     public void enableGroup(String groupName) {
-        if (groupName == null || groupName.isEmpty()) {
-            throw new IllegalArgumentException("Groupname cannot be null nor empty");
-        }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        for (Document document : collection.find(BUILDER.getGroupName(groupName))) {
-            Object enabled = BUILDER.getEnable(true);
-            collection.updateOne(document, new Document(MONGO_SET, enabled));
-        }
+        updateGroup(groupName, new Document(MONGO_SET, BUILDER.getEnable(true)));
     }
 
     /** {@inheritDoc} */
     @Override
     public void disableGroup(String groupName) {
-        if (groupName == null || groupName.isEmpty()) {
-            throw new IllegalArgumentException("Groupname cannot be null nor empty");
-        }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        for (Document document: collection.find(BUILDER.getGroupName(groupName))) {
-            Object enabled = BUILDER.getEnable(false);
-            collection.updateOne(document, new Document(MONGO_SET, enabled));
-        }
+        updateGroup(groupName, new Document(MONGO_SET, BUILDER.getEnable(false)));
     }
 
     /** {@inheritDoc} */
@@ -276,12 +516,7 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        Document target = BUILDER.getFeatUid(uid);
-        Document nGroupName = BUILDER.getGroupName(groupName);
-        collection.updateOne(target, new Document(MONGO_SET, nGroupName));
+        updateFeature(uid, new Document(MONGO_SET, BUILDER.getGroupName(groupName)));
     }
 
     /** {@inheritDoc} */
@@ -293,15 +528,67 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
+        Document inGroup = BUILDER.getFeatUid(uid).append(GROUPNAME, groupName);
+        UpdateResult result = collection.updateOne(inGroup, touch(new Document(MONGO_UNSET, BUILDER.getGroupName(""))));
+        if (result.getMatchedCount() == 0) {
+            // Diagnose only when nothing matched, a feature in another group is left unchanged
+            if (!exist(uid)) {
+                throw new FeatureNotFoundException(uid);
+            }
+            if (!existGroup(groupName)) {
+                throw new GroupNotFoundException(groupName);
+            }
         }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
+    }
+
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     * 
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize'.
+     * 
+     * @param batchSize
+     *            new value for 'batchSize '
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
         }
-        Document target = BUILDER.getFeatUid(uid);
-        Document nGroupName = BUILDER.getGroupName("");
-        collection.updateOne(target, new Document(MONGO_SET, nGroupName));
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Getter accessor for attribute 'writeConcern'.
+     * 
+     * @return current value of 'writeConcern'
+     */
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    /**
+     * Setter accessor for attribute 'writeConcern', null to use the one of the collection.
+     * 
+     * @param writeConcern
+     *            new value for 'writeConcern '
+     */
+    public void setWriteConcern(WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
+    /**
+     * Getter accessor for attribute 'collection'.
+     * 
+     * @return current value of 'collection'
+     */
+    public MongoCollection<Document> getCollection() {
+        return collection;
     }
 
     /** {@inheritDoc} */
@@ -315,7 +602,7 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
             sb.append(",\"cacheProvider\":\"" + this.getCacheProvider() + "\"");
             sb.append(",\"cacheStore\":\"" + this.getCachedTargetStore() + "\"");
         }
-        Set<String> myFeatures = readAll().keySet();
+        Set<String> myFeatures = readAllUids();
         sb.append(",\"numberOfFeatures\":" + myFeatures.size());
         sb.append(",\"features\":[");
         boolean first = true;
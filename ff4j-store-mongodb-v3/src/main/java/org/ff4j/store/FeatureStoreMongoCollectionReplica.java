@@ -0,0 +1,604 @@
+package org.ff4j.store;
+
+/*
+ * #%L ff4j-store-jdbc %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
+import org.ff4j.store.mongodb.FeatureDocumentBuilder;
+import org.ff4j.store.mongodb.FeatureDocumentMapper;
+import org.ff4j.store.mongodb.FeatureStoreMongoConstants;
+import org.ff4j.utils.Util;
+
+import com.mongodb.client.MongoCollection;
+
+/**
+ * {@link FeatureStore} keeping every feature of a {@link FeatureStoreMongoCollection} in memory: reads (and so each check) never
+ * reach MongoDB. The collection remains the source of truth, writes are sent to it and then applied locally.
+ * 
+ * Changes made by other applications are fetched by polling documents whose {@link #LAST_MODIFIED} date (set by the server) is
+ * after the most recent one already seen, minus a tolerance for writes still in progress. Deletions are detected by counting
+ * documents, identifiers are only scanned when count differs from the local copy. A full reload is performed at startup and
+ * periodically as a safety net, for documents written without date by older versions. Replication lag is the age of the last
+ * successful poll.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreMongoCollectionReplica extends AbstractFeatureStore implements FeatureStoreMongoConstants {
+
+    /** default period between two polls (milliseconds). */
+    public static final long DEFAULT_POLL_PERIOD = 1000;
+
+    /** default period between two full reloads (seconds). */
+    public static final long DEFAULT_RESYNC_PERIOD = 300;
+
+    /** default tolerance on dates of writes still in progress (milliseconds). */
+    public static final long DEFAULT_CLOCK_TOLERANCE = 5000;
+
+    /** Map from Document to Feature. */
+    private static final FeatureDocumentMapper MAPPER = new FeatureDocumentMapper();
+
+    /** Build fields. */
+    private static final FeatureDocumentBuilder BUILDER = new FeatureDocumentBuilder();
+
+    /** Projection fetching identifier only. */
+    private static final Document ID_ONLY = new Document(UUID, 1);
+
+    /** Source of truth. */
+    private final FeatureStoreMongoCollection target;
+
+    /** Local copy of features. */
+    private final Map<String, Feature> features = new ConcurrentHashMap<String, Feature>();
+
+    /** Last modification date of each local feature (milliseconds, 0 if unknown). */
+    private final Map<String, Long> versions = new ConcurrentHashMap<String, Long>();
+
+    /** period between two polls (milliseconds). */
+    private long pollPeriod = DEFAULT_POLL_PERIOD;
+
+    /** period between two full reloads (seconds). */
+    private long resyncPeriod = DEFAULT_RESYNC_PERIOD;
+
+    /** tolerance on dates of writes still in progress (milliseconds). */
+    private long clockTolerance = DEFAULT_CLOCK_TOLERANCE;
+
+    /** Periodic polls and reloads. */
+    private ScheduledExecutorService scheduler;
+
+    /** Replication is active. */
+    private volatile boolean running = false;
+
+    /** most recent modification date seen (milliseconds). */
+    private volatile long watermark = 0;
+
+    /** start time of last successful poll or reload. */
+    private volatile long lastSyncTime = 0;
+
+    /** number of changes fetched by polls. */
+    private final AtomicLong changeCount = new AtomicLong();
+
+    /** cumulated propagation delay (milliseconds). */
+    private final AtomicLong totalPropagationDelay = new AtomicLong();
+
+    /** max propagation delay (milliseconds). */
+    private final AtomicLong maxPropagationDelay = new AtomicLong();
+
+    /** number of full reloads. */
+    private final AtomicLong resyncCount = new AtomicLong();
+
+    /**
+     * Replicate target store.
+     * 
+     * @param target
+     *            mongo store
+     */
+    public FeatureStoreMongoCollectionReplica(FeatureStoreMongoCollection target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target store cannot be null");
+        }
+        this.target = target;
+    }
+
+    /**
+     * Replicate target store and start replication.
+     * 
+     * @param target
+     *            mongo store
+     * @param pollPeriod
+     *            period between two polls (milliseconds)
+     */
+    public FeatureStoreMongoCollectionReplica(FeatureStoreMongoCollection target, long pollPeriod) {
+        this(target);
+        setPollPeriod(pollPeriod);
+        start();
+    }
+
+    /**
+     * Create indexes of target store, load every feature then poll changes.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        // Polls query the last modification date
+        target.createIndexes();
+        resync();
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ff4j-mongo-replica");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    poll();
+                } catch (RuntimeException re) {
+                    // Local copy is kept and lag grows, retry at next period
+                }
+            }
+        }, pollPeriod, pollPeriod, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    resync();
+                } catch (RuntimeException re) {
+                    // Local copy is kept, retry at next period
+                }
+            }
+        }, resyncPeriod, resyncPeriod, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop polling, local copy is kept but no more updated.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Reload every feature from target collection.
+     */
+    public synchronized void resync() {
+        long syncTime = System.currentTimeMillis();
+        Set<String> uids = new HashSet<String>();
+        long maxSeen = 0;
+        for (Document document : target.getCollection().find()) {
+            uids.add(document.getString(UUID));
+            maxSeen = Math.max(maxSeen, apply(document));
+        }
+        features.keySet().retainAll(uids);
+        versions.keySet().retainAll(uids);
+        watermark = maxSeen;
+        lastSyncTime = syncTime;
+        resyncCount.incrementAndGet();
+    }
+
+    /**
+     * Fetch features modified since last poll, then remove deleted features. As every document is known locally once changes are
+     * applied, a deletion makes the count of documents lower than the size of local copy: identifiers are scanned only then.
+     */
+    public synchronized void poll() {
+        long syncTime = System.currentTimeMillis();
+        MongoCollection<Document> collection = target.getCollection();
+        Date since = new Date(watermark - clockTolerance);
+        long maxSeen = watermark;
+        for (Document document : collection.find(new Document(LAST_MODIFIED, new Document("$gt", since)))) {
+            Long known = versions.get(document.getString(UUID));
+            long lastModified = apply(document);
+            if (known == null || known.longValue() != lastModified) {
+                recordChange(syncTime - lastModified);
+            }
+            maxSeen = Math.max(maxSeen, lastModified);
+        }
+        if (collection.count() != features.size()) {
+            Set<String> uids = new HashSet<String>();
+            for (Document document : collection.find().projection(ID_ONLY)) {
+                uids.add(document.getString(UUID));
+            }
+            features.keySet().retainAll(uids);
+            versions.keySet().retainAll(uids);
+        }
+        watermark = maxSeen;
+        lastSyncTime = syncTime;
+    }
+
+    /**
+     * Apply a document to local copy.
+     * 
+     * @param document
+     *            feature document
+     * @return last modification date of document (milliseconds), 0 if none
+     */
+    private long apply(Document document) {
+        String uid = document.getString(UUID);
+        Date lastModified = document.getDate(LAST_MODIFIED);
+        long version = lastModified == null ? 0 : lastModified.getTime();
+        features.put(uid, MAPPER.mapFeature(document));
+        versions.put(uid, version);
+        return version;
+    }
+
+    /**
+     * Read a feature from target collection and apply it locally.
+     * 
+     * @param uid
+     *            feature identifier
+     */
+    private void refresh(String uid) {
+        Document document = target.getCollection().find(BUILDER.getFeatUid(uid)).first();
+        if (document == null) {
+            features.remove(uid);
+            versions.remove(uid);
+        } else {
+            apply(document);
+        }
+    }
+
+    /**
+     * Update delay statistics.
+     * 
+     * @param delay
+     *            delay between change and its reception (milliseconds)
+     */
+    private void recordChange(long delay) {
+        changeCount.incrementAndGet();
+        totalPropagationDelay.addAndGet(delay);
+        long currentMax = maxPropagationDelay.get();
+        while (delay > currentMax && !maxPropagationDelay.compareAndSet(currentMax, delay)) {
+            currentMax = maxPropagationDelay.get();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        return features.containsKey(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature read(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        Feature fp = features.get(uid);
+        if (fp == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return fp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll() {
+        return new LinkedHashMap<String, Feature>(features);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readGroup(String groupName) {
+        Util.assertParamNotNull(groupName, "groupName");
+        Map<String, Feature> group = new LinkedHashMap<String, Feature>();
+        for (Feature fp : features.values()) {
+            if (groupName.equals(fp.getGroup())) {
+                group.put(fp.getUid(), fp);
+            }
+        }
+        if (group.isEmpty()) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return group;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean existGroup(String groupName) {
+        Util.assertParamNotNull(groupName, "groupName");
+        for (Feature fp : features.values()) {
+            if (groupName.equals(fp.getGroup())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> readAllGroups() {
+        Set<String> groups = new HashSet<String>();
+        for (Feature fp : features.values()) {
+            if (fp.getGroup() != null && !fp.getGroup().isEmpty()) {
+                groups.add(fp.getGroup());
+            }
+        }
+        return groups;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void create(Feature fp) {
+        target.create(fp);
+        refresh(fp.getUid());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(Feature fp) {
+        target.update(fp);
+        refresh(fp.getUid());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String uid) {
+        target.delete(uid);
+        features.remove(uid);
+        versions.remove(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void createAll(Collection<Feature> features) {
+        target.createAll(features);
+        poll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        target.updateAll(features);
+        poll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteAll(Collection<String> featureIds) {
+        target.deleteAll(featureIds);
+        this.features.keySet().removeAll(featureIds);
+        this.versions.keySet().removeAll(featureIds);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enable(String uid) {
+        target.enable(uid);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disable(String uid) {
+        target.disable(uid);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void grantRoleOnFeature(String uid, String roleName) {
+        target.grantRoleOnFeature(uid, roleName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeRoleFromFeature(String uid, String roleName) {
+        target.removeRoleFromFeature(uid, roleName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enableGroup(String groupName) {
+        target.enableGroup(groupName);
+        poll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disableGroup(String groupName) {
+        target.disableGroup(groupName);
+        poll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToGroup(String uid, String groupName) {
+        target.addToGroup(uid, groupName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeFromGroup(String uid, String groupName) {
+        target.removeFromGroup(uid, groupName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isCached() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCacheProvider() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCachedTargetStore() {
+        return null;
+    }
+
+    /**
+     * Getter accessor for attribute 'target'.
+     * 
+     * @return current value of 'target'
+     */
+    public FeatureStoreMongoCollection getTarget() {
+        return target;
+    }
+
+    /**
+     * Check if replication is active.
+     * 
+     * @return true if changes are polled
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Age of local copy: time elapsed since the start of last successful poll or reload.
+     * 
+     * @return lag in milliseconds, -1 if never synchronized
+     */
+    public long getReplicationLag() {
+        return lastSyncTime == 0 ? -1 : System.currentTimeMillis() - lastSyncTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'lastSyncTime'.
+     * 
+     * @return start time of last successful poll or reload in milliseconds, 0 if never
+     */
+    public long getLastSyncTime() {
+        return lastSyncTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'pollPeriod'.
+     * 
+     * @return current value of 'pollPeriod' (milliseconds)
+     */
+    public long getPollPeriod() {
+        return pollPeriod;
+    }
+
+    /**
+     * Setter accessor for attribute 'pollPeriod', taken into account at next start.
+     * 
+     * @param pollPeriod
+     *            new value for 'pollPeriod ' (milliseconds)
+     */
+    public void setPollPeriod(long pollPeriod) {
+        if (pollPeriod < 1) {
+            throw new IllegalArgumentException("Poll period must be positive");
+        }
+        this.pollPeriod = pollPeriod;
+    }
+
+    /**
+     * Getter accessor for attribute 'resyncPeriod'.
+     * 
+     * @return current value of 'resyncPeriod' (seconds)
+     */
+    public long getResyncPeriod() {
+        return resyncPeriod;
+    }
+
+    /**
+     * Setter accessor for attribute 'resyncPeriod', taken into account at next start.
+     * 
+     * @param resyncPeriod
+     *            new value for 'resyncPeriod ' (seconds)
+     */
+    public void setResyncPeriod(long resyncPeriod) {
+        if (resyncPeriod < 1) {
+            throw new IllegalArgumentException("Resync period must be positive");
+        }
+        this.resyncPeriod = resyncPeriod;
+    }
+
+    /**
+     * Getter accessor for attribute 'clockTolerance'.
+     * 
+     * @return current value of 'clockTolerance' (milliseconds)
+     */
+    public long getClockTolerance() {
+        return clockTolerance;
+    }
+
+    /**
+     * Setter accessor for attribute 'clockTolerance', must cover duration of writes (date is set when write starts).
+     * 
+     * @param clockTolerance
+     *            new value for 'clockTolerance ' (milliseconds)
+     */
+    public void setClockTolerance(long clockTolerance) {
+        if (clockTolerance < 0) {
+            throw new IllegalArgumentException("Clock tolerance cannot be negative");
+        }
+        this.clockTolerance = clockTolerance;
+    }
+
+    /**
+     * Getter accessor for attribute 'changeCount'.
+     * 
+     * @return number of changes fetched by polls
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Average delay between modification and reception of changes.
+     * 
+     * @return delay in milliseconds, 0 if no change received
+     */
+    public double getAveragePropagationDelay() {
+        long count = changeCount.get();
+        return count == 0 ? 0 : (double) totalPropagationDelay.get() / count;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxPropagationDelay'.
+     * 
+     * @return max delay in milliseconds
+     */
+    public long getMaxPropagationDelay() {
+        return maxPropagationDelay.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'resyncCount'.
+     * 
+     * @return number of full reloads
+     */
+    public long getResyncCount() {
+        return resyncCount.get();
+    }
+
+}
@@ -21,6 +21,7 @@ package org.ff4j.store.mongodb;
  */
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Set;
 
 import org.bson.Document;
@@ -199,6 +200,29 @@ public final class FeatureDocumentBuilder implements FeatureStoreMongoConstants
         return this;
     }
 
+    /**
+     * Mongo internal object representing attribute 'lastModified'.
+     *
+     * @param value
+     *            target value
+     * @return internal mongo object
+     */
+    public Document getLastModified(Date value) {
+        return new Document(LAST_MODIFIED, value);
+    }
+
+    /**
+     * Chain add to build object.
+     *
+     * @param value
+     *            target value
+     * @return
+     */
+    public FeatureDocumentBuilder addLastModified(Date value) {
+        builder.append(LAST_MODIFIED, value);
+        return this;
+    }
+
     /**
      * Builder pattern.
      *
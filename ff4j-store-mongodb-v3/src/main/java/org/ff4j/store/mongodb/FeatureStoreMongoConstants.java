@@ -48,5 +48,26 @@ public interface FeatureStoreMongoConstants {
     /** Roles. */
     String ROLES = "roles";
 
+    /** Date of last change, written by the store on each update. */
+    String LAST_MODIFIED = "lastModified";
+
+    /** Property type (class name). */
+    String PROPERTY_TYPE = "type";
+
+    /** Property value, stored with its native BSON type. */
+    String PROPERTY_VALUE = "value";
+
+    /** Property fixed values. */
+    String PROPERTY_FIXED_VALUES = "fixedValues";
+
     String MONGO_SET = "$set";
+
+    /** Remove attribute. */
+    String MONGO_UNSET = "$unset";
+
+    /** Set attribute only when document is created by an upsert. */
+    String MONGO_SET_ON_INSERT = "$setOnInsert";
+
+    /** Set attribute to the date of the server. */
+    String MONGO_CURRENT_DATE = "$currentDate";
 }
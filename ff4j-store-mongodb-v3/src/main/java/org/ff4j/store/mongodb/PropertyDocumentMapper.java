@@ -0,0 +1,192 @@
+package org.ff4j.store.mongodb;
+
+/*
+ * #%L
+ * ff4j-store-mongodb
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.AbstractPropertyMultiValued;
+import org.ff4j.property.PropertyCalendar;
+import org.ff4j.property.PropertyDouble;
+import org.ff4j.property.PropertyInt;
+import org.ff4j.property.list.PropertyListCalendar;
+import org.ff4j.property.set.PropertySet;
+
+/**
+ * Mapping from Mongo document to property. Values are stored with their native BSON type (numbers, booleans, dates, arrays) so
+ * that reading a property does not parse strings, types without BSON equivalent are stored as strings.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class PropertyDocumentMapper implements FeatureStoreMongoConstants {
+
+    /** Property classes, looked up only once per type. */
+    private static final Map<String, Class<?>> TYPES = new ConcurrentHashMap<String, Class<?>>();
+
+    /**
+     * Convert {@link AbstractProperty} to {@link Document}, date of last change is not part of it as it is set by the server.
+     *
+     * @param ap
+     *            target property
+     * @return document in mongo db
+     */
+    public Document toDocument(AbstractProperty<?> ap) {
+        Document document = new Document(UUID, ap.getName());
+        document.append(PROPERTY_TYPE, ap.getClass().getName());
+        document.append(PROPERTY_VALUE, toBson(ap.getValue()));
+        document.append(DESCRIPTION, ap.getDescription());
+        if (ap.getFixedValues() != null && !ap.getFixedValues().isEmpty()) {
+            document.append(PROPERTY_FIXED_VALUES, toBson(ap.getFixedValues()));
+        }
+        return document;
+    }
+
+    /**
+     * Convert {@link Document} to {@link AbstractProperty}.
+     *
+     * @param document
+     *            document in mongodb
+     * @return property
+     */
+    @SuppressWarnings("unchecked")
+    public AbstractProperty<?> mapProperty(Document document) {
+        AbstractProperty<Object> ap = (AbstractProperty<Object>) newProperty(document.getString(PROPERTY_TYPE));
+        ap.setName(document.getString(UUID));
+        ap.setDescription(document.getString(DESCRIPTION));
+        ap.setValue(fromBson(ap, document.get(PROPERTY_VALUE)));
+        Object fixedValues = document.get(PROPERTY_FIXED_VALUES);
+        if (fixedValues instanceof List) {
+            for (Object fixedValue : (List<?>) fixedValues) {
+                ap.add2FixedValue(fromBson(ap, fixedValue));
+            }
+        }
+        return ap;
+    }
+
+    /**
+     * Convert a property value to its BSON representation.
+     *
+     * @param value
+     *            property value
+     * @return value to store
+     */
+    public Object toBson(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Date
+                || value instanceof Integer || value instanceof Long || value instanceof Double) {
+            return value;
+        }
+        if (value instanceof Calendar) {
+            return ((Calendar) value).getTime();
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        if (value instanceof Collection) {
+            List<Object> array = new ArrayList<Object>();
+            for (Object item : (Collection<?>) value) {
+                array.add(toBson(item));
+            }
+            return array;
+        }
+        return value.toString();
+    }
+
+    /**
+     * Convert a stored value to the type expected by the property, strings are only parsed for types without BSON equivalent.
+     *
+     * @param ap
+     *            target property
+     * @param value
+     *            stored value
+     * @return property value
+     */
+    private Object fromBson(AbstractProperty<?> ap, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            return ap.fromString((String) value);
+        }
+        if (value instanceof Date && ap instanceof PropertyCalendar) {
+            return toCalendar((Date) value);
+        }
+        if (value instanceof Number && ap instanceof PropertyInt) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Number && ap instanceof PropertyDouble) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof List && ap instanceof AbstractPropertyMultiValued) {
+            Collection<Object> items = (ap instanceof PropertySet) ? new HashSet<Object>() : new ArrayList<Object>();
+            for (Object item : (List<?>) value) {
+                items.add((item instanceof Date && ap instanceof PropertyListCalendar) ? toCalendar((Date) item) : item);
+            }
+            return items;
+        }
+        return value;
+    }
+
+    /**
+     * Convert date to calendar.
+     *
+     * @param date
+     *            stored date
+     * @return calendar
+     */
+    private Calendar toCalendar(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar;
+    }
+
+    /**
+     * Instanciate property from its type.
+     *
+     * @param type
+     *            class name
+     * @return empty property
+     */
+    private AbstractProperty<?> newProperty(String type) {
+        try {
+            Class<?> clazz = TYPES.get(type);
+            if (clazz == null) {
+                clazz = Class.forName(type);
+                TYPES.put(type, clazz);
+            }
+            return (AbstractProperty<?>) clazz.newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Cannot instantiate '" + type + "' class not found : " + e.getMessage(), e);
+        } catch (InstantiationException e) {
+            throw new IllegalArgumentException("Cannot instantiate '" + type + "' no default constructor available", e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot instantiate '" + type + "' no visible constructor", e);
+        }
+    }
+
+}
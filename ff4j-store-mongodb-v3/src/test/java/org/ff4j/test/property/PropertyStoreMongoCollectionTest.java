@@ -0,0 +1,210 @@
+package org.ff4j.test.property;
+
+/*
+ * #%L ff4j-store-jdbc %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+
+import org.bson.Document;
+import org.ff4j.exception.PropertyAlreadyExistException;
+import org.ff4j.exception.PropertyNotFoundException;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.Property;
+import org.ff4j.property.PropertyCalendar;
+import org.ff4j.property.PropertyInt;
+import org.ff4j.property.PropertyLogLevel;
+import org.ff4j.property.PropertyLogLevel.LogLevel;
+import org.ff4j.property.list.PropertyList;
+import org.ff4j.property.store.PropertyStoreMongoCollection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.fakemongo.junit.FongoRule;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Unit testing of MongoDB property store.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreMongoCollectionTest {
+
+    /**
+     * DataBase.
+     */
+    @Rule
+    public FongoRule fongoRule = new FongoRule(false);
+
+    /** Collection of properties. */
+    private MongoCollection<Document> collection;
+
+    /** Tested store. */
+    private PropertyStoreMongoCollection testedStore;
+
+    /** Init store with a few properties. */
+    @Before
+    public void initStore() {
+        collection = fongoRule.getDatabase().getCollection("ff4j_properties");
+        testedStore = new PropertyStoreMongoCollection(collection);
+        testedStore.create(new Property("a", "AMER"));
+        testedStore.create(new PropertyInt("b", 12));
+        testedStore.create(new PropertyLogLevel("log", LogLevel.INFO));
+    }
+
+    /** TDD. */
+    @Test
+    public void testValuesAreStoredNatively() {
+        // When
+        Document intDoc = collection.find(new Document("_id", "b")).first();
+        Document logDoc = collection.find(new Document("_id", "log")).first();
+        // Then
+        Assert.assertEquals(Integer.valueOf(12), intDoc.get("value"));
+        Assert.assertEquals("INFO", logDoc.get("value"));
+        Assert.assertNotNull(intDoc.getDate("lastModified"));
+    }
+
+    /** TDD. */
+    @Test
+    public void testReadTypedProperties() {
+        // When
+        AbstractProperty<?> b = testedStore.read("b");
+        AbstractProperty<?> log = testedStore.read("log");
+        // Then
+        Assert.assertEquals(PropertyInt.class, b.getClass());
+        Assert.assertEquals(Integer.valueOf(12), b.getValue());
+        Assert.assertEquals(LogLevel.INFO, log.getValue());
+        Assert.assertTrue(log.getFixedValues().contains(LogLevel.DEBUG));
+    }
+
+    /** TDD. */
+    @Test
+    public void testCalendarAndList() {
+        // Given
+        Calendar now = Calendar.getInstance();
+        testedStore.create(new PropertyCalendar("cal", now));
+        testedStore.create(new PropertyList("list", Arrays.asList("x", "y")));
+        // When
+        AbstractProperty<?> cal = testedStore.read("cal");
+        AbstractProperty<?> list = testedStore.read("list");
+        // Then
+        Assert.assertTrue(collection.find(new Document("_id", "cal")).first().get("value") instanceof Date);
+        Assert.assertEquals(now.getTimeInMillis(), ((Calendar) cal.getValue()).getTimeInMillis());
+        Assert.assertEquals(Arrays.asList("x", "y"), list.getValue());
+    }
+
+    /** TDD. */
+    @Test
+    public void testUpdateValue() {
+        // When
+        testedStore.update("b", "13");
+        // Then
+        Assert.assertEquals(Integer.valueOf(13), collection.find(new Document("_id", "b")).first().get("value"));
+        Assert.assertEquals(13, testedStore.read("b").asInt());
+    }
+
+    /** TDD. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateInvalidValue() {
+        testedStore.update("b", "not a number");
+    }
+
+    /** TDD. */
+    @Test(expected = PropertyNotFoundException.class)
+    public void testUpdateUnknown() {
+        testedStore.update("unknown", "13");
+    }
+
+    /** TDD. */
+    @Test(expected = PropertyAlreadyExistException.class)
+    public void testCreateExisting() {
+        testedStore.create(new Property("a", "again"));
+    }
+
+    /** TDD. */
+    @Test
+    public void testCreateExistingLeavesDocumentUntouched() {
+        // Given
+        Document before = collection.find(new Document("_id", "a")).first();
+        // When
+        try {
+            testedStore.create(new Property("a", "again"));
+            Assert.fail();
+        } catch (PropertyAlreadyExistException paee) {
+            // expected
+        }
+        // Then
+        Document after = collection.find(new Document("_id", "a")).first();
+        Assert.assertEquals("AMER", after.get("value"));
+        Assert.assertEquals(before.getDate("lastModified"), after.getDate("lastModified"));
+    }
+
+    /** TDD. */
+    @Test
+    public void testUpdateRemovesFixedValues() {
+        // When
+        testedStore.update(new Property("log", "WARN"));
+        // Then
+        Document logDoc = collection.find(new Document("_id", "log")).first();
+        Assert.assertEquals("WARN", logDoc.get("value"));
+        Assert.assertFalse(logDoc.containsKey("fixedValues"));
+        Assert.assertNotNull(logDoc.getDate("lastModified"));
+    }
+
+    /** TDD. */
+    @Test
+    public void testDelete() {
+        // When
+        testedStore.delete("a");
+        // Then
+        Assert.assertFalse(testedStore.exist("a"));
+        Assert.assertEquals(2, testedStore.readAllProperties().size());
+    }
+
+    /** TDD. */
+    @Test
+    public void testBulkReadAndWrite() {
+        // When
+        testedStore.createAll(Arrays.<AbstractProperty<?>>asList(new Property("c", "c1"), new PropertyInt("d", 4)));
+        testedStore.updateAll(Arrays.<AbstractProperty<?>>asList(new Property("a", "EMEA")));
+        Map<String, AbstractProperty<?>> props = testedStore.readProperties(Arrays.asList("a", "d", "unknown"));
+        // Then
+        Assert.assertEquals(2, props.size());
+        Assert.assertEquals("EMEA", props.get("a").getValue());
+        Assert.assertEquals(4, props.get("d").asInt());
+    }
+
+    /** TDD. */
+    @Test
+    public void testBulkWritesInSeveralBatches() {
+        // Given
+        testedStore.setBatchSize(2);
+        // When
+        testedStore.createAll(Arrays.<AbstractProperty<?>>asList(
+                new Property("c", "c1"), new Property("d", "d1"), new Property("e", "e1")));
+        testedStore.updateAll(Arrays.<AbstractProperty<?>>asList(
+                new Property("c", "c2"), new Property("d", "d2"), new Property("e", "e2")));
+        // Then
+        Assert.assertEquals(6, testedStore.readAllProperties().size());
+        Assert.assertEquals("e2", testedStore.read("e").getValue());
+    }
+
+    /** TDD. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        testedStore.setBatchSize(0);
+    }
+
+}
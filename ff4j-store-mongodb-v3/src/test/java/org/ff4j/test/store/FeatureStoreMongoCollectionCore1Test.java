@@ -4,8 +4,11 @@ import java.net.UnknownHostException;
 import java.util.Arrays;
 
 import org.bson.Document;
+import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureAlreadyExistException;
 import org.ff4j.store.FeatureStoreMongoCollection;
+import org.ff4j.store.FeatureImportReport;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -88,6 +91,68 @@ public class FeatureStoreMongoCollectionCore1Test extends AbstractStoreJUnitTest
         // Then (no error)
         Assert.assertTrue(mongoStore.readAll().keySet().size() > 0);
     }
-    
-    
+
+    /**
+     * Bulk writes split in several batches.
+     */
+    @Test
+    public void testBulkWritesInSeveralBatches() {
+        // Given
+        FeatureStoreMongoCollection mongoStore = (FeatureStoreMongoCollection) testedStore;
+        mongoStore.setBatchSize(2);
+        // When
+        mongoStore.createAll(Arrays.asList(new Feature("b1", true), new Feature("b2", true), new Feature("b3", false)));
+        FeatureImportReport report = mongoStore.importFeatures(
+                Arrays.asList(new Feature("b3", true), new Feature("b4", true), new Feature("b5", true)));
+        // Then
+        Assert.assertEquals(2, report.getCreatedCount());
+        Assert.assertEquals(1, report.getUpdatedCount());
+        Assert.assertTrue(mongoStore.exist("b1"));
+        Assert.assertTrue(mongoStore.read("b3").isEnable());
+        Assert.assertTrue(mongoStore.exist("b5"));
+    }
+
+    /**
+     * Group attribute is removed, a feature in another group is left unchanged.
+     */
+    @Test
+    public void testRemoveFromGroupUnsetAttribute() {
+        // Given
+        FeatureStoreMongoCollection mongoStore = (FeatureStoreMongoCollection) testedStore;
+        assertFf4j.assertThatFeatureIsInGroup(F2, G0);
+        // When
+        mongoStore.removeFromGroup(F2, G1);
+        // Then
+        assertFf4j.assertThatFeatureIsInGroup(F2, G0);
+        // When
+        mongoStore.removeFromGroup(F2, G0);
+        // Then
+        Document document = mongoStore.getCollection().find(new Document("_id", F2)).first();
+        Assert.assertFalse(document.containsKey("groupname"));
+        Assert.assertNotNull(document.getDate("lastModified"));
+    }
+
+    /**
+     * Creating an existing feature leaves its document untouched.
+     */
+    @Test
+    public void testCreateExistingKeepsLastModified() {
+        // Given
+        FeatureStoreMongoCollection mongoStore = (FeatureStoreMongoCollection) testedStore;
+        mongoStore.create(new Feature("c1", true));
+        Document before = mongoStore.getCollection().find(new Document("_id", "c1")).first();
+        Assert.assertNotNull(before.getDate("lastModified"));
+        // When
+        try {
+            mongoStore.create(new Feature("c1", false));
+            Assert.fail();
+        } catch (FeatureAlreadyExistException faee) {
+            // expected
+        }
+        // Then
+        Document after = mongoStore.getCollection().find(new Document("_id", "c1")).first();
+        Assert.assertEquals(before.getDate("lastModified"), after.getDate("lastModified"));
+        Assert.assertTrue(mongoStore.read("c1").isEnable());
+    }
+
 }
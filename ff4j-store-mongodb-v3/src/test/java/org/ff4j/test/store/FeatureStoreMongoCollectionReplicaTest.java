@@ -0,0 +1,121 @@
+package org.ff4j.test.store;
+
+/*
+ * #%L ff4j-store-jdbc %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.FeatureStoreMongoCollection;
+import org.ff4j.store.FeatureStoreMongoCollectionReplica;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.fakemongo.junit.FongoRule;
+
+/**
+ * Unit testing of in-memory replica of MongoDB Store.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreMongoCollectionReplicaTest extends AbstractStoreJUnitTest {
+
+    /**
+     * DataBase.
+     */
+    @Rule
+    public FongoRule fongoRule = new FongoRule(false);
+
+    /** Replica under test. */
+    private FeatureStoreMongoCollectionReplica replica;
+
+    /** Store used by another client. */
+    private FeatureStoreMongoCollection otherClient;
+
+    /** {@inheritDoc} */
+    @Override
+    protected FeatureStore initStore() {
+        FeatureStoreMongoCollection mongoStore = 
+                new FeatureStoreMongoCollection(fongoRule.getDatabase().getCollection("ff4j"), "ff4j.xml");
+        otherClient = new FeatureStoreMongoCollection(fongoRule.getDatabase().getCollection("ff4j"));
+        replica = new FeatureStoreMongoCollectionReplica(mongoStore, 60000);
+        return replica;
+    }
+
+    /**
+     * A change made by another client is fetched by next poll.
+     */
+    @Test
+    public void testChangeFromAnotherClient() {
+        // Given
+        Assert.assertTrue(replica.read(F1).isEnable());
+        // When
+        otherClient.disable(F1);
+        replica.poll();
+        // Then
+        Assert.assertFalse(replica.read(F1).isEnable());
+        Assert.assertEquals(1, replica.getChangeCount());
+        Assert.assertTrue(replica.getReplicationLag() >= 0);
+    }
+
+    /**
+     * Features created and deleted by another client are fetched by next poll.
+     */
+    @Test
+    public void testCreateDeleteFromAnotherClient() {
+        // Given
+        Assert.assertTrue(replica.exist(F1));
+        // When
+        otherClient.delete(F1);
+        otherClient.create(new Feature("newFeature", true));
+        replica.poll();
+        // Then
+        Assert.assertFalse(replica.exist(F1));
+        Assert.assertTrue(replica.exist("newFeature"));
+    }
+
+    /**
+     * A feature deleted by another client, without any other change, is removed by next poll.
+     */
+    @Test
+    public void testDeleteFromAnotherClient() {
+        // Given
+        Assert.assertTrue(replica.exist(F2));
+        // When
+        otherClient.delete(F2);
+        replica.poll();
+        // Then
+        Assert.assertFalse(replica.exist(F2));
+        Assert.assertEquals(otherClient.readAll().size(), replica.readAll().size());
+    }
+
+    /**
+     * Unchanged features are not counted again by next polls.
+     */
+    @Test
+    public void testPollWithoutChange() {
+        // When
+        replica.poll();
+        replica.poll();
+        // Then
+        Assert.assertEquals(0, replica.getChangeCount());
+    }
+
+    /**
+     * Stop polling.
+     */
+    @After
+    public void stopReplica() {
+        replica.stop();
+    }
+
+}
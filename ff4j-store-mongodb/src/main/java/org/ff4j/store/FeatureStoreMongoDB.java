@@ -11,8 +11,11 @@ package org.ff4j.store;
  * governing permissions and limitations under the License. #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -27,8 +30,10 @@ import org.ff4j.store.mongodb.FeatureStoreMongoConstants;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
 
 /**
  * Implementation of {@link FeatureStore} to work with MongoDB.
@@ -44,9 +49,21 @@ public class FeatureStoreMongoDB extends AbstractFeatureStore implements Feature
     /** Build fields. */
     private static final FeatureDBObjectBuilder BUILDER = new FeatureDBObjectBuilder();
 
+    /** default number of documents sent in each bulk write. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** Projection fetching identifier only. */
+    private static final DBObject ID_ONLY = new BasicDBObject(UUID, 1);
+
     /** MongoDB collection. */
     private final DBCollection collection;
 
+    /** number of documents sent in each bulk write. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** write concern of bulk writes, null to use the one of the collection. */
+    private WriteConcern writeConcern = null;
+
     /**
      * Parameterized constructor with collection.
      * 
@@ -202,6 +219,167 @@ public class FeatureStoreMongoDB extends AbstractFeatureStore implements Feature
         }
     }
 
+    /**
+     * Check existence of all features with a single query, then insert them with unordered bulk writes.
+     * 
+     * @param features
+     *            features to create
+     */
+    @Override
+    public void createAll(Collection<Feature> features) {
+        assertFeatures(features);
+        Set<String> existing = readExistingUids(features);
+        for (Feature fp : features) {
+            if (existing.contains(fp.getUid())) {
+                throw new FeatureAlreadyExistException(fp.getUid());
+            }
+        }
+        BulkWriteOperation bulk = null;
+        int pending = 0;
+        for (Feature fp : features) {
+            if (bulk == null) {
+                bulk = collection.initializeUnorderedBulkOperation();
+            }
+            bulk.insert(MAPPER.toDBObject(fp));
+            if (++pending == batchSize) {
+                execute(bulk);
+                bulk = null;
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            execute(bulk);
+        }
+    }
+
+    /**
+     * Check existence of all features with a single query, then replace them with unordered bulk writes.
+     * 
+     * @param features
+     *            new values of features
+     */
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        assertFeatures(features);
+        Set<String> existing = readExistingUids(features);
+        for (Feature fp : features) {
+            if (!existing.contains(fp.getUid())) {
+                throw new FeatureNotFoundException(fp.getUid());
+            }
+        }
+        replaceAll(features, false);
+    }
+
+    /**
+     * Import features with unordered bulk upserts, existing features are overwritten.
+     * 
+     * @param xmlConfFile
+     *      xml configuration file
+     */
+    @Override
+    public Map<String, Feature> importFeaturesFromXmlFile(String xmlConfFile) {
+        Map<String, Feature> features = parseXmlFile(xmlConfFile);
+        importFeatures(features.values());
+        return features;
+    }
+
+    /**
+     * Upsert features with unordered bulk writes. Existing features are overwritten.
+     * 
+     * @param features
+     *            features to import
+     * @return counts and time spent
+     */
+    public FeatureImportReport importFeatures(Collection<Feature> features) {
+        if (features == null) {
+            throw new IllegalArgumentException("Features to import cannot be null");
+        }
+        long start = System.currentTimeMillis();
+        // Last occurence wins if an identifier is present twice
+        Map<String, Feature> toImport = new LinkedHashMap<String, Feature>();
+        int roleCount = 0;
+        for (Feature fp : features) {
+            if (fp == null || fp.getUid() == null || fp.getUid().isEmpty()) {
+                throw new IllegalArgumentException("Feature to import cannot be null nor have empty identifier");
+            }
+            toImport.put(fp.getUid(), fp);
+        }
+        for (Feature fp : toImport.values()) {
+            roleCount += fp.getPermissions() == null ? 0 : fp.getPermissions().size();
+        }
+        Set<String> existing = readExistingUids(toImport.values());
+        replaceAll(toImport.values(), true);
+        return new FeatureImportReport(toImport.size() - existing.size(), existing.size(), 
+                roleCount, 0, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replace documents of features with unordered bulks of {@link #batchSize} documents.
+     * 
+     * @param features
+     *            new values of features
+     * @param upsert
+     *            create missing features
+     */
+    private void replaceAll(Collection<Feature> features, boolean upsert) {
+        BulkWriteOperation bulk = null;
+        int pending = 0;
+        for (Feature fp : features) {
+            if (bulk == null) {
+                bulk = collection.initializeUnorderedBulkOperation();
+            }
+            if (upsert) {
+                bulk.find(BUILDER.getFeatUid(fp.getUid())).upsert().replaceOne(MAPPER.toDBObject(fp));
+            } else {
+                bulk.find(BUILDER.getFeatUid(fp.getUid())).replaceOne(MAPPER.toDBObject(fp));
+            }
+            if (++pending == batchSize) {
+                execute(bulk);
+                bulk = null;
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            execute(bulk);
+        }
+    }
+
+    /**
+     * Execute bulk with configured write concern.
+     * 
+     * @param bulk
+     *            pending operations
+     */
+    private void execute(BulkWriteOperation bulk) {
+        if (writeConcern == null) {
+            bulk.execute();
+        } else {
+            bulk.execute(writeConcern);
+        }
+    }
+
+    /**
+     * Read which features already exist with a single query, fetching identifiers only.
+     * 
+     * @param features
+     *            target features
+     * @return identifiers of existing features
+     */
+    private Set<String> readExistingUids(Collection<Feature> features) {
+        List<String> uids = new ArrayList<String>();
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
+        }
+        Set<String> existing = new HashSet<String>();
+        if (!uids.isEmpty()) {
+            DBObject query = new BasicDBObject(UUID, new BasicDBObject("$in", uids));
+            for (DBObject dbObject : collection.find(query, ID_ONLY)) {
+                existing.add((String) dbObject.get(UUID));
+            }
+        }
+        return existing;
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
@@ -307,6 +485,47 @@ public class FeatureStoreMongoDB extends AbstractFeatureStore implements Feature
         collection.update(target, BasicDBObjectBuilder.start(MONGO_SET, nGroupName).get());
     }
 
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     * 
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize'.
+     * 
+     * @param batchSize
+     *            new value for 'batchSize '
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Getter accessor for attribute 'writeConcern'.
+     * 
+     * @return current value of 'writeConcern'
+     */
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    /**
+     * Setter accessor for attribute 'writeConcern', null to use the one of the collection.
+     * 
+     * @param writeConcern
+     *            new value for 'writeConcern '
+     */
+    public void setWriteConcern(WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
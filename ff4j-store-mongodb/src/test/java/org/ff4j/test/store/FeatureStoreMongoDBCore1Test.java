@@ -14,8 +14,10 @@ package org.ff4j.test.store;
 import java.net.UnknownHostException;
 import java.util.Arrays;
 
+import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.store.FeatureStoreMongoDB;
+import org.ff4j.store.FeatureImportReport;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -86,6 +88,25 @@ public class FeatureStoreMongoDBCore1Test extends AbstractStoreJUnitTest {
         // Then (no error)
         Assert.assertTrue(mongoStore.readAll().keySet().size() > 0);
     }
-    
-    
+
+    /**
+     * Bulk writes split in several batches.
+     */
+    @Test
+    public void testBulkWritesInSeveralBatches() {
+        // Given
+        FeatureStoreMongoDB mongoStore = (FeatureStoreMongoDB) testedStore;
+        mongoStore.setBatchSize(2);
+        // When
+        mongoStore.createAll(Arrays.asList(new Feature("b1", true), new Feature("b2", true), new Feature("b3", false)));
+        FeatureImportReport report = mongoStore.importFeatures(
+                Arrays.asList(new Feature("b3", true), new Feature("b4", true), new Feature("b5", true)));
+        // Then
+        Assert.assertEquals(2, report.getCreatedCount());
+        Assert.assertEquals(1, report.getUpdatedCount());
+        Assert.assertTrue(mongoStore.exist("b1"));
+        Assert.assertTrue(mongoStore.read("b3").isEnable());
+        Assert.assertTrue(mongoStore.exist("b5"));
+    }
+
 }
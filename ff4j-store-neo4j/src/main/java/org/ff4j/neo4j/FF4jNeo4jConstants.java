@@ -36,6 +36,149 @@ public interface FF4jNeo4jConstants {
     /** Property of node. */
     String P_FEATURE_ENABLE = "enable";
     
-    // Group, Permissions and FlippingStrategy
+    /** Property of node, class name of flipping strategy. */
+    String P_FEATURE_STRATEGY = "strategy";
+    
+    /** Property of node, init parameters of flipping strategy. */
+    String P_FEATURE_INITPARAMS = "initParams";
+    
+    /** Property of node, identifiers of features referenced by the expression of strategy. */
+    String P_FEATURE_DEPENDS_ON = "dependsOn";
+    
+    /** Property of group and role nodes. */
+    String P_NAME = "name";
+    
+    /** Property of custom property node. */
+    String P_PROPERTY_TYPE = "type";
+    
+    /** Property of custom property node. */
+    String P_PROPERTY_VALUE = "value";
+    
+    /** Property of custom property node. */
+    String P_PROPERTY_DESCRIPTION = "description";
+    
+    /** Property of custom property node. */
+    String P_PROPERTY_FIXEDVALUES = "fixedValues";
+    
+    /** Unique constraints, also used as indexes for lookups by uid or name. */
+    String[] CYPHER_CONSTRAINTS = {
+        "CREATE CONSTRAINT ON (f:FEATURE) ASSERT f.uid IS UNIQUE",
+        "CREATE CONSTRAINT ON (g:FEATURE_GROUP) ASSERT g.name IS UNIQUE",
+        "CREATE CONSTRAINT ON (r:ROLE) ASSERT r.name IS UNIQUE"};
+    
+    /** Count feature. */
+    String CYPHER_EXIST = "MATCH (f:FEATURE {uid: {uid}}) RETURN count(f) AS count";
+    
+    /** Identifiers of existing features among {uids}. */
+    String CYPHER_EXISTING_UIDS = "UNWIND {uids} AS uid MATCH (f:FEATURE {uid: uid}) RETURN f.uid AS uid";
+    
+    /** Groups, roles and custom properties of matched features (f), appended to a MATCH clause. */
+    String CYPHER_READ_RETURN = 
+          " OPTIONAL MATCH (f)-[:MEMBER_OF]->(g:FEATURE_GROUP)"
+        + " OPTIONAL MATCH (f)-[:REQUIRED_ROLE]->(r:ROLE)"
+        + " WITH f, g, collect(r.name) AS roles"
+        + " OPTIONAL MATCH (f)-[:CUSTOM_PROPERTY]->(p:PROPERTY)"
+        + " RETURN f, g.name AS groupName, roles, collect(p) AS properties";
+    
+    /** Read a feature. */
+    String CYPHER_READ = "MATCH (f:FEATURE {uid: {uid}})" + CYPHER_READ_RETURN;
+    
+    /** Read all features. */
+    String CYPHER_READ_ALL = "MATCH (f:FEATURE)" + CYPHER_READ_RETURN;
+    
+    /** Read features of a group. */
+    String CYPHER_READ_GROUP = "MATCH (f:FEATURE)-[:MEMBER_OF]->(:FEATURE_GROUP {name: {groupName}})" + CYPHER_READ_RETURN;
+    
+    /** Create a batch of features {features} with their group, roles and custom properties. */
+    String CYPHER_CREATE = 
+          "UNWIND {features} AS row"
+        + " CREATE (f:FEATURE {uid: row.uid})"
+        + " SET f.enable = row.enable, f.description = row.description, f.strategy = row.strategy,"
+        + " f.initParams = row.initParams, f.dependsOn = row.dependsOn"
+        + " FOREACH (groupName IN row.groups | MERGE (g:FEATURE_GROUP {name: groupName}) CREATE (f)-[:MEMBER_OF]->(g))"
+        + " FOREACH (roleName IN row.roles | MERGE (r:ROLE {name: roleName}) CREATE (f)-[:REQUIRED_ROLE]->(r))"
+        + " FOREACH (prop IN row.properties | CREATE (f)-[:CUSTOM_PROPERTY]->(p:PROPERTY)"
+        + " SET p.name = prop.name, p.type = prop.type, p.value = prop.value,"
+        + " p.description = prop.description, p.fixedValues = prop.fixedValues)";
+    
+    /** Delete a batch of features {uids} with their relationships and custom properties. */
+    String CYPHER_DELETE = 
+          "UNWIND {uids} AS uid"
+        + " MATCH (f:FEATURE {uid: uid})"
+        + " OPTIONAL MATCH (f)-[:CUSTOM_PROPERTY]->(p:PROPERTY)"
+        + " WITH f, collect(p) AS props"
+        + " OPTIONAL MATCH (f)-[rel]-()"
+        + " WITH f, props, collect(rel) AS rels"
+        + " FOREACH (rel IN rels | DELETE rel)"
+        + " FOREACH (p IN props | DELETE p)"
+        + " DELETE f";
+    
+    /** Link features {uids} to the features referenced by their strategy, lookups use the index on uid. */
+    String CYPHER_LINK_DEPENDENCIES = 
+          "UNWIND {uids} AS uid"
+        + " MATCH (f:FEATURE {uid: uid}) WHERE has(f.dependsOn)"
+        + " UNWIND f.dependsOn AS dep"
+        + " MATCH (d:FEATURE {uid: dep})"
+        + " MERGE (f)-[:DEPENDS_ON]->(d)";
+    
+    /** Link features referencing features {uids} to them, a single scan of features with dependencies for the whole batch. */
+    String CYPHER_LINK_DEPENDENTS = 
+          "MATCH (f:FEATURE) WHERE has(f.dependsOn)"
+        + " UNWIND f.dependsOn AS dep"
+        + " WITH f, dep WHERE dep IN {uids}"
+        + " MATCH (d:FEATURE {uid: dep})"
+        + " MERGE (f)-[:DEPENDS_ON]->(d)";
+    
+    /** Enable or disable a feature. */
+    String CYPHER_SET_ENABLE = "MATCH (f:FEATURE {uid: {uid}}) SET f.enable = {enable} RETURN count(f) AS count";
+    
+    /** Enable or disable all features of a group. */
+    String CYPHER_SET_ENABLE_GROUP = 
+          "MATCH (f:FEATURE)-[:MEMBER_OF]->(:FEATURE_GROUP {name: {groupName}})"
+        + " SET f.enable = {enable} RETURN count(f) AS count";
+    
+    /** Grant role. */
+    String CYPHER_GRANT_ROLE = 
+          "MATCH (f:FEATURE {uid: {uid}})"
+        + " MERGE (r:ROLE {name: {roleName}})"
+        + " MERGE (f)-[:REQUIRED_ROLE]->(r) RETURN count(f) AS count";
+    
+    /** Remove role. */
+    String CYPHER_REMOVE_ROLE = 
+          "MATCH (f:FEATURE {uid: {uid}})"
+        + " OPTIONAL MATCH (f)-[rel:REQUIRED_ROLE]->(:ROLE {name: {roleName}})"
+        + " WITH f, collect(rel) AS rels"
+        + " FOREACH (rel IN rels | DELETE rel) RETURN count(f) AS count";
+    
+    /** Move feature to a group. */
+    String CYPHER_ADD_TO_GROUP = 
+          "MATCH (f:FEATURE {uid: {uid}})"
+        + " OPTIONAL MATCH (f)-[old:MEMBER_OF]->()"
+        + " WITH f, collect(old) AS olds"
+        + " FOREACH (rel IN olds | DELETE rel)"
+        + " MERGE (g:FEATURE_GROUP {name: {groupName}})"
+        + " CREATE (f)-[:MEMBER_OF]->(g) RETURN count(f) AS count";
+    
+    /** Remove feature from a group. */
+    String CYPHER_REMOVE_FROM_GROUP = 
+          "MATCH (f:FEATURE {uid: {uid}})"
+        + " OPTIONAL MATCH (f)-[rel:MEMBER_OF]->(:FEATURE_GROUP {name: {groupName}})"
+        + " WITH f, collect(rel) AS rels"
+        + " FOREACH (rel IN rels | DELETE rel) RETURN count(f) AS count";
+    
+    /** Count members of a group. */
+    String CYPHER_EXIST_GROUP = 
+          "MATCH (f:FEATURE)-[:MEMBER_OF]->(:FEATURE_GROUP {name: {groupName}}) RETURN count(f) AS count";
+    
+    /** Groups with at least one feature. */
+    String CYPHER_READ_ALL_GROUPS = "MATCH (:FEATURE)-[:MEMBER_OF]->(g:FEATURE_GROUP) RETURN DISTINCT g.name AS name";
+    
+    /** Features required by a feature, directly or through other features. */
+    String CYPHER_READ_DEPENDENCIES = 
+          "MATCH (:FEATURE {uid: {uid}})-[:DEPENDS_ON*1..]->(d:FEATURE) RETURN DISTINCT d.uid AS uid";
+    
+    /** Features requiring a feature, directly or through other features. */
+    String CYPHER_READ_DEPENDENTS = 
+          "MATCH (:FEATURE {uid: {uid}})<-[:DEPENDS_ON*1..]-(d:FEATURE) RETURN DISTINCT d.uid AS uid";
     
 }
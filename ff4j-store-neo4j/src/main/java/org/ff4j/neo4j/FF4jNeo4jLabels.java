@@ -39,5 +39,8 @@ public enum FF4jNeo4jLabels implements Label {
     ROLE,
     
     /** Strategy. */
-    FLIPPING_STRATEGY
+    FLIPPING_STRATEGY,
+    
+    /** Custom property of a feature. */
+    PROPERTY
 }
@@ -36,5 +36,11 @@ public enum FF4jNeo4jRelationShips implements RelationshipType {
     REQUIRED_ROLE,
     
     /** USE. */
-    REQUIRED_STRATEGY;
+    REQUIRED_STRATEGY,
+    
+    /** Feature referenced by the expression of another feature. */
+    DEPENDS_ON,
+    
+    /** Custom property of a feature. */
+    CUSTOM_PROPERTY;
 }
@@ -20,12 +20,36 @@ package org.ff4j.neo4j.mapper;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingStrategy;
+import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.neo4j.FF4jNeo4jConstants;
 import org.ff4j.neo4j.FF4jNeo4jLabels;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.PropertyFactory;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
+import org.ff4j.strategy.el.ExpressionNode;
+import org.ff4j.strategy.el.ExpressionParser;
+import org.ff4j.utils.ParameterUtils;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 
+/**
+ * Mapping between {@link Feature} and the nodes of the graph. Features are written as parameter maps consumed by batched Cypher
+ * statements and read back from query rows.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
 public class FeatureNeo4jMapper implements FF4jNeo4jConstants {
     
     /**
@@ -49,5 +73,192 @@ public class FeatureNeo4jMapper implements FF4jNeo4jConstants {
         nodeFeature.setProperty(P_FEATURE_ENABLE, feature.isEnable());
         return nodeFeature;
     }
+    
+    /**
+     * Convert feature into a row of {@link FF4jNeo4jConstants#CYPHER_CREATE}. Every key is present, Neo4j does not store
+     * null properties.
+     *
+     * @param feature
+     *      target feature
+     * @return
+     *      parameters of the feature
+     */
+    static public Map<String, Object> toParameters(Feature feature) {
+        Map<String, Object> row = new HashMap<>();
+        row.put(P_FEATURE_UID, feature.getUid());
+        row.put(P_FEATURE_ENABLE, feature.isEnable());
+        row.put(P_FEATURE_DESCRIPTION, feature.getDescription());
+        FlippingStrategy strategy = feature.getFlippingStrategy();
+        row.put(P_FEATURE_STRATEGY, strategy == null ? null : strategy.getClass().getCanonicalName());
+        row.put(P_FEATURE_INITPARAMS, strategy == null ? null : ParameterUtils.fromMap(strategy.getInitParams()));
+        List<String> dependencies = dependencies(feature);
+        row.put(P_FEATURE_DEPENDS_ON, dependencies.isEmpty() ? null : dependencies.toArray(new String[dependencies.size()]));
+        List<String> groups = new ArrayList<>(1);
+        if (feature.getGroup() != null && !feature.getGroup().isEmpty()) {
+            groups.add(feature.getGroup());
+        }
+        row.put("groups", groups);
+        row.put("roles", feature.getPermissions() == null ? 
+                Collections.<String>emptyList() : new ArrayList<>(feature.getPermissions()));
+        List<Map<String, Object>> properties = new ArrayList<>();
+        if (feature.getCustomProperties() != null) {
+            for (AbstractProperty<?> ap : feature.getCustomProperties().values()) {
+                properties.add(toParameters(ap));
+            }
+        }
+        row.put("properties", properties);
+        return row;
+    }
+    
+    /**
+     * Convert custom property into parameters of a PROPERTY node.
+     *
+     * @param ap
+     *      target property
+     * @return
+     *      parameters of the property
+     */
+    static Map<String, Object> toParameters(AbstractProperty<?> ap) {
+        Map<String, Object> prop = new HashMap<>();
+        prop.put(P_NAME, ap.getName());
+        prop.put(P_PROPERTY_TYPE, ap.getClass().getName());
+        prop.put(P_PROPERTY_VALUE, ap.asString());
+        prop.put(P_PROPERTY_DESCRIPTION, ap.getDescription());
+        prop.put(P_PROPERTY_FIXEDVALUES, null);
+        if (ap.getFixedValues() != null && !ap.getFixedValues().isEmpty()) {
+            List<String> fixedValues = new ArrayList<>();
+            for (Object fixedValue : ap.getFixedValues()) {
+                fixedValues.add(String.valueOf(fixedValue));
+            }
+            prop.put(P_PROPERTY_FIXEDVALUES, fixedValues.toArray(new String[fixedValues.size()]));
+        }
+        return prop;
+    }
+    
+    /**
+     * Rebuild feature from a row of the read queries.
+     *
+     * @param node
+     *      feature node
+     * @param groupName
+     *      group of the feature, may be null
+     * @param roles
+     *      names of required roles
+     * @param propertyNodes
+     *      custom property nodes
+     * @return
+     *      feature
+     */
+    static public Feature fromNode(Node node, String groupName, Collection<String> roles, Collection<Node> propertyNodes) {
+        String uid = (String) node.getProperty(P_FEATURE_UID);
+        Feature feature = new Feature(uid, (Boolean) node.getProperty(P_FEATURE_ENABLE, Boolean.FALSE));
+        feature.setDescription((String) node.getProperty(P_FEATURE_DESCRIPTION, null));
+        feature.setGroup(groupName);
+        Set<String> permissions = new HashSet<>();
+        if (roles != null) {
+            permissions.addAll(roles);
+        }
+        feature.setPermissions(permissions);
+        String strategy = (String) node.getProperty(P_FEATURE_STRATEGY, null);
+        if (strategy != null && !strategy.isEmpty()) {
+            String initParams = (String) node.getProperty(P_FEATURE_INITPARAMS, null);
+            feature.setFlippingStrategy(mapStrategy(uid, strategy, ParameterUtils.toMap(initParams)));
+        }
+        Map<String, AbstractProperty<?>> customProperties = new LinkedHashMap<>();
+        if (propertyNodes != null) {
+            for (Node propertyNode : propertyNodes) {
+                AbstractProperty<?> ap = fromPropertyNode(propertyNode);
+                customProperties.put(ap.getName(), ap);
+            }
+        }
+        feature.setCustomProperties(customProperties);
+        return feature;
+    }
+    
+    /**
+     * Rebuild custom property from its node.
+     *
+     * @param node
+     *      property node
+     * @return
+     *      property
+     */
+    static AbstractProperty<?> fromPropertyNode(Node node) {
+        String fixedValues = null;
+        String[] values = (String[]) node.getProperty(P_PROPERTY_FIXEDVALUES, null);
+        if (values != null) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append(values[i]);
+            }
+            fixedValues = sb.toString();
+        }
+        return PropertyFactory.createProperty(
+                (String) node.getProperty(P_NAME), 
+                (String) node.getProperty(P_PROPERTY_TYPE),
+                (String) node.getProperty(P_PROPERTY_VALUE, null), 
+                (String) node.getProperty(P_PROPERTY_DESCRIPTION, null), 
+                fixedValues);
+    }
+    
+    /**
+     * Identifiers of features referenced by the expression of an {@link ExpressionFlipStrategy}.
+     *
+     * @param feature
+     *      target feature
+     * @return
+     *      referenced features, empty for other strategies
+     */
+    static public List<String> dependencies(Feature feature) {
+        List<String> dependencies = new ArrayList<>();
+        FlippingStrategy strategy = feature.getFlippingStrategy();
+        if (strategy instanceof ExpressionFlipStrategy && strategy.getInitParams() != null) {
+            String expression = strategy.getInitParams().get(ExpressionFlipStrategy.PARAM_EXPRESSION);
+            if (expression != null && !expression.isEmpty()) {
+                collectSheets(ExpressionParser.parseExpression(expression), dependencies);
+            }
+        }
+        return dependencies;
+    }
+    
+    /**
+     * Walk expression tree to collect values of sheets.
+     *
+     * @param node
+     *      current node
+     * @param sheets
+     *      collected feature identifiers
+     */
+    private static void collectSheets(ExpressionNode node, List<String> sheets) {
+        if (node.getValue() != null) {
+            String uid = node.getValue().trim();
+            if (!uid.isEmpty() && !sheets.contains(uid)) {
+                sheets.add(uid);
+            }
+        }
+        for (ExpressionNode subNode : node.getSubNodes()) {
+            collectSheets(subNode, sheets);
+        }
+    }
+    
+    /**
+     * Instanciate and initialize strategy.
+     */
+    private static FlippingStrategy mapStrategy(String uid, String className, Map<String, String> initParams) {
+        try {
+            FlippingStrategy flipStrategy = (FlippingStrategy) Class.forName(className).newInstance();
+            flipStrategy.init(uid, initParams);
+            return flipStrategy;
+        } catch (InstantiationException ie) {
+            throw new FeatureAccessException("Cannot instantiate Strategy, no default constructor available", ie);
+        } catch (IllegalAccessException iae) {
+            throw new FeatureAccessException("Cannot instantiate Strategy, no visible constructor", iae);
+        } catch (ClassNotFoundException e) {
+            throw new FeatureAccessException("Cannot instantiate Strategy, classNotFound", e);
+        }
+    }
 
 }
@@ -9,9 +9,9 @@ package org.ff4j.store;
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  *      http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -20,155 +20,562 @@ package org.ff4j.store;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.ff4j.core.Feature;
-import org.ff4j.core.FeatureStore;
-import org.ff4j.neo4j.FF4jNeo4jRelationShips;
+import org.ff4j.exception.FeatureAlreadyExistException;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
+import org.ff4j.neo4j.FF4jNeo4jConstants;
+import org.ff4j.neo4j.mapper.FeatureNeo4jMapper;
+import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
-import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Transaction;
-import org.neo4j.graphdb.factory.GraphDatabaseFactory;
 
 /**
- * Implementatino of NEO4J Store.
+ * Implementation of NEO4J Store, working with the embedded API.
+ *
+ * Every operation is a single parameterized Cypher statement (plans are cached by the engine), bulk operations send features in
+ * batches of {@link #getBatchSize()} rows within one transaction. Features referenced by the expression of an
+ * {@link org.ff4j.strategy.el.ExpressionFlipStrategy} are linked with DEPENDS_ON relationships, see
+ * {@link #readDependencies(String)} and {@link #readDependents(String)}.
  *
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
-public class FeatureStoreNeo4J implements FeatureStore {
+public class FeatureStoreNeo4J extends AbstractFeatureStore implements FF4jNeo4jConstants {
+
+    /** Default number of features sent in a single statement. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
 
     /** Persistent storage. */
-    private GraphDatabaseService graphDb = new GraphDatabaseFactory().newEmbeddedDatabase("");
-    
-    /** {@inheritDoc} */
-    @Override
-    public void enable(String featureID) {
-        try ( Transaction tx = graphDb.beginTx() ) {
-            Node firstNode = graphDb.createNode();
-            firstNode.setProperty( "message", "Hello, " );
-            Node secondNode = graphDb.createNode();
-            secondNode.setProperty( "message", "World!" );
-            Relationship relationship = firstNode.createRelationshipTo( secondNode, FF4jNeo4jRelationShips.MEMBER_OF);
-            relationship.setProperty( "message", "brave Neo4j " );
-            
-            // Database operations go here
+    private GraphDatabaseService graphDb;
+
+    /** Cypher engine bound to {@link #graphDb}. */
+    private ExecutionEngine engine;
+
+    /** Number of features sent in a single statement. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Default constructor, graph database must be provided with {@link #setGraphDb(GraphDatabaseService)}.
+     */
+    public FeatureStoreNeo4J() {
+    }
+
+    /**
+     * Initialization with graph database, constraints are created if needed.
+     *
+     * @param graphDb
+     *      embedded graph database
+     */
+    public FeatureStoreNeo4J(GraphDatabaseService graphDb) {
+        setGraphDb(graphDb);
+    }
+
+    /**
+     * Initialization with graph database and features from XML file.
+     *
+     * @param graphDb
+     *      embedded graph database
+     * @param xmlConfFile
+     *      xml configuration file
+     */
+    public FeatureStoreNeo4J(GraphDatabaseService graphDb, String xmlConfFile) {
+        this(graphDb);
+        importFeaturesFromXmlFile(xmlConfFile);
+    }
+
+    /**
+     * Create unique constraints on feature uid, group name and role name. Each constraint comes with an index used by lookups.
+     * Statements are idempotent, schema changes cannot be mixed with data changes and use their own transaction.
+     */
+    public void createSchema() {
+        try (Transaction tx = graphDb.beginTx()) {
+            for (String constraint : CYPHER_CONSTRAINTS) {
+                engine.execute(constraint);
+            }
             tx.success();
         }
     }
 
+    /** {@inheritDoc} */
     @Override
-    public void disable(String fId) {
-        // TODO Auto-generated method stub
-        
+    public void enable(String uid) {
+        updateStatus(uid, true);
     }
 
+    /** {@inheritDoc} */
     @Override
-    public boolean exist(String featId) {
-        // TODO Auto-generated method stub
-        return false;
+    public void disable(String uid) {
+        updateStatus(uid, false);
+    }
+
+    /**
+     * Update status of feature.
+     *
+     * @param uid
+     *            feature id
+     * @param enable
+     *            enabler
+     */
+    private void updateStatus(String uid, boolean enable) {
+        assertFeatureId(uid);
+        Map<String, Object> params = new HashMap<>();
+        params.put(P_FEATURE_UID, uid);
+        params.put(P_FEATURE_ENABLE, enable);
+        if (0 == executeCount(CYPHER_SET_ENABLE, params)) {
+            throw new FeatureNotFoundException(uid);
+        }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String uid) {
+        assertFeatureId(uid);
+        return executeCount(CYPHER_EXIST, uidParameter(uid)) > 0;
+    }
+
+    /** {@inheritDoc} */
     @Override
     public void create(Feature fp) {
-        // TODO Auto-generated method stub
-        
+        if (fp == null) {
+            throw new IllegalArgumentException("Feature cannot be null nor empty");
+        }
+        List<Feature> features = new ArrayList<>(1);
+        features.add(fp);
+        createAll(features);
     }
 
+    /** {@inheritDoc} */
     @Override
-    public Feature read(String featureUid) {
-        // TODO Auto-generated method stub
-        return null;
+    public Feature read(String uid) {
+        assertFeatureId(uid);
+        Map<String, Feature> features = readFeatures(CYPHER_READ, uidParameter(uid));
+        if (features.isEmpty()) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return features.get(uid);
     }
 
+    /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        // TODO Auto-generated method stub
-        return null;
+        return readFeatures(CYPHER_READ_ALL, new HashMap<String, Object>());
     }
 
+    /** {@inheritDoc} */
     @Override
-    public void delete(String fpId) {
-        // TODO Auto-generated method stub
-        
+    public void delete(String uid) {
+        assertFeatureId(uid);
+        List<String> uids = new ArrayList<>(1);
+        uids.add(uid);
+        deleteAll(uids);
     }
 
+    /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
-        // TODO Auto-generated method stub
-        
+        if (fp == null) {
+            throw new IllegalArgumentException("Feature cannot be null nor empty");
+        }
+        List<Feature> features = new ArrayList<>(1);
+        features.add(fp);
+        updateAll(features);
     }
 
+    /** {@inheritDoc} */
     @Override
-    public void grantRoleOnFeature(String flipId, String roleName) {
-        // TODO Auto-generated method stub
-        
+    public void grantRoleOnFeature(String uid, String roleName) {
+        updateRole(CYPHER_GRANT_ROLE, uid, roleName);
     }
 
+    /** {@inheritDoc} */
     @Override
-    public void removeRoleFromFeature(String flipId, String roleName) {
-        // TODO Auto-generated method stub
-        
+    public void removeRoleFromFeature(String uid, String roleName) {
+        updateRole(CYPHER_REMOVE_ROLE, uid, roleName);
+    }
+
+    /**
+     * Grant or remove role.
+     *
+     * @param cypher
+     *            statement to execute
+     * @param uid
+     *            feature id
+     * @param roleName
+     *            role name
+     */
+    private void updateRole(String cypher, String uid, String roleName) {
+        assertFeatureId(uid);
+        if (roleName == null || roleName.isEmpty()) {
+            throw new IllegalArgumentException("roleName cannot be null nor empty");
+        }
+        Map<String, Object> params = uidParameter(uid);
+        params.put("roleName", roleName);
+        if (0 == executeCount(cypher, params)) {
+            throw new FeatureNotFoundException(uid);
+        }
     }
 
+    /** {@inheritDoc} */
     @Override
     public void enableGroup(String groupName) {
-        // TODO Auto-generated method stub
-        
+        updateGroupStatus(groupName, true);
     }
 
+    /** {@inheritDoc} */
     @Override
     public void disableGroup(String groupName) {
-        // TODO Auto-generated method stub
-        
+        updateGroupStatus(groupName, false);
     }
 
+    /**
+     * Update status of all features of a group with a single statement.
+     *
+     * @param groupName
+     *            target group
+     * @param enable
+     *            enabler
+     */
+    private void updateGroupStatus(String groupName, boolean enable) {
+        Map<String, Object> params = groupParameter(groupName);
+        params.put(P_FEATURE_ENABLE, enable);
+        if (0 == executeCount(CYPHER_SET_ENABLE_GROUP, params)) {
+            throw new GroupNotFoundException(groupName);
+        }
+    }
+
+    /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
-        // TODO Auto-generated method stub
-        return false;
+        return executeCount(CYPHER_EXIST_GROUP, groupParameter(groupName)) > 0;
     }
 
+    /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readGroup(String groupName) {
-        // TODO Auto-generated method stub
-        return null;
+        Map<String, Feature> features = readFeatures(CYPHER_READ_GROUP, groupParameter(groupName));
+        if (features.isEmpty()) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return features;
     }
 
+    /** {@inheritDoc} */
     @Override
-    public void addToGroup(String featureId, String groupName) {
-        // TODO Auto-generated method stub
-        
+    public void addToGroup(String uid, String groupName) {
+        assertFeatureId(uid);
+        Map<String, Object> params = groupParameter(groupName);
+        params.put(P_FEATURE_UID, uid);
+        if (0 == executeCount(CYPHER_ADD_TO_GROUP, params)) {
+            throw new FeatureNotFoundException(uid);
+        }
     }
 
+    /** {@inheritDoc} */
     @Override
-    public void removeFromGroup(String featureId, String groupName) {
-        // TODO Auto-generated method stub
-        
+    public void removeFromGroup(String uid, String groupName) {
+        assertFeatureId(uid);
+        Map<String, Object> params = groupParameter(groupName);
+        params.put(P_FEATURE_UID, uid);
+        if (!existGroup(groupName)) {
+            throw new GroupNotFoundException(groupName);
+        }
+        if (0 == executeCount(CYPHER_REMOVE_FROM_GROUP, params)) {
+            throw new FeatureNotFoundException(uid);
+        }
     }
 
+    /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
-        // TODO Auto-generated method stub
-        return null;
+        return readColumn(CYPHER_READ_ALL_GROUPS, new HashMap<String, Object>(), P_NAME);
+    }
+
+    /**
+     * Features required by the expression of a feature, directly or through other features.
+     *
+     * @param uid
+     *            feature id
+     * @return identifiers of required features
+     */
+    public Set<String> readDependencies(String uid) {
+        assertFeatureId(uid);
+        return readColumn(CYPHER_READ_DEPENDENCIES, uidParameter(uid), P_FEATURE_UID);
+    }
+
+    /**
+     * Features whose expression requires a feature, directly or through other features. They are impacted when it is toggled
+     * or deleted.
+     *
+     * @param uid
+     *            feature id
+     * @return identifiers of dependent features
+     */
+    public Set<String> readDependents(String uid) {
+        assertFeatureId(uid);
+        return readColumn(CYPHER_READ_DEPENDENTS, uidParameter(uid), P_FEATURE_UID);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void createAll(Collection<Feature> features) {
+        assertFeatures(features);
+        List<String> uids = uids(features);
+        try (Transaction tx = graphDb.beginTx()) {
+            Set<String> existing = readExistingUids(uids);
+            if (!existing.isEmpty()) {
+                throw new FeatureAlreadyExistException(existing.iterator().next());
+            }
+            writeFeatures(features, uids);
+            tx.success();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        assertFeatures(features);
+        List<String> uids = uids(features);
+        try (Transaction tx = graphDb.beginTx()) {
+            Set<String> existing = readExistingUids(uids);
+            for (String uid : uids) {
+                if (!existing.contains(uid)) {
+                    throw new FeatureNotFoundException(uid);
+                }
+            }
+            executeInBatches(CYPHER_DELETE, "uids", uids);
+            writeFeatures(features, uids);
+            tx.success();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        List<String> uids = new ArrayList<>(featureIds);
+        try (Transaction tx = graphDb.beginTx()) {
+            Set<String> existing = readExistingUids(uids);
+            for (String uid : uids) {
+                if (!existing.contains(uid)) {
+                    throw new FeatureNotFoundException(uid);
+                }
+            }
+            executeInBatches(CYPHER_DELETE, "uids", uids);
+            tx.success();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> importFeaturesFromXmlFile(String xmlConfFile) {
+        Map<String, Feature> features = parseXmlFile(xmlConfFile);
+        List<String> uids = new ArrayList<>(features.keySet());
+        // Override existing configuration within database
+        try (Transaction tx = graphDb.beginTx()) {
+            executeInBatches(CYPHER_DELETE, "uids", uids);
+            writeFeatures(features.values(), uids);
+            tx.success();
+        }
+        return features;
+    }
+
+    /**
+     * Create features in batches then link them to the features they depend on and the features depending on them to them,
+     * within current transaction.
+     *
+     * @param features
+     *            features to write
+     * @param uids
+     *            their identifiers
+     */
+    private void writeFeatures(Collection<Feature> features, List<String> uids) {
+        List<Map<String, Object>> rows = new ArrayList<>(features.size());
+        for (Feature fp : features) {
+            rows.add(FeatureNeo4jMapper.toParameters(fp));
+        }
+        executeInBatches(CYPHER_CREATE, "features", rows);
+        executeInBatches(CYPHER_LINK_DEPENDENCIES, "uids", uids);
+        executeInBatches(CYPHER_LINK_DEPENDENTS, "uids", uids);
+    }
+
+    /**
+     * Execute a statement taking a list parameter, {@link #batchSize} elements at a time.
+     *
+     * @param cypher
+     *            statement to execute
+     * @param paramName
+     *            name of list parameter
+     * @param values
+     *            elements of the list
+     */
+    private void executeInBatches(String cypher, String paramName, List<?> values) {
+        for (int start = 0; start < values.size(); start += batchSize) {
+            Map<String, Object> params = new HashMap<>();
+            params.put(paramName, values.subList(start, Math.min(start + batchSize, values.size())));
+            engine.execute(cypher, params);
+        }
+    }
+
+    /**
+     * Identifiers of existing features, within current transaction.
+     *
+     * @param uids
+     *            identifiers to check
+     * @return existing identifiers
+     */
+    private Set<String> readExistingUids(List<String> uids) {
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < uids.size(); start += batchSize) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("uids", uids.subList(start, Math.min(start + batchSize, uids.size())));
+            try (ResourceIterator<String> it = engine.execute(CYPHER_EXISTING_UIDS, params).columnAs(P_FEATURE_UID)) {
+                while (it.hasNext()) {
+                    existing.add(it.next());
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Execute a read statement returning features with their group, roles and properties, one row per feature.
+     *
+     * @param cypher
+     *            statement ending with {@link #CYPHER_READ_RETURN}
+     * @param params
+     *            parameters
+     * @return features
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Feature> readFeatures(String cypher, Map<String, Object> params) {
+        Map<String, Feature> features = new LinkedHashMap<>();
+        try (Transaction tx = graphDb.beginTx()) {
+            ExecutionResult result = engine.execute(cypher, params);
+            for (Map<String, Object> row : result) {
+                Feature feature = FeatureNeo4jMapper.fromNode((Node) row.get("f"), (String) row.get("groupName"),
+                        (Collection<String>) row.get("roles"), (Collection<Node>) row.get("properties"));
+                features.put(feature.getUid(), feature);
+            }
+            tx.success();
+        }
+        return features;
+    }
+
+    /**
+     * Execute a read statement returning a single column of strings.
+     *
+     * @param cypher
+     *            statement to execute
+     * @param params
+     *            parameters
+     * @param column
+     *            column name
+     * @return values
+     */
+    private Set<String> readColumn(String cypher, Map<String, Object> params, String column) {
+        Set<String> values = new LinkedHashSet<>();
+        try (Transaction tx = graphDb.beginTx()) {
+            try (ResourceIterator<String> it = engine.execute(cypher, params).columnAs(column)) {
+                while (it.hasNext()) {
+                    values.add(it.next());
+                }
+            }
+            tx.success();
+        }
+        return values;
+    }
+
+    /**
+     * Execute a statement returning a single 'count' column.
+     *
+     * @param cypher
+     *            statement to execute
+     * @param params
+     *            parameters
+     * @return count
+     */
+    private long executeCount(String cypher, Map<String, Object> params) {
+        try (Transaction tx = graphDb.beginTx()) {
+            long count = 0;
+            try (ResourceIterator<Number> it = engine.execute(cypher, params).columnAs("count")) {
+                if (it.hasNext()) {
+                    count = it.next().longValue();
+                }
+            }
+            tx.success();
+            return count;
+        }
+    }
+
+    /**
+     * Identifiers of features, in order.
+     */
+    private List<String> uids(Collection<Feature> features) {
+        List<String> uids = new ArrayList<>(features.size());
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
+        }
+        return uids;
+    }
+
+    /**
+     * Check feature identifier.
+     */
+    private void assertFeatureId(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+    }
+
+    /**
+     * Parameters with feature identifier.
+     */
+    private Map<String, Object> uidParameter(String uid) {
+        Map<String, Object> params = new HashMap<>();
+        params.put(P_FEATURE_UID, uid);
+        return params;
+    }
+
+    /**
+     * Parameters with group name, checked.
+     */
+    private Map<String, Object> groupParameter(String groupName) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("groupName", groupName);
+        return params;
     }
 
+    /** {@inheritDoc} */
     @Override
     public boolean isCached() {
-        // TODO Auto-generated method stub
         return false;
     }
 
+    /** {@inheritDoc} */
     @Override
     public String getCacheProvider() {
-        // TODO Auto-generated method stub
         return null;
     }
 
+    /** {@inheritDoc} */
     @Override
     public String getCachedTargetStore() {
-        // TODO Auto-generated method stub
         return null;
     }
 
@@ -183,13 +590,39 @@ public class FeatureStoreNeo4J implements FeatureStore {
     }
 
     /**
-     * Setter accessor for attribute 'graphDb'.
+     * Setter accessor for attribute 'graphDb', constraints are created if needed.
      * @param graphDb
      * 		new value for 'graphDb '
      */
     public void setGraphDb(GraphDatabaseService graphDb) {
+        if (graphDb == null) {
+            throw new IllegalArgumentException("Graph database cannot be null");
+        }
         this.graphDb = graphDb;
+        this.engine  = new ExecutionEngine(graphDb);
+        createSchema();
+    }
+
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     *
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize'.
+     *
+     * @param batchSize
+     *            new value for 'batchSize '
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
     }
-    
 
 }
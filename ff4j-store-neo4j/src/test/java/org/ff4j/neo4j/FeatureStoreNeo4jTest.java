@@ -0,0 +1,110 @@
+package org.ff4j.neo4j;
+
+/*
+ * #%L
+ * ff4j-store-neo4j
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.FeatureStoreNeo4J;
+import org.ff4j.test.store.AbstractStoreJUnitTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+/**
+ * Unit testing of Neo4j Store on an impermanent embedded database.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreNeo4jTest extends AbstractStoreJUnitTest {
+
+    /** DataBase instance. */
+    private GraphDatabaseService graphDb;
+
+    /** {@inheritDoc} */
+    @Override
+    protected FeatureStore initStore() {
+        graphDb = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        return new FeatureStoreNeo4J(graphDb, "ff4j.xml");
+    }
+
+    /**
+     * Shutdown neo4j database
+     */
+    @After
+    public void destroyTestDatabase() {
+        graphDb.shutdown();
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testReadDependencies() {
+        // Given
+        FeatureStoreNeo4J neo4jStore = (FeatureStoreNeo4J) testedStore;
+        // When
+        Set<String> dependencies = neo4jStore.readDependencies("forth");
+        // Then
+        Assert.assertEquals(2, dependencies.size());
+        Assert.assertTrue(dependencies.contains("second"));
+        Assert.assertTrue(dependencies.contains("third"));
+        Assert.assertTrue(neo4jStore.readDependents("second").contains("forth"));
+        Assert.assertTrue(neo4jStore.readDependents("forth").isEmpty());
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testDependenciesSurviveUpdate() {
+        // Given
+        FeatureStoreNeo4J neo4jStore = (FeatureStoreNeo4J) testedStore;
+        Feature third = testedStore.read("third");
+        third.setDescription("updated");
+        // When
+        testedStore.update(third);
+        // Then
+        Assert.assertTrue(neo4jStore.readDependencies("forth").contains("third"));
+        Assert.assertEquals("updated", testedStore.read("third").getDescription());
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testBulkWritesInSeveralBatches() {
+        // Given
+        FeatureStoreNeo4J neo4jStore = (FeatureStoreNeo4J) testedStore;
+        neo4jStore.setBatchSize(1);
+        int initialSize = testedStore.readAll().size();
+        // When
+        neo4jStore.deleteAll(testedStore.readAll().keySet());
+        neo4jStore.importFeaturesFromXmlFile("ff4j.xml");
+        // Then
+        Assert.assertEquals(initialSize, testedStore.readAll().size());
+        Assert.assertTrue(neo4jStore.readDependencies("forth").contains("second"));
+    }
+
+}
@@ -0,0 +1,409 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-cache-redis
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ff4j.redis.FF4JRedisConstants;
+import org.ff4j.redis.RedisCodec;
+import org.ff4j.redis.RedisConnection;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * Superclass of distributed caches with REDIS (JEDIS) for features and properties.
+ * 
+ * Every key is prefixed by a namespace so that several applications (or a feature store) can share the same redis instance:
+ * {@link #clear()} only removes the keys of the namespace. Subclasses give the identifier and the binary encoding of cached
+ * objects (see {@link RedisCodec}).
+ * 
+ * Identifiers are also indexed in a sorted set scored by expiration time, written in the same transaction as the entry. Size
+ * and list of cached identifiers are read from this index once expired members are removed, without scanning the keys.
+ * 
+ * @param <T>
+ *            cached object
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public abstract class AbstractCacheProviderRedis<T> implements FF4JRedisConstants {
+    
+    /** time to live in seconds, 0 or less means no expiration. */
+    protected int timeToLive = DEFAULT_TTL;
+
+    /** prefix of every key written by this cache. */
+    protected String namespace;
+    
+    /** Pooled connections to redis. */
+    protected RedisConnection redisConnection;
+
+    /** Usage counters, local to this JVM. */
+    protected final CacheStatisticsCounter statistics = new CacheStatisticsCounter();
+
+    /** Name of cached objects in error messages. */
+    private final String entryName;
+
+    /**
+     * Work with a configured connection.
+     * 
+     * @param connection
+     *            redis connection
+     * @param namespace
+     *            prefix of keys
+     * @param entryName
+     *            name of cached objects in error messages
+     */
+    protected AbstractCacheProviderRedis(RedisConnection connection, String namespace, String entryName) {
+        this.redisConnection = connection;
+        this.namespace       = namespace;
+        this.entryName       = entryName;
+    }
+
+    /**
+     * Identifier of an object in cache (without namespace).
+     * 
+     * @param entry
+     *            cached object
+     * @return identifier
+     */
+    protected abstract String getId(T entry);
+
+    /**
+     * Serialize object before writing it to redis.
+     * 
+     * @param entry
+     *            cached object
+     * @return binary value
+     */
+    protected abstract byte[] encode(T entry);
+
+    /**
+     * Deserialize value read from redis.
+     * 
+     * @param value
+     *            binary value
+     * @return cached object
+     */
+    protected abstract T decode(byte[] value);
+
+    /**
+     * Remove every key of the namespace.
+     */
+    public void clear() {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            List<String> keys = scanKeys(jedis);
+            // Delete by chunks to avoid huge commands
+            for (int start = 0; start < keys.size(); start += SCAN_BATCH_SIZE) {
+                List<String> chunk = keys.subList(start, Math.min(start + SCAN_BATCH_SIZE, keys.size()));
+                statistics.recordEviction(jedis.del(chunk.toArray(new String[chunk.size()])));
+            }
+            jedis.del(getIndexKey());
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Remove an object from cache, nothing is done for null or empty identifiers.
+     * 
+     * @param id
+     *            identifier of object
+     */
+    public void evict(String id) {
+        if (id == null || id.isEmpty()) {
+            return;
+        }
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            Transaction tx = jedis.multi();
+            Response<Long> deleted = tx.del(getKey(id));
+            tx.zrem(getIndexKey(), id);
+            tx.exec();
+            statistics.recordEviction(deleted.get());
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Add object to cache, expiring after {@link #timeToLive} seconds if positive.
+     * 
+     * @param entry
+     *            object to be cached
+     */
+    public void put(T entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException(entryName + " cannot be null nor empty");
+        }
+        String id    = getId(entry);
+        byte[] key   = RedisCodec.toBytes(getKey(id));
+        byte[] value = encode(entry);
+        // Score is the expiration time, entries without expiration are never removed from index by time
+        double expiration = (timeToLive > 0) ? System.currentTimeMillis() + timeToLive * 1000L : Long.MAX_VALUE;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            Transaction tx = jedis.multi();
+            if (timeToLive > 0) {
+                tx.setex(key, timeToLive, value);
+            } else {
+                tx.set(key, value);
+            }
+            tx.zadd(getIndexKey(), expiration, id);
+            tx.exec();
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Return object stored in cache, null for null or empty identifiers.
+     * 
+     * @param id
+     *            identifier of object
+     * @return cached object, null if not cached
+     */
+    public T get(String id) {
+        if (id == null || id.isEmpty()) {
+            return null;
+        }
+        byte[] value;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            value = jedis.get(RedisCodec.toBytes(getKey(id)));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        if (value == null) {
+            statistics.recordMiss();
+            return null;
+        }
+        statistics.recordHit();
+        return decode(value);
+    }
+
+    /**
+     * Identifiers of objects in cache, read from the index.
+     * 
+     * @return identifiers
+     */
+    protected Set<String> listCachedKeys() {
+        Set<String> names = new HashSet<String>();
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            purgeExpired(jedis);
+            names.addAll(jedis.zrange(getIndexKey(), 0, -1));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        return names;
+    }
+
+    /**
+     * Access to embedded implementation of cache.
+     * 
+     * @return pool of connections
+     */
+    public Object getNativeCache() {
+        return redisConnection.getJedisPool();
+    }
+
+    /**
+     * Get name of expected cache.
+     * 
+     * @return target cache name
+     */
+    public String getCacheProviderName() {
+        return "REDIS";
+    }
+
+    /**
+     * Record the time spent to load an object from the target store after a cache miss.
+     * 
+     * @param loadTime
+     *            loading time in nanoseconds
+     */
+    public void recordLoad(long loadTime) {
+        statistics.recordLoad(loadTime);
+    }
+
+    /**
+     * Access usage figures of the cache (hits, misses, loads, evictions and size).
+     * 
+     * @return snapshot of statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        long size;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            purgeExpired(jedis);
+            size = jedis.zcard(getIndexKey());
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        return statistics.toStatistics(size);
+    }
+
+    /**
+     * Remove from index the identifiers whose entry has expired.
+     * 
+     * @param jedis
+     *            current connection
+     */
+    private void purgeExpired(Jedis jedis) {
+        jedis.zremrangeByScore(getIndexKey(), 0, System.currentTimeMillis());
+    }
+
+    /**
+     * Iterate with SCAN (non blocking for server, unlike KEYS) over keys of the namespace.
+     * 
+     * @param jedis
+     *            current connection
+     * @return keys of the namespace
+     */
+    private List<String> scanKeys(Jedis jedis) {
+        List<String> keys = new ArrayList<String>();
+        ScanParams params = new ScanParams().match(namespace + "*").count(SCAN_BATCH_SIZE);
+        String cursor = "0";
+        do {
+            ScanResult<String> page = jedis.scan(cursor, params);
+            keys.addAll(page.getResult());
+            cursor = page.getStringCursor();
+        } while (!"0".equals(cursor));
+        return keys;
+    }
+
+    /**
+     * Build key from identifier.
+     * 
+     * @param id
+     *            object identifier
+     * @return redis key
+     */
+    protected String getKey(String id) {
+        return namespace + id;
+    }
+
+    /**
+     * Key of the index of cached identifiers, outside of the namespace so that it is never taken for an entry.
+     * 
+     * @return redis key
+     */
+    protected String getIndexKey() {
+        return PREFIX_CACHE_INDEX + namespace;
+    }
+
+    /**
+     * Close connections.
+     */
+    public void destroy() {
+        redisConnection.destroy();
+    }
+
+    /**
+     * Getter accessor for attribute 'timeToLive'.
+     * 
+     * @return current value of 'timeToLive'
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Setter accessor for attribute 'timeToLive'.
+     * 
+     * @param timeToLive
+     *            new value for 'timeToLive ' in seconds
+     */
+    public void setTimeToLive(int timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Getter accessor for attribute 'namespace'.
+     * 
+     * @return current value of 'namespace'
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Setter accessor for attribute 'namespace'.
+     * 
+     * @param namespace
+     *            new value for 'namespace '
+     */
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    /**
+     * Getter accessor for attribute 'redisConnection'.
+     * 
+     * @return current value of 'redisConnection'
+     */
+    public RedisConnection getRedisConnection() {
+        return redisConnection;
+    }
+
+    /**
+     * Setter accessor for attribute 'redisConnection'.
+     * 
+     * @param redisConnection
+     *            new value for 'redisConnection '
+     */
+    public void setRedisConnection(RedisConnection redisConnection) {
+        this.redisConnection = redisConnection;
+    }
+
+}
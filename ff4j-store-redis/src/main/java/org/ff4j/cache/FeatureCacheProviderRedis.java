@@ -20,38 +20,37 @@ package org.ff4j.cache;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.ff4j.core.Feature;
-import org.ff4j.redis.FF4JRedisConstants;
-import org.ff4j.utils.json.FeatureJsonParser;
+import org.ff4j.redis.RedisCodec;
+import org.ff4j.redis.RedisConnection;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 
 /**
  * Implementation of ditributed cache to limit overhead, with REDIS (JEDIS).
  * 
+ * Every key is prefixed by a namespace so that several applications (or a feature store) can share the same redis instance:
+ * {@link #clear()} only removes the keys of the namespace. Connections are borrowed from a pool and values are stored with a
+ * compact binary encoding (see {@link RedisCodec}).
+ * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
-public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedisConstants {
-    
-    /** redis host. */
-    protected String redisHost = DEFAULT_REDIS_HOST;
-
-    /** redis port. */
-    protected int redisport = DEFAULT_REDIS_PORT;
-
-    /** time to live. */
-    protected int timeToLive = DEFAULT_TTL;
-    
-    /** Java Redis CLIENT. */
-    protected Jedis jedis;
+public class FeatureCacheProviderRedis extends AbstractCacheProviderRedis<Feature> implements FeatureCacheManager {
     
     /**
      * Default Constructor.
      */
     public FeatureCacheProviderRedis() {
-        jedis = new Jedis(redisHost, redisport);
+        this(new RedisConnection());
     }
 
     /**
@@ -63,63 +62,116 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
      *            target redis port
      */
     public FeatureCacheProviderRedis(String host, int port) {
-        jedis = new Jedis(redisHost, redisport);
+        this(new RedisConnection(host, port));
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void clear() {
-        jedis.flushAll();
+    /**
+     * Work with an existing pool.
+     * 
+     * @param pool
+     *            pool of connections to redis
+     */
+    public FeatureCacheProviderRedis(JedisPool pool) {
+        this(new RedisConnection(pool));
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void evict(String uid) {
-        if (uid == null || uid.isEmpty()) {
-            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
-        }
-        jedis.del(uid);
+    /**
+     * Work with a configured connection.
+     * 
+     * @param connection
+     *            redis connection
+     */
+    public FeatureCacheProviderRedis(RedisConnection connection) {
+        super(connection, DEFAULT_CACHE_NAMESPACE, "Feature");
     }
 
     /** {@inheritDoc} */
     @Override
-    public void put(Feature fp) {
-        if (fp == null) {
-            throw new IllegalArgumentException("Feature cannot be null nor empty");
-        }
-        jedis.set(fp.getUid(), fp.toJson());
-        jedis.expire(fp.getUid(), timeToLive);
+    public void evict(String uid) {
+        assertUid(uid);
+        super.evict(uid);
     }
 
     /** {@inheritDoc} */
     @Override
     public Feature get(String uid) {
-        if (uid == null || uid.isEmpty()) {
-            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        assertUid(uid);
+        return super.get(uid);
+    }
+
+    /**
+     * Read several features with a single MGET round trip.
+     * 
+     * @param uids
+     *            feature identifiers
+     * @return features found in cache, missing ones are not in the map
+     */
+    public Map<String, Feature> getAll(Collection<String> uids) {
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        if (uids == null || uids.isEmpty()) {
+            return features;
         }
-        String value = jedis.get(uid);
-        if (value != null) {
-            return FeatureJsonParser.parseFeature(value);
+        List<String> listOfUids = new ArrayList<String>(uids);
+        byte[][] keys = new byte[listOfUids.size()][];
+        for (int idx = 0; idx < keys.length; idx++) {
+            keys[idx] = RedisCodec.toBytes(getKey(listOfUids.get(idx)));
         }
-        return null;
+        List<byte[]> values;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            values = jedis.mget(keys);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        for (int idx = 0; idx < values.size(); idx++) {
+            if (values.get(idx) == null) {
+                statistics.recordMiss();
+            } else {
+                statistics.recordHit();
+                features.put(listOfUids.get(idx), decode(values.get(idx)));
+            }
+        }
+        return features;
     }
     
     /** {@inheritDoc} */
     @Override
     public Set<String> listCachedFeatureNames() {
-        return jedis.keys(PREFIX_KEY + "*");
+        return listCachedKeys();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getId(Feature feature) {
+        return feature.getUid();
     }
 
     /** {@inheritDoc} */
     @Override
-    public Object getNativeCache() {
-        return jedis;
+    protected byte[] encode(Feature feature) {
+        return RedisCodec.encodeFeature(feature);
     }
 
     /** {@inheritDoc} */
     @Override
-    public String getCacheProviderName() {
-        return "REDIS";
+    protected Feature decode(byte[] value) {
+        return RedisCodec.decodeFeature(value);
+    }
+
+    /**
+     * Feature identifiers are mandatory.
+     * 
+     * @param uid
+     *            feature identifier
+     */
+    private void assertUid(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
     }
 
     /**
@@ -128,7 +180,7 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
      * @return current value of 'redisHost'
      */
     public String getRedisHost() {
-        return redisHost;
+        return redisConnection.getRedisHost();
     }
 
     /**
@@ -137,18 +189,7 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
      * @return current value of 'redisport'
      */
     public int getRedisport() {
-        return redisport;
-    }
-
-    /**
-     * Getter accessor for attribute 'timeToLive'.
-     * 
-     * @return current value of 'timeToLive'
-     */
-    public int getTimeToLive() {
-        return timeToLive;
+        return redisConnection.getRedisPort();
     }
 
-    
-
 }
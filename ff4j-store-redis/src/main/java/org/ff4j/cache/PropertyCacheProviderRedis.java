@@ -0,0 +1,103 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-cache-redis
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.redis.RedisCodec;
+import org.ff4j.redis.RedisConnection;
+
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Implementation of ditributed cache for properties with REDIS (JEDIS), to be used with {@link PropertyStoreCacheProxy}.
+ * 
+ * Keys are prefixed by a namespace distinct from the features cache, values are stored with {@link RedisCodec}.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyCacheProviderRedis extends AbstractCacheProviderRedis<AbstractProperty<?>> implements PropertyCacheManager {
+    
+    /**
+     * Default Constructor.
+     */
+    public PropertyCacheProviderRedis() {
+        this(new RedisConnection());
+    }
+
+    /**
+     * Contact remote redis server.
+     * 
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     */
+    public PropertyCacheProviderRedis(String host, int port) {
+        this(new RedisConnection(host, port));
+    }
+
+    /**
+     * Work with an existing pool.
+     * 
+     * @param pool
+     *            pool of connections to redis
+     */
+    public PropertyCacheProviderRedis(JedisPool pool) {
+        this(new RedisConnection(pool));
+    }
+
+    /**
+     * Work with a configured connection.
+     * 
+     * @param connection
+     *            redis connection
+     */
+    public PropertyCacheProviderRedis(RedisConnection connection) {
+        super(connection, DEFAULT_PROPERTY_CACHE_NAMESPACE, "Property");
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> listCachedPropertyNames() {
+        return listCachedKeys();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getId(AbstractProperty<?> property) {
+        return property.getName();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected byte[] encode(AbstractProperty<?> property) {
+        return RedisCodec.encodeProperty(property);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected AbstractProperty<?> decode(byte[] value) {
+        return RedisCodec.decodeProperty(value);
+    }
+
+}
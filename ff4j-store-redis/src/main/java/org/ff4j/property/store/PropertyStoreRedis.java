@@ -0,0 +1,460 @@
+package org.ff4j.property.store;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.redis.RedisPropertyMapper.propertyKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.exception.PropertyAlreadyExistException;
+import org.ff4j.exception.PropertyNotFoundException;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.redis.FF4JRedisConstants;
+import org.ff4j.redis.RedisConnection;
+import org.ff4j.redis.RedisFeatureMapper;
+import org.ff4j.redis.RedisPropertyMapper;
+import org.ff4j.redis.RedisScript;
+import org.ff4j.utils.Util;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * {@link PropertyStore} to persist properties into REDIS.
+ * 
+ * Each property is a hash (see {@link RedisPropertyMapper}) and names are indexed in a set. Bulk reads are a single pipeline of
+ * HGETALL, a new value is written with a single field HSET. Creations, deletions and bulk writes update index and hashes within
+ * a single MULTI/EXEC on the watched index (retried when a property is created or deleted concurrently). When a change channel
+ * is set, the name of each created, updated or deleted property is published on it.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreRedis extends AbstractPropertyStore implements FF4JRedisConstants {
+
+    /** Number of attempts of a watched transaction before giving up, each retry means a concurrent creation or deletion. */
+    private static final int MAX_WATCHED_ATTEMPTS = 10;
+
+    /** Pooled connections to redis. */
+    protected RedisConnection redisConnection;
+
+    /** channel where changes are published, null to disable publication. */
+    protected String changeChannel = null;
+
+    /**
+     * Default Constructor.
+     */
+    public PropertyStoreRedis() {
+        this(new RedisConnection());
+    }
+
+    /**
+     * Contact remote redis server.
+     * 
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     */
+    public PropertyStoreRedis(String host, int port) {
+        this(new RedisConnection(host, port));
+    }
+
+    /**
+     * Work with an existing pool.
+     * 
+     * @param pool
+     *            pool of connections to redis
+     */
+    public PropertyStoreRedis(JedisPool pool) {
+        this(new RedisConnection(pool));
+    }
+
+    /**
+     * Work with a configured connection, shared with feature store for instance.
+     * 
+     * @param connection
+     *            redis connection
+     */
+    public PropertyStoreRedis(RedisConnection connection) {
+        this.redisConnection = connection;
+    }
+
+    /**
+     * Work with a configured connection and import properties.
+     * 
+     * @param connection
+     *            redis connection
+     * @param xmlConfFile
+     *            xml configuration file
+     */
+    public PropertyStoreRedis(RedisConnection connection, String xmlConfFile) {
+        this(connection);
+        importPropertiesFromXmlFile(xmlConfFile);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String name) {
+        Util.assertHasLength(name);
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return jedis.sismember(KEY_PROPERTY_NAMES, name);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void create(AbstractProperty<T> ap) {
+        if (ap == null) {
+            throw new IllegalArgumentException("Property cannot be null nor empty");
+        }
+        Util.assertHasLength(ap.getName());
+        // Index and hash are written in the same transaction as the watched existence check
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        properties.add(ap);
+        writeAll(properties, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractProperty<?> read(String name) {
+        Util.assertHasLength(name);
+        Map<String, String> hash;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            hash = jedis.hgetAll(propertyKey(name));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        AbstractProperty<?> ap = RedisPropertyMapper.fromHash(name, hash);
+        if (ap == null) {
+            throw new PropertyNotFoundException(name);
+        }
+        return ap;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(String name, String newValue) {
+        // Check existence and validate new value against type and fixed values
+        AbstractProperty<?> current = read(name);
+        current.setValueFromString(newValue);
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            Object updated = RedisScript.RUN_IF_MEMBER.eval(jedis, 
+                    Arrays.asList(KEY_PROPERTY_NAMES, propertyKey(name)), 
+                    Arrays.asList(name, "HSET", FIELD_VALUE, current.asString()));
+            if (Long.valueOf(0).equals(updated)) {
+                throw new PropertyNotFoundException(name);
+            }
+            if (changeChannel != null) {
+                jedis.publish(changeChannel, RedisFeatureMapper.changeMessage(name));
+            }
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void update(AbstractProperty<T> prop) {
+        if (prop == null || prop.getName() == null) {
+            throw new IllegalArgumentException("Cannot update property, please provide property name");
+        }
+        List<AbstractProperty<?>> properties = new ArrayList<AbstractProperty<?>>();
+        properties.add(prop);
+        updateAll(properties);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Property identifier (param#0) cannot be null nor empty");
+        }
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            // Index is watched so that removal of the name and of the hash are a single transaction
+            for (int attempt = 1; attempt <= MAX_WATCHED_ATTEMPTS; attempt++) {
+                jedis.watch(KEY_PROPERTY_NAMES);
+                if (!jedis.sismember(KEY_PROPERTY_NAMES, name)) {
+                    jedis.unwatch();
+                    throw new PropertyNotFoundException(name);
+                }
+                Transaction tx = jedis.multi();
+                tx.srem(KEY_PROPERTY_NAMES, name);
+                tx.del(propertyKey(name));
+                publishChange(tx, name);
+                if (tx.exec() != null) {
+                    return;
+                }
+            }
+            throw new FeatureAccessException("Cannot delete property '" + name + "', modified concurrently " + MAX_WATCHED_ATTEMPTS + " times");
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, AbstractProperty<?>> readAllProperties() {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return readProperties(jedis, jedis.smembers(KEY_PROPERTY_NAMES));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Read several properties with a single pipeline of HGETALL.
+     * 
+     * @param names
+     *            property names
+     * @return existing properties
+     */
+    public Map<String, AbstractProperty<?>> readProperties(Collection<String> names) {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return readProperties(jedis, names);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Check existence of every property with a pipeline, then write all of them within a single transaction.
+     * 
+     * @param properties
+     *            properties to create
+     */
+    @Override
+    public void createAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        writeAll(properties, true);
+    }
+
+    /**
+     * Check existence of every property with a pipeline, then overwrite all of them within a single transaction.
+     * 
+     * @param properties
+     *            new values of properties
+     */
+    @Override
+    public void updateAll(Collection<AbstractProperty<?>> properties) {
+        assertProperties(properties);
+        writeAll(properties, false);
+    }
+
+    /**
+     * Check existence then write properties. Index of names is watched so that a property created or deleted concurrently
+     * between check and EXEC aborts the transaction, check is then done again.
+     * 
+     * @param properties
+     *            properties to write
+     * @param create
+     *            none must exist if true, all must exist otherwise
+     */
+    private void writeAll(Collection<AbstractProperty<?>> properties, boolean create) {
+        if (properties.isEmpty()) {
+            return;
+        }
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            for (int attempt = 1; attempt <= MAX_WATCHED_ATTEMPTS; attempt++) {
+                jedis.watch(KEY_PROPERTY_NAMES);
+                List<Response<Boolean>> exists = new ArrayList<Response<Boolean>>();
+                Pipeline pipe = jedis.pipelined();
+                for (AbstractProperty<?> ap : properties) {
+                    exists.add(pipe.sismember(KEY_PROPERTY_NAMES, ap.getName()));
+                }
+                pipe.sync();
+                int idx = 0;
+                for (AbstractProperty<?> ap : properties) {
+                    boolean exist = exists.get(idx++).get();
+                    if (create && exist) {
+                        jedis.unwatch();
+                        throw new PropertyAlreadyExistException(ap.getName());
+                    }
+                    if (!create && !exist) {
+                        jedis.unwatch();
+                        throw new PropertyNotFoundException(ap.getName());
+                    }
+                }
+                Transaction tx = jedis.multi();
+                for (AbstractProperty<?> ap : properties) {
+                    writeProperty(tx, ap);
+                }
+                if (tx.exec() != null) {
+                    return;
+                }
+            }
+            throw new FeatureAccessException("Cannot write properties, modified concurrently " + MAX_WATCHED_ATTEMPTS + " times");
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Read several properties with a single pipeline.
+     * 
+     * @param jedis
+     *            current connection
+     * @param names
+     *            property names
+     * @return existing properties
+     */
+    private Map<String, AbstractProperty<?>> readProperties(Jedis jedis, Collection<String> names) {
+        Map<String, AbstractProperty<?>> properties = new LinkedHashMap<String, AbstractProperty<?>>();
+        if (names == null || names.isEmpty()) {
+            return properties;
+        }
+        List<Response<Map<String, String>>> hashes = new ArrayList<Response<Map<String, String>>>();
+        Pipeline pipe = jedis.pipelined();
+        for (String name : names) {
+            hashes.add(pipe.hgetAll(propertyKey(name)));
+        }
+        pipe.sync();
+        int idx = 0;
+        for (String name : names) {
+            AbstractProperty<?> ap = RedisPropertyMapper.fromHash(name, hashes.get(idx++).get());
+            if (ap != null) {
+                properties.put(name, ap);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Replace the hash of a property and index it.
+     * 
+     * @param tx
+     *            current transaction
+     * @param ap
+     *            property to write
+     */
+    private void writeProperty(Transaction tx, AbstractProperty<?> ap) {
+        tx.del(propertyKey(ap.getName()));
+        tx.hmset(propertyKey(ap.getName()), RedisPropertyMapper.toHash(ap));
+        tx.sadd(KEY_PROPERTY_NAMES, ap.getName());
+        publishChange(tx, ap.getName());
+    }
+
+    /**
+     * Publish change within transaction, if a channel is defined.
+     * 
+     * @param tx
+     *            current transaction
+     * @param name
+     *            property name
+     */
+    private void publishChange(Transaction tx, String name) {
+        if (changeChannel != null) {
+            tx.publish(changeChannel, RedisFeatureMapper.changeMessage(name));
+        }
+    }
+
+    /**
+     * Close connections.
+     */
+    public void destroy() {
+        redisConnection.destroy();
+    }
+
+    /**
+     * Getter accessor for attribute 'redisConnection'.
+     * 
+     * @return current value of 'redisConnection'
+     */
+    public RedisConnection getRedisConnection() {
+        return redisConnection;
+    }
+
+    /**
+     * Setter accessor for attribute 'redisConnection'.
+     * 
+     * @param redisConnection
+     *            new value for 'redisConnection '
+     */
+    public void setRedisConnection(RedisConnection redisConnection) {
+        this.redisConnection = redisConnection;
+    }
+
+    /**
+     * Getter accessor for attribute 'changeChannel'.
+     * 
+     * @return current value of 'changeChannel'
+     */
+    public String getChangeChannel() {
+        return changeChannel;
+    }
+
+    /**
+     * Setter accessor for attribute 'changeChannel', null to disable publication.
+     * 
+     * @param changeChannel
+     *            new value for 'changeChannel '
+     */
+    public void setChangeChannel(String changeChannel) {
+        this.changeChannel = changeChannel;
+    }
+
+}
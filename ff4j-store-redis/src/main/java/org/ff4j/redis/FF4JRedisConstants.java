@@ -27,8 +27,62 @@ package org.ff4j.redis;
  */
 public interface FF4JRedisConstants {
     
-    /** prefix of keys. */
+    /** prefix of keys holding a feature as a JSON string (former layout, see {@link FeatureStoreRedisMigration}). */
     public String PREFIX_KEY = "FF4J_";
+
+    /** set of all feature identifiers. */
+    public String KEY_FEATURES = "FF4J:features";
+
+    /** prefix of the hash holding a feature. */
+    public String PREFIX_FEATURE = "FF4J:feature:";
+
+    /** prefix of the set holding roles of a feature. */
+    public String PREFIX_ROLES = "FF4J:roles:";
+
+    /** prefix of the hash holding custom properties of a feature (property name to encoded property). */
+    public String PREFIX_PROPERTIES = "FF4J:properties:";
+
+    /** prefix of the set holding identifiers of features in a group. */
+    public String PREFIX_GROUP = "FF4J:group:";
+
+    /** default channel where feature changes are published. */
+    public String DEFAULT_CHANGE_CHANNEL = "FF4J:changes";
+
+    /** separator between publication time and feature identifier in change messages. */
+    public String CHANGE_SEPARATOR = "|";
+
+    /** set of all property names. */
+    public String KEY_PROPERTY_NAMES = "FF4J:property-names";
+
+    /** prefix of the hash holding a property of the property store. */
+    public String PREFIX_PROPERTY = "FF4J:property:";
+
+    /** default channel where property changes are published. */
+    public String DEFAULT_PROPERTY_CHANGE_CHANNEL = "FF4J:property-changes";
+
+    /** hash field for property class name. */
+    public String FIELD_TYPE = "type";
+
+    /** hash field for property value. */
+    public String FIELD_VALUE = "value";
+
+    /** hash field for allowed values of a property, separated by comma. */
+    public String FIELD_FIXED_VALUES = "fixedValues";
+
+    /** hash field for status, "1" or "0". */
+    public String FIELD_ENABLE = "enable";
+
+    /** hash field for description. */
+    public String FIELD_DESCRIPTION = "description";
+
+    /** hash field for group. */
+    public String FIELD_GROUP = "group";
+
+    /** hash field for strategy class name. */
+    public String FIELD_STRATEGY = "strategy";
+
+    /** hash field for strategy init parameters. */
+    public String FIELD_EXPRESSION = "expression";
     
     /** default host. */
     public String DEFAULT_REDIS_HOST = "localhost";
@@ -39,4 +93,19 @@ public interface FF4JRedisConstants {
     /** default ttl. */
     public int DEFAULT_TTL = 900000000;
 
+    /** default connection and socket timeout (milliseconds). */
+    public int DEFAULT_REDIS_TIMEOUT = 2000;
+
+    /** default namespace for cache keys, distinct from store keys. */
+    public String DEFAULT_CACHE_NAMESPACE = "ff4j-cache:";
+
+    /** default namespace for property cache keys. */
+    public String DEFAULT_PROPERTY_CACHE_NAMESPACE = "ff4j-property-cache:";
+
+    /** prefix of the sorted set indexing identifiers of a cache namespace, scored by expiration time. */
+    public String PREFIX_CACHE_INDEX = "FF4J:cache-index:";
+
+    /** number of keys fetched per SCAN iteration. */
+    public int SCAN_BATCH_SIZE = 500;
+
 }
@@ -0,0 +1,185 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+import org.ff4j.store.FeatureStoreRedis;
+import org.ff4j.utils.json.FeatureJsonParser;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * Copy features stored as JSON strings (keys {@link #PREFIX_KEY} + uid, former layout of {@link FeatureStoreRedis}) to the
+ * hash based layout. Keys are listed with SCAN and read by chunks with MGET; features already present in the new layout are
+ * overwritten.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreRedisMigration implements FF4JRedisConstants {
+
+    /** Pooled connections to redis. */
+    private final RedisConnection redisConnection;
+
+    /** Target store, sharing the same connections. */
+    private final FeatureStoreRedis targetStore;
+
+    /**
+     * Work with a configured connection.
+     *
+     * @param connection
+     *            redis connection
+     */
+    public FeatureStoreRedisMigration(RedisConnection connection) {
+        this.redisConnection = connection;
+        this.targetStore     = new FeatureStoreRedis(connection);
+    }
+
+    /**
+     * Copy every feature from the JSON layout to the hash layout.
+     *
+     * @param removeJsonKeys
+     *            delete former keys once features have been written
+     * @return number of migrated features
+     */
+    public int migrate(boolean removeJsonKeys) {
+        List<String> jsonKeys = scanJsonKeys();
+        Set<String> existingUids = readExistingUids();
+        int migrated = 0;
+        for (int start = 0; start < jsonKeys.size(); start += SCAN_BATCH_SIZE) {
+            List<String> chunk = jsonKeys.subList(start, Math.min(start + SCAN_BATCH_SIZE, jsonKeys.size()));
+            List<Feature> toCreate = new ArrayList<Feature>();
+            List<Feature> toUpdate = new ArrayList<Feature>();
+            for (Feature fp : readJsonFeatures(chunk)) {
+                if (existingUids.contains(fp.getUid())) {
+                    toUpdate.add(fp);
+                } else {
+                    toCreate.add(fp);
+                }
+            }
+            targetStore.createAll(toCreate);
+            targetStore.updateAll(toUpdate);
+            migrated += toCreate.size() + toUpdate.size();
+            if (removeJsonKeys) {
+                deleteKeys(chunk);
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * List keys of the JSON layout with SCAN (non blocking for server, unlike KEYS).
+     *
+     * @return former keys
+     */
+    private List<String> scanJsonKeys() {
+        List<String> keys = new ArrayList<String>();
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            ScanParams params = new ScanParams().match(PREFIX_KEY + "*").count(SCAN_BATCH_SIZE);
+            String cursor = "0";
+            do {
+                ScanResult<String> page = jedis.scan(cursor, params);
+                keys.addAll(page.getResult());
+                cursor = page.getStringCursor();
+            } while (!"0".equals(cursor));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        return keys;
+    }
+
+    /**
+     * Identifiers of features already in the hash layout.
+     *
+     * @return feature identifiers
+     */
+    private Set<String> readExistingUids() {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return jedis.smembers(KEY_FEATURES);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Read and parse features with a single MGET.
+     *
+     * @param keys
+     *            former keys
+     * @return features
+     */
+    private List<Feature> readJsonFeatures(List<String> keys) {
+        List<String> values;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            values = jedis.mget(keys.toArray(new String[keys.size()]));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        List<Feature> features = new ArrayList<Feature>();
+        for (String json : values) {
+            if (json != null) {
+                features.add(FeatureJsonParser.parseFeature(json));
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Remove former keys.
+     *
+     * @param keys
+     *            former keys
+     */
+    private void deleteKeys(List<String> keys) {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            jedis.del(keys.toArray(new String[keys.size()]));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+}
@@ -0,0 +1,353 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingStrategy;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.PropertyFactory;
+
+/**
+ * Compact binary encoding of {@link Feature} for REDIS values. Decoding reads fields sequentially without any JSON parsing.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class RedisCodec {
+
+    /** Version of the format, first byte of each value. */
+    private static final byte FORMAT_VERSION = 1;
+
+    /** Strings are stored as UTF-8. */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Length marker for null strings. */
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Hide default constructor.
+     */
+    private RedisCodec() {
+    }
+
+    /**
+     * Encode as bytes.
+     *
+     * @param str
+     *            target string
+     * @return bytes (UTF-8)
+     */
+    public static byte[] toBytes(String str) {
+        return str.getBytes(UTF8);
+    }
+
+    /**
+     * Decode bytes as a String.
+     *
+     * @param bytes
+     *            UTF-8 bytes
+     * @return string
+     */
+    public static String fromBytes(byte[] bytes) {
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Serialize feature in compact binary form.
+     *
+     * @param feature
+     *            target feature
+     * @return binary value
+     */
+    public static byte[] encodeFeature(Feature feature) {
+        if (feature == null) {
+            throw new IllegalArgumentException("Feature cannot be null");
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, feature.getUid());
+            out.writeBoolean(feature.isEnable());
+            writeString(out, feature.getDescription());
+            writeString(out, feature.getGroup());
+            // Permissions
+            Set<String> permissions = feature.getPermissions();
+            out.writeInt(permissions == null ? 0 : permissions.size());
+            if (permissions != null) {
+                for (String permission : permissions) {
+                    writeString(out, permission);
+                }
+            }
+            // Strategy
+            FlippingStrategy strategy = feature.getFlippingStrategy();
+            writeString(out, strategy == null ? null : strategy.getClass().getName());
+            if (strategy != null) {
+                writeStringMap(out, strategy.getInitParams());
+            }
+            // Custom properties
+            Map<String, AbstractProperty<?>> properties = feature.getCustomProperties();
+            out.writeInt(properties == null ? 0 : properties.size());
+            if (properties != null) {
+                for (AbstractProperty<?> property : properties.values()) {
+                    writeProperty(out, property);
+                }
+            }
+            out.flush();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot encode feature " + feature.getUid(), e);
+        }
+    }
+
+    /**
+     * Unserialize feature from its binary form.
+     *
+     * @param bytes
+     *            binary value produced by {@link #encodeFeature(Feature)}
+     * @return feature or null if bytes are null
+     */
+    public static Feature decodeFeature(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            checkVersion(in.readByte());
+            Feature feature = new Feature(readString(in));
+            feature.setEnable(in.readBoolean());
+            feature.setDescription(readString(in));
+            feature.setGroup(readString(in));
+            // Permissions
+            int nbPermissions = in.readInt();
+            Set<String> permissions = new TreeSet<String>();
+            for (int i = 0; i < nbPermissions; i++) {
+                permissions.add(readString(in));
+            }
+            feature.setPermissions(permissions);
+            // Strategy
+            String strategyClass = readString(in);
+            if (strategyClass != null) {
+                feature.setFlippingStrategy(instanciateStrategy(feature.getUid(), strategyClass, readStringMap(in)));
+            }
+            // Custom properties
+            int nbProperties = in.readInt();
+            Map<String, AbstractProperty<?>> properties = new LinkedHashMap<String, AbstractProperty<?>>();
+            for (int i = 0; i < nbProperties; i++) {
+                AbstractProperty<?> ap = readProperty(in);
+                properties.put(ap.getName(), ap);
+            }
+            feature.setCustomProperties(properties);
+            return feature;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot decode feature from redis value", e);
+        }
+    }
+
+    /**
+     * Serialize property in compact binary form.
+     *
+     * @param property
+     *            target property
+     * @return binary value
+     */
+    public static byte[] encodeProperty(AbstractProperty<?> property) {
+        if (property == null) {
+            throw new IllegalArgumentException("Property cannot be null");
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeByte(FORMAT_VERSION);
+            writeProperty(out, property);
+            out.flush();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot encode property " + property.getName(), e);
+        }
+    }
+
+    /**
+     * Unserialize property from its binary form.
+     *
+     * @param bytes
+     *            binary value produced by {@link #encodeProperty(AbstractProperty)}
+     * @return property or null if bytes are null
+     */
+    public static AbstractProperty<?> decodeProperty(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            checkVersion(in.readByte());
+            return readProperty(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot decode property from redis value", e);
+        }
+    }
+
+    /**
+     * Serialize a property (name, type, value, description, fixed values).
+     *
+     * @param out
+     *            target stream
+     * @param property
+     *            property to write
+     * @throws IOException
+     *             error during writing
+     */
+    static void writeProperty(DataOutputStream out, AbstractProperty<?> property) throws IOException {
+        writeString(out, property.getName());
+        writeString(out, property.getClass().getName());
+        writeString(out, property.asString());
+        writeString(out, property.getDescription());
+        Set<?> fixedValues = property.getFixedValues();
+        out.writeInt(fixedValues == null ? NULL_LENGTH : fixedValues.size());
+        if (fixedValues != null) {
+            for (Object fixedValue : fixedValues) {
+                writeString(out, String.valueOf(fixedValue));
+            }
+        }
+    }
+
+    /**
+     * Unserialize a property written by {@link #writeProperty(DataOutputStream, AbstractProperty)}.
+     *
+     * @param in
+     *            source stream
+     * @return property
+     * @throws IOException
+     *             error during reading
+     */
+    static AbstractProperty<?> readProperty(DataInputStream in) throws IOException {
+        String name  = readString(in);
+        String type  = readString(in);
+        String value = readString(in);
+        String desc  = readString(in);
+        AbstractProperty<?> ap = PropertyFactory.createProperty(name, type, value, desc, null);
+        int nbFixedValues = in.readInt();
+        for (int i = 0; i < nbFixedValues; i++) {
+            ap.add2FixedValueFromString(readString(in));
+        }
+        return ap;
+    }
+
+    /**
+     * Create and initialize strategy.
+     *
+     * @param uid
+     *            feature identifier
+     * @param className
+     *            strategy class name
+     * @param initParams
+     *            init parameters
+     * @return initialized strategy
+     */
+    static FlippingStrategy instanciateStrategy(String uid, String className, Map<String, String> initParams) {
+        try {
+            FlippingStrategy strategy = (FlippingStrategy) Class.forName(className).newInstance();
+            strategy.init(uid, initParams);
+            return strategy;
+        } catch (InstantiationException e) {
+            throw new IllegalArgumentException(className + " does not seems to have a DEFAULT constructor", e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(className + " does not seems to have a PUBLIC constructor", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(className + " has not been found within classpath, check syntax", e);
+        }
+    }
+
+    /**
+     * Check format version.
+     *
+     * @param version
+     *            read version
+     */
+    private static void checkVersion(byte version) {
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported redis value format version " + version);
+        }
+    }
+
+    /**
+     * Write a nullable string as length and UTF-8 bytes.
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            byte[] bytes = str.getBytes(UTF8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Read a nullable string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Write map of strings.
+     */
+    private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map == null ? 0 : map.size());
+        if (map != null) {
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Read map of strings.
+     */
+    private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, String> map = new HashMap<String, String>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+}
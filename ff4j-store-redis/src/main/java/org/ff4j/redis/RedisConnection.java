@@ -0,0 +1,268 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+/**
+ * Pool of connections to a REDIS server. {@link Jedis} instances are not thread-safe, each operation must borrow its own
+ * connection with {@link #getJedis()} and give it back with {@link #release(Jedis)} in a finally block. A connection which
+ * raised a {@link redis.clients.jedis.exceptions.JedisConnectionException} may still hold a pending reply, it must be given
+ * back with {@link #releaseBroken(Jedis)} or the next borrower would read it.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RedisConnection implements FF4JRedisConstants {
+
+    /** redis host. */
+    private String redisHost = DEFAULT_REDIS_HOST;
+
+    /** redis port. */
+    private int redisPort = DEFAULT_REDIS_PORT;
+
+    /** connection and socket timeout in milliseconds. */
+    private int timeout = DEFAULT_REDIS_TIMEOUT;
+
+    /** password if authentication is enabled on server. */
+    private String password = null;
+
+    /** pool sizing. */
+    private JedisPoolConfig poolConfig = new JedisPoolConfig();
+
+    /** Jedis pool, created at first use. */
+    private JedisPool jedisPool;
+
+    /** Pool given by application, host and port are read from its connections at first access. */
+    private boolean addressFromPool = false;
+
+    /**
+     * Default Constructor (localhost:6379).
+     */
+    public RedisConnection() {
+    }
+
+    /**
+     * Target remote redis server.
+     *
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     */
+    public RedisConnection(String host, int port) {
+        this.redisHost = host;
+        this.redisPort = port;
+    }
+
+    /**
+     * Target remote redis server with pool settings.
+     *
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     * @param timeout
+     *            connection and socket timeout in milliseconds
+     * @param poolConfig
+     *            pool sizing
+     */
+    public RedisConnection(String host, int port, int timeout, JedisPoolConfig poolConfig) {
+        this(host, port);
+        this.timeout = timeout;
+        this.poolConfig = poolConfig;
+    }
+
+    /**
+     * Use an existing pool (shared with application).
+     *
+     * @param pool
+     *            existing jedis pool
+     */
+    public RedisConnection(JedisPool pool) {
+        this.jedisPool       = pool;
+        this.addressFromPool = true;
+    }
+
+    /**
+     * Borrow a connection from pool.
+     *
+     * @return connection to redis
+     */
+    public Jedis getJedis() {
+        return getJedisPool().getResource();
+    }
+
+    /**
+     * Give back a healthy connection to the pool.
+     *
+     * @param jedis
+     *            connection borrowed with {@link #getJedis()}
+     */
+    public void release(Jedis jedis) {
+        if (jedis != null) {
+            getJedisPool().returnResource(jedis);
+        }
+    }
+
+    /**
+     * Give back a connection which failed (socket error), it is closed instead of being reused.
+     *
+     * @param jedis
+     *            connection borrowed with {@link #getJedis()}
+     */
+    public void releaseBroken(Jedis jedis) {
+        if (jedis != null) {
+            getJedisPool().returnBrokenResource(jedis);
+        }
+    }
+
+    /**
+     * Close every connection of the pool.
+     */
+    public synchronized void destroy() {
+        if (jedisPool != null) {
+            jedisPool.destroy();
+            jedisPool = null;
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'jedisPool', initialized at first call.
+     *
+     * @return current value of 'jedisPool'
+     */
+    public synchronized JedisPool getJedisPool() {
+        if (jedisPool == null) {
+            jedisPool = new JedisPool(poolConfig, redisHost, redisPort, timeout, password);
+        }
+        return jedisPool;
+    }
+
+    /**
+     * Read host and port from a connection of the pool given by application, once.
+     */
+    private synchronized void resolveAddress() {
+        if (!addressFromPool) {
+            return;
+        }
+        Jedis jedis = getJedis();
+        try {
+            redisHost = jedis.getClient().getHost();
+            redisPort = jedis.getClient().getPort();
+            addressFromPool = false;
+        } finally {
+            release(jedis);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'redisHost', read from the pool if it has been given by application.
+     *
+     * @return current value of 'redisHost'
+     */
+    public String getRedisHost() {
+        resolveAddress();
+        return redisHost;
+    }
+
+    /**
+     * Setter accessor for attribute 'redisHost'.
+     *
+     * @param redisHost
+     *            new value for 'redisHost '
+     */
+    public synchronized void setRedisHost(String redisHost) {
+        this.redisHost = redisHost;
+        this.addressFromPool = false;
+    }
+
+    /**
+     * Getter accessor for attribute 'redisPort', read from the pool if it has been given by application.
+     *
+     * @return current value of 'redisPort'
+     */
+    public int getRedisPort() {
+        resolveAddress();
+        return redisPort;
+    }
+
+    /**
+     * Setter accessor for attribute 'redisPort'.
+     *
+     * @param redisPort
+     *            new value for 'redisPort '
+     */
+    public synchronized void setRedisPort(int redisPort) {
+        this.redisPort = redisPort;
+        this.addressFromPool = false;
+    }
+
+    /**
+     * Getter accessor for attribute 'timeout'.
+     *
+     * @return current value of 'timeout'
+     */
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Setter accessor for attribute 'timeout'.
+     *
+     * @param timeout
+     *            new value for 'timeout '
+     */
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Setter accessor for attribute 'password'.
+     *
+     * @param password
+     *            new value for 'password '
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Getter accessor for attribute 'poolConfig'.
+     *
+     * @return current value of 'poolConfig'
+     */
+    public JedisPoolConfig getPoolConfig() {
+        return poolConfig;
+    }
+
+    /**
+     * Setter accessor for attribute 'poolConfig'.
+     *
+     * @param poolConfig
+     *            new value for 'poolConfig '
+     */
+    public void setPoolConfig(JedisPoolConfig poolConfig) {
+        this.poolConfig = poolConfig;
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingStrategy;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.utils.ParameterUtils;
+
+/**
+ * Layout of a feature in REDIS: a hash with simple attributes, a set of roles and a hash of custom properties (encoded with
+ * {@link RedisCodec}). Identifiers are listed in {@link #KEY_FEATURES} and in one set per group.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class RedisFeatureMapper implements FF4JRedisConstants {
+
+    /**
+     * Hide default constructor.
+     */
+    private RedisFeatureMapper() {
+    }
+
+    /**
+     * Key of the hash holding a feature.
+     *
+     * @param uid
+     *            feature identifier
+     * @return redis key
+     */
+    public static String featureKey(String uid) {
+        return PREFIX_FEATURE + uid;
+    }
+
+    /**
+     * Key of the set holding roles of a feature.
+     *
+     * @param uid
+     *            feature identifier
+     * @return redis key
+     */
+    public static String rolesKey(String uid) {
+        return PREFIX_ROLES + uid;
+    }
+
+    /**
+     * Key of the hash holding custom properties of a feature.
+     *
+     * @param uid
+     *            feature identifier
+     * @return redis key
+     */
+    public static String propertiesKey(String uid) {
+        return PREFIX_PROPERTIES + uid;
+    }
+
+    /**
+     * Key of the set holding members of a group.
+     *
+     * @param groupName
+     *            group name
+     * @return redis key
+     */
+    public static String groupKey(String groupName) {
+        return PREFIX_GROUP + groupName;
+    }
+
+    /**
+     * Message published when a feature changes: publication time then identifier.
+     *
+     * @param uid
+     *            feature identifier
+     * @return message
+     */
+    public static String changeMessage(String uid) {
+        return System.currentTimeMillis() + CHANGE_SEPARATOR + uid;
+    }
+
+    /**
+     * Identifier of the feature in a change message.
+     *
+     * @param message
+     *            message built by {@link #changeMessage(String)}
+     * @return feature identifier
+     */
+    public static String changedFeature(String message) {
+        int idx = message.indexOf(CHANGE_SEPARATOR);
+        if (idx < 0) {
+            throw new IllegalArgumentException("Invalid change message " + message);
+        }
+        return message.substring(idx + CHANGE_SEPARATOR.length());
+    }
+
+    /**
+     * Publication time of a change message.
+     *
+     * @param message
+     *            message built by {@link #changeMessage(String)}
+     * @return publication time in milliseconds
+     */
+    public static long changeTime(String message) {
+        int idx = message.indexOf(CHANGE_SEPARATOR);
+        if (idx < 0) {
+            throw new IllegalArgumentException("Invalid change message " + message);
+        }
+        return Long.parseLong(message.substring(0, idx));
+    }
+
+    /**
+     * Simple attributes of a feature, null values are not stored.
+     *
+     * @param fp
+     *            target feature
+     * @return fields of the feature hash
+     */
+    public static Map<String, String> toHash(Feature fp) {
+        Map<String, String> hash = new HashMap<String, String>();
+        hash.put(FIELD_ENABLE, fp.isEnable() ? "1" : "0");
+        if (fp.getDescription() != null) {
+            hash.put(FIELD_DESCRIPTION, fp.getDescription());
+        }
+        if (fp.getGroup() != null && !fp.getGroup().isEmpty()) {
+            hash.put(FIELD_GROUP, fp.getGroup());
+        }
+        FlippingStrategy strategy = fp.getFlippingStrategy();
+        if (strategy != null) {
+            hash.put(FIELD_STRATEGY, strategy.getClass().getName());
+            hash.put(FIELD_EXPRESSION, ParameterUtils.fromMap(strategy.getInitParams()));
+        }
+        return hash;
+    }
+
+    /**
+     * Custom properties of a feature.
+     *
+     * @param fp
+     *            target feature
+     * @return fields of the properties hash, empty if none
+     */
+    public static Map<byte[], byte[]> toPropertiesHash(Feature fp) {
+        Map<byte[], byte[]> hash = new HashMap<byte[], byte[]>();
+        if (fp.getCustomProperties() != null) {
+            for (AbstractProperty<?> ap : fp.getCustomProperties().values()) {
+                hash.put(RedisCodec.toBytes(ap.getName()), RedisCodec.encodeProperty(ap));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Rebuild a feature from its keys.
+     *
+     * @param uid
+     *            feature identifier
+     * @param hash
+     *            fields of the feature hash
+     * @param roles
+     *            members of the roles set
+     * @param properties
+     *            fields of the properties hash
+     * @return feature or null if the hash is empty (feature does not exist)
+     */
+    public static Feature fromHash(String uid, Map<String, String> hash, Set<String> roles, Map<byte[], byte[]> properties) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        Feature fp = new Feature(uid);
+        fp.setEnable("1".equals(hash.get(FIELD_ENABLE)));
+        fp.setDescription(hash.get(FIELD_DESCRIPTION));
+        fp.setGroup(hash.get(FIELD_GROUP));
+        fp.setPermissions(roles == null ? new TreeSet<String>() : new TreeSet<String>(roles));
+        String strategyClass = hash.get(FIELD_STRATEGY);
+        if (strategyClass != null) {
+            fp.setFlippingStrategy(RedisCodec.instanciateStrategy(uid, strategyClass, 
+                    ParameterUtils.toMap(hash.get(FIELD_EXPRESSION))));
+        }
+        Map<String, AbstractProperty<?>> customProperties = new LinkedHashMap<String, AbstractProperty<?>>();
+        if (properties != null) {
+            for (byte[] value : properties.values()) {
+                AbstractProperty<?> ap = RedisCodec.decodeProperty(value);
+                customProperties.put(ap.getName(), ap);
+            }
+        }
+        fp.setCustomProperties(customProperties);
+        return fp;
+    }
+
+}
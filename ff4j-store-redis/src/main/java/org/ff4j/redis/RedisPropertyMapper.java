@@ -0,0 +1,94 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.PropertyFactory;
+
+/**
+ * Layout of a property in REDIS: a hash with type, value, description and fixed values. Names are listed in
+ * {@link #KEY_PROPERTY_NAMES}.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class RedisPropertyMapper implements FF4JRedisConstants {
+
+    /**
+     * Hide default constructor.
+     */
+    private RedisPropertyMapper() {
+    }
+
+    /**
+     * Key of the hash holding a property.
+     *
+     * @param name
+     *            property name
+     * @return redis key
+     */
+    public static String propertyKey(String name) {
+        return PREFIX_PROPERTY + name;
+    }
+
+    /**
+     * Attributes of a property, null values are not stored.
+     *
+     * @param ap
+     *            target property
+     * @return fields of the property hash
+     */
+    public static Map<String, String> toHash(AbstractProperty<?> ap) {
+        Map<String, String> hash = new HashMap<String, String>();
+        hash.put(FIELD_TYPE, ap.getType());
+        if (ap.asString() != null) {
+            hash.put(FIELD_VALUE, ap.asString());
+        }
+        if (ap.getDescription() != null) {
+            hash.put(FIELD_DESCRIPTION, ap.getDescription());
+        }
+        if (ap.getFixedValues() != null && !ap.getFixedValues().isEmpty()) {
+            String fixedValues = ap.getFixedValues().toString();
+            hash.put(FIELD_FIXED_VALUES, fixedValues.substring(1, fixedValues.length() - 1));
+        }
+        return hash;
+    }
+
+    /**
+     * Rebuild a property from its hash.
+     *
+     * @param name
+     *            property name
+     * @param hash
+     *            fields of the property hash
+     * @return property or null if the hash is empty (property does not exist)
+     */
+    public static AbstractProperty<?> fromHash(String name, Map<String, String> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        return PropertyFactory.createProperty(name, hash.get(FIELD_TYPE), hash.get(FIELD_VALUE), 
+                hash.get(FIELD_DESCRIPTION), hash.get(FIELD_FIXED_VALUES));
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Lua script executed on REDIS server to change several keys atomically in a single round trip. The script is invoked by its
+ * SHA-1 digest (EVALSHA) and only sent again (EVAL) when the server does not know it yet, for instance after a restart.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RedisScript {
+
+    /** Run a command (ARGV[2..]) on KEYS[2] if ARGV[1] is member of set KEYS[1], returns 0 if it is not. */
+    public static final RedisScript RUN_IF_MEMBER = new RedisScript(
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 0 then return 0 end "
+          + "redis.call(ARGV[2], KEYS[2], unpack(ARGV, 3)) "
+          + "return 1");
+
+    /** Error returned by server for an unknown digest. */
+    private static final String NOSCRIPT = "NOSCRIPT";
+
+    /** Lua source. */
+    private final String source;
+
+    /** SHA-1 digest of source, as computed by server. */
+    private final String sha1;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param source
+     *            Lua source
+     */
+    public RedisScript(String source) {
+        if (source == null || source.isEmpty()) {
+            throw new IllegalArgumentException("Script source cannot be null nor empty");
+        }
+        this.source = source;
+        this.sha1   = digest(source);
+    }
+
+    /**
+     * Execute script.
+     *
+     * @param jedis
+     *            current connection
+     * @param keys
+     *            keys read or written by the script (KEYS)
+     * @param args
+     *            other arguments (ARGV)
+     * @return value returned by the script
+     */
+    public Object eval(Jedis jedis, List<String> keys, List<String> args) {
+        try {
+            return jedis.evalsha(sha1, keys, args);
+        } catch (JedisDataException jde) {
+            if (jde.getMessage() == null || !jde.getMessage().startsWith(NOSCRIPT)) {
+                throw jde;
+            }
+            // EVAL also stores the script, next calls will use the digest
+            return jedis.eval(source, keys, args);
+        }
+    }
+
+    /**
+     * Compute SHA-1 digest as hexadecimal string.
+     *
+     * @param source
+     *            Lua source
+     * @return digest
+     */
+    private static String digest(String source) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(RedisCodec.toBytes(source));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'sha1'.
+     *
+     * @return current value of 'sha1'
+     */
+    public String getSha1() {
+        return sha1;
+    }
+
+}
@@ -20,46 +20,102 @@ package org.ff4j.store;
  * #L%
  */
 
-import java.util.HashMap;
+import static org.ff4j.redis.RedisFeatureMapper.featureKey;
+import static org.ff4j.redis.RedisFeatureMapper.groupKey;
+import static org.ff4j.redis.RedisFeatureMapper.propertiesKey;
+import static org.ff4j.redis.RedisFeatureMapper.rolesKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.exception.FeatureAlreadyExistException;
 import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.exception.GroupNotFoundException;
 import org.ff4j.redis.FF4JRedisConstants;
+import org.ff4j.redis.RedisCodec;
+import org.ff4j.redis.RedisConnection;
+import org.ff4j.redis.RedisFeatureMapper;
+import org.ff4j.redis.RedisScript;
 import org.ff4j.utils.Util;
-import org.ff4j.utils.json.FeatureJsonParser;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 
 /**
- * {@link FeatureStore} to persist data into
+ * {@link FeatureStore} to persist data into REDIS.
+ * 
+ * Each feature is a hash with a set of roles and a hash of custom properties (see {@link RedisFeatureMapper}). Identifiers are
+ * indexed in a set, and in one set per group, so that no operation needs to scan the keyspace or to read every feature. Each
+ * operation borrows its own connection from a pool ({@link Jedis} is not thread-safe), reads are pipelined and writes are sent
+ * within MULTI/EXEC. Bulk writes WATCH the hashes of their features while checking existence, the transaction is replayed if
+ * one of them changed before EXEC. Changes of status, roles and groups are Lua scripts: existence check and update are done atomically on
+ * server in a single round trip, without reading the feature.
+ * 
+ * When a change channel is set, the identifier of each created, updated or deleted feature is published on it, for instance to
+ * keep {@link FeatureStoreRedisReplica} up to date.
  *
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
 public class FeatureStoreRedis extends AbstractFeatureStore implements FF4JRedisConstants {
-    
-    /** redis host. */
-    protected String redisHost = DEFAULT_REDIS_HOST;
 
-    /** redis port. */
-    protected int redisport = DEFAULT_REDIS_PORT;
+    /** Set field ARGV[2] to ARGV[3] on hash of every member of group KEYS[1] (hash key prefix ARGV[1]), returns members. */
+    private static final RedisScript SCRIPT_SET_FIELD_ON_GROUP = new RedisScript(
+            "local uids = redis.call('SMEMBERS', KEYS[1]) "
+          + "for i, uid in ipairs(uids) do redis.call('HSET', ARGV[1] .. uid, ARGV[2], ARGV[3]) end "
+          + "return uids");
 
-    /** time to live. */
-    protected int timeToLive = DEFAULT_TTL;
-    
-    /** Java Redis CLIENT. */
-    protected Jedis jedis;
+    /** Move feature ARGV[1] (index KEYS[1], hash KEYS[2]) to group ARGV[4] (set KEYS[3]), returns 0 if it does not exist. */
+    private static final RedisScript SCRIPT_ADD_TO_GROUP = new RedisScript(
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 0 then return 0 end "
+          + "local previous = redis.call('HGET', KEYS[2], ARGV[2]) "
+          + "if previous then redis.call('SREM', ARGV[3] .. previous, ARGV[1]) end "
+          + "redis.call('HSET', KEYS[2], ARGV[2], ARGV[4]) "
+          + "redis.call('SADD', KEYS[3], ARGV[1]) "
+          + "return 1");
+
+    /**
+     * Remove feature ARGV[1] (index KEYS[1], hash KEYS[2]) from group KEYS[3], returns -1 if no group, 0 if no feature and 2 if
+     * the feature is not in this group (left unchanged).
+     */
+    private static final RedisScript SCRIPT_REMOVE_FROM_GROUP = new RedisScript(
+            "if redis.call('EXISTS', KEYS[3]) == 0 then return -1 end "
+          + "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 0 then return 0 end "
+          + "if redis.call('SISMEMBER', KEYS[3], ARGV[1]) == 0 then return 2 end "
+          + "redis.call('HDEL', KEYS[2], ARGV[2]) "
+          + "redis.call('SREM', KEYS[3], ARGV[1]) "
+          + "return 1");
+
+    /** Number of attempts of a watched transaction before giving up, each retry means a concurrent change of the features. */
+    private static final int MAX_WATCHED_ATTEMPTS = 10;
+
+    /** Pooled connections to redis. */
+    protected RedisConnection redisConnection;
+
+    /** channel where changes are published, null to disable publication. */
+    protected String changeChannel = null;
     
     /**
      * Default Constructor.
      */
     public FeatureStoreRedis() {
-        jedis = new Jedis(redisHost, redisport);
+        this(new RedisConnection());
     }
     
     /**
@@ -79,9 +135,7 @@ public class FeatureStoreRedis extends AbstractFeatureStore implements FF4JRedis
      *            target redis port
      */
     public FeatureStoreRedis(String host, int port) {
-        this.redisHost = host;
-        this.redisport = port;
-        jedis = new Jedis(host, port);
+        this(new RedisConnection(host, port));
     }
 
     /**
@@ -96,21 +150,118 @@ public class FeatureStoreRedis extends AbstractFeatureStore implements FF4JRedis
         this(host, port);
         importFeaturesFromXmlFile(xmlFeaturesfFile);
     }
+
+    /**
+     * Contact remote redis server with pool settings.
+     * 
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     * @param timeout
+     *            connection and socket timeout in milliseconds
+     * @param poolConfig
+     *            pool sizing
+     */
+    public FeatureStoreRedis(String host, int port, int timeout, JedisPoolConfig poolConfig) {
+        this(new RedisConnection(host, port, timeout, poolConfig));
+    }
+
+    /**
+     * Work with an existing pool.
+     * 
+     * @param pool
+     *            pool of connections to redis
+     */
+    public FeatureStoreRedis(JedisPool pool) {
+        this(new RedisConnection(pool));
+    }
+
+    /**
+     * Work with a configured connection.
+     * 
+     * @param connection
+     *            redis connection
+     */
+    public FeatureStoreRedis(RedisConnection connection) {
+        this.redisConnection = connection;
+    }
     
     /** {@inheritDoc} */
     @Override
     public boolean exist(String uid) {
         Util.assertParamNotNull(uid, "Feature identifier");
-        return jedis.exists(PREFIX_KEY + uid);
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return jedis.sismember(KEY_FEATURES, uid);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
     }
     
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
-        if (!exist(uid)) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        Map<String, Feature> features;
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            features = readFeatures(jedis, Collections.singleton(uid));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+        if (features.isEmpty()) {
             throw new FeatureNotFoundException(uid);
         }
-        return FeatureJsonParser.parseFeature(jedis.get(PREFIX_KEY + uid));
+        return features.get(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll() {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return readFeatures(jedis, jedis.smembers(KEY_FEATURES));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return readFeatures(jedis, featureIds);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void create(Feature fp) {
+        if (fp == null) {
+            throw new IllegalArgumentException("Feature cannot be null nor empty");
+        }
+        createAll(Collections.singletonList(fp));
     }
     
     /** {@inheritDoc} */
@@ -119,182 +270,552 @@ public class FeatureStoreRedis extends AbstractFeatureStore implements FF4JRedis
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null");
         }
-        if (!exist(fp.getUid())) {
-            throw new FeatureNotFoundException(fp.getUid());
-        }
-        jedis.set(PREFIX_KEY + fp.getUid(), fp.toJson());
-        jedis.persist(PREFIX_KEY + fp.getUid());
+        updateAll(Collections.singletonList(fp));
     }
-    
+
     /** {@inheritDoc} */
     @Override
-    public void enable(String uid) {
-        // Read from redis, feature not found if no present
-        Feature f = read(uid);
-        // Update within Object
-        f.enable();
-        // Serialization and update key, update TTL
-        update(f);
+    public void delete(String fpId) {
+        Util.assertParamNotNull(fpId, "Feature identifier");
+        deleteAll(Collections.singletonList(fpId));
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Check existence of every feature with a pipeline, then write all of them within a single transaction. Feature hashes are
+     * watched, a concurrent creation of the same feature aborts the transaction and the check is done again.
+     * 
+     * @param features
+     *            features to create
+     */
     @Override
-    public void disable(String uid) {
-        // Read from redis, feature not found if no present
-        Feature f = read(uid);
-        // Update within Object
-        f.disable();
-        // Serialization and update key, update TTL
-        update(f);
+    public void createAll(Collection<Feature> features) {
+        assertFeatures(features);
+        if (features.isEmpty()) {
+            return;
+        }
+        List<String> uids = new ArrayList<String>();
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
+        }
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            for (int attempt = 1; attempt <= MAX_WATCHED_ATTEMPTS; attempt++) {
+                jedis.watch(featureKeys(uids));
+                List<Response<Boolean>> exists = new ArrayList<Response<Boolean>>();
+                Pipeline pipe = jedis.pipelined();
+                for (String uid : uids) {
+                    exists.add(pipe.sismember(KEY_FEATURES, uid));
+                }
+                pipe.sync();
+                for (int idx = 0; idx < uids.size(); idx++) {
+                    if (exists.get(idx).get()) {
+                        jedis.unwatch();
+                        throw new FeatureAlreadyExistException(uids.get(idx));
+                    }
+                }
+                Transaction tx = jedis.multi();
+                for (Feature fp : features) {
+                    writeFeature(tx, fp);
+                }
+                if (tx.exec() != null) {
+                    return;
+                }
+            }
+            throw new FeatureAccessException("Cannot create features, modified concurrently " + MAX_WATCHED_ATTEMPTS + " times");
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Check existence and read current group of every feature with a pipeline, then overwrite all of them within a single
+     * transaction. Feature hashes are watched so that groups read are still valid at EXEC, otherwise reading is done again.
+     * 
+     * @param features
+     *            new values of features
+     */
     @Override
-    public void create(Feature fp) {
-        if (fp == null) {
-            throw new IllegalArgumentException("Feature cannot be null nor empty");
+    public void updateAll(Collection<Feature> features) {
+        assertFeatures(features);
+        if (features.isEmpty()) {
+            return;
+        }
+        List<String> uids = new ArrayList<String>();
+        for (Feature fp : features) {
+            uids.add(fp.getUid());
         }
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            for (int attempt = 1; attempt <= MAX_WATCHED_ATTEMPTS; attempt++) {
+                jedis.watch(featureKeys(uids));
+                List<String> currentGroups = readGroupsOfExisting(jedis, uids);
+                Transaction tx = jedis.multi();
+                int idx = 0;
+                for (Feature fp : features) {
+                    String currentGroup = currentGroups.get(idx++);
+                    if (currentGroup != null && !currentGroup.equals(fp.getGroup())) {
+                        tx.srem(groupKey(currentGroup), fp.getUid());
+                    }
+                    writeFeature(tx, fp);
+                }
+                if (tx.exec() != null) {
+                    return;
+                }
+            }
+            throw new FeatureAccessException("Cannot update features, modified concurrently " + MAX_WATCHED_ATTEMPTS + " times");
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
         }
-        jedis.set(PREFIX_KEY + fp.getUid(), fp.toJson());
-        jedis.persist(PREFIX_KEY + fp.getUid());
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Check existence and read current group of every feature with a pipeline, then remove all of them within a single
+     * transaction. Feature hashes are watched so that groups read are still valid at EXEC, otherwise reading is done again.
+     * 
+     * @param featureIds
+     *            identifiers of features to delete
+     */
     @Override
-    public Map<String, Feature> readAll() {
-        Set < String > myKeys = jedis.keys(PREFIX_KEY + "*");
-        Map<String, Feature> myMap = new HashMap<String, Feature>();
-        if (myKeys != null) {
-            for (String key : myKeys) {
-                key = key.replaceAll(PREFIX_KEY, "");
-                myMap.put(key, read(key));
+    public void deleteAll(Collection<String> featureIds) {
+        assertFeatureIds(featureIds);
+        if (featureIds.isEmpty()) {
+            return;
+        }
+        List<String> uids = new ArrayList<String>(featureIds);
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            for (int attempt = 1; attempt <= MAX_WATCHED_ATTEMPTS; attempt++) {
+                jedis.watch(featureKeys(uids));
+                List<String> currentGroups = readGroupsOfExisting(jedis, uids);
+                Transaction tx = jedis.multi();
+                for (int idx = 0; idx < uids.size(); idx++) {
+                    String uid = uids.get(idx);
+                    if (currentGroups.get(idx) != null) {
+                        tx.srem(groupKey(currentGroups.get(idx)), uid);
+                    }
+                    tx.srem(KEY_FEATURES, uid);
+                    tx.del(featureKey(uid), rolesKey(uid), propertiesKey(uid));
+                    publishChange(tx, uid);
+                }
+                if (tx.exec() != null) {
+                    return;
+                }
             }
+            throw new FeatureAccessException("Cannot delete features, modified concurrently " + MAX_WATCHED_ATTEMPTS + " times");
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
         }
-        return myMap;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void enable(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        runIfExist(uid, featureKey(uid), "HSET", FIELD_ENABLE, "1");
     }
 
     /** {@inheritDoc} */
     @Override
-    public void delete(String fpId) {
-        if (!exist(fpId)) {
-            throw new FeatureNotFoundException(fpId);
-        }
-        jedis.del(PREFIX_KEY + fpId);
-    }    
+    public void disable(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        runIfExist(uid, featureKey(uid), "HSET", FIELD_ENABLE, "0");
+    }
 
     /** {@inheritDoc} */
     @Override
     public void grantRoleOnFeature(String flipId, String roleName) {
+        Util.assertParamNotNull(flipId, "Feature identifier");
         Util.assertParamNotNull(roleName, "roleName (#2)");
-        // retrieve
-        Feature f = read(flipId);
-        // modify
-        f.getPermissions().add(roleName);
-        // persist modification
-        update(f);
+        runIfExist(flipId, rolesKey(flipId), "SADD", roleName);
     }
 
     /** {@inheritDoc} */
     @Override
     public void removeRoleFromFeature(String flipId, String roleName) {
+        Util.assertParamNotNull(flipId, "Feature identifier");
         Util.assertParamNotNull(roleName, "roleName (#2)");
-        // retrieve
-        Feature f = read(flipId);
-        f.getPermissions().remove(roleName);
-        // persist modification
-        update(f);
+        runIfExist(flipId, rolesKey(flipId), "SREM", roleName);
     }
     
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readGroup(String groupName) {
         Util.assertParamNotNull(groupName, "groupName");
-        Map < String, Feature > features = readAll();
-        Map < String, Feature > group = new HashMap<String, Feature>();
-        for (String uid : features.keySet()) {
-            if (groupName.equals(features.get(uid).getGroup())) {
-                group.put(uid, features.get(uid));
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            Set<String> uids = jedis.smembers(groupKey(groupName));
+            if (uids == null || uids.isEmpty()) {
+                throw new GroupNotFoundException(groupName);
             }
+            return readFeatures(jedis, uids);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
         }
-        if (group.isEmpty()) {
-            throw new GroupNotFoundException(groupName);
-        }
-        return group;
     }
     
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
         Util.assertParamNotNull(groupName, "groupName");
-        Map < String, Feature > features = readAll();
-        Map < String, Feature > group = new HashMap<String, Feature>();
-        for (String uid : features.keySet()) {
-            if (groupName.equals(features.get(uid).getGroup())) {
-                group.put(uid, features.get(uid));
-            }
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            // Redis removes a set with its last member
+            return jedis.exists(groupKey(groupName));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
         }
-        return !group.isEmpty();
     }
 
     /** {@inheritDoc} */
     @Override
     public void enableGroup(String groupName) {
-        Map < String, Feature > features = readGroup(groupName);
-        for (String uid : features.keySet()) {
-            features.get(uid).enable();
-            update(features.get(uid));
-        }
+        setFieldOnGroup(groupName, FIELD_ENABLE, "1");
     }
 
     /** {@inheritDoc} */
     @Override
     public void disableGroup(String groupName) {
-        Map < String, Feature > features = readGroup(groupName);
-        for (String uid : features.keySet()) {
-            features.get(uid).disable();
-            update(features.get(uid));
-        }
+        setFieldOnGroup(groupName, FIELD_ENABLE, "0");
     }
 
     /** {@inheritDoc} */
     @Override
     public void addToGroup(String featureId, String groupName) {
+        Util.assertParamNotNull(featureId, "Feature identifier");
         Util.assertParamNotNull(groupName, "groupName (#2)");
-        // retrieve
-        Feature f = read(featureId);
-        f.setGroup(groupName);
-        // persist modification
-        update(f);
+        Object result = runScript(SCRIPT_ADD_TO_GROUP, 
+                Arrays.asList(KEY_FEATURES, featureKey(featureId), groupKey(groupName)),
+                Arrays.asList(featureId, FIELD_GROUP, PREFIX_GROUP, groupName));
+        if (Long.valueOf(0).equals(result)) {
+            throw new FeatureNotFoundException(featureId);
+        }
+        publishChanges(Collections.singleton(featureId));
     }
 
     /** {@inheritDoc} */
     @Override
     public void removeFromGroup(String featureId, String groupName) {
+        Util.assertParamNotNull(featureId, "Feature identifier");
         Util.assertParamNotNull(groupName, "groupName (#2)");
-        if (!existGroup(groupName)) {
+        Object result = runScript(SCRIPT_REMOVE_FROM_GROUP, 
+                Arrays.asList(KEY_FEATURES, featureKey(featureId), groupKey(groupName)),
+                Arrays.asList(featureId, FIELD_GROUP));
+        if (Long.valueOf(-1).equals(result)) {
             throw new GroupNotFoundException(groupName);
         }
-        // retrieve
-        Feature f = read(featureId);
-        f.setGroup(null);
-        // persist modification
-        update(f);
+        if (Long.valueOf(0).equals(result)) {
+            throw new FeatureNotFoundException(featureId);
+        }
+        // Feature in another group (or none) is not modified, as in other stores no error is raised
+        if (Long.valueOf(1).equals(result)) {
+            publishChanges(Collections.singleton(featureId));
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
-        Map < String, Feature > features = readAll();
         Set < String > groups = new HashSet<String>();
-        for (String uid : features.keySet()) {
-            groups.add(features.get(uid).getGroup());
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            ScanParams params = new ScanParams().match(PREFIX_GROUP + "*").count(SCAN_BATCH_SIZE);
+            String cursor = "0";
+            do {
+                ScanResult<String> page = jedis.scan(cursor, params);
+                for (String key : page.getResult()) {
+                    groups.add(key.substring(PREFIX_GROUP.length()));
+                }
+                cursor = page.getStringCursor();
+            } while (!"0".equals(cursor));
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
         }
-        groups.remove(null);
         return groups;
     }
 
+    /**
+     * Read several features with a single pipeline (HGETALL and SMEMBERS for each of them).
+     * 
+     * @param jedis
+     *            current connection
+     * @param uids
+     *            feature identifiers
+     * @return existing features
+     */
+    private Map<String, Feature> readFeatures(Jedis jedis, Collection<String> uids) {
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        if (uids == null || uids.isEmpty()) {
+            return features;
+        }
+        List<Response<Map<String, String>>> hashes     = new ArrayList<Response<Map<String, String>>>();
+        List<Response<Set<String>>>         roles      = new ArrayList<Response<Set<String>>>();
+        List<Response<Map<byte[], byte[]>>> properties = new ArrayList<Response<Map<byte[], byte[]>>>();
+        Pipeline pipe = jedis.pipelined();
+        for (String uid : uids) {
+            hashes.add(pipe.hgetAll(featureKey(uid)));
+            roles.add(pipe.smembers(rolesKey(uid)));
+            properties.add(pipe.hgetAll(RedisCodec.toBytes(propertiesKey(uid))));
+        }
+        pipe.sync();
+        int idx = 0;
+        for (String uid : uids) {
+            Feature fp = RedisFeatureMapper.fromHash(uid, hashes.get(idx).get(), roles.get(idx).get(), properties.get(idx).get());
+            if (fp != null) {
+                features.put(uid, fp);
+            }
+            idx++;
+        }
+        return features;
+    }
+
+    /**
+     * Check existence and read current group of features with a single pipeline, keys watched by the caller are released if one
+     * of them does not exist.
+     * 
+     * @param jedis
+     *            current connection
+     * @param uids
+     *            feature identifiers
+     * @return current group of each feature (null if none), in the same order
+     */
+    private List<String> readGroupsOfExisting(Jedis jedis, List<String> uids) {
+        List<Response<Boolean>> exists = new ArrayList<Response<Boolean>>();
+        List<Response<String>>  groups = new ArrayList<Response<String>>();
+        Pipeline pipe = jedis.pipelined();
+        for (String uid : uids) {
+            exists.add(pipe.sismember(KEY_FEATURES, uid));
+            groups.add(pipe.hget(featureKey(uid), FIELD_GROUP));
+        }
+        pipe.sync();
+        List<String> currentGroups = new ArrayList<String>();
+        for (int idx = 0; idx < uids.size(); idx++) {
+            if (!exists.get(idx).get()) {
+                jedis.unwatch();
+                throw new FeatureNotFoundException(uids.get(idx));
+            }
+            currentGroups.add(groups.get(idx).get());
+        }
+        return currentGroups;
+    }
+
+    /**
+     * Keys of the hashes of several features.
+     * 
+     * @param uids
+     *            feature identifiers
+     * @return redis keys
+     */
+    private String[] featureKeys(List<String> uids) {
+        String[] keys = new String[uids.size()];
+        for (int idx = 0; idx < keys.length; idx++) {
+            keys[idx] = featureKey(uids.get(idx));
+        }
+        return keys;
+    }
+
+    /**
+     * Replace every key of a feature and index it.
+     * 
+     * @param tx
+     *            current transaction
+     * @param fp
+     *            feature to write
+     */
+    private void writeFeature(Transaction tx, Feature fp) {
+        String uid = fp.getUid();
+        tx.del(featureKey(uid), rolesKey(uid), propertiesKey(uid));
+        tx.hmset(featureKey(uid), RedisFeatureMapper.toHash(fp));
+        if (fp.getPermissions() != null && !fp.getPermissions().isEmpty()) {
+            tx.sadd(rolesKey(uid), fp.getPermissions().toArray(new String[fp.getPermissions().size()]));
+        }
+        Map<byte[], byte[]> properties = RedisFeatureMapper.toPropertiesHash(fp);
+        if (!properties.isEmpty()) {
+            tx.hmset(RedisCodec.toBytes(propertiesKey(uid)), properties);
+        }
+        tx.sadd(KEY_FEATURES, uid);
+        if (fp.getGroup() != null && !fp.getGroup().isEmpty()) {
+            tx.sadd(groupKey(fp.getGroup()), uid);
+        }
+        publishChange(tx, uid);
+    }
+
+    /**
+     * Publish change within transaction, if a channel is defined.
+     * 
+     * @param tx
+     *            current transaction
+     * @param uid
+     *            feature identifier
+     */
+    private void publishChange(Transaction tx, String uid) {
+        if (changeChannel != null) {
+            tx.publish(changeChannel, RedisFeatureMapper.changeMessage(uid));
+        }
+    }
+
+    /**
+     * Publish changes with a single pipeline, if a channel is defined.
+     * 
+     * @param uids
+     *            identifiers of changed features
+     */
+    private void publishChanges(Collection<String> uids) {
+        if (changeChannel == null || uids.isEmpty()) {
+            return;
+        }
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            Pipeline pipe = jedis.pipelined();
+            for (String uid : uids) {
+                pipe.publish(changeChannel, RedisFeatureMapper.changeMessage(uid));
+            }
+            pipe.sync();
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Run a command on a key of a feature, only if the feature exists, with a single script call.
+     * 
+     * @param uid
+     *            feature identifier
+     * @param key
+     *            key modified by the command
+     * @param command
+     *            redis command and its arguments after the key
+     */
+    private void runIfExist(String uid, String key, String... command) {
+        List<String> args = new ArrayList<String>();
+        args.add(uid);
+        args.addAll(Arrays.asList(command));
+        if (Long.valueOf(0).equals(runScript(RedisScript.RUN_IF_MEMBER, Arrays.asList(KEY_FEATURES, key), args))) {
+            throw new FeatureNotFoundException(uid);
+        }
+        publishChanges(Collections.singleton(uid));
+    }
+
+    /**
+     * Update a single field of every feature of a group with a single script call.
+     * 
+     * @param groupName
+     *            group name
+     * @param field
+     *            hash field
+     * @param value
+     *            new value
+     */
+    private void setFieldOnGroup(String groupName, String field, String value) {
+        Util.assertParamNotNull(groupName, "groupName");
+        List<?> members = (List<?>) runScript(SCRIPT_SET_FIELD_ON_GROUP, 
+                Arrays.asList(groupKey(groupName)), Arrays.asList(PREFIX_FEATURE, field, value));
+        if (members == null || members.isEmpty()) {
+            throw new GroupNotFoundException(groupName);
+        }
+        List<String> uids = new ArrayList<String>();
+        for (Object uid : members) {
+            uids.add(String.valueOf(uid));
+        }
+        publishChanges(uids);
+    }
+
+    /**
+     * Execute a script with a pooled connection.
+     * 
+     * @param script
+     *            target script
+     * @param keys
+     *            script keys
+     * @param args
+     *            script arguments
+     * @return script result
+     */
+    private Object runScript(RedisScript script, List<String> keys, List<String> args) {
+        Jedis jedis = redisConnection.getJedis();
+        try {
+            return script.eval(jedis, keys, args);
+        } catch (JedisConnectionException jce) {
+            redisConnection.releaseBroken(jedis);
+            jedis = null;
+            throw jce;
+        } finally {
+            redisConnection.release(jedis);
+        }
+    }
+
+    /**
+     * Close connections.
+     */
+    public void destroy() {
+        redisConnection.destroy();
+    }
+
+    /**
+     * Getter accessor for attribute 'changeChannel'.
+     * 
+     * @return current value of 'changeChannel'
+     */
+    public String getChangeChannel() {
+        return changeChannel;
+    }
+
+    /**
+     * Setter accessor for attribute 'changeChannel', null to disable publication.
+     * 
+     * @param changeChannel
+     *            new value for 'changeChannel '
+     */
+    public void setChangeChannel(String changeChannel) {
+        this.changeChannel = changeChannel;
+    }
+
+    /**
+     * Getter accessor for attribute 'redisConnection'.
+     * 
+     * @return current value of 'redisConnection'
+     */
+    public RedisConnection getRedisConnection() {
+        return redisConnection;
+    }
+
+    /**
+     * Setter accessor for attribute 'redisConnection'.
+     * 
+     * @param redisConnection
+     *            new value for 'redisConnection '
+     */
+    public void setRedisConnection(RedisConnection redisConnection) {
+        this.redisConnection = redisConnection;
+    }
+
     // -------- Overrided in cache proxy --------------
 
     /** {@inheritDoc} */
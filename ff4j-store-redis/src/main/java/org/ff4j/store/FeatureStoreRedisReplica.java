@@ -0,0 +1,681 @@
+package org.ff4j.store;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
+import org.ff4j.redis.FF4JRedisConstants;
+import org.ff4j.redis.RedisConnection;
+import org.ff4j.redis.RedisFeatureMapper;
+import org.ff4j.utils.Util;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * {@link FeatureStore} keeping every feature of a {@link FeatureStoreRedis} in memory: reads (and so each check) never reach
+ * the network. REDIS remains the source of truth, writes are sent to it and then applied locally.
+ * 
+ * Changes made by other applications are received on the change channel of the target store (see
+ * {@link FeatureStoreRedis#setChangeChannel(String)}, every writer must publish on it) and applied one feature at a time. A full
+ * reload is performed at startup, after each reconnection and periodically as a safety net, as messages published while
+ * disconnected are lost. Local updates (reload, single feature refresh) are serialized so that a change received during a
+ * reload is applied after it and not overwritten by the older snapshot. Delay between publication and reception of changes is
+ * measured (it includes clock skew between servers).
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreRedisReplica extends AbstractFeatureStore implements FF4JRedisConstants {
+
+    /** default period between two full reloads (seconds). */
+    public static final long DEFAULT_RESYNC_PERIOD = 60;
+
+    /** wait before reconnecting after a connection loss (milliseconds). */
+    private static final long RECONNECT_DELAY = 1000;
+
+    /** max wait for a pending subscription when stopping (milliseconds). */
+    private static final long SUBSCRIBE_TIMEOUT = 5000;
+
+    /** Source of truth. */
+    private final FeatureStoreRedis target;
+
+    /** Local copy of features, replaced at each full reload. */
+    private volatile Map<String, Feature> features = new ConcurrentHashMap<String, Feature>();
+
+    /** Serialize updates of local copy. */
+    private final Object updateLock = new Object();
+
+    /** Receives change messages, a new one at each start. */
+    private ChangeListener listener;
+
+    /** period between two full reloads (seconds). */
+    private long resyncPeriod = DEFAULT_RESYNC_PERIOD;
+
+    /** Periodic reload. */
+    private ScheduledExecutorService scheduler;
+
+    /** Thread blocked on SUBSCRIBE. */
+    private Thread subscriber;
+
+    /** Replication is active. */
+    private volatile boolean running = false;
+
+    /** number of change messages received. */
+    private final AtomicLong changeCount = new AtomicLong();
+
+    /** cumulated propagation delay (milliseconds). */
+    private final AtomicLong totalPropagationDelay = new AtomicLong();
+
+    /** max propagation delay (milliseconds). */
+    private final AtomicLong maxPropagationDelay = new AtomicLong();
+
+    /** last propagation delay (milliseconds). */
+    private volatile long lastPropagationDelay = 0;
+
+    /** number of full reloads. */
+    private final AtomicLong resyncCount = new AtomicLong();
+
+    /** time of last full reload. */
+    private volatile long lastResyncTime = 0;
+
+    /**
+     * Replicate target store, a change channel is defined on it if none.
+     * 
+     * @param target
+     *            redis store
+     */
+    public FeatureStoreRedisReplica(FeatureStoreRedis target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target store cannot be null");
+        }
+        this.target = target;
+        if (target.getChangeChannel() == null) {
+            target.setChangeChannel(DEFAULT_CHANGE_CHANNEL);
+        }
+    }
+
+    /**
+     * Replicate target store and start replication.
+     * 
+     * @param target
+     *            redis store
+     * @param resyncPeriod
+     *            period between two full reloads (seconds)
+     */
+    public FeatureStoreRedisReplica(FeatureStoreRedis target, long resyncPeriod) {
+        this(target);
+        setResyncPeriod(resyncPeriod);
+        start();
+    }
+
+    /**
+     * Load every feature then listen to changes.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        resync();
+        running = true;
+        final ChangeListener currentListener = new ChangeListener();
+        listener = currentListener;
+        subscriber = new Thread(new Runnable() {
+            public void run() {
+                listen(currentListener);
+            }
+        }, "ff4j-redis-replica-subscriber");
+        subscriber.setDaemon(true);
+        subscriber.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ff4j-redis-replica-resync");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                resyncQuietly();
+            }
+        }, resyncPeriod, resyncPeriod, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop listening to changes, local copy is kept but no more updated. Subscription may still be pending right after start: it
+     * is waited for (up to {@link #SUBSCRIBE_TIMEOUT}) and a subscription established later is closed by the listener itself,
+     * the subscriber thread is thus never left blocked.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            listener.awaitSubscription(SUBSCRIBE_TIMEOUT);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        listener.close();
+        subscriber.interrupt();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Reload every feature from target store.
+     */
+    public void resync() {
+        synchronized (updateLock) {
+            features = new ConcurrentHashMap<String, Feature>(target.readAll());
+        }
+        resyncCount.incrementAndGet();
+        lastResyncTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Subscribe to change channel until stopped, reconnecting when connection is lost.
+     * 
+     * @param changeListener
+     *            listener of current run
+     */
+    private void listen(ChangeListener changeListener) {
+        RedisConnection connection = target.getRedisConnection();
+        while (!changeListener.isStopped()) {
+            Jedis jedis = null;
+            try {
+                jedis = connection.getJedis();
+                // Blocks until unsubscribe
+                jedis.subscribe(changeListener, target.getChangeChannel());
+                connection.release(jedis);
+            } catch (RuntimeException re) {
+                // Connection lost or unexpected error, subscriber thread must survive: reconnect (and reload)
+                connection.releaseBroken(jedis);
+                if (!changeListener.isStopped() && !pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait before reconnecting.
+     * 
+     * @return false if interrupted (stopped)
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(RECONNECT_DELAY);
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Periodic reload must not stop scheduler on error (redis unavailable), next one will retry.
+     */
+    private void resyncQuietly() {
+        try {
+            resync();
+        } catch (RuntimeException re) {
+            // Local copy is kept, retry at next period
+        }
+    }
+
+    /**
+     * Read a feature from target store and apply it locally, changes are usually received on the channel.
+     * 
+     * @param uid
+     *            feature identifier
+     */
+    public void refresh(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        synchronized (updateLock) {
+            try {
+                features.put(uid, target.read(uid));
+            } catch (FeatureNotFoundException fnfe) {
+                features.remove(uid);
+            }
+        }
+    }
+
+    /**
+     * Apply a received change.
+     * 
+     * @param message
+     *            change message
+     */
+    private void onChange(String message) {
+        long delay = System.currentTimeMillis() - RedisFeatureMapper.changeTime(message);
+        changeCount.incrementAndGet();
+        totalPropagationDelay.addAndGet(delay);
+        lastPropagationDelay = delay;
+        long currentMax = maxPropagationDelay.get();
+        while (delay > currentMax && !maxPropagationDelay.compareAndSet(currentMax, delay)) {
+            currentMax = maxPropagationDelay.get();
+        }
+        refresh(RedisFeatureMapper.changedFeature(message));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        return features.containsKey(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature read(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        Feature fp = features.get(uid);
+        if (fp == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return fp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll() {
+        return new LinkedHashMap<String, Feature>(features);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readGroup(String groupName) {
+        Util.assertParamNotNull(groupName, "groupName");
+        Map<String, Feature> group = new LinkedHashMap<String, Feature>();
+        for (Feature fp : features.values()) {
+            if (groupName.equals(fp.getGroup())) {
+                group.put(fp.getUid(), fp);
+            }
+        }
+        if (group.isEmpty()) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return group;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean existGroup(String groupName) {
+        Util.assertParamNotNull(groupName, "groupName");
+        for (Feature fp : features.values()) {
+            if (groupName.equals(fp.getGroup())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> readAllGroups() {
+        Set<String> groups = new HashSet<String>();
+        for (Feature fp : features.values()) {
+            if (fp.getGroup() != null && !fp.getGroup().isEmpty()) {
+                groups.add(fp.getGroup());
+            }
+        }
+        return groups;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void create(Feature fp) {
+        target.create(fp);
+        refresh(fp.getUid());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(Feature fp) {
+        target.update(fp);
+        refresh(fp.getUid());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String uid) {
+        target.delete(uid);
+        synchronized (updateLock) {
+            features.remove(uid);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void createAll(Collection<Feature> features) {
+        target.createAll(features);
+        for (Feature fp : features) {
+            refresh(fp.getUid());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateAll(Collection<Feature> features) {
+        target.updateAll(features);
+        for (Feature fp : features) {
+            refresh(fp.getUid());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteAll(Collection<String> featureIds) {
+        target.deleteAll(featureIds);
+        synchronized (updateLock) {
+            this.features.keySet().removeAll(featureIds);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enable(String uid) {
+        target.enable(uid);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disable(String uid) {
+        target.disable(uid);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void grantRoleOnFeature(String uid, String roleName) {
+        target.grantRoleOnFeature(uid, roleName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeRoleFromFeature(String uid, String roleName) {
+        target.removeRoleFromFeature(uid, roleName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enableGroup(String groupName) {
+        target.enableGroup(groupName);
+        synchronized (updateLock) {
+            features.putAll(target.readGroup(groupName));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disableGroup(String groupName) {
+        target.disableGroup(groupName);
+        synchronized (updateLock) {
+            features.putAll(target.readGroup(groupName));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToGroup(String uid, String groupName) {
+        target.addToGroup(uid, groupName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeFromGroup(String uid, String groupName) {
+        target.removeFromGroup(uid, groupName);
+        refresh(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isCached() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCacheProvider() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCachedTargetStore() {
+        return null;
+    }
+
+    /**
+     * Getter accessor for attribute 'target'.
+     * 
+     * @return current value of 'target'
+     */
+    public FeatureStoreRedis getTarget() {
+        return target;
+    }
+
+    /**
+     * Check if replication is active.
+     * 
+     * @return true if changes are applied
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Getter accessor for attribute 'resyncPeriod'.
+     * 
+     * @return current value of 'resyncPeriod' (seconds)
+     */
+    public long getResyncPeriod() {
+        return resyncPeriod;
+    }
+
+    /**
+     * Setter accessor for attribute 'resyncPeriod', taken into account at next start.
+     * 
+     * @param resyncPeriod
+     *            new value for 'resyncPeriod ' (seconds)
+     */
+    public void setResyncPeriod(long resyncPeriod) {
+        if (resyncPeriod < 1) {
+            throw new IllegalArgumentException("Resync period must be positive");
+        }
+        this.resyncPeriod = resyncPeriod;
+    }
+
+    /**
+     * Getter accessor for attribute 'changeCount'.
+     * 
+     * @return number of change messages received
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Average delay between publication and reception of changes.
+     * 
+     * @return delay in milliseconds, 0 if no change received
+     */
+    public double getAveragePropagationDelay() {
+        long count = changeCount.get();
+        return count == 0 ? 0 : (double) totalPropagationDelay.get() / count;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxPropagationDelay'.
+     * 
+     * @return max delay in milliseconds
+     */
+    public long getMaxPropagationDelay() {
+        return maxPropagationDelay.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'lastPropagationDelay'.
+     * 
+     * @return delay of last received change in milliseconds
+     */
+    public long getLastPropagationDelay() {
+        return lastPropagationDelay;
+    }
+
+    /**
+     * Getter accessor for attribute 'resyncCount'.
+     * 
+     * @return number of full reloads
+     */
+    public long getResyncCount() {
+        return resyncCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'lastResyncTime'.
+     * 
+     * @return time of last full reload in milliseconds, 0 if never
+     */
+    public long getLastResyncTime() {
+        return lastResyncTime;
+    }
+
+    /**
+     * Apply messages of change channel, reload everything at each (re)subscription as messages may have been lost. A subscription
+     * established once stopped is closed at once.
+     */
+    private class ChangeListener extends JedisPubSub {
+
+        /** Released at first subscription. */
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+
+        /** Replication of this run has been stopped. */
+        private volatile boolean stopped = false;
+
+        /** UNSUBSCRIBE has been sent, it must be sent only once. */
+        private boolean unsubscribed = false;
+
+        /**
+         * Wait for first subscription.
+         * 
+         * @param timeout
+         *            max wait (milliseconds)
+         * @throws InterruptedException
+         *             current thread interrupted
+         */
+        void awaitSubscription(long timeout) throws InterruptedException {
+            subscribed.await(timeout, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Stop this run: unsubscribe if subscribed, otherwise pending subscription is closed when established.
+         */
+        synchronized void close() {
+            stopped = true;
+            if (!unsubscribed && isSubscribed()) {
+                unsubscribed = true;
+                unsubscribe();
+            }
+        }
+
+        /**
+         * Close a subscription established once stopped, synchronized with {@link #close()} so that one of them sees it.
+         * 
+         * @return true if stopped
+         */
+        private synchronized boolean closeIfStopped() {
+            if (stopped) {
+                close();
+            }
+            return stopped;
+        }
+
+        /**
+         * Getter accessor for attribute 'stopped'.
+         * 
+         * @return current value of 'stopped'
+         */
+        boolean isStopped() {
+            return stopped;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onMessage(String channel, String message) {
+            try {
+                onChange(message);
+            } catch (RuntimeException re) {
+                // Invalid message or redis unavailable, periodic reload will fix local copy
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            subscribed.countDown();
+            if (closeIfStopped()) {
+                return;
+            }
+            resyncQuietly();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onPMessage(String pattern, String channel, String message) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onUnsubscribe(String channel, int subscribedChannels) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onPUnsubscribe(String pattern, int subscribedChannels) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onPSubscribe(String pattern, int subscribedChannels) {
+        }
+    }
+
+}
@@ -2,12 +2,16 @@ package org.ff4j.cache;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.redis.RedisConnection;
 import org.ff4j.store.InMemoryFeatureStore;
 import org.ff4j.test.TestsFf4jConstants;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
 /*
  * #%L
  * ff4j-cache-redis
@@ -49,4 +53,28 @@ public class RedisCacheManagerTestIT implements TestsFf4jConstants {
         Assert.assertEquals(fcached.getPermissions(), fold.getPermissions());
 
     }
+
+    @Test
+    public void testSizeFromIndex() {
+        FeatureCacheProviderRedis cache = new FeatureCacheProviderRedis();
+        cache.clear();
+        FeatureStore store = new InMemoryFeatureStore(TEST_FEATURES_FILE);
+        cache.put(store.read(F1));
+        cache.put(store.read(F4));
+        Assert.assertEquals(2, cache.getCacheStatistics().getSize());
+        Assert.assertEquals(2, cache.listCachedFeatureNames().size());
+        cache.evict(F1);
+        Assert.assertEquals(1, cache.getCacheStatistics().getSize());
+        cache.clear();
+        Assert.assertEquals(0, cache.getCacheStatistics().getSize());
+    }
+
+    @Test
+    public void testAddressReadFromPool() {
+        JedisPool pool = new JedisPool(new JedisPoolConfig(), "127.0.0.1", 6379);
+        RedisConnection connection = new RedisConnection(pool);
+        Assert.assertEquals("127.0.0.1", connection.getRedisHost());
+        Assert.assertEquals(6379, connection.getRedisPort());
+        connection.destroy();
+    }
 }
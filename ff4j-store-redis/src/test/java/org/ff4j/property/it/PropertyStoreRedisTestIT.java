@@ -0,0 +1,52 @@
+package org.ff4j.property.it;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.property.store.PropertyStore;
+import org.ff4j.property.store.PropertyStoreRedis;
+import org.ff4j.test.property.AbstractPropertyStoreJunitTest;
+import org.junit.After;
+
+/**
+ * Test to work with Redis as a property store.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreRedisTestIT extends AbstractPropertyStoreJunitTest {
+
+    /** {@inheritDoc} */
+    @Override
+    protected PropertyStore initPropertyStore() {
+        return new PropertyStoreRedis();
+    }
+
+    /**
+     * Clean store after each test (avoid duplication)
+     */
+    @After
+    public void cleanStore() {
+        for (String name : testedStore.readAllProperties().keySet()) {
+            testedStore.delete(name);
+        }
+        ((PropertyStoreRedis) testedStore).destroy();
+    }
+
+}
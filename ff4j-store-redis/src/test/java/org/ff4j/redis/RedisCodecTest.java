@@ -0,0 +1,103 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.ff4j.core.Feature;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.PropertyInt;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
+import org.ff4j.utils.ParameterUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link RedisCodec}, no redis server required.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RedisCodecTest {
+
+    @Test
+    public void testEncodeDecodeFullFeature() {
+        // Given
+        ExpressionFlipStrategy strategy = new ExpressionFlipStrategy();
+        strategy.init("f1", ParameterUtils.toMap("expression=f2|f3"));
+        Feature f1 = new Feature("f1", true, "desc", "GRP1", Arrays.asList("USER", "ADMIN"), strategy);
+        PropertyInt ppInt = new PropertyInt("ppInt", "12");
+        ppInt.add2FixedValue(12);
+        ppInt.add2FixedValue(14);
+        f1.getCustomProperties().put(ppInt.getName(), ppInt);
+        // When
+        Feature f2 = RedisCodec.decodeFeature(RedisCodec.encodeFeature(f1));
+        // Then
+        Assert.assertEquals(f1.getUid(), f2.getUid());
+        Assert.assertTrue(f2.isEnable());
+        Assert.assertEquals("desc", f2.getDescription());
+        Assert.assertEquals("GRP1", f2.getGroup());
+        Assert.assertEquals(f1.getPermissions(), f2.getPermissions());
+        Assert.assertEquals(ExpressionFlipStrategy.class, f2.getFlippingStrategy().getClass());
+        Assert.assertEquals(f1.getFlippingStrategy().getInitParams(), f2.getFlippingStrategy().getInitParams());
+        Assert.assertEquals(12, f2.getProperty("ppInt").asInt());
+        Assert.assertEquals(ppInt.getFixedValues(), f2.getProperty("ppInt").getFixedValues());
+    }
+
+    @Test
+    public void testEncodeDecodeNullFields() {
+        Feature f = RedisCodec.decodeFeature(RedisCodec.encodeFeature(new Feature("f1")));
+        Assert.assertEquals("f1", f.getUid());
+        Assert.assertFalse(f.isEnable());
+        Assert.assertNull(f.getDescription());
+        Assert.assertNull(f.getGroup());
+        Assert.assertNull(f.getFlippingStrategy());
+        Assert.assertTrue(f.getPermissions().isEmpty());
+        Assert.assertTrue(f.getCustomProperties().isEmpty());
+    }
+
+    @Test
+    public void testEncodeDecodeProperty() {
+        // Given
+        PropertyInt ppInt = new PropertyInt("ppInt", "12");
+        ppInt.setDescription("some int");
+        ppInt.add2FixedValue(12);
+        ppInt.add2FixedValue(14);
+        // When
+        AbstractProperty<?> decoded = RedisCodec.decodeProperty(RedisCodec.encodeProperty(ppInt));
+        // Then
+        Assert.assertEquals(PropertyInt.class, decoded.getClass());
+        Assert.assertEquals("ppInt", decoded.getName());
+        Assert.assertEquals(12, decoded.asInt());
+        Assert.assertEquals("some int", decoded.getDescription());
+        Assert.assertEquals(ppInt.getFixedValues(), decoded.getFixedValues());
+    }
+
+    @Test
+    public void testDecodeNull() {
+        Assert.assertNull(RedisCodec.decodeFeature(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeNull() {
+        RedisCodec.encodeFeature(null);
+    }
+
+}
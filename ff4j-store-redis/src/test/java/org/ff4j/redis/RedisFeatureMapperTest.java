@@ -0,0 +1,112 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.ff4j.core.Feature;
+import org.ff4j.property.PropertyInt;
+import org.ff4j.strategy.el.ExpressionFlipStrategy;
+import org.ff4j.utils.ParameterUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link RedisFeatureMapper}, no redis server required.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RedisFeatureMapperTest implements FF4JRedisConstants {
+
+    @Test
+    public void testToHashFromHash() {
+        // Given
+        ExpressionFlipStrategy strategy = new ExpressionFlipStrategy();
+        strategy.init("f1", ParameterUtils.toMap("expression=f2|f3"));
+        Feature f1 = new Feature("f1", true, "desc", "GRP1", Arrays.asList("USER", "ADMIN"), strategy);
+        PropertyInt ppInt = new PropertyInt("ppInt", "12");
+        f1.getCustomProperties().put(ppInt.getName(), ppInt);
+        // When
+        Map<String, String> hash = RedisFeatureMapper.toHash(f1);
+        Feature f2 = RedisFeatureMapper.fromHash("f1", hash, 
+                new HashSet<String>(f1.getPermissions()), RedisFeatureMapper.toPropertiesHash(f1));
+        // Then
+        Assert.assertEquals("1", hash.get(FIELD_ENABLE));
+        Assert.assertEquals("GRP1", hash.get(FIELD_GROUP));
+        Assert.assertTrue(f2.isEnable());
+        Assert.assertEquals("desc", f2.getDescription());
+        Assert.assertEquals("GRP1", f2.getGroup());
+        Assert.assertEquals(f1.getPermissions(), f2.getPermissions());
+        Assert.assertEquals(ExpressionFlipStrategy.class, f2.getFlippingStrategy().getClass());
+        Assert.assertEquals(f1.getFlippingStrategy().getInitParams(), f2.getFlippingStrategy().getInitParams());
+        Assert.assertEquals(12, f2.getProperty("ppInt").asInt());
+    }
+
+    @Test
+    public void testNullFieldsAreNotStored() {
+        // Given
+        Feature f1 = new Feature("f1", false);
+        // When
+        Map<String, String> hash = RedisFeatureMapper.toHash(f1);
+        Feature f2 = RedisFeatureMapper.fromHash("f1", hash, null, null);
+        // Then
+        Assert.assertEquals("0", hash.get(FIELD_ENABLE));
+        Assert.assertFalse(hash.containsKey(FIELD_GROUP));
+        Assert.assertFalse(hash.containsKey(FIELD_STRATEGY));
+        Assert.assertFalse(f2.isEnable());
+        Assert.assertNull(f2.getGroup());
+        Assert.assertNull(f2.getFlippingStrategy());
+        Assert.assertTrue(f2.getPermissions().isEmpty());
+        Assert.assertTrue(f2.getCustomProperties().isEmpty());
+    }
+
+    @Test
+    public void testEmptyHashIsMissingFeature() {
+        Assert.assertNull(RedisFeatureMapper.fromHash("f1", new HashMap<String, String>(), null, null));
+    }
+
+    @Test
+    public void testKeys() {
+        Assert.assertEquals(PREFIX_FEATURE + "f1", RedisFeatureMapper.featureKey("f1"));
+        Assert.assertEquals(PREFIX_GROUP + "GRP1", RedisFeatureMapper.groupKey("GRP1"));
+        Assert.assertFalse(RedisFeatureMapper.featureKey("f1").startsWith(PREFIX_KEY));
+    }
+
+    @Test
+    public void testChangeMessage() {
+        // Given
+        long before = System.currentTimeMillis();
+        // When
+        String message = RedisFeatureMapper.changeMessage("my|feature");
+        // Then
+        Assert.assertEquals("my|feature", RedisFeatureMapper.changedFeature(message));
+        Assert.assertTrue(RedisFeatureMapper.changeTime(message) >= before);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChangeMessage() {
+        RedisFeatureMapper.changedFeature("invalid");
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.Property;
+import org.ff4j.property.PropertyInt;
+import org.ff4j.property.PropertyLogLevel;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link RedisPropertyMapper}, no redis server required.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RedisPropertyMapperTest implements FF4JRedisConstants {
+
+    @Test
+    public void testToHashFromHash() {
+        // Given
+        PropertyInt p1 = new PropertyInt("p1", 12);
+        p1.setDescription("some int");
+        // When
+        Map<String, String> hash = RedisPropertyMapper.toHash(p1);
+        AbstractProperty<?> p2 = RedisPropertyMapper.fromHash("p1", hash);
+        // Then
+        Assert.assertEquals("12", hash.get(FIELD_VALUE));
+        Assert.assertEquals(PropertyInt.class, p2.getClass());
+        Assert.assertEquals("p1", p2.getName());
+        Assert.assertEquals(12, p2.asInt());
+        Assert.assertEquals("some int", p2.getDescription());
+    }
+
+    @Test
+    public void testFixedValues() {
+        // Given
+        PropertyLogLevel p1 = new PropertyLogLevel("log", "DEBUG");
+        // When
+        Map<String, String> hash = RedisPropertyMapper.toHash(p1);
+        AbstractProperty<?> p2 = RedisPropertyMapper.fromHash("log", hash);
+        // Then
+        Assert.assertTrue(hash.containsKey(FIELD_FIXED_VALUES));
+        Assert.assertEquals("DEBUG", p2.asString());
+        Assert.assertEquals(p1.getFixedValues(), p2.getFixedValues());
+    }
+
+    @Test
+    public void testNullFieldsAreNotStored() {
+        // Given
+        Property p1 = new Property("p1", "v1");
+        // When
+        Map<String, String> hash = RedisPropertyMapper.toHash(p1);
+        // Then
+        Assert.assertTrue(hash.containsKey(FIELD_TYPE));
+        Assert.assertFalse(hash.containsKey(FIELD_DESCRIPTION));
+        Assert.assertFalse(hash.containsKey(FIELD_FIXED_VALUES));
+    }
+
+    @Test
+    public void testEmptyHashIsNull() {
+        Assert.assertNull(RedisPropertyMapper.fromHash("p1", null));
+        Assert.assertNull(RedisPropertyMapper.fromHash("p1", new HashMap<String, String>()));
+    }
+
+    @Test
+    public void testPropertyKey() {
+        Assert.assertEquals(PREFIX_PROPERTY + "p1", RedisPropertyMapper.propertyKey("p1"));
+    }
+
+}
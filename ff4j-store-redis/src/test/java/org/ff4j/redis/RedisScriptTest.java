@@ -0,0 +1,44 @@
+package org.ff4j.redis;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link RedisScript}, no redis server required.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RedisScriptTest {
+
+    @Test
+    public void testDigestIsSha1OfSource() {
+        RedisScript script = new RedisScript("return 'hello moon'");
+        Assert.assertEquals("8e3d8cfcbb6571ecf555cc0a7d6fb950b4437dc6", script.getSha1());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptySource() {
+        new RedisScript("");
+    }
+
+}
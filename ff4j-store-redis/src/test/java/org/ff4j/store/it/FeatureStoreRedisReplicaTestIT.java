@@ -0,0 +1,184 @@
+package org.ff4j.store.it;
+
+/*
+ * #%L
+ * ff4j-store-redis
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.FeatureStoreRedis;
+import org.ff4j.store.FeatureStoreRedisReplica;
+import org.ff4j.test.store.AbstractStoreJUnitTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test to work with a local replica of a Redis store, tested replica is not started and refreshed explicitly to avoid timing
+ * issues. Replication through the change channel is tested with replicas started by tests themselves.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreRedisReplicaTestIT extends AbstractStoreJUnitTest {
+
+    /** Replica under test. */
+    private FeatureStoreRedisReplica replica;
+
+    /** Store used by another client. */
+    private FeatureStoreRedis otherClient;
+
+    /** {@inheritDoc} */
+    @Override
+    protected FeatureStore initStore() {
+        FeatureStoreRedis redisStore = new FeatureStoreRedis();
+        redisStore.setChangeChannel(FeatureStoreRedis.DEFAULT_CHANGE_CHANNEL);
+        redisStore.importFeaturesFromXmlFile("ff4j.xml");
+        otherClient = new FeatureStoreRedis();
+        otherClient.setChangeChannel(FeatureStoreRedis.DEFAULT_CHANGE_CHANNEL);
+        replica = new FeatureStoreRedisReplica(redisStore);
+        replica.resync();
+        return replica;
+    }
+
+    /**
+     * A change made by another client is fetched by next refresh.
+     */
+    @Test
+    public void testChangeFromAnotherClient() {
+        // Given
+        Assert.assertTrue(replica.read(F1).isEnable());
+        // When
+        otherClient.disable(F1);
+        // Then
+        Assert.assertTrue(replica.read(F1).isEnable());
+        replica.refresh(F1);
+        Assert.assertFalse(replica.read(F1).isEnable());
+    }
+
+    /**
+     * Features created and deleted by another client are fetched by next reload.
+     */
+    @Test
+    public void testCreateDeleteFromAnotherClient() {
+        // Given
+        Assert.assertTrue(replica.exist(F1));
+        long resyncCount = replica.getResyncCount();
+        // When
+        otherClient.delete(F1);
+        otherClient.create(new Feature("newFeature", true));
+        replica.resync();
+        // Then
+        Assert.assertFalse(replica.exist(F1));
+        Assert.assertTrue(replica.exist("newFeature"));
+        Assert.assertEquals(resyncCount + 1, replica.getResyncCount());
+    }
+
+    /**
+     * A feature deleted by another client is removed by next refresh.
+     */
+    @Test
+    public void testRefreshDeletedFeature() {
+        // When
+        otherClient.delete(F1);
+        replica.refresh(F1);
+        // Then
+        Assert.assertFalse(replica.exist(F1));
+    }
+
+    /**
+     * A started replica applies changes published by another client.
+     */
+    @Test
+    public void testStartedReplicaReceivesChanges() throws InterruptedException {
+        // Given
+        FeatureStoreRedis source = new FeatureStoreRedis();
+        FeatureStoreRedisReplica started = new FeatureStoreRedisReplica(source, FeatureStoreRedisReplica.DEFAULT_RESYNC_PERIOD);
+        try {
+            Assert.assertTrue(started.read(F1).isEnable());
+            // When
+            otherClient.disable(F1);
+            otherClient.create(new Feature("newFeature", true));
+            // Then
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((started.read(F1).isEnable() || !started.exist("newFeature")) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(started.read(F1).isEnable());
+            Assert.assertTrue(started.exist("newFeature"));
+        } finally {
+            started.stop();
+            source.destroy();
+        }
+    }
+
+    /**
+     * Stopping right after start, before subscription is established, does not leave the subscriber thread blocked.
+     */
+    @Test
+    public void testStopBeforeSubscription() throws InterruptedException {
+        // Given
+        FeatureStoreRedis source = new FeatureStoreRedis();
+        FeatureStoreRedisReplica started = new FeatureStoreRedisReplica(source);
+        try {
+            // When
+            started.start();
+            started.stop();
+            started.start();
+            started.stop();
+            // Then
+            long deadline = System.currentTimeMillis() + 5000;
+            while (isSubscriberAlive() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(isSubscriberAlive());
+        } finally {
+            source.destroy();
+        }
+    }
+
+    /**
+     * Look for a running subscriber thread.
+     * 
+     * @return true if a subscriber thread is alive
+     */
+    private boolean isSubscriberAlive() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("ff4j-redis-replica-subscriber".equals(thread.getName()) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clean store after each test (avoid duplication)
+     */
+    @After
+    public void cleanStore() {
+        Map < String, Feature > f = testedStore.readAll();
+        for (String key : f.keySet()) {
+            testedStore.delete(key);
+        }
+        replica.stop();
+        otherClient.destroy();
+    }
+
+}
@@ -28,6 +28,7 @@ import org.ff4j.store.FeatureStoreRedis;
 import org.ff4j.test.store.AbstractStoreJUnitTest;
 import org.junit.After;
 import org.junit.Ignore;
+import org.junit.Test;
 
 /**
  * Test to work with Redis as a store.
@@ -53,6 +54,22 @@ public class FeatureStoreRedisTestIT extends AbstractStoreJUnitTest {
         return redisStore;
     }
     
+    /**
+     * TDD.
+     */
+    @Test
+    public void testRemoveFromGroupFeatureNotInGroup() {
+        // Given
+        assertFf4j.assertThatFeatureIsInGroup(F2, G0);
+        assertFf4j.assertThatGroupHasSize(2, G1);
+        // When
+        testedStore.removeFromGroup(F2, G1);
+        // Then, feature keeps its group and target group is unchanged
+        assertFf4j.assertThatFeatureIsInGroup(F2, G0);
+        assertFf4j.assertThatGroupHasSize(1, G0);
+        assertFf4j.assertThatGroupHasSize(2, G1);
+    }
+
     /**
      * Clean store after each test (avoid duplication)
      */
@@ -11,8 +11,15 @@ package org.ff4j.store;
  * governing permissions and limitations under the License. #L%
  */
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,27 +28,43 @@ import javax.sql.DataSource;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.core.VersionedFeatureStore;
 import org.ff4j.exception.FeatureAlreadyExistException;
 import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.exception.GroupNotFoundException;
 import org.ff4j.property.AbstractProperty;
 import org.ff4j.store.rowmapper.CustomPropertyRowMapper;
 import org.ff4j.store.rowmapper.FeatureRowMapper;
-import org.ff4j.store.rowmapper.RoleRowMapper;
-import org.ff4j.utils.ParameterUtils;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Implementation of {@link FeatureStore} to work with RDBMS through JDBC.
  * 
+ * Writes rely on the number of affected rows instead of a preliminary existence check, roles and custom properties are sent with
+ * {@link JdbcTemplate#batchUpdate(String, Collection, int, ParameterizedPreparedStatementSetter)} and group operations are single
+ * set-based statements. Bulk operations ({@link #createAll(Collection)}, {@link #updateAll(Collection)},
+ * {@link #deleteAll(Collection)}) cost a few round trips whatever the number of features.
+ * 
+ * Writes take a new version from the FF4J_VERSION counter in a transaction (joining the current one if any) and stamp the
+ * modified features with it, deleted features leave a tombstone. Clients keeping a local copy poll
+ * {@link #readChangesSince(long)} instead of readAll().
+ * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
 @Repository
-public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements JdbcStoreConstants {
+public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements VersionedFeatureStore, JdbcStoreConstants {
 
     /** Row Mapper for FlipPoint. */
     private static final FeatureRowMapper MAPPER = new FeatureRowMapper();
@@ -49,22 +72,55 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
     /** Mapper for custom properties. */
     private static final CustomPropertyRowMapper JDBC_PROPERTY_MAPPER = new CustomPropertyRowMapper();
 
+    /** Map joined rows and build statement parameters. */
+    private static final JdbcFeatureMapper JDBC_FEATURE_MAPPER = new JdbcFeatureMapper();
+
+    /** Bind parameters of batched statements, versions as long and other values as strings. */
+    private static final ParameterizedPreparedStatementSetter<Object[]> PARAMS_SETTER =
+            new ParameterizedPreparedStatementSetter<Object[]>() {
+        /** {@inheritDoc} */
+        public void setValues(PreparedStatement ps, Object[] params) throws SQLException {
+            JDBC_FEATURE_MAPPER.bindParams(ps, params);
+        }
+    };
+
+    /** Build a feature with its roles and custom properties from joined rows. */
+    private static final ResultSetExtractor<Feature> FULL_FEATURE_EXTRACTOR = new ResultSetExtractor<Feature>() {
+        /** {@inheritDoc} */
+        public Feature extractData(ResultSet rs) throws SQLException {
+            Feature f = null;
+            while (rs.next()) {
+                if (f == null) {
+                    f = JDBC_FEATURE_MAPPER.mapFeature(rs);
+                }
+                JDBC_FEATURE_MAPPER.mapJoinedRow(f, rs);
+            }
+            return f;
+        }
+    };
+
     /** SQL DataSource. */
     private DataSource dataSource;
 
     /** Access to storage. */
     private JdbcTemplate jdbcTemplate;
 
+    /** Transactions on the datasource, joining the current one if any. */
+    private TransactionTemplate transactionTemplate;
+
+    /** Number of statements sent per JDBC batch when writing many features. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     /** {@inheritDoc} */
     @Override
     public void enable(String uid) {
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        // No row updated means no feature
+        if (0 == updateVersioned(SQL_ENABLE, uid)) {
             throw new FeatureNotFoundException(uid);
         }
-        getJdbcTemplate().update(SQL_ENABLE, uid);
     }
 
     /** {@inheritDoc} */
@@ -73,10 +129,9 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        if (0 == updateVersioned(SQL_DISABLE, uid)) {
             throw new FeatureNotFoundException(uid);
         }
-        getJdbcTemplate().update(SQL_DISABLE, uid);
     }
 
     /** {@inheritDoc} */
@@ -95,18 +150,11 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        List<Feature> dbFlips = getJdbcTemplate().query(SQLQUERY_GET_FEATURE_BY_ID, MAPPER, uid);
-        if (dbFlips.isEmpty()) {
+        // Roles and custom properties are joined, single round trip
+        Feature fp = getJdbcTemplate().query(SQLQUERY_GET_FEATURE_FULL_BY_ID, FULL_FEATURE_EXTRACTOR, uid);
+        if (fp == null) {
             throw new FeatureNotFoundException(uid);
         }
-        Feature fp = dbFlips.get(0);
-
-        List<AbstractProperty<?>> customProperties = getJdbcTemplate().query(SQL_GET_CUSTOMPROPERTIES_BYFEATUREID, JDBC_PROPERTY_MAPPER, uid);
-        for (AbstractProperty<?> ap : customProperties) {
-            fp.getCustomProperties().put(ap.getName(), ap);
-        }
-        List<String> auths = getJdbcTemplate().query(SQL_GET_ROLES, new SingleColumnRowMapper<String>(), uid);
-        fp.getPermissions().addAll(auths);
         return fp;
     }
 
@@ -117,23 +165,36 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
-        }
-        // Transaction wraps the method, could pipe several sql queries
-        String strategyColumn = null;
-        String expressionColumn = null;
-        if (fp.getFlippingStrategy() != null) {
-            strategyColumn = fp.getFlippingStrategy().getClass().getCanonicalName();
-            expressionColumn = ParameterUtils.fromMap(fp.getFlippingStrategy().getInitParams());
-        }
-        getJdbcTemplate().update(SQL_CREATE, fp.getUid(), fp.isEnable() ? 1 : 0, fp.getDescription(), strategyColumn,
-                expressionColumn, fp.getGroup());
-        if (fp.getPermissions() != null) {
-            for (String role : fp.getPermissions()) {
-                getJdbcTemplate().update(SQL_ADD_ROLE, fp.getUid(), role);
+        createAll(Collections.singletonList(fp));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public void createAll(Collection<Feature> features) {
+        final Map<String, Feature> toCreate = mapByUid(features);
+        if (toCreate.isEmpty()) {
+            return;
+        }
+        getTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            /** {@inheritDoc} */
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                Set<String> existingUids = readExistingUids(toCreate.keySet());
+                if (!existingUids.isEmpty()) {
+                    throw new FeatureAlreadyExistException(existingUids.iterator().next());
+                }
+                long version = nextVersion();
+                List<Object[]> createParams = new ArrayList<Object[]>();
+                for (Feature fp : toCreate.values()) {
+                    createParams.add(JDBC_FEATURE_MAPPER.mapCreateParams(fp, version));
+                }
+                batchUpdate(SQL_CREATE, createParams);
+                batchUpdate(SQL_ADD_ROLE, mapRoleParams(toCreate.values()));
+                batchUpdate(SQL_CREATE_CUSTOMPROPERTY, mapPropertyParams(toCreate.values()));
+                // A previous deletion is forgotten
+                batchUpdate(SQL_TOMBSTONE_DELETE, mapUidParams(toCreate.keySet()));
             }
-        }
+        });
     }
 
     /** {@inheritDoc} */
@@ -143,19 +204,135 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        Feature fp = read(uid);
-        if (fp.getPermissions() != null) {
-            for (String role : fp.getPermissions()) {
-                getJdbcTemplate().update(SQL_DELETE_ROLE, fp.getUid(), role);
+        deleteAll(Collections.singletonList(uid));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public void deleteAll(Collection<String> uids) {
+        assertFeatureIds(uids);
+        if (uids.isEmpty()) {
+            return;
+        }
+        final List<String> toDelete = new ArrayList<String>(new LinkedHashSet<String>(uids));
+        getTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            /** {@inheritDoc} */
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                // Version row is locked first, as by every writer
+                long version = nextVersion();
+                List<Object[]> uidParams = mapUidParams(toDelete);
+                batchUpdate(SQL_DELETE_CUSTOMPROPERTIES, uidParams);
+                batchUpdate(SQL_DELETE_ROLES, uidParams);
+                // No row deleted means no feature, whole transaction is rolled back
+                assertUpdated(toDelete, batchUpdate(SQL_DELETE, uidParams));
+                // Tombstones for clients synchronizing with versions
+                List<Object[]> tombstoneParams = new ArrayList<Object[]>();
+                for (String uid : toDelete) {
+                    tombstoneParams.add(new Object[] {version, uid});
+                }
+                batchUpdate(SQL_TOMBSTONE_DELETE, uidParams);
+                batchUpdate(SQL_TOMBSTONE_CREATE, tombstoneParams);
             }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public void update(Feature fp) {
+        if (fp == null) {
+            throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        if (fp.getCustomProperties() != null) {
-            getJdbcTemplate().update(SQL_DELETE_CUSTOMPROPERTIES, fp.getUid());
-        }
-        getJdbcTemplate().update(SQL_DELETE, fp.getUid());
+        updateAll(Collections.singletonList(fp));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public void updateAll(Collection<Feature> features) {
+        final Map<String, Feature> toUpdate = mapByUid(features);
+        if (toUpdate.isEmpty()) {
+            return;
+        }
+        getTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            /** {@inheritDoc} */
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                long version = nextVersion();
+                List<Object[]> updateParams = new ArrayList<Object[]>();
+                for (Feature fp : toUpdate.values()) {
+                    updateParams.add(JDBC_FEATURE_MAPPER.mapUpdateParams(fp, version));
+                }
+                // No row updated means no feature, whole transaction is rolled back
+                assertUpdated(new ArrayList<String>(toUpdate.keySet()), batchUpdate(SQL_UPDATE, updateParams));
+                // Replace roles and custom properties
+                List<Object[]> uidParams = mapUidParams(toUpdate.keySet());
+                batchUpdate(SQL_DELETE_ROLES, uidParams);
+                batchUpdate(SQL_DELETE_CUSTOMPROPERTIES, uidParams);
+                batchUpdate(SQL_ADD_ROLE, mapRoleParams(toUpdate.values()));
+                batchUpdate(SQL_CREATE_CUSTOMPROPERTY, mapPropertyParams(toUpdate.values()));
+            }
+        });
+    }
+
+    /**
+     * Initialize store from XML Configuration File with a single batched transaction, see {@link #importFeatures(Collection)}.
+     * 
+     * @param xmlConfFile
+     *      xml configuration file
+     */
+    @Override
+    public Map<String, Feature> importFeaturesFromXmlFile(String xmlConfFile) {
+        Map<String, Feature> features = parseXmlFile(xmlConfFile);
+        importFeatures(features.values());
+        return features;
+    }
+
+    /**
+     * Upsert features with their roles and custom properties using JDBC batches in a single transaction (joining the current one
+     * if any). Existing features are overwritten.
+     * 
+     * @param features
+     *            features to import
+     * @return counts and time spent
+     */
+    public FeatureImportReport importFeatures(Collection<Feature> features) {
+        final long start = System.currentTimeMillis();
+        // Last occurence wins if an identifier is present twice
+        final Map<String, Feature> toImport = mapByUid(features);
+        return getTransactionTemplate().execute(new TransactionCallback<FeatureImportReport>() {
+            /** {@inheritDoc} */
+            public FeatureImportReport doInTransaction(TransactionStatus status) {
+                // Split between creations and updates with a single query
+                long version = nextVersion();
+                Set<String> existingUids = readExistingUids(toImport.keySet());
+                List<Object[]> createParams   = new ArrayList<Object[]>();
+                List<Object[]> updateParams   = new ArrayList<Object[]>();
+                List<Object[]> updatedUids    = new ArrayList<Object[]>();
+                List<Object[]> createdUids    = new ArrayList<Object[]>();
+                for (Feature fp : toImport.values()) {
+                    if (existingUids.contains(fp.getUid())) {
+                        updateParams.add(JDBC_FEATURE_MAPPER.mapUpdateParams(fp, version));
+                        updatedUids.add(new Object[] {fp.getUid()});
+                    } else {
+                        createParams.add(JDBC_FEATURE_MAPPER.mapCreateParams(fp, version));
+                        createdUids.add(new Object[] {fp.getUid()});
+                    }
+                }
+                List<Object[]> roleParams     = mapRoleParams(toImport.values());
+                List<Object[]> propertyParams = mapPropertyParams(toImport.values());
+                // Overwritten features lose their roles and properties
+                batchUpdate(SQL_DELETE_CUSTOMPROPERTIES, updatedUids);
+                batchUpdate(SQL_DELETE_ROLES, updatedUids);
+                batchUpdate(SQL_UPDATE, updateParams);
+                batchUpdate(SQL_CREATE, createParams);
+                batchUpdate(SQL_TOMBSTONE_DELETE, createdUids);
+                batchUpdate(SQL_ADD_ROLE, roleParams);
+                batchUpdate(SQL_CREATE_CUSTOMPROPERTY, propertyParams);
+                return new FeatureImportReport(createParams.size(), updateParams.size(),
+                        roleParams.size(), propertyParams.size(), System.currentTimeMillis() - start);
+            }
+        });
     }
 
     /** {@inheritDoc} */
@@ -168,10 +345,7 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        getJdbcTemplate().update(SQL_ADD_ROLE, uid, roleName);
+        updateRole(SQL_ADD_ROLE, uid, roleName);
     }
 
     /** {@inheritDoc} */
@@ -184,10 +358,7 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        getJdbcTemplate().update(SQL_DELETE_ROLE, uid, roleName);
+        updateRole(SQL_DELETE_ROLE, uid, roleName);
     }
 
     /** {@inheritDoc} */
@@ -197,10 +368,10 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
+        // Single statement for the whole group, no row updated means no group
+        if (0 == updateVersioned(SQL_ENABLE_GROUP, groupName)) {
             throw new GroupNotFoundException(groupName);
         }
-        getJdbcTemplate().update(SQL_ENABLE_GROUP, groupName);
     }
 
     /** {@inheritDoc} */
@@ -210,10 +381,9 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
+        if (0 == updateVersioned(SQL_DISABLE_GROUP, groupName)) {
             throw new GroupNotFoundException(groupName);
         }
-        getJdbcTemplate().update(SQL_DISABLE_GROUP, groupName);
     }
 
     /** {@inheritDoc} */
@@ -232,14 +402,11 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
+        Map<String, Feature> mapFP = readBulk(SQLQUERY_GET_FEATURE_GROUP, SQL_GET_ROLES_GROUP, SQL_GET_CUSTOMPROPERTIES_GROUP, groupName);
+        // A group exists as long as a feature references it
+        if (mapFP.isEmpty()) {
             throw new GroupNotFoundException(groupName);
         }
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        List<Feature> lFp = getJdbcTemplate().query(SQLQUERY_GET_FEATURE_GROUP, MAPPER, groupName);
-        for (Feature flipPoint : lFp) {
-            mapFP.put(flipPoint.getUid(), flipPoint);
-        }
         return mapFP;
     }
 
@@ -253,15 +420,13 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
+        if (0 == updateVersioned(SQL_ADD_TO_GROUP, groupName, uid)) {
             throw new FeatureNotFoundException(uid);
         }
-        getJdbcTemplate().update(SQL_ADD_TO_GROUP, groupName, uid);
     }
 
     /** {@inheritDoc} */
     @Override
-    @Transactional
     public void removeFromGroup(String uid, String groupName) {
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
@@ -269,39 +434,28 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
+        // Single statement in the nominal case, the feature must be in the group
+        if (0 < updateVersioned(SQL_REMOVE_FROM_GROUP, uid, groupName)) {
+            return;
+        }
+        // Nothing updated, find out why
         if (!exist(uid)) {
             throw new FeatureNotFoundException(uid);
         }
         if (!existGroup(groupName)) {
             throw new GroupNotFoundException(groupName);
         }
+        String currentGroup = read(uid).getGroup();
+        if (currentGroup != null && !currentGroup.isEmpty()) {
+            throw new IllegalArgumentException("'" + uid + "' is not in group '" + groupName + "'");
+        }
         // ---> Feature not in Group : should not raise error
-        // Feature feat = read(featureId);
-        // if (feat.getGroup() != null && !feat.getGroup().equals(groupName)) {
-        // throw new IllegalArgumentException("'" + featureId + "' is not in group '" + groupName + "'");
-        // }
-        // <----
-        getJdbcTemplate().update(SQL_ADD_TO_GROUP, "", uid);
     }
 
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        List<Feature> lFp = getJdbcTemplate().query(SQLQUERY_ALLFEATURES, MAPPER);
-        for (Feature flipPoint : lFp) {
-            mapFP.put(flipPoint.getUid(), flipPoint);
-        }
-        // Populating Roles
-        RoleRowMapper rrm = new RoleRowMapper();
-        getJdbcTemplate().query(SQL_GET_ALLROLES, rrm);
-        Map<String, Set<String>> roles = rrm.getRoles();
-        for (String featId : roles.keySet()) {
-            if (mapFP.containsKey(featId)) {
-                mapFP.get(featId).getPermissions().addAll(roles.get(featId));
-            }
-        }
-        return mapFP;
+        return readBulk(SQLQUERY_ALLFEATURES, SQL_GET_ALLROLES, SQL_GET_ALLCUSTOMPROPERTIES);
     }
 
     /** {@inheritDoc} */
@@ -316,50 +470,261 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
 
     /** {@inheritDoc} */
     @Override
-    @Transactional
-    public void update(Feature fp) {
-        if (fp == null) {
-            throw new IllegalArgumentException("Feature cannot be null nor empty");
+    public long getCurrentVersion() {
+        return getJdbcTemplate().queryForObject(SQL_VERSION_READ, Long.class);
+    }
+
+    /**
+     * Read features created, modified or deleted after a version with indexed range queries. Versions lower or equal to the
+     * returned {@link FeatureChanges#getToVersion()} are all committed, a client polling with this value does not miss any change.
+     * 
+     * @param version
+     *            last version known by the client, 0 for every feature
+     * @return changes since this version
+     */
+    @Override
+    public FeatureChanges readChangesSince(long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
+        long current = getCurrentVersion();
+        // Seeded or upgraded rows have version 0, a first synchronization must return them
+        long after = (version == 0) ? -1 : version;
+        Map<String, Feature> updated = readBulk(SQLQUERY_FEATURES_CHANGES,
+                SQL_GET_ROLES_CHANGES, SQL_GET_CUSTOMPROPERTIES_CHANGES, after, current);
+        Set<String> deleted = new HashSet<String>(getJdbcTemplate().query(SQL_TOMBSTONE_CHANGES,
+                new SingleColumnRowMapper<String>(), after, current));
+        return new FeatureChanges(version, current, updated, deleted);
+    }
+
+    /**
+     * Load complete features (roles and custom properties included) with three set-based queries sharing the same parameters.
+     * 
+     * @param queryFeatures
+     *            query on features
+     * @param queryRoles
+     *            query on roles of the same features
+     * @param queryProperties
+     *            query on custom properties of the same features
+     * @param params
+     *            parameters of the three queries
+     * @return features by identifier
+     */
+    private Map<String, Feature> readBulk(String queryFeatures, String queryRoles, String queryProperties, Object... params) {
+        final Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        for (Feature fp : getJdbcTemplate().query(queryFeatures, MAPPER, params)) {
+            mapFP.put(fp.getUid(), fp);
+        }
+        if (mapFP.isEmpty()) {
+            return mapFP;
+        }
+        getJdbcTemplate().query(queryRoles, new RowCallbackHandler() {
+            /** {@inheritDoc} */
+            public void processRow(ResultSet rs) throws SQLException {
+                Feature fp = mapFP.get(rs.getString(COL_ROLE_FEATID));
+                if (fp != null) {
+                    fp.getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                }
+            }
+        }, params);
+        getJdbcTemplate().query(queryProperties, new RowCallbackHandler() {
+            /** {@inheritDoc} */
+            public void processRow(ResultSet rs) throws SQLException {
+                Feature fp = mapFP.get(rs.getString(COL_PROPERTY_FEATID));
+                if (fp != null) {
+                    AbstractProperty<?> ap = JDBC_PROPERTY_MAPPER.map(rs);
+                    fp.getCustomProperties().put(ap.getName(), ap);
+                }
+            }
+        }, params);
+        return mapFP;
+    }
+
+    /**
+     * Find which identifiers exist with IN queries of {@link #getBatchSize()} parameters.
+     * 
+     * @param uids
+     *            identifiers to look for
+     * @return existing identifiers among them
+     */
+    private Set<String> readExistingUids(Collection<String> uids) {
+        Set<String> existing = new HashSet<String>();
+        List<String> allUids = new ArrayList<String>(uids);
+        for (int from = 0; from < allUids.size(); from += batchSize) {
+            List<String> chunk = allUids.subList(from, Math.min(from + batchSize, allUids.size()));
+            StringBuilder query = new StringBuilder(SQLQUERY_FEATURE_UIDS_IN).append("(");
+            for (int i = 0; i < chunk.size(); i++) {
+                query.append(i == 0 ? "?" : ",?");
+            }
+            query.append(")");
+            existing.addAll(getJdbcTemplate().query(query.toString(), new SingleColumnRowMapper<String>(), chunk.toArray()));
+        }
+        return existing;
+    }
+
+    /**
+     * Take next version, to be called within a transaction: the counter row stays locked until its end so that versions are
+     * committed in order.
+     * 
+     * @return new version
+     */
+    private long nextVersion() {
+        getJdbcTemplate().update(SQL_VERSION_INCREMENT);
+        return getJdbcTemplate().queryForObject(SQL_VERSION_READ, Long.class);
+    }
+
+    /**
+     * Perform UPDATE operations on features in a transaction, the new version being given as first parameter of the query.
+     * 
+     * @param query
+     *            target query
+     * @param params
+     *            sql query params after version
+     * @return number of rows affected
+     */
+    private int updateVersioned(final String query, final Object... params) {
+        return getTransactionTemplate().execute(new TransactionCallback<Integer>() {
+            /** {@inheritDoc} */
+            public Integer doInTransaction(TransactionStatus status) {
+                Object[] versionedParams = new Object[params.length + 1];
+                versionedParams[0] = nextVersion();
+                System.arraycopy(params, 0, versionedParams, 1, params.length);
+                int updated = getJdbcTemplate().update(query, versionedParams);
+                if (updated == 0) {
+                    // Nothing changed, the version is not consumed
+                    status.setRollbackOnly();
+                }
+                return updated;
+            }
+        });
+    }
+
+    /**
+     * Add or remove a role, feature is stamped with a new version in the same transaction.
+     * 
+     * @param query
+     *            query on roles
+     * @param uid
+     *            feature identifier
+     * @param roleName
+     *            target role
+     */
+    private void updateRole(final String query, final String uid, final String roleName) {
+        getTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            /** {@inheritDoc} */
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                // Feature is stamped first, no row updated means no feature
+                if (0 == getJdbcTemplate().update(SQL_TOUCH, nextVersion(), uid)) {
+                    throw new FeatureNotFoundException(uid);
+                }
+                getJdbcTemplate().update(query, uid, roleName);
+            }
+        });
+    }
+
+    /**
+     * Execute the same statement for each set of parameters, sent by batches of {@link #getBatchSize()} statements.
+     * 
+     * @param query
+     *            target query
+     * @param paramsList
+     *            parameters of each execution
+     * @return number of rows affected by each execution, grouped by batch
+     */
+    private int[][] batchUpdate(String query, List<Object[]> paramsList) {
+        if (paramsList.isEmpty()) {
+            return new int[0][];
         }
-        Feature fpExist = read(fp.getUid());
+        return getJdbcTemplate().batchUpdate(query, paramsList, batchSize, PARAMS_SETTER);
+    }
 
-        // Update core Flip POINT
-        String fStrategy = null;
-        String fExpression = null;
-        if (fp.getFlippingStrategy() != null) {
-            fStrategy = fp.getFlippingStrategy().getClass().getCanonicalName();
-            fExpression = ParameterUtils.fromMap(fp.getFlippingStrategy().getInitParams());
+    /**
+     * Check that each statement of a batch affected a row, drivers unable to give counts are trusted.
+     * 
+     * @param uids
+     *            feature identifiers in the order of the batch
+     * @param counts
+     *            number of rows affected, grouped by batch
+     */
+    private void assertUpdated(List<String> uids, int[][] counts) {
+        int index = 0;
+        for (int[] batchCounts : counts) {
+            for (int count : batchCounts) {
+                if (count == 0) {
+                    throw new FeatureNotFoundException(uids.get(index));
+                }
+                index++;
+            }
         }
-        String enable = "0";
-        if (fp.isEnable()) {
-            enable = "1";
+    }
+
+    /**
+     * Validate features and remove duplicated identifiers, the last occurence wins.
+     * 
+     * @param features
+     *            features to write
+     * @return features by identifier
+     */
+    private Map<String, Feature> mapByUid(Collection<Feature> features) {
+        assertFeatures(features);
+        Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        for (Feature fp : features) {
+            mapFP.put(fp.getUid(), fp);
         }
-        getJdbcTemplate().update(SQL_UPDATE, enable, fp.getDescription(), fStrategy, fExpression, fp.getGroup(), fp.getUid());
+        return mapFP;
+    }
 
-        // To be deleted : not in second but in first
-        Set<String> toBeDeleted = new HashSet<String>();
-        toBeDeleted.addAll(fpExist.getPermissions());
-        toBeDeleted.removeAll(fp.getPermissions());
-        for (String roleToBeDelete : toBeDeleted) {
-            removeRoleFromFeature(fpExist.getUid(), roleToBeDelete);
+    /**
+     * Parameters of statements expecting a single feature identifier.
+     * 
+     * @param uids
+     *            feature identifiers
+     * @return one parameter array per feature
+     */
+    private List<Object[]> mapUidParams(Collection<String> uids) {
+        List<Object[]> params = new ArrayList<Object[]>();
+        for (String uid : uids) {
+            params.add(new Object[] {uid});
         }
+        return params;
+    }
 
-        // To be created : in second but not in first
-        Set<String> toBeAdded = new HashSet<String>();
-        toBeAdded.addAll(fp.getPermissions());
-        toBeAdded.removeAll(fpExist.getPermissions());
-        for (String addee : toBeAdded) {
-            grantRoleOnFeature(fpExist.getUid(), addee);
+    /**
+     * Parameters of {@link JdbcStoreConstants#SQL_ADD_ROLE}.
+     * 
+     * @param features
+     *            target features
+     * @return one parameter array per role
+     */
+    private List<Object[]> mapRoleParams(Collection<Feature> features) {
+        List<Object[]> params = new ArrayList<Object[]>();
+        for (Feature fp : features) {
+            if (fp.getPermissions() != null) {
+                for (String role : fp.getPermissions()) {
+                    params.add(new Object[] {fp.getUid(), role});
+                }
+            }
         }
+        return params;
+    }
 
-        // enable/disable
-        if (fp.isEnable() != fpExist.isEnable()) {
-            if (fp.isEnable()) {
-                enable(fp.getUid());
-            } else {
-                disable(fp.getUid());
+    /**
+     * Parameters of {@link JdbcStoreConstants#SQL_CREATE_CUSTOMPROPERTY}.
+     * 
+     * @param features
+     *            target features
+     * @return one parameter array per custom property
+     */
+    private List<Object[]> mapPropertyParams(Collection<Feature> features) {
+        List<Object[]> params = new ArrayList<Object[]>();
+        for (Feature fp : features) {
+            if (fp.getCustomProperties() != null) {
+                for (AbstractProperty<?> pp : fp.getCustomProperties().values()) {
+                    params.add(JDBC_FEATURE_MAPPER.mapCustomPropertyParams(fp.getUid(), pp));
+                }
             }
         }
+        return params;
     }
 
     /**
@@ -424,6 +789,43 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         return jdbcTemplate;
     }
 
+    /**
+     * Getter accessor for attribute 'transactionTemplate', built on the datasource at first call.
+     * 
+     * @return current value of 'transactionTemplate'
+     */
+    public TransactionTemplate getTransactionTemplate() {
+        if (transactionTemplate == null) {
+            if (dataSource == null) {
+                throw new IllegalStateException("ff4j-jdbc: DatabaseStore has not been properly initialized, datasource is null");
+            }
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+        return transactionTemplate;
+    }
+
+    /**
+     * Getter accessor for attribute 'batchSize'.
+     * 
+     * @return current value of 'batchSize'
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter accessor for attribute 'batchSize', number of statements sent per JDBC batch by bulk writes.
+     * 
+     * @param batchSize
+     *            new value for 'batchSize '
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
     // -------- Overrided in cache proxy --------------
 
     /** {@inheritDoc} */
@@ -11,8 +11,13 @@ package org.ff4j.test.store;
  * governing permissions and limitations under the License. #L%
  */
 
+import java.util.Arrays;
+
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.store.FeatureChanges;
+import org.ff4j.store.FeatureImportReport;
 import org.ff4j.store.FeatureStoreSpringJDBC;
 import org.junit.After;
 import org.junit.Assert;
@@ -72,4 +77,67 @@ public class SpringJdbcEmbedDataSourceStoreTest extends AbstractStoreJUnitTest {
         Assert.assertNotNull(f.getCustomProperties().get(CUSTOM_PROPERTY));
     }
 
+    /** Import upserts features, replacing roles of existing ones. */
+    @Test
+    public void testImportFeatures() {
+        FeatureStoreSpringJDBC jdbcStore = (FeatureStoreSpringJDBC) testedStore;
+        jdbcStore.setBatchSize(1);
+        Feature existing = new Feature(F1, false, "imported", null, Arrays.asList("ADMIN"));
+        Feature created  = new Feature("imported", true, "new one", null, Arrays.asList("R1", "R2"));
+        FeatureImportReport report = jdbcStore.importFeatures(Arrays.asList(existing, created));
+        Assert.assertEquals(1, report.getCreatedCount());
+        Assert.assertEquals(1, report.getUpdatedCount());
+        Assert.assertEquals(3, report.getRoleCount());
+        Assert.assertFalse(testedStore.read(F1).isEnable());
+        Assert.assertEquals(1, testedStore.read(F1).getPermissions().size());
+        Assert.assertTrue(testedStore.exist("imported"));
+    }
+
+    /** Only features modified after a version are returned, deletions as tombstones. */
+    @Test
+    public void testReadChangesSince() {
+        FeatureStoreSpringJDBC jdbcStore = (FeatureStoreSpringJDBC) testedStore;
+        // Seeded features have version 0, first synchronization returns all of them
+        FeatureChanges all = jdbcStore.readChangesSince(0);
+        Assert.assertEquals(testedStore.readAll().keySet(), all.getUpdatedFeatures().keySet());
+        testedStore.disable(F4);
+        long version = jdbcStore.getCurrentVersion();
+        Assert.assertTrue(jdbcStore.readChangesSince(version).isEmpty());
+        testedStore.enable(F2);
+        testedStore.delete(F1);
+        FeatureChanges changes = jdbcStore.readChangesSince(version);
+        Assert.assertEquals(1, changes.getUpdatedFeatures().size());
+        Assert.assertTrue(changes.getUpdatedFeatures().get(F2).isEnable());
+        Assert.assertTrue(changes.getDeletedFeatures().contains(F1));
+        Assert.assertTrue(jdbcStore.readChangesSince(changes.getToVersion()).isEmpty());
+    }
+
+    /** A feature of another group keeps its group and the version does not move. */
+    @Test
+    public void testRemoveFromAnotherGroup() {
+        FeatureStoreSpringJDBC jdbcStore = (FeatureStoreSpringJDBC) testedStore;
+        long version = jdbcStore.getCurrentVersion();
+        try {
+            testedStore.removeFromGroup(F3, G0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {
+            Assert.assertEquals(G1, testedStore.read(F3).getGroup());
+            Assert.assertEquals(version, jdbcStore.getCurrentVersion());
+        }
+    }
+
+    /** A missing feature rolls back the whole batch. */
+    @Test
+    public void testUpdateAllRollback() {
+        ((FeatureStoreSpringJDBC) testedStore).setBatchSize(1);
+        Feature f1 = testedStore.read(F1);
+        f1.setDescription("updated");
+        try {
+            testedStore.updateAll(Arrays.asList(f1, new Feature(FEATURE_NEW, true)));
+            Assert.fail();
+        } catch (FeatureNotFoundException fnfe) {
+            Assert.assertFalse("updated".equals(testedStore.read(F1).getDescription()));
+        }
+    }
+
 }
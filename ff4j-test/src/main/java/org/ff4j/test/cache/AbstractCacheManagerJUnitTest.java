@@ -20,6 +20,7 @@ package org.ff4j.test.cache;
  * #L%
  */
 
+import org.ff4j.cache.CacheStatistics;
 import org.ff4j.cache.FeatureCacheManager;
 import org.ff4j.core.Feature;
 import org.ff4j.test.TestsFf4jConstants;
@@ -142,4 +143,26 @@ public abstract class AbstractCacheManagerJUnitTest implements TestsFf4jConstant
         Assert.assertTrue(cacheManager.listCachedFeatureNames().isEmpty());
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testStatistics() {
+        // Given
+        cacheManager.put(new Feature("ff", false, "Description"));
+        CacheStatistics before = cacheManager.getCacheStatistics();
+        // When
+        cacheManager.get("ff");
+        cacheManager.get("ff-does-not-exist");
+        cacheManager.recordLoad(1000000L);
+        cacheManager.evict("ff");
+        // Then
+        CacheStatistics after = cacheManager.getCacheStatistics();
+        Assert.assertEquals(before.getHitCount() + 1, after.getHitCount());
+        Assert.assertEquals(before.getMissCount() + 1, after.getMissCount());
+        Assert.assertEquals(before.getLoadCount() + 1, after.getLoadCount());
+        Assert.assertEquals(before.getEvictionCount() + 1, after.getEvictionCount());
+        Assert.assertTrue(after.getMaxLoadTime() >= 1.0);
+    }
+
 }
@@ -21,6 +21,7 @@ package org.ff4j.utils.json;
  */
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -64,6 +65,22 @@ public class FeatureJsonParser {
         }
     }
 
+    /**
+     * Unmarshall {@link Feature} directly from a stream, without building the json string first.
+     *
+     * @param json
+     *            stream of json representation of feature.
+     * @return feature object
+     */
+    @SuppressWarnings("unchecked")
+    public static Feature parseFeature(InputStream json) {
+        try {
+            return parseFeatureMap(objectMapper.readValue(json, HashMap.class));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot parse json stream as Feature", e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private static Feature parseFeatureMap(Map<String, Object> fMap) {
         Feature f = new Feature((String) fMap.get("uid"));
@@ -252,4 +269,27 @@ public class FeatureJsonParser {
         }
     }
 
+    /**
+     * Parse a json stream as array of {@link Feature}, without building the json string first.
+     *
+     * @param json
+     *      stream of json expression
+     * @return
+     *      array of feature
+     */
+    @SuppressWarnings("unchecked")
+    public static Feature[] parseFeatureArray(InputStream json) {
+        try {
+            List<LinkedHashMap<String, Object>> flipMap = objectMapper.readValue(json, List.class);
+            Feature[] fArray = new Feature[flipMap.size()];
+            int idx = 0;
+            for (LinkedHashMap<String, Object> ll : flipMap) {
+                fArray[idx++] = parseFeatureMap(ll);
+            }
+            return fArray;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read JSON stream as array of Feature", e);
+        }
+    }
+
 }
@@ -20,6 +20,7 @@ package org.ff4j.utils.json;
  * #L%
  */
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.Map;
 
@@ -62,6 +63,20 @@ public class FeatureJsonParserTest {
         Assert.assertEquals(ff4j.getFeatures().size(), ff.length);
     }
     
+    @Test
+    public void testParseFromStream() throws Exception {
+        Map <String, Feature> features = ff4j.getFeatures();
+        Feature[] f = features.values().toArray(new Feature[features.size()]);
+        byte[] featuresArrayAsJson = marshallWithJackson(f).getBytes("UTF-8");
+        Feature[] ff = FeatureJsonParser.parseFeatureArray(new ByteArrayInputStream(featuresArrayAsJson));
+        Assert.assertEquals(features.size(), ff.length);
+        for (Feature expected : f) {
+            Feature actual = FeatureJsonParser.parseFeature(new ByteArrayInputStream(expected.toJson().getBytes("UTF-8")));
+            Assert.assertEquals(expected.getUid(), actual.getUid());
+            Assert.assertEquals(expected.isEnable(), actual.isEnable());
+        }
+    }
+    
     /**
      * Check cutom (fast) serialization against Jackson.
      * 
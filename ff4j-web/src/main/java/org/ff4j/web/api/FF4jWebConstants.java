@@ -95,6 +95,18 @@ public interface FF4jWebConstants {
     
     /** nb of points in the curve. */
     String PARAM_NBPOINTS = "nbpoints";
+    
+    /** resource for change feed. */
+    String RESOURCE_CHANGES = "changes";
+    
+    /** last version known by the client of change feed. */
+    String PARAM_SINCE = "since";
+    
+    /** maximum time to wait for changes, in milliseconds. */
+    String PARAM_TIMEOUT = "timeout";
+
+    /** attribute holding the missing feature when checking several features. */
+    String CHECK_NOT_FOUND = "notFound";
 
     /** security role. */
     String ROLE_READ = "READ";
@@ -0,0 +1,512 @@
+package org.ff4j.web.api;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.core.VersionedFeatureStore;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.web.api.resources.domain.FeatureApiBean;
+import org.ff4j.web.api.resources.domain.FeatureChangesApiBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Versioned feed of feature and property changes, served by long polling.
+ *
+ * The feed keeps the last snapshot of the stores and compares it with the current content. It is refreshed right after each
+ * write done through the API ({@link #requestRefresh()}) and, only while clients are waiting in
+ * {@link #waitForChanges(long, long)}, every {@link #getPollPeriod()} milliseconds for changes made by other means (console,
+ * other nodes sharing the same store). Without waiting clients nothing is read, the next call refreshes the snapshot first.
+ * When the feature store is a {@link VersionedFeatureStore} its version is checked first, and features are read again only
+ * when it moved.
+ *
+ * Versions are derived from the content of the stores: a version is a digest of the snapshot, so two nodes sharing the same
+ * stores give the same version for the same content, and a version survives a restart. A client giving a version unknown to
+ * this node, or older than the oldest retained change, receives the whole content with 'resync' flag.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChangeFeed {
+
+    /** Default period to look for changes done outside the API, in milliseconds. */
+    public static final long DEFAULT_POLL_PERIOD = 1000;
+
+    /** Default number of deleted items remembered to serve deltas. */
+    public static final int DEFAULT_MAX_TOMBSTONES = 1000;
+
+    /** Encoding of snapshots for digest. */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** logger for this class. */
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /** Observed instance. */
+    private final FF4j ff4j;
+
+    /** Serialize refreshes, snapshots must be applied in order. */
+    private final Object refreshLock = new Object();
+
+    /** Current version, digest of last snapshot. */
+    private long version;
+
+    /** Local sequence of last snapshot, used to order changes on this node. */
+    private long sequence;
+
+    /** Oldest sequence from which changes can be computed. */
+    private long oldestSequence;
+
+    /** Sequence by known version, oldest first. */
+    private final LinkedHashMap<Long, Long> versionSequences = new LinkedHashMap<Long, Long>();
+
+    /** Version of feature store for last snapshot, -1 if not versioned. */
+    private long featureStoreVersion = -1;
+
+    /** Last snapshot of features. */
+    private final Map<String, Feature> features = new HashMap<String, Feature>();
+
+    /** JSON of features in last snapshot, to detect changes. */
+    private final Map<String, String> featureJson = new TreeMap<String, String>();
+
+    /** Sequence of last change by feature. */
+    private final Map<String, Long> featureSequences = new HashMap<String, Long>();
+
+    /** Sequence of deletion by feature. */
+    private final LinkedHashMap<String, Long> deletedFeatures = new LinkedHashMap<String, Long>();
+
+    /** JSON of properties in last snapshot, to detect changes. */
+    private final Map<String, String> propertyJson = new TreeMap<String, String>();
+
+    /** Sequence of last change by property. */
+    private final Map<String, Long> propertySequences = new HashMap<String, Long>();
+
+    /** Sequence of deletion by property. */
+    private final LinkedHashMap<String, Long> deletedProperties = new LinkedHashMap<String, Long>();
+
+    /** Period to look for changes done outside the API. */
+    private long pollPeriod = DEFAULT_POLL_PERIOD;
+
+    /** Deleted items remembered. */
+    private int maxTombstones = DEFAULT_MAX_TOMBSTONES;
+
+    /** First snapshot done. */
+    private boolean started = false;
+
+    /** Time of last refresh in milliseconds, 0 if the snapshot must be refreshed before use. */
+    private long lastRefresh = 0;
+
+    /** Number of clients waiting for changes. */
+    private int waiters = 0;
+
+    /** Background poller, running only while clients are waiting. */
+    private Thread poller;
+
+    /** Application shut down, clients are not held anymore. */
+    private boolean stopped = false;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param ff4j
+     *      observed instance
+     */
+    public FeatureChangeFeed(FF4j ff4j) {
+        if (ff4j == null) {
+            throw new IllegalArgumentException("FF4j cannot be null");
+        }
+        this.ff4j = ff4j;
+    }
+
+    /**
+     * Changes since a version, waiting for them if there is none.
+     *
+     * @param since
+     *      last version known by the client
+     * @param timeout
+     *      maximum time to wait in milliseconds
+     * @return
+     *      changes, empty if none occured during timeout
+     * @throws InterruptedException
+     *      interrupted while waiting
+     */
+    public FeatureChangesApiBean waitForChanges(long since, long timeout) throws InterruptedException {
+        synchronized (this) {
+            waiters++;
+        }
+        try {
+            refreshIfStale();
+            long deadline = System.currentTimeMillis() + timeout;
+            synchronized (this) {
+                long remaining = timeout;
+                if (remaining > 0) {
+                    startPoller();
+                }
+                // Client up to date, older or unknown versions are answered at once
+                while (!stopped && version == since && remaining > 0) {
+                    wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                return changesSince(since);
+            }
+        } finally {
+            synchronized (this) {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * Changes since a version, without waiting.
+     *
+     * @param since
+     *      last version known by the client
+     * @return
+     *      changes
+     */
+    public synchronized FeatureChangesApiBean changesSince(long since) {
+        Long from = versionSequences.get(since);
+        boolean resync = from == null || from < oldestSequence;
+        FeatureChangesApiBean changes = new FeatureChangesApiBean(since, version, resync);
+        for (Map.Entry<String, Long> featureSequence : featureSequences.entrySet()) {
+            if (resync || featureSequence.getValue() > from) {
+                changes.getFeatures().add(new FeatureApiBean(features.get(featureSequence.getKey())));
+            }
+        }
+        for (Map.Entry<String, Long> propertySequence : propertySequences.entrySet()) {
+            if (resync || propertySequence.getValue() > from) {
+                changes.getProperties().add(propertySequence.getKey());
+            }
+        }
+        if (!resync) {
+            for (Map.Entry<String, Long> deleted : deletedFeatures.entrySet()) {
+                if (deleted.getValue() > from) {
+                    changes.getDeletedFeatures().add(deleted.getKey());
+                }
+            }
+            for (Map.Entry<String, Long> deleted : deletedProperties.entrySet()) {
+                if (deleted.getValue() > from) {
+                    changes.getDeletedProperties().add(deleted.getKey());
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Ask for an immediate refresh, after a write. Returns at once, refresh is done by the poller if clients are waiting, or
+     * by the next call otherwise.
+     */
+    public synchronized void requestRefresh() {
+        lastRefresh = 0;
+        notifyAll();
+    }
+
+    /**
+     * Refresh the snapshot if it is older than the poll period or a refresh has been requested.
+     */
+    private void refreshIfStale() {
+        boolean stale;
+        synchronized (this) {
+            stale = System.currentTimeMillis() - lastRefresh >= pollPeriod;
+        }
+        if (stale) {
+            refresh();
+        }
+    }
+
+    /**
+     * Read stores and register differences with last snapshot as a new version.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            synchronized (this) {
+                lastRefresh = System.currentTimeMillis();
+            }
+            // Read outside the monitor, waiting clients are not blocked by the stores
+            Map<String, Feature> currentFeatures = readFeaturesIfChanged();
+            Map<String, AbstractProperty<?>> currentProperties = new TreeMap<String, AbstractProperty<?>>();
+            if (ff4j.getPropertiesStore() != null) {
+                currentProperties.putAll(ff4j.getPropertiesStore().readAllProperties());
+            }
+            synchronized (this) {
+                long next = sequence + 1;
+                boolean changed = false;
+                if (currentFeatures != null) {
+                    // Features created or modified
+                    for (Feature feature : currentFeatures.values()) {
+                        String json = feature.toJson();
+                        if (!json.equals(featureJson.get(feature.getUid()))) {
+                            featureJson.put(feature.getUid(), json);
+                            features.put(feature.getUid(), feature);
+                            featureSequences.put(feature.getUid(), started ? next : sequence);
+                            deletedFeatures.remove(feature.getUid());
+                            changed = true;
+                        }
+                    }
+                    // Features deleted
+                    for (Iterator<String> uids = featureJson.keySet().iterator(); uids.hasNext();) {
+                        String uid = uids.next();
+                        if (!currentFeatures.containsKey(uid)) {
+                            uids.remove();
+                            features.remove(uid);
+                            featureSequences.remove(uid);
+                            deletedFeatures.put(uid, next);
+                            changed = true;
+                        }
+                    }
+                }
+                // Properties created or modified
+                for (AbstractProperty<?> property : currentProperties.values()) {
+                    String json = property.toJson();
+                    if (!json.equals(propertyJson.get(property.getName()))) {
+                        propertyJson.put(property.getName(), json);
+                        propertySequences.put(property.getName(), started ? next : sequence);
+                        deletedProperties.remove(property.getName());
+                        changed = true;
+                    }
+                }
+                // Properties deleted
+                for (Iterator<String> names = propertyJson.keySet().iterator(); names.hasNext();) {
+                    String name = names.next();
+                    if (!currentProperties.containsKey(name)) {
+                        names.remove();
+                        propertySequences.remove(name);
+                        deletedProperties.put(name, next);
+                        changed = true;
+                    }
+                }
+                if (!started || changed) {
+                    if (started) {
+                        sequence = next;
+                        trimTombstones(deletedFeatures);
+                        trimTombstones(deletedProperties);
+                    }
+                    version = digest();
+                    // Content may come back to a previous version, keep its latest sequence
+                    versionSequences.remove(version);
+                    versionSequences.put(version, sequence);
+                    for (Iterator<Long> versions = versionSequences.keySet().iterator(); versionSequences.size() > maxTombstones;) {
+                        versions.next();
+                        versions.remove();
+                    }
+                    log.debug("Change feed moved to version {}", version);
+                    notifyAll();
+                }
+                started = true;
+            }
+        }
+    }
+
+    /**
+     * Read all features, unless the version of the feature store did not change since last snapshot.
+     *
+     * @return
+     *      current features, null if they did not change
+     */
+    private Map<String, Feature> readFeaturesIfChanged() {
+        FeatureStore store = ff4j.getFeatureStore();
+        if (!(store instanceof VersionedFeatureStore)) {
+            return store.readAll();
+        }
+        long storeVersion = ((VersionedFeatureStore) store).getCurrentVersion();
+        if (started && storeVersion == featureStoreVersion) {
+            return null;
+        }
+        // Version read first, a write in between is seen again on next refresh
+        Map<String, Feature> currentFeatures = store.readAll();
+        featureStoreVersion = storeVersion;
+        return currentFeatures;
+    }
+
+    /**
+     * Digest of current snapshot, same content gives same version whatever the node.
+     *
+     * @return
+     *      version of snapshot
+     */
+    private long digest() {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            for (String json : featureJson.values()) {
+                md.update(json.getBytes(UTF8));
+            }
+            // Separate features from properties
+            md.update((byte) 0);
+            for (String json : propertyJson.values()) {
+                md.update(json.getBytes(UTF8));
+            }
+            long digest = 0;
+            byte[] hash = md.digest();
+            for (int i = 0; i < 8; i++) {
+                digest = (digest << 8) | (hash[i] & 0xff);
+            }
+            // 0 is reserved to ask for whole content
+            return digest == 0 ? 1 : digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    /**
+     * Forget oldest deletions, clients behind them will resync.
+     *
+     * @param tombstones
+     *      deleted items with their sequence, oldest first
+     */
+    private void trimTombstones(LinkedHashMap<String, Long> tombstones) {
+        for (Iterator<Long> sequences = tombstones.values().iterator(); tombstones.size() > maxTombstones && sequences.hasNext();) {
+            oldestSequence = Math.max(oldestSequence, sequences.next());
+            sequences.remove();
+        }
+    }
+
+    /**
+     * Start background poller if not running, called with monitor held.
+     */
+    private void startPoller() {
+        if (poller != null || stopped) {
+            return;
+        }
+        poller = new Thread(new Runnable() {
+            public void run() {
+                poll();
+            }
+        }, "ff4j-change-feed");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /**
+     * Stop background poller and release waiting clients, to be called when the application shuts down.
+     */
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            current = poller;
+            poller  = null;
+            stopped = true;
+            notifyAll();
+        }
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Loop of the background poller, ends when no client is waiting anymore.
+     */
+    private void poll() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                synchronized (this) {
+                    if (lastRefresh != 0) {
+                        wait(pollPeriod);
+                    }
+                    if (waiters == 0 || poller != Thread.currentThread()) {
+                        // Under the monitor, a client arriving now starts a new poller
+                        if (poller == Thread.currentThread()) {
+                            poller = null;
+                        }
+                        return;
+                    }
+                }
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.error("Cannot refresh change feed", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                if (poller == Thread.currentThread()) {
+                    poller = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'version'.
+     *
+     * @return
+     *       current value of 'version'
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter accessor for attribute 'pollPeriod'.
+     *
+     * @return
+     *       current value of 'pollPeriod'
+     */
+    public long getPollPeriod() {
+        return pollPeriod;
+    }
+
+    /**
+     * Setter accessor for attribute 'pollPeriod'.
+     * @param pollPeriod
+     * 		new value for 'pollPeriod '
+     */
+    public void setPollPeriod(long pollPeriod) {
+        if (pollPeriod < 1) {
+            throw new IllegalArgumentException("Poll period must be positive");
+        }
+        this.pollPeriod = pollPeriod;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxTombstones'.
+     *
+     * @return
+     *       current value of 'maxTombstones'
+     */
+    public int getMaxTombstones() {
+        return maxTombstones;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxTombstones'.
+     * @param maxTombstones
+     * 		new value for 'maxTombstones '
+     */
+    public void setMaxTombstones(int maxTombstones) {
+        if (maxTombstones < 1) {
+            throw new IllegalArgumentException("Number of tombstones must be positive");
+        }
+        this.maxTombstones = maxTombstones;
+    }
+
+}
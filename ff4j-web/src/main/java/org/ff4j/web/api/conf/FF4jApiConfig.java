@@ -60,6 +60,9 @@ public class FF4jApiConfig implements FF4JProvider, FF4jWebConstants {
     /** Enable Swagger Documentation. */
     private boolean enableDocumentation = true;
     
+    /** Enable gzip compression of request and response bodies. */
+    private boolean enableCompression = true;
+    
     /** Number. */
     private String versionNumber = getClass().getPackage().getImplementationVersion();
     
@@ -125,6 +128,28 @@ public class FF4jApiConfig implements FF4JProvider, FF4jWebConstants {
         return this;
     }
     
+    /**
+     * Fluent helper to work with API settings.
+     *
+     * @return
+     *      reference of current object
+     */
+    public FF4jApiConfig enableCompression() {
+        this.enableCompression = true;
+        return this;
+    }
+    
+    /**
+     * Fluent helper to work with API settings.
+     *
+     * @return
+     *      reference of current object
+     */
+    public FF4jApiConfig disableCompression() {
+        this.enableCompression = false;
+        return this;
+    }
+    
     public FF4jApiConfig disableAuthentication() {
         this.enableAuthentication = false;
         return this;
@@ -267,6 +292,25 @@ public class FF4jApiConfig implements FF4JProvider, FF4jWebConstants {
         this.enableLogging = enableLogging;
     }
 
+    /**
+     * Getter accessor for attribute 'enableCompression'.
+     *
+     * @return current value of 'enableCompression'
+     */
+    public boolean isEnableCompression() {
+        return enableCompression;
+    }
+
+    /**
+     * Setter accessor for attribute 'enableCompression'.
+     * 
+     * @param enableCompression
+     *            new value for 'enableCompression '
+     */
+    public void setEnableCompression(boolean enableCompression) {
+        this.enableCompression = enableCompression;
+    }
+
     /**
      * Getter accessor for attribute 'users'.
      *
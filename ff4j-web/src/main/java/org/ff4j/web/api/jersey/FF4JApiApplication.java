@@ -1,10 +1,12 @@
 package org.ff4j.web.api.jersey;
 
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Context;
 
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
 import org.ff4j.FF4j;
 import org.ff4j.web.api.FF4jWebConstants;
+import org.ff4j.web.api.FeatureChangeFeed;
 import org.ff4j.web.api.conf.FF4jApiConfig;
 import org.ff4j.web.api.resources.FF4jResource;
 import org.ff4j.web.api.security.FF4jRolesResourceFilterFactory;
@@ -12,6 +14,7 @@ import org.ff4j.web.api.security.FF4jSecurityContextFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sun.jersey.api.container.filter.GZIPContentEncodingFilter;
 import com.sun.jersey.api.container.filter.LoggingFilter;
 import com.sun.jersey.api.core.PackagesResourceConfig;
 import com.sun.jersey.api.core.ResourceConfig;
@@ -57,6 +60,20 @@ public abstract class FF4JApiApplication extends PackagesResourceConfig implemen
         }
     }
 
+    /**
+     * Injection of the change feed within resources, the feed is stopped when Jersey destroys its providers.
+     */
+    public static class FeatureChangeFeedInjectableProvider extends SingletonTypeInjectableProvider<Context, FeatureChangeFeed> {
+        public FeatureChangeFeedInjectableProvider(FeatureChangeFeed changeFeed) {
+            super(FeatureChangeFeed.class, changeFeed);
+        }
+
+        @PreDestroy
+        public void destroy() {
+            getValue().stop();
+        }
+    }
+
     /**
      * Constructor to defined resources.
      */
@@ -77,6 +94,7 @@ public abstract class FF4JApiApplication extends PackagesResourceConfig implemen
         
         // Register ff4J bean to be injected into resources.
         getSingletons().add(new FF4jInjectableProvider(conf.getFF4j()));
+        getSingletons().add(new FeatureChangeFeedInjectableProvider(new FeatureChangeFeed(conf.getFF4j())));
         
         // Pojo Mapping to 'ON'
         getFeatures().put(JSONConfiguration.FEATURE_POJO_MAPPING, Boolean.TRUE);
@@ -85,6 +103,16 @@ public abstract class FF4JApiApplication extends PackagesResourceConfig implemen
         getSingletons().add(new JacksonJsonProvider());
         getSingletons().add(new FF4jJacksonMapper());
         
+        // Container filters, separated by ';'
+        StringBuilder requestFilters  = new StringBuilder();
+        StringBuilder responseFilters = new StringBuilder();
+        
+        // Gzip bodies when client sends 'Content-Encoding' or 'Accept-Encoding' headers
+        if (conf.isEnableCompression()) {
+            requestFilters.append(GZIPContentEncodingFilter.class.getCanonicalName());
+            responseFilters.append(GZIPContentEncodingFilter.class.getCanonicalName());
+        }
+        
         // Authorization, JSR250
         if (conf.isEnableAuthorization()) {
             getProperties().put(ResourceConfig.PROPERTY_RESOURCE_FILTER_FACTORIES,
@@ -93,19 +121,26 @@ public abstract class FF4JApiApplication extends PackagesResourceConfig implemen
 
         } else if (conf.isEnableAuthentication()) {
             // Only Authenticated here
-            StringBuilder filters = new StringBuilder();
-            filters.append(FF4jSecurityContextFilter.class.getCanonicalName());
+            if (requestFilters.length() > 0) {
+                requestFilters.append(";");
+            }
+            requestFilters.append(FF4jSecurityContextFilter.class.getCanonicalName());
             if (conf.isEnableLogging()) {
-                filters.append(";" + LoggingFilter.class.getCanonicalName());
+                requestFilters.append(";" + LoggingFilter.class.getCanonicalName());
             }
             // Pas authorization
-            getProperties().put(ResourceConfig.PROPERTY_CONTAINER_REQUEST_FILTERS, filters.toString());
             log.info("ff4j webApi security has been set up with authentication only");
 
         } else {
             // No security
             log.info("ff4j webApi security has been set up with no security");
         }
+        if (requestFilters.length() > 0) {
+            getProperties().put(ResourceConfig.PROPERTY_CONTAINER_REQUEST_FILTERS, requestFilters.toString());
+        }
+        if (responseFilters.length() > 0) {
+            getProperties().put(ResourceConfig.PROPERTY_CONTAINER_RESPONSE_FILTERS, responseFilters.toString());
+        }
         
         // Enable Documentation if required
         if (conf.isEnableDocumentation()) {
@@ -20,17 +20,28 @@ package org.ff4j.web.api.resources;
  * #L%
  */
 
+import java.io.IOException;
+
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 
 import org.ff4j.FF4j;
 import org.ff4j.audit.repository.EventRepository;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.core.VersionedFeatureStore;
+import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.web.api.FF4jWebConstants;
+import org.ff4j.web.api.FeatureChangeFeed;
+import org.ff4j.web.api.jersey.FF4jJacksonMapper;
 import org.ff4j.web.api.security.FF4jSecurityContext;
 
+import org.codehaus.jackson.map.ObjectMapper;
+
 import com.sun.jersey.spi.container.ContainerRequest;
 
 /**
@@ -56,12 +67,19 @@ public abstract class AbstractResource implements FF4jWebConstants {
     @Context
     protected SecurityContext securityContext;
     
+    /** Feed of changes, notified after each write. */
+    @Context
+    protected FeatureChangeFeed changeFeed;
+    
     /** Access to Features through store. */
     private FeatureStore store;
     
     /** Access to event repository. */
     private EventRepository repo;
     
+    /** Serialize representations as the JSON provider does, to compute their version. */
+    private static final ObjectMapper JSON_MAPPER = new FF4jJacksonMapper().getContext(Object.class);
+    
     /** Put current security context as threadlocal to be reused by the AuthenticationProvider. */
     public static final ThreadLocal< FF4jSecurityContext > securityContextHolder = new ThreadLocal<FF4jSecurityContext>();
     
@@ -105,4 +123,77 @@ public abstract class AbstractResource implements FF4jWebConstants {
         }
     }
 
+    /**
+     * Wake up the change feed after a write, clients waiting for changes get them without waiting for next poll.
+     */
+    protected void notifyChange() {
+        if (changeFeed != null) {
+            changeFeed.requestRefresh();
+        }
+    }
+    
+    /**
+     * Version of the store when it maintains one, to be read before the content so that a concurrent write gives a newer version
+     * to next requests. A store behind a cache proxy is not used, cached content could be older than its version.
+     *
+     * @return
+     *      version of the store, null if it does not maintain one
+     */
+    protected RepresentationVersion readStoreVersion() {
+        FeatureStore fs = getFeatureStore();
+        if (fs instanceof VersionedFeatureStore) {
+            return RepresentationVersion.ofStore(((VersionedFeatureStore) fs).getCurrentVersion());
+        }
+        return null;
+    }
+
+    /**
+     * Answer '304 Not Modified' without reading the store if the request carries a matching 'If-None-Match' (or an
+     * 'If-Modified-Since' not older than the version).
+     *
+     * @param version
+     *      version of the store, null if unknown
+     * @return
+     *      304 response, null if content must be served
+     */
+    protected Response notModified(RepresentationVersion version) {
+        if (version == null) {
+            return null;
+        }
+        ResponseBuilder notModified = request.evaluatePreconditions(version.getLastModified(), version.getEntityTag());
+        return notModified == null ? null : notModified.lastModified(version.getLastModified()).build();
+    }
+
+    /**
+     * Build a GET response with 'ETag' and 'Last-Modified' headers, taken from the store version or else from a digest of
+     * the representation. If the request carries a matching 'If-None-Match' (or an 'If-Modified-Since' not older than the
+     * representation) a '304 Not Modified' without body is returned.
+     *
+     * @param entity
+     *      bean to serialize as JSON
+     * @param storeVersion
+     *      version of the store read before the entity, null if the store does not maintain one
+     * @return
+     *      200 with entity or 304
+     */
+    protected Response conditionalOk(Object entity, RepresentationVersion storeVersion) {
+        String json;
+        try {
+            json = JSON_MAPPER.writeValueAsString(entity);
+        } catch (IOException e) {
+            throw new FeatureAccessException("Cannot serialize response", e);
+        }
+        RepresentationVersion version = storeVersion;
+        if (version == null) {
+            version = RepresentationVersion.of(uriInfo.getPath(), json);
+            Response notModified = notModified(version);
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        return Response.ok(json, MediaType.APPLICATION_JSON_TYPE)
+                .tag(version.getEntityTag())
+                .lastModified(version.getLastModified()).build();
+    }
+
 }
@@ -20,6 +20,10 @@ package org.ff4j.web.api.resources;
  * #L%
  */
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -159,4 +163,50 @@ public class FF4jResource extends AbstractResource {
        
     }
     
+    /**
+     * Check several features in one call, against the same content of the store.
+     * 
+     * @param formParams
+     *      identifiers as repeated 'uid' parameter, other parameters are the execution context shared by all features
+     * @return
+     *      status of each feature
+     */
+    @POST
+    @Path("/" + OPERATION_CHECK) 
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @ApiOperation(value= "<b>Batch check</b> of feature toggles (parameterized)", response=Map.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message= "status of each feature"),
+        @ApiResponse(code = 400, message= "no feature identifier or invalid parameter"),
+        @ApiResponse(code = 404, message= "a feature has not been found, given as 'notFound' attribute")})
+    public Response checkAllPOST(@Context HttpHeaders headers, MultivaluedMap<String, String> formParams) {
+        // HoldSecurity Context
+        holdSecurityContext();
+        
+        List < String > uids = formParams.get(POST_PARAMNAME_FEATURE_UID);
+        if (uids == null || uids.isEmpty()) {
+            String errMsg = "At least one '" + POST_PARAMNAME_FEATURE_UID + "' parameter is expected";
+            return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
+        }
+        
+        // Context shared by all features
+        FlippingExecutionContext flipExecCtx = new FlippingExecutionContext();
+        for (String key : formParams.keySet()) {
+            if (!POST_PARAMNAME_FEATURE_UID.equals(key)) {
+                flipExecCtx.putString(key, formParams.getFirst(key));
+            }
+        }
+        try {
+            return Response.ok(ff4j.checkAll(uids, flipExecCtx)).build();
+        } catch (FeatureNotFoundException fnfe) {
+            // Missing feature as data, clients do not parse the message
+            Map<String, String> notFound = Collections.singletonMap(CHECK_NOT_FOUND, fnfe.getFeatureName());
+            return Response.status(Response.Status.NOT_FOUND).type(MediaType.APPLICATION_JSON).entity(notFound).build();
+        } catch(IllegalArgumentException iae) {
+            String errMsg = "Invalid parameter " + iae.getMessage();
+            return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
+        }
+    }
+    
 }
@@ -42,6 +42,7 @@ import javax.ws.rs.core.Response;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingStrategy;
+import org.ff4j.exception.FeatureAlreadyExistException;
 import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.web.api.FF4jWebConstants;
 import org.ff4j.web.api.resources.domain.FeatureApiBean;
@@ -81,23 +82,30 @@ public class FeatureResource extends AbstractResource {
     @ApiOperation(value= "Read information about a feature", response=FeatureApiBean.class)
     @ApiResponses({
         @ApiResponse(code = 200, message= "Information about features"), 
+        @ApiResponse(code = 304, message= "Feature has not been modified since version in 'If-None-Match'"), 
         @ApiResponse(code = 404, message= "Feature not found") })
     public Response read(@PathParam("uid") String id) {
+       RepresentationVersion storeVersion = readStoreVersion();
+       Response notModified = notModified(storeVersion);
+       if (notModified != null) {
+           return notModified;
+       }
        if (!ff4j.getFeatureStore().exist(id)) {
             String errMsg = new FeatureNotFoundException(id).getMessage();
             return Response.status(Response.Status.NOT_FOUND).entity(errMsg).build();
        }
-       return  Response.ok(new FeatureApiBean(ff4j.getFeatureStore().read(id))).build();
+       return conditionalOk(new FeatureApiBean(ff4j.getFeatureStore().read(id)), storeVersion);
     }
 
     /**
-     * Create the feature if not exist or update it
+     * Create the feature if not exist or update it. With header 'If-None-Match: *' the feature is only created, the store
+     * checks existence and 412 is returned if it already exists.
      * 
      * @param headers
      *            current request header
      * @param data
      *            feature serialized as JSON
-     * @return 204 or 201
+     * @return 204 or 201, 412 if creation only was requested for an existing feature
      */
     @PUT
     @RolesAllowed({ROLE_WRITE})
@@ -106,7 +114,8 @@ public class FeatureResource extends AbstractResource {
     @Produces(MediaType.APPLICATION_JSON)
     @ApiResponses({
         @ApiResponse(code = 201, message= "Feature has been created"), 
-        @ApiResponse(code = 204, message= "No content, feature is updated") })
+        @ApiResponse(code = 204, message= "No content, feature is updated"),
+        @ApiResponse(code = 412, message= "Feature already exists and 'If-None-Match: *' was given") })
     public Response upsertFeature(@Context HttpHeaders headers, @PathParam("uid") String id, FeatureApiBean fApiBean) {
         // Parameter validations
         if ("".equals(id) || !id.equals(fApiBean.getUid())) {
@@ -140,22 +149,46 @@ public class FeatureResource extends AbstractResource {
             feat.setFlippingStrategy(strategy);
         }
         
+        // Create only, existence is checked by the store itself
+        if (headers != null && "*".equals(headers.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            try {
+                getFeatureStore().create(feat);
+            } catch (FeatureAlreadyExistException faee) {
+                return Response.status(Response.Status.PRECONDITION_FAILED).entity(faee.getMessage()).build();
+            }
+            notifyChange();
+            return created(id);
+        }
+        
         // Update or create ? 
         if (!getFeatureStore().exist(feat.getUid())) {
             getFeatureStore().create(feat);
-            String location = String.format("%s", uriInfo.getAbsolutePath().toString());
-            try {
-                return Response.created(new URI(location)).build();
-            } catch (URISyntaxException e) {
-                return Response.status(Response.Status.CREATED).header(LOCATION, location).entity(id).build();
-            }
+            notifyChange();
+            return created(id);
         }
         
         // Create
         getFeatureStore().update(feat);
+        notifyChange();
         return Response.noContent().build();
     }
 
+    /**
+     * Response to a creation, with location of the new feature.
+     * 
+     * @param id
+     *            feature identifier
+     * @return 201
+     */
+    private Response created(String id) {
+        String location = String.format("%s", uriInfo.getAbsolutePath().toString());
+        try {
+            return Response.created(new URI(location)).build();
+        } catch (URISyntaxException e) {
+            return Response.status(Response.Status.CREATED).header(LOCATION, location).entity(id).build();
+        }
+    }
+
     /**
      * Delete feature by its id.
      * 
@@ -180,6 +213,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.NOT_FOUND).entity(errMsg).build();
         }
         getFeatureStore().delete(id);
+        notifyChange();
         return Response.noContent().build();
     }
 
@@ -201,6 +235,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.NOT_FOUND).entity(errMsg).build();
         }
         getFeatureStore().enable(id);
+        notifyChange();
         return Response.noContent().build();
     }
 
@@ -222,6 +257,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.NOT_FOUND).entity(errMsg).build();
         }
         getFeatureStore().disable(id);
+        notifyChange();
         return Response.noContent().build();
     }
 
@@ -248,6 +284,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
         }
         getFeatureStore().grantRoleOnFeature(id, role);
+        notifyChange();
         return Response.noContent().build();
     }
 
@@ -275,6 +312,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
         }
         getFeatureStore().removeRoleFromFeature(id, role);
+        notifyChange();
         return Response.noContent().build();
     }
     
@@ -301,6 +339,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
         }
         getFeatureStore().addToGroup(id, groupName);
+        notifyChange();
         return Response.noContent().build();
     }
     
@@ -329,6 +368,7 @@ public class FeatureResource extends AbstractResource {
             return Response.status(Response.Status.BAD_REQUEST).entity(errMsg).build();
         }
         getFeatureStore().removeFromGroup(id, groupName);
+        notifyChange();
         return Response.noContent().build();
     }
 
@@ -24,12 +24,15 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -39,6 +42,7 @@ import org.ff4j.web.api.FF4jWebConstants;
 import org.ff4j.web.api.resources.domain.CacheApiBean;
 import org.ff4j.web.api.resources.domain.EventRepositoryApiBean;
 import org.ff4j.web.api.resources.domain.FeatureApiBean;
+import org.ff4j.web.api.resources.domain.FeatureChangesApiBean;
 import org.ff4j.web.api.resources.domain.FeatureStoreApiBean;
 import org.ff4j.web.api.resources.domain.GroupDescApiBean;
 
@@ -58,6 +62,9 @@ import com.wordnik.swagger.annotations.ApiResponses;
 @Api(value = "/ff4j/store", description = "Administrate Features, Groups and Cache")
 public class FeatureStoreResource extends AbstractResource {
     
+    /** Longest wait allowed on change feed, in milliseconds. */
+    private static final long MAX_CHANGES_TIMEOUT = 60000;
+    
     /**
      * Default Constructor.
      */
@@ -86,14 +93,22 @@ public class FeatureStoreResource extends AbstractResource {
     @Path("/" + RESOURCE_FEATURES)
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value= "Display information regarding <b>Features</b>", response=EventRepositoryApiBean.class)
-    @ApiResponses(@ApiResponse(code = 200, message= "get all features"))
-    public List < FeatureApiBean> readFeatures() {
-        Feature[] storeContent = getFeatureStore().readAll().values().toArray(new Feature[0]);
+    @ApiResponses({
+        @ApiResponse(code = 200, message= "get all features"),
+        @ApiResponse(code = 304, message= "Features have not been modified since version in 'If-None-Match'") })
+    public Response readFeatures() {
+        RepresentationVersion storeVersion = readStoreVersion();
+        Response notModified = notModified(storeVersion);
+        if (notModified != null) {
+            return notModified;
+        }
+        // Sorted by uid, same content gives same representation and entity tag whatever the store
+        Map < String, Feature > storeContent = new TreeMap<String, Feature>(getFeatureStore().readAll());
         List < FeatureApiBean > apiBean = new ArrayList<FeatureApiBean>();
-        for (Feature feature : storeContent) {
+        for (Feature feature : storeContent.values()) {
             apiBean.add(new FeatureApiBean(feature));
         }
-        return apiBean;
+        return conditionalOk(apiBean, storeVersion);
     }
 
     /**
@@ -125,6 +140,37 @@ public class FeatureStoreResource extends AbstractResource {
         return new ArrayList<GroupDescApiBean>(groups.values());
     }
     
+    /**
+     * Long polling on changes of features and properties: answers as soon as the store moved past version 'since', or with no
+     * change after 'timeout' milliseconds. Client gives 'toVersion' of the response in its next call.
+     * 
+     * @param since
+     *            last version known by client, 0 to get whole content
+     * @param timeout
+     *            maximum time to wait in milliseconds
+     * @return changes since version
+     */
+    @GET
+    @Path("/" + RESOURCE_CHANGES)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value= "Wait for changes of <b>Features</b> and <b>Properties</b>", response=FeatureChangesApiBean.class)
+    @ApiResponses({ @ApiResponse(code = 200, message= "changes since version, 'resync' if client must reload everything"),
+                    @ApiResponse(code = 404, message= "no change feed available") })
+    public Response readChanges(@QueryParam(PARAM_SINCE) @DefaultValue("0") long since, 
+                                @QueryParam(PARAM_TIMEOUT) @DefaultValue("30000") long timeout) {
+        if (changeFeed == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Change feed is not available").build();
+        }
+        // Do not hold a server thread forever
+        long wait = Math.max(0, Math.min(timeout, MAX_CHANGES_TIMEOUT));
+        try {
+            return Response.ok(changeFeed.waitForChanges(since, wait)).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.ok(changeFeed.changesSince(since)).build();
+        }
+    }
+    
     /**
      * Allows to retrieve feature by its id.
      * 
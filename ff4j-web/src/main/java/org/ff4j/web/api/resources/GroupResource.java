@@ -83,6 +83,7 @@ public class GroupResource extends AbstractResource {
     @ApiResponses(@ApiResponse(code = 204, message= "Group has been updated"))
     public Response operationEnable(@PathParam("groupName") String groupName) {
         getFeatureStore().enableGroup(groupName);
+        notifyChange();
         return Response.noContent().build();
     }
 
@@ -98,6 +99,7 @@ public class GroupResource extends AbstractResource {
     @ApiResponses(@ApiResponse(code = 204, message= "Group has been disabled"))
     public Response operationDisableGroup(@PathParam("groupName") String groupName) {
         getFeatureStore().disableGroup(groupName);
+        notifyChange();
         return Response.noContent().build();
     }
 
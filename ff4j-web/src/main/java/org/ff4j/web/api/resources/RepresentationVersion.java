@@ -0,0 +1,178 @@
+package org.ff4j.web.api.resources;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.ws.rs.core.EntityTag;
+
+/**
+ * Version of a JSON representation served by the API. When the store maintains a version (see
+ * {@link org.ff4j.core.VersionedFeatureStore}) the entity tag is this version, and can be checked before reading the store.
+ * Otherwise the entity tag is a digest of the content, so any change in the store (whatever the client used to do it) gives a
+ * new tag. Last modification date is the first time a tag has been served, rounded to the second as HTTP dates.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class RepresentationVersion {
+
+    /** Representations are hashed as UTF-8. */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Hexadecimal digits. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Maximum number of paths whose last digest is remembered, least recently served are forgotten first. */
+    static final int MAX_PATHS = 1000;
+
+    /** Last version served by path, for digests. */
+    private static final Map<String, RepresentationVersion> VERSIONS = 
+            Collections.synchronizedMap(new LinkedHashMap<String, RepresentationVersion>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                /** {@inheritDoc} */
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RepresentationVersion> eldest) {
+                    return size() > MAX_PATHS;
+                }
+            });
+
+    /** Last store version served, shared by every path. */
+    private static volatile RepresentationVersion lastStoreVersion = null;
+
+    /** Store version of this representation, -1 for digests. */
+    private final long storeVersion;
+
+    /** Entity tag. */
+    private final EntityTag entityTag;
+
+    /** First time this version has been served. */
+    private final Date lastModified;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param entityTag
+     *            entity tag
+     * @param lastModified
+     *            date of last modification
+     */
+    private RepresentationVersion(EntityTag entityTag, Date lastModified, long storeVersion) {
+        this.entityTag    = entityTag;
+        this.lastModified = lastModified;
+        this.storeVersion = storeVersion;
+    }
+
+    /**
+     * Version of every representation of a store at a given store version, registering its date if the store changed since
+     * last call.
+     *
+     * @param storeVersion
+     *            current version of the store
+     * @return version
+     */
+    public static RepresentationVersion ofStore(long storeVersion) {
+        RepresentationVersion current = lastStoreVersion;
+        if (current != null && current.storeVersion == storeVersion) {
+            return current;
+        }
+        RepresentationVersion newVersion = new RepresentationVersion(new EntityTag("v" + storeVersion), now(), storeVersion);
+        lastStoreVersion = newVersion;
+        return newVersion;
+    }
+
+    /**
+     * Compute version of a representation, registering its date if the content changed since last call.
+     *
+     * @param path
+     *            path of resource
+     * @param json
+     *            serialized representation
+     * @return version
+     */
+    public static RepresentationVersion of(String path, String json) {
+        EntityTag tag = new EntityTag(digest(json));
+        RepresentationVersion current = VERSIONS.get(path);
+        if (current != null && current.getEntityTag().equals(tag)) {
+            return current;
+        }
+        RepresentationVersion newVersion = new RepresentationVersion(tag, now(), -1);
+        VERSIONS.put(path, newVersion);
+        return newVersion;
+    }
+
+    /**
+     * Current date, HTTP dates have no milliseconds and If-Modified-Since must compare equal.
+     *
+     * @return current date rounded to the second
+     */
+    private static Date now() {
+        return new Date((System.currentTimeMillis() / 1000) * 1000);
+    }
+
+    /**
+     * Digest of a representation as hexadecimal string.
+     *
+     * @param json
+     *            serialized representation
+     * @return digest
+     */
+    static String digest(String json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5").digest(json.getBytes(UTF8));
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[2 * i]     = HEX[(hash[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX[hash[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'entityTag'.
+     *
+     * @return
+     *       current value of 'entityTag'
+     */
+    public EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * Getter accessor for attribute 'lastModified'.
+     *
+     * @return
+     *       current value of 'lastModified'
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+}
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.codehaus.jackson.annotate.JsonProperty;
+import org.ff4j.cache.FeatureCacheManager;
 import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.core.FeatureStore;
 
@@ -55,6 +56,10 @@ public class CacheApiBean {
     @ApiModelProperty( value = "list of features within cache", required = false )
     private Set < String > featureNames = new HashSet<String>();
 
+    @JsonProperty("statistics")
+    @ApiModelProperty( value = "usage statistics of the cache", required = false )
+    private CacheStatisticsApiBean statistics = null;
+
     /**
      * Constructor from its feature store.
      *
@@ -65,7 +70,9 @@ public class CacheApiBean {
         if (featureStore.isCached()) {
             cacheStore    = featureStore.getCachedTargetStore();
             cacheProvider = featureStore.getCacheProvider();
-            featureNames  = ((FeatureStoreCacheProxy) featureStore).getCacheManager().listCachedFeatureNames();
+            FeatureCacheManager cacheManager = ((FeatureStoreCacheProxy) featureStore).getCacheManager();
+            featureNames  = cacheManager.listCachedFeatureNames();
+            statistics    = new CacheStatisticsApiBean(cacheManager.getCacheStatistics());
         }
     }
     
@@ -126,4 +133,23 @@ public class CacheApiBean {
         this.featureNames = featureNames;
     }
 
+    /**
+     * Getter accessor for attribute 'statistics'.
+     *
+     * @return
+     *       current value of 'statistics'
+     */
+    public CacheStatisticsApiBean getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Setter accessor for attribute 'statistics'.
+     * @param statistics
+     * 		new value for 'statistics '
+     */
+    public void setStatistics(CacheStatisticsApiBean statistics) {
+        this.statistics = statistics;
+    }
+
 }
@@ -0,0 +1,255 @@
+package org.ff4j.web.api.resources.domain;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.codehaus.jackson.annotate.JsonProperty;
+import org.ff4j.cache.CacheStatistics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.wordnik.swagger.annotations.ApiModel;
+import com.wordnik.swagger.annotations.ApiModelProperty;
+
+/**
+ * Usage statistics of the cache.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+@JsonInclude(Include.NON_NULL)
+@ApiModel( value = "cacheStatisticsApiBean", description = "cache statistics representation" )
+public class CacheStatisticsApiBean {
+
+    /** hitCount. */
+    @JsonProperty("hitCount")
+    @ApiModelProperty( value = "number of requests served by the cache", required = true )
+    private long hitCount;
+
+    /** missCount. */
+    @JsonProperty("missCount")
+    @ApiModelProperty( value = "number of requests not found in cache", required = true )
+    private long missCount;
+
+    /** hitRatio. */
+    @JsonProperty("hitRatio")
+    @ApiModelProperty( value = "ratio of requests served by the cache", required = true )
+    private double hitRatio;
+
+    /** loadCount. */
+    @JsonProperty("loadCount")
+    @ApiModelProperty( value = "number of features loaded from target store", required = true )
+    private long loadCount;
+
+    /** averageLoadTime. */
+    @JsonProperty("averageLoadTime")
+    @ApiModelProperty( value = "average load time from target store in milliseconds", required = true )
+    private double averageLoadTime;
+
+    /** maxLoadTime. */
+    @JsonProperty("maxLoadTime")
+    @ApiModelProperty( value = "longest load time from target store in milliseconds", required = true )
+    private double maxLoadTime;
+
+    /** evictionCount. */
+    @JsonProperty("evictionCount")
+    @ApiModelProperty( value = "number of entries removed from cache", required = true )
+    private long evictionCount;
+
+    /** size. */
+    @JsonProperty("size")
+    @ApiModelProperty( value = "number of entries currently in cache", required = true )
+    private long size;
+
+    /**
+     * Default constructor for marshalling.
+     */
+    public CacheStatisticsApiBean() {
+    }
+
+    /**
+     * Constructor from cache statistics.
+     *
+     * @param stats
+     *      current cache statistics
+     */
+    public CacheStatisticsApiBean(CacheStatistics stats) {
+        this.hitCount = stats.getHitCount();
+        this.missCount = stats.getMissCount();
+        this.hitRatio = stats.getHitRatio();
+        this.loadCount = stats.getLoadCount();
+        this.averageLoadTime = stats.getAverageLoadTime();
+        this.maxLoadTime = stats.getMaxLoadTime();
+        this.evictionCount = stats.getEvictionCount();
+        this.size = stats.getSize();
+    }
+
+    /**
+     * Getter accessor for attribute 'hitCount'.
+     *
+     * @return
+     *       current value of 'hitCount'
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'hitCount'.
+     * @param hitCount
+     * 		new value for 'hitCount '
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'missCount'.
+     *
+     * @return
+     *       current value of 'missCount'
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'missCount'.
+     * @param missCount
+     * 		new value for 'missCount '
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'hitRatio'.
+     *
+     * @return
+     *       current value of 'hitRatio'
+     */
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    /**
+     * Setter accessor for attribute 'hitRatio'.
+     * @param hitRatio
+     * 		new value for 'hitRatio '
+     */
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadCount'.
+     *
+     * @return
+     *       current value of 'loadCount'
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'loadCount'.
+     * @param loadCount
+     * 		new value for 'loadCount '
+     */
+    public void setLoadCount(long loadCount) {
+        this.loadCount = loadCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'averageLoadTime'.
+     *
+     * @return
+     *       current value of 'averageLoadTime'
+     */
+    public double getAverageLoadTime() {
+        return averageLoadTime;
+    }
+
+    /**
+     * Setter accessor for attribute 'averageLoadTime'.
+     * @param averageLoadTime
+     * 		new value for 'averageLoadTime '
+     */
+    public void setAverageLoadTime(double averageLoadTime) {
+        this.averageLoadTime = averageLoadTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxLoadTime'.
+     *
+     * @return
+     *       current value of 'maxLoadTime'
+     */
+    public double getMaxLoadTime() {
+        return maxLoadTime;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxLoadTime'.
+     * @param maxLoadTime
+     * 		new value for 'maxLoadTime '
+     */
+    public void setMaxLoadTime(double maxLoadTime) {
+        this.maxLoadTime = maxLoadTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'evictionCount'.
+     *
+     * @return
+     *       current value of 'evictionCount'
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'evictionCount'.
+     * @param evictionCount
+     * 		new value for 'evictionCount '
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'size'.
+     *
+     * @return
+     *       current value of 'size'
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Setter accessor for attribute 'size'.
+     * @param size
+     * 		new value for 'size '
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
@@ -0,0 +1,239 @@
+package org.ff4j.web.api.resources.domain;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.jackson.annotate.JsonProperty;
+
+import com.wordnik.swagger.annotations.ApiModel;
+import com.wordnik.swagger.annotations.ApiModelProperty;
+
+/**
+ * Changes of features and properties between two versions of the change feed.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+@ApiModel( value = "featureChangesApiBean", description = "Changes since a version of the store" )
+public class FeatureChangesApiBean {
+
+    /** Version given by the client. */
+    @ApiModelProperty( value = "version given by the client (excluded)", required = true )
+    @JsonProperty("fromVersion")
+    private long fromVersion;
+
+    /** Current version. */
+    @ApiModelProperty( value = "version to give in next call", required = true )
+    @JsonProperty("toVersion")
+    private long toVersion;
+
+    /** Full content instead of changes. */
+    @ApiModelProperty( value = "true if 'features' is the whole store and local copy must be replaced", required = true )
+    @JsonProperty("resync")
+    private boolean resync = false;
+
+    /** Features created or modified. */
+    @ApiModelProperty( value = "features created or modified", required = false )
+    @JsonProperty("features")
+    private List < FeatureApiBean > features = new ArrayList<FeatureApiBean>();
+
+    /** Deleted features. */
+    @ApiModelProperty( value = "identifiers of deleted features", required = false )
+    @JsonProperty("deletedFeatures")
+    private List < String > deletedFeatures = new ArrayList<String>();
+
+    /** Properties created or modified. */
+    @ApiModelProperty( value = "names of properties created or modified", required = false )
+    @JsonProperty("properties")
+    private List < String > properties = new ArrayList<String>();
+
+    /** Deleted properties. */
+    @ApiModelProperty( value = "names of deleted properties", required = false )
+    @JsonProperty("deletedProperties")
+    private List < String > deletedProperties = new ArrayList<String>();
+
+    /**
+     * Default constructor.
+     */
+    public FeatureChangesApiBean() {
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param fromVersion
+     *      version given by the client
+     * @param toVersion
+     *      current version
+     * @param resync
+     *      full content instead of changes
+     */
+    public FeatureChangesApiBean(long fromVersion, long toVersion, boolean resync) {
+        this.fromVersion = fromVersion;
+        this.toVersion   = toVersion;
+        this.resync      = resync;
+    }
+
+    /**
+     * Check if something changed.
+     *
+     * @return
+     *      true if no feature nor property has changed
+     */
+    public boolean isEmpty() {
+        return !resync && features.isEmpty() && deletedFeatures.isEmpty() && properties.isEmpty() && deletedProperties.isEmpty();
+    }
+
+    /**
+     * Getter accessor for attribute 'fromVersion'.
+     *
+     * @return
+     *       current value of 'fromVersion'
+     */
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    /**
+     * Setter accessor for attribute 'fromVersion'.
+     * @param fromVersion
+     * 		new value for 'fromVersion '
+     */
+    public void setFromVersion(long fromVersion) {
+        this.fromVersion = fromVersion;
+    }
+
+    /**
+     * Getter accessor for attribute 'toVersion'.
+     *
+     * @return
+     *       current value of 'toVersion'
+     */
+    public long getToVersion() {
+        return toVersion;
+    }
+
+    /**
+     * Setter accessor for attribute 'toVersion'.
+     * @param toVersion
+     * 		new value for 'toVersion '
+     */
+    public void setToVersion(long toVersion) {
+        this.toVersion = toVersion;
+    }
+
+    /**
+     * Getter accessor for attribute 'resync'.
+     *
+     * @return
+     *       current value of 'resync'
+     */
+    public boolean isResync() {
+        return resync;
+    }
+
+    /**
+     * Setter accessor for attribute 'resync'.
+     * @param resync
+     * 		new value for 'resync '
+     */
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    /**
+     * Getter accessor for attribute 'features'.
+     *
+     * @return
+     *       current value of 'features'
+     */
+    public List<FeatureApiBean> getFeatures() {
+        return features;
+    }
+
+    /**
+     * Setter accessor for attribute 'features'.
+     * @param features
+     * 		new value for 'features '
+     */
+    public void setFeatures(List<FeatureApiBean> features) {
+        this.features = features;
+    }
+
+    /**
+     * Getter accessor for attribute 'deletedFeatures'.
+     *
+     * @return
+     *       current value of 'deletedFeatures'
+     */
+    public List<String> getDeletedFeatures() {
+        return deletedFeatures;
+    }
+
+    /**
+     * Setter accessor for attribute 'deletedFeatures'.
+     * @param deletedFeatures
+     * 		new value for 'deletedFeatures '
+     */
+    public void setDeletedFeatures(List<String> deletedFeatures) {
+        this.deletedFeatures = deletedFeatures;
+    }
+
+    /**
+     * Getter accessor for attribute 'properties'.
+     *
+     * @return
+     *       current value of 'properties'
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Setter accessor for attribute 'properties'.
+     * @param properties
+     * 		new value for 'properties '
+     */
+    public void setProperties(List<String> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Getter accessor for attribute 'deletedProperties'.
+     *
+     * @return
+     *       current value of 'deletedProperties'
+     */
+    public List<String> getDeletedProperties() {
+        return deletedProperties;
+    }
+
+    /**
+     * Setter accessor for attribute 'deletedProperties'.
+     * @param deletedProperties
+     * 		new value for 'deletedProperties '
+     */
+    public void setDeletedProperties(List<String> deletedProperties) {
+        this.deletedProperties = deletedProperties;
+    }
+
+}
@@ -141,6 +141,9 @@ public interface ConsoleConstants {
     /** templating. */
     String KEY_PERMISSIONLIST = "PERMISSIONS";
 
+    /** templating. */
+    String KEY_CACHE_STATISTICS = "CACHE_STATISTICS";
+
 
     // -------- FORM PARAM ------------------------------
 
@@ -24,6 +24,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.ff4j.FF4j;
+import org.ff4j.cache.CacheStatistics;
+import org.ff4j.cache.FeatureCacheManager;
+import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingStrategy;
 import org.ff4j.property.AbstractProperty;
@@ -95,6 +98,9 @@ public final class ConsoleRenderer implements ConsoleConstants {
         final String permissions = renderPermissionList(ff4j);
         htmlContent = htmlContent.replaceAll("\\{" + KEY_PERMISSIONLIST + "\\}", permissions);
 
+        // Substitution CACHE_STATISTICS
+        htmlContent = htmlContent.replaceAll("\\{" + KEY_CACHE_STATISTICS + "\\}", renderCacheStatistics(ff4j));
+
         out.println(htmlContent);
     }
 
@@ -350,6 +356,46 @@ public final class ConsoleRenderer implements ConsoleConstants {
         return sb.toString();
     }
     
+    /**
+     * Render usage statistics of the cache if the feature store is cached.
+     *
+     * @param ff4j
+     *            reference to current ff4j instance
+     * @return html table of statistics, empty if store is not cached
+     */
+    static String renderCacheStatistics(FF4j ff4j) {
+        StringBuilder sb = new StringBuilder();
+        if (ff4j.getFeatureStore().isCached()) {
+            FeatureCacheManager cacheManager = ((FeatureStoreCacheProxy) ff4j.getFeatureStore()).getCacheManager();
+            CacheStatistics stats = cacheManager.getCacheStatistics();
+            sb.append("<p/><br/>" + END_OF_LINE);
+            sb.append("<h4 style=\"color:#00ab8b\"><i class=\"icon-th\"></i>&nbsp;Cache : ");
+            sb.append(cacheManager.getCacheProviderName());
+            sb.append("</h4>" + END_OF_LINE);
+            sb.append("<div class=\"widget widget-table action-table\"><div class=\"widget-content\">");
+            sb.append("<table class=\"table table-striped table-bordered\"><thead><tr>");
+            sb.append("<th style=\"text-align:center\">Size</th>");
+            sb.append("<th style=\"text-align:center\">Hits</th>");
+            sb.append("<th style=\"text-align:center\">Misses</th>");
+            sb.append("<th style=\"text-align:center\">Hit Ratio</th>");
+            sb.append("<th style=\"text-align:center\">Loads</th>");
+            sb.append("<th style=\"text-align:center\">Avg Load (ms)</th>");
+            sb.append("<th style=\"text-align:center\">Max Load (ms)</th>");
+            sb.append("<th style=\"text-align:center\">Evictions</th>");
+            sb.append("</tr></thead><tbody><tr>" + END_OF_LINE);
+            sb.append("<td style=\"text-align:center\">" + stats.getSize() + "</td>");
+            sb.append("<td style=\"text-align:center\">" + stats.getHitCount() + "</td>");
+            sb.append("<td style=\"text-align:center\">" + stats.getMissCount() + "</td>");
+            sb.append("<td style=\"text-align:center\">" + String.format("%.1f %%", stats.getHitRatio() * 100) + "</td>");
+            sb.append("<td style=\"text-align:center\">" + stats.getLoadCount() + "</td>");
+            sb.append("<td style=\"text-align:center\">" + String.format("%.3f", stats.getAverageLoadTime()) + "</td>");
+            sb.append("<td style=\"text-align:center\">" + String.format("%.3f", stats.getMaxLoadTime()) + "</td>");
+            sb.append("<td style=\"text-align:center\">" + stats.getEvictionCount() + "</td>");
+            sb.append("</tr></tbody></table></div></div>" + END_OF_LINE);
+        }
+        return sb.toString();
+    }
+
     /**
      * Display message box if message.
      * 
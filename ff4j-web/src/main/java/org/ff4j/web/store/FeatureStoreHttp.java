@@ -23,16 +23,29 @@ package org.ff4j.web.store;
 import static org.ff4j.utils.json.FeatureJsonParser.parseFeature;
 import static org.ff4j.utils.json.FeatureJsonParser.parseFeatureArray;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.commons.io.IOUtils;
+import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.TypeReference;
 import org.ff4j.core.Feature;
 import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.exception.FeatureAlreadyExistException;
@@ -43,14 +56,21 @@ import org.ff4j.web.api.FF4jWebConstants;
 import org.ff4j.web.api.jersey.FF4jJacksonMapper;
 import org.ff4j.web.api.resources.domain.FeatureApiBean;
 import org.ff4j.web.api.resources.domain.GroupDescApiBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.GenericType;
 import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
+import com.sun.jersey.api.client.filter.ClientFilter;
+import com.sun.jersey.api.client.filter.GZIPContentEncodingFilter;
 import com.sun.jersey.api.json.JSONConfiguration;
+import com.sun.jersey.core.util.MultivaluedMapImpl;
 import com.sun.jersey.core.util.Base64;
 
 /**
@@ -60,6 +80,24 @@ import com.sun.jersey.core.util.Base64;
  */
 public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebConstants {
 
+    /** Default maximum wait of a long polling request on change feed, in milliseconds. */
+    public static final long DEFAULT_CHANGES_TIMEOUT = 30000;
+
+    /** Default delay before reconnecting to change feed after an error, in milliseconds. */
+    public static final long DEFAULT_RECONNECT_DELAY = 1000;
+
+    /** Default timeout to open a connection, in milliseconds. */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 2000;
+
+    /** Default timeout waiting for response data, in milliseconds. */
+    public static final int DEFAULT_READ_TIMEOUT = 5000;
+
+    /** Parse responses of change feed and batch checks. */
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    /** logger for this class. */
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
     /** Jersey Client. */
     protected Client client = null;
 
@@ -74,6 +112,42 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
 
     /** Target jersey resource. */
     private WebResource groupsWebRsc = null;
+    
+    /** Keep responses and revalidate them with 'If-None-Match' instead of downloading them again. */
+    private boolean conditionalGetEnabled = true;
+    
+    /** Last representations received, by path, with their entity tag. */
+    private final Map<String, CachedRepresentation> representations = new ConcurrentHashMap<String, CachedRepresentation>();
+    
+    /** Local copy of features fed by the change feed, null if not subscribed. */
+    private volatile Map<String, Feature> localCopy = null;
+    
+    /** Version of change feed applied to local copy. */
+    private volatile long localVersion = 0;
+    
+    /** Maximum wait of a long polling request on change feed. */
+    private long changesTimeout = DEFAULT_CHANGES_TIMEOUT;
+    
+    /** Delay before reconnecting to change feed after an error. */
+    private long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+    
+    /** Thread listening to change feed. */
+    private Thread subscriber;
+    
+    /** Timeout to open a connection in milliseconds, 0 for infinite. */
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    
+    /** Timeout waiting for response data in milliseconds, 0 for infinite. Change feed adds its own wait to it. */
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+    
+    /** Accept compressed responses. */
+    private boolean compressionEnabled = true;
+
+    /** Also compress request bodies, only for servers decoding them. */
+    private boolean requestCompressionEnabled = false;
+    
+    /** Filters (authorization, compression) have been set on client. */
+    private boolean clientConfigured = false;
 
     /**
      * Default construtor
@@ -120,17 +194,34 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
 
     /**
      * Initializing jerseyClient.
+     * 
+     * Default client relies on {@link java.net.HttpURLConnection}, which keeps connections alive and reuses them as long as
+     * responses are fully read and closed (pool size is set by JVM property 'http.maxConnections'). A client with its own
+     * connection pool (e.g. apache http client) can be given through {@link #setClient(Client)}.
      */
-    private void initJerseyClient() {
+    private synchronized void initJerseyClient() {
+        if (url == null) {
+            throw new IllegalArgumentException("Cannot initialialize Jersey Client : please provide store URL in 'url' attribute");
+        }
         if (client == null) {
             ClientConfig config = new DefaultClientConfig();
             config.getFeatures().put(JSONConfiguration.FEATURE_POJO_MAPPING, Boolean.TRUE);
+            config.getProperties().put(ClientConfig.PROPERTY_CONNECT_TIMEOUT, connectTimeout);
+            config.getProperties().put(ClientConfig.PROPERTY_READ_TIMEOUT, readTimeout);
             config.getSingletons().add(new JacksonJsonProvider());
             config.getSingletons().add(new FF4jJacksonMapper());
             client = Client.create(config);
         }
-        if (url == null) {
-            throw new IllegalArgumentException("Cannot initialialize Jersey Client : please provide store URL in 'url' attribute");
+        if (!clientConfigured) {
+            // Header is set on each request, including the ones built from scratch (change feed)
+            if (null != authorization) {
+                client.addFilter(new AuthorizationFilter(authorization));
+            }
+            if (compressionEnabled) {
+                // Request bodies are sent plain unless the server is known to decode them
+                client.addFilter(new GZIPContentEncodingFilter(requestCompressionEnabled));
+            }
+            clientConfigured = true;
         }
     }
 
@@ -143,9 +234,6 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (storeWebRsc == null) {
             initJerseyClient();
             storeWebRsc = client.resource(url).path(RESOURCE_STORE).path(RESOURCE_FEATURES);
-            if (null != authorization) {
-                storeWebRsc.header(HEADER_AUTHORIZATION, authorization);
-            }
         }
         return storeWebRsc;
     }
@@ -159,9 +247,6 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (groupsWebRsc == null) {
             initJerseyClient();
             groupsWebRsc = client.resource(url).path(RESOURCE_STORE).path(RESOURCE_GROUPS);
-            if (null != authorization) {
-                groupsWebRsc.header(HEADER_AUTHORIZATION, authorization);
-            }
         }
         return groupsWebRsc;
     }
@@ -172,11 +257,69 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
-        ClientResponse cRes = getStore().path(uid).get(ClientResponse.class);
-        if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
+        Map<String, Feature> copy = localCopy;
+        if (copy != null) {
+            Feature feature = copy.get(uid);
+            if (feature == null) {
+                throw new FeatureNotFoundException(uid);
+            }
+            return feature;
+        }
+        InputStream resEntity = conditionalGet(getStore().path(uid));
+        if (resEntity == null) {
             throw new FeatureNotFoundException(uid);
         }
-        return parseFeature(cRes.getEntity(String.class));
+        try {
+            return parseFeature(resEntity);
+        } finally {
+            IOUtils.closeQuietly(resEntity);
+        }
+    }
+
+    /**
+     * GET a JSON representation. When a previous response carried an entity tag it is sent as 'If-None-Match' and a
+     * '304 Not Modified' reuses the kept body: only headers go through the network while nothing changed. Representations
+     * which are not kept are decoded directly from the network stream.
+     *
+     * @param rsc
+     *            target resource
+     * @return body of response to be closed by caller, null if resource does not exist (404)
+     */
+    private InputStream conditionalGet(WebResource rsc) {
+        String path = rsc.getURI().getPath();
+        CachedRepresentation cached = conditionalGetEnabled ? representations.get(path) : null;
+        WebResource.Builder builder = rsc.accept(MediaType.APPLICATION_JSON_TYPE);
+        if (cached != null) {
+            builder = builder.header(HttpHeaders.IF_NONE_MATCH, cached.getEntityTag());
+        }
+        ClientResponse cRes = builder.get(ClientResponse.class);
+        if (cached != null && Status.NOT_MODIFIED.getStatusCode() == cRes.getStatus()) {
+            cRes.close();
+            return new ByteArrayInputStream(cached.getEntity());
+        }
+        if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
+            cRes.close();
+            representations.remove(path);
+            return null;
+        }
+        if (Status.OK.getStatusCode() != cRes.getStatus()) {
+            cRes.close();
+            throw new FeatureAccessException("Cannot read " + path + ", an HTTP error " + cRes.getStatus() + " occured.");
+        }
+        EntityTag eTag = cRes.getEntityTag();
+        if (!conditionalGetEnabled || eTag == null) {
+            return cRes.getEntityInputStream();
+        }
+        byte[] resEntity = cRes.getEntity(byte[].class);
+        representations.put(path, new CachedRepresentation(eTag.toString(), resEntity));
+        return new ByteArrayInputStream(resEntity);
+    }
+
+    /**
+     * Forget representations kept for conditional requests.
+     */
+    public void clearConditionalCache() {
+        representations.clear();
     }
 
     /** {@inheritDoc} */
@@ -186,9 +329,11 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).path(OPERATION_ENABLE).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -198,9 +343,11 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).path(OPERATION_DISABLE).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -209,14 +356,13 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
-        ClientResponse cRes = getStore().path(uid).get(ClientResponse.class);
-        if (Status.OK.getStatusCode() == cRes.getStatus()) {
-            return true;
-        }
-        if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
-            return false;
+        Map<String, Feature> copy = localCopy;
+        if (copy != null) {
+            return copy.containsKey(uid);
         }
-        throw new FeatureAccessException("Cannot check existence of feature, an HTTP error " + cRes.getStatus() + " occured : " + cRes.getEntityInputStream());
+        InputStream resEntity = conditionalGet(getStore().path(uid));
+        IOUtils.closeQuietly(resEntity);
+        return resEntity != null;
     }
 
     /** {@inheritDoc} */
@@ -225,28 +371,39 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
-        }
-        // Now can process upsert through PUT HTTP method
+        // Creation only: server checks existence and never overwrites an existing feature
         ClientResponse cRes = getStore().path(fp.getUid())//
                 .type(MediaType.APPLICATION_JSON) //
+                .header(HttpHeaders.IF_NONE_MATCH, "*") //
                 .put(ClientResponse.class, new FeatureApiBean(fp));
+        cRes.close();
+        if (Status.PRECONDITION_FAILED.getStatusCode() == cRes.getStatus()) {
+            throw new FeatureAlreadyExistException(fp.getUid());
+        }
         // Check response code CREATED or raised error
         if (Status.CREATED.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot create feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        ClientResponse cRes = getStore().get(ClientResponse.class);
-        if (Status.OK.getStatusCode() != cRes.getStatus()) {
-            throw new FeatureAccessException("Cannot read features, an HTTP error " + cRes.getStatus() + " occured.");
+        Map<String, Feature> copy = localCopy;
+        if (copy != null) {
+            return new HashMap<String, Feature>(copy);
+        }
+        InputStream resEntity = conditionalGet(getStore());
+        if (resEntity == null) {
+            throw new FeatureAccessException("Cannot read features, resource has not been found.");
+        }
+        Feature[] fArray;
+        try {
+            fArray = parseFeatureArray(resEntity);
+        } finally {
+            IOUtils.closeQuietly(resEntity);
         }
-        String resEntity = cRes.getEntity(String.class);
-        Feature[] fArray = parseFeatureArray(resEntity);
         Map<String, Feature> features = new HashMap<String, Feature>();
         for (Feature feature : fArray) {
             features.put(feature.getUid(), feature);
@@ -261,12 +418,14 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).delete(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot delete feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -276,14 +435,20 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
         if (!exist(fp.getUid())) {
-            throw new FeatureNotFoundException(fp.getUid());
+            // Local copy may not have received a recent creation yet
+            syncLocalCopy();
+            if (!exist(fp.getUid())) {
+                throw new FeatureNotFoundException(fp.getUid());
+            }
         }
         ClientResponse cRes = getStore().path(fp.getUid()) //
                 .type(MediaType.APPLICATION_JSON)
                 .put(ClientResponse.class, new FeatureApiBean(fp));
+        cRes.close();
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot update feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -296,12 +461,14 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).path(OPERATION_GRANTROLE).path(roleName).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot grant role on feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -320,12 +487,14 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).path(OPERATION_REMOVEROLE).path(roleName).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot remove role on feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -338,12 +507,14 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).path(OPERATION_ADDGROUP).path(groupName).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot add feature to group, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -362,6 +533,7 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).path(OPERATION_REMOVEGROUP).path(groupName).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new FeatureNotFoundException(uid);
         }
@@ -371,6 +543,7 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot remove feature from group, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -380,12 +553,14 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
         ClientResponse cRes = getGroups().path(groupName).path(OPERATION_ENABLE).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new GroupNotFoundException(groupName);
         }
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot grant role on feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -395,12 +570,14 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
         ClientResponse cRes = getGroups().path(groupName).path(OPERATION_DISABLE).post(ClientResponse.class);
+        cRes.close();
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
             throw new GroupNotFoundException(groupName);
         }
         if (Status.NO_CONTENT.getStatusCode() != cRes.getStatus()) {
             throw new FeatureAccessException("Cannot grant role on feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        syncLocalCopy();
     }
 
     /** {@inheritDoc} */
@@ -409,15 +586,27 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        ClientResponse cRes = getGroups().path(groupName).get(ClientResponse.class);
-        if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
-            throw new GroupNotFoundException(groupName);
+        Map<String, Feature> copy = localCopy;
+        if (copy != null) {
+            Map<String, Feature> features = readGroup(copy, groupName);
+            if (features.isEmpty()) {
+                throw new GroupNotFoundException(groupName);
+            }
+            return features;
         }
-        if (Status.OK.getStatusCode() != cRes.getStatus()) {
-            throw new FeatureAccessException("Cannot grant role on feature, an HTTP error " + cRes.getStatus() + " occured.");
+        ClientResponse cRes = getGroups().path(groupName).accept(MediaType.APPLICATION_JSON_TYPE).get(ClientResponse.class);
+        Feature[] fArray;
+        try {
+            if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
+                throw new GroupNotFoundException(groupName);
+            }
+            if (Status.OK.getStatusCode() != cRes.getStatus()) {
+                throw new FeatureAccessException("Cannot grant role on feature, an HTTP error " + cRes.getStatus() + " occured.");
+            }
+            fArray = parseFeatureArray(cRes.getEntityInputStream());
+        } finally {
+            cRes.close();
         }
-        String resEntity = cRes.getEntity(String.class);
-        Feature[] fArray = parseFeatureArray(resEntity);
         Map<String, Feature> features = new HashMap<String, Feature>();
         for (Feature feature : fArray) {
             features.put(feature.getUid(), feature);
@@ -431,7 +620,12 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
+        Map<String, Feature> copy = localCopy;
+        if (copy != null) {
+            return !readGroup(copy, groupName).isEmpty();
+        }
         ClientResponse cRes = getGroups().path(groupName).get(ClientResponse.class);
+        cRes.close();
         if (Status.OK.getStatusCode() == cRes.getStatus()) {
             return true;
         }
@@ -444,11 +638,22 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
+        Map<String, Feature> copy = localCopy;
+        if (copy != null) {
+            Set < String > groupNames = new HashSet<String>();
+            for (Feature feature : copy.values()) {
+                if (feature.getGroup() != null && !feature.getGroup().isEmpty()) {
+                    groupNames.add(feature.getGroup());
+                }
+            }
+            return groupNames;
+        }
         ClientResponse cRes = getGroups().get(ClientResponse.class);
-        List<GroupDescApiBean> groupApiBeans = cRes.getEntity(new GenericType<List<GroupDescApiBean>>() {});
         if (Status.OK.getStatusCode() != cRes.getStatus()) {
+            cRes.close();
             throw new FeatureAccessException("Cannot read groups, an HTTP error " + cRes.getStatus() + " occured.");
         }
+        List<GroupDescApiBean> groupApiBeans = cRes.getEntity(new GenericType<List<GroupDescApiBean>>() {});
         Set < String > groupNames = new HashSet<String>();
         for (GroupDescApiBean groupApiBean : groupApiBeans) {
             groupNames.add(groupApiBean.getGroupName());
@@ -456,6 +661,225 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         return groupNames;
     }
 
+    /**
+     * Evaluate several features in one call. The server reads its store once and evaluates all features (strategies and
+     * security included) against this snapshot.
+     *
+     * @param uids
+     *      features identifiers
+     * @param context
+     *      execution context shared by all features, can be null
+     * @return
+     *      status of each feature, in requested order
+     */
+    public Map<String, Boolean> checkAll(Collection<String> uids, Map<String, String> context) {
+        if (uids == null || uids.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifiers cannot be null nor empty");
+        }
+        initJerseyClient();
+        MultivaluedMapImpl formData = new MultivaluedMapImpl();
+        for (String uid : uids) {
+            formData.add(POST_PARAMNAME_FEATURE_UID, uid);
+        }
+        if (context != null) {
+            for (Map.Entry<String, String> param : context.entrySet()) {
+                formData.add(param.getKey(), param.getValue());
+            }
+        }
+        ClientResponse cRes = client.resource(url).path(OPERATION_CHECK) //
+                .type(MediaType.APPLICATION_FORM_URLENCODED) //
+                .accept(MediaType.APPLICATION_JSON_TYPE) //
+                .post(ClientResponse.class, formData);
+        try {
+            if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
+                String notFound = JSON_MAPPER.readTree(cRes.getEntityInputStream()).path(CHECK_NOT_FOUND).getTextValue();
+                if (notFound == null) {
+                    throw new FeatureAccessException("Cannot check features, no missing feature given with HTTP error 404");
+                }
+                throw new FeatureNotFoundException(notFound);
+            }
+            if (Status.BAD_REQUEST.getStatusCode() == cRes.getStatus()) {
+                throw new IllegalArgumentException(cRes.getEntity(String.class));
+            }
+            if (Status.OK.getStatusCode() != cRes.getStatus()) {
+                throw new FeatureAccessException("Cannot check features, an HTTP error " + cRes.getStatus() + " occured.");
+            }
+            return JSON_MAPPER.readValue(cRes.getEntityInputStream(), new TypeReference<LinkedHashMap<String, Boolean>>() {});
+        } catch (IOException e) {
+            throw new FeatureAccessException("Cannot parse status of features", e);
+        } finally {
+            cRes.close();
+        }
+    }
+
+    /**
+     * Features of a group within local copy.
+     */
+    private Map<String, Feature> readGroup(Map<String, Feature> copy, String groupName) {
+        Map<String, Feature> features = new HashMap<String, Feature>();
+        for (Feature feature : copy.values()) {
+            if (groupName.equals(feature.getGroup())) {
+                features.put(feature.getUid(), feature);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Keep a full local copy of the features, fed by the change feed of the API. Reads are then served from memory and see
+     * changes done on the server within milliseconds, writes are still sent to the server and the copy is brought up to date
+     * before they return (a store reads its own writes). After an error the copy keeps serving reads, and is fully reloaded
+     * once the server is reachable again.
+     */
+    public synchronized void subscribe() {
+        if (subscriber != null) {
+            return;
+        }
+        // First load is synchronous, reads are consistent as soon as the method returns
+        applyChanges(readChanges(0, 0));
+        subscriber = new Thread(new Runnable() {
+            public void run() {
+                listen();
+            }
+        }, "ff4j-http-subscriber");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    /**
+     * Stop listening to the change feed, reads go back to the server.
+     */
+    public synchronized void unsubscribe() {
+        if (subscriber != null) {
+            subscriber.interrupt();
+            subscriber = null;
+        }
+        localCopy = null;
+        localVersion = 0;
+    }
+
+    /**
+     * Check if a local copy is used.
+     *
+     * @return
+     *      true if subscribed to change feed
+     */
+    public boolean isSubscribed() {
+        return localCopy != null;
+    }
+
+    /**
+     * Loop of the subscriber: wait for changes and apply them, reconnect with a full resync after errors.
+     */
+    private void listen() {
+        boolean resyncNeeded = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                JsonNode changes = readChanges(resyncNeeded ? 0 : localVersion, changesTimeout);
+                synchronized (this) {
+                    // Unsubscribed while waiting for changes
+                    if (subscriber != Thread.currentThread()) {
+                        return;
+                    }
+                    applyChanges(changes);
+                }
+                resyncNeeded = false;
+            } catch (RuntimeException e) {
+                log.warn("Change feed of " + url + " is not available, reconnect in " + reconnectDelay + "ms : " + e.getMessage());
+                resyncNeeded = true;
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Call change feed.
+     *
+     * @param since
+     *      last version known, 0 for whole content
+     * @param timeout
+     *      maximum wait in milliseconds
+     * @return
+     *      parsed response
+     */
+    private JsonNode readChanges(long since, long timeout) {
+        initJerseyClient();
+        WebResource changesRsc = client.resource(url).path(RESOURCE_STORE).path(RESOURCE_CHANGES);
+        if (readTimeout > 0) {
+            // Server holds the request up to 'timeout', it must not be taken as a dead connection
+            changesRsc.setProperty(ClientConfig.PROPERTY_READ_TIMEOUT, (int) (readTimeout + timeout));
+        }
+        ClientResponse cRes = changesRsc
+                .queryParam(PARAM_SINCE, String.valueOf(since))
+                .queryParam(PARAM_TIMEOUT, String.valueOf(timeout))
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .get(ClientResponse.class);
+        if (Status.OK.getStatusCode() != cRes.getStatus()) {
+            cRes.close();
+            throw new FeatureAccessException("Cannot read changes, an HTTP error " + cRes.getStatus() + " occured.");
+        }
+        try {
+            return JSON_MAPPER.readTree(cRes.getEntityInputStream());
+        } catch (IOException e) {
+            throw new FeatureAccessException("Cannot parse changes", e);
+        } finally {
+            cRes.close();
+        }
+    }
+
+    /**
+     * Bring local copy up to date after a write, if subscribed. Failure is only logged: the write is done and the subscriber
+     * resynchronizes the copy.
+     */
+    private void syncLocalCopy() {
+        if (localCopy == null) {
+            return;
+        }
+        try {
+            JsonNode changes = readChanges(localVersion, 0);
+            synchronized (this) {
+                // Unsubscribed meanwhile
+                if (localCopy != null) {
+                    applyChanges(changes);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot read changes of " + url + " after a write : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply response of change feed to local copy, replacing it on resync. Changes computed from a version which is not the
+     * local one anymore (overtaken by a synchronization after a write) are ignored.
+     *
+     * @param changes
+     *      response of change feed
+     */
+    private synchronized void applyChanges(JsonNode changes) {
+        boolean resync = changes.path("resync").getBooleanValue();
+        if (!resync && localCopy != null && changes.path("fromVersion").getLongValue() != localVersion) {
+            return;
+        }
+        JsonNode featuresNode = changes.get("features");
+        Feature[] updated = featuresNode == null ? new Feature[0] : parseFeatureArray(featuresNode.toString());
+        Map<String, Feature> target = resync || localCopy == null ? new ConcurrentHashMap<String, Feature>() : localCopy;
+        for (Feature feature : updated) {
+            target.put(feature.getUid(), feature);
+        }
+        JsonNode deletedNode = changes.get("deletedFeatures");
+        if (deletedNode != null) {
+            for (Iterator<JsonNode> uids = deletedNode.getElements(); uids.hasNext();) {
+                target.remove(uids.next().getTextValue());
+            }
+        }
+        localVersion = changes.path("toVersion").getLongValue();
+        localCopy = target;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -526,7 +950,7 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
      *      target header
      */
     public static String buildAuthorization4UserName(String username, String password) {
-        return " Basic " + new String(Base64.encode(username + ":" + password));
+        return "Basic " + new String(Base64.encode(username + ":" + password));
     }
     
     /**
@@ -540,6 +964,183 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         return PARAM_AUTHKEY + "=" + apiKey;
     }
 
+    /**
+     * Getter accessor for attribute 'conditionalGetEnabled'.
+     *
+     * @return
+     *       current value of 'conditionalGetEnabled'
+     */
+    public boolean isConditionalGetEnabled() {
+        return conditionalGetEnabled;
+    }
+
+    /**
+     * Setter accessor for attribute 'conditionalGetEnabled'.
+     * @param conditionalGetEnabled
+     * 		new value for 'conditionalGetEnabled '
+     */
+    public void setConditionalGetEnabled(boolean conditionalGetEnabled) {
+        this.conditionalGetEnabled = conditionalGetEnabled;
+        if (!conditionalGetEnabled) {
+            clearConditionalCache();
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'changesTimeout'.
+     *
+     * @return
+     *       current value of 'changesTimeout'
+     */
+    public long getChangesTimeout() {
+        return changesTimeout;
+    }
+
+    /**
+     * Setter accessor for attribute 'changesTimeout'.
+     * @param changesTimeout
+     * 		new value for 'changesTimeout '
+     */
+    public void setChangesTimeout(long changesTimeout) {
+        this.changesTimeout = changesTimeout;
+    }
+
+    /**
+     * Getter accessor for attribute 'reconnectDelay'.
+     *
+     * @return
+     *       current value of 'reconnectDelay'
+     */
+    public long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    /**
+     * Setter accessor for attribute 'reconnectDelay'.
+     * @param reconnectDelay
+     * 		new value for 'reconnectDelay '
+     */
+    public void setReconnectDelay(long reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Getter accessor for attribute 'localVersion'.
+     *
+     * @return
+     *       current value of 'localVersion'
+     */
+    public long getLocalVersion() {
+        return localVersion;
+    }
+
+    /**
+     * Getter accessor for attribute 'connectTimeout'.
+     *
+     * @return
+     *       current value of 'connectTimeout'
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Setter accessor for attribute 'connectTimeout', to be set before first call.
+     * @param connectTimeout
+     * 		new value for 'connectTimeout '
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Getter accessor for attribute 'readTimeout'.
+     *
+     * @return
+     *       current value of 'readTimeout'
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Setter accessor for attribute 'readTimeout', to be set before first call.
+     * @param readTimeout
+     * 		new value for 'readTimeout '
+     */
+    public void setReadTimeout(int readTimeout) {
+        if (readTimeout < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Getter accessor for attribute 'compressionEnabled'.
+     *
+     * @return
+     *       current value of 'compressionEnabled'
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * Setter accessor for attribute 'compressionEnabled', to be set before first call.
+     * @param compressionEnabled
+     * 		new value for 'compressionEnabled '
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    /**
+     * Getter accessor for attribute 'requestCompressionEnabled'.
+     *
+     * @return
+     *       current value of 'requestCompressionEnabled'
+     */
+    public boolean isRequestCompressionEnabled() {
+        return requestCompressionEnabled;
+    }
+
+    /**
+     * Setter accessor for attribute 'requestCompressionEnabled', to be set before first call. Request bodies are compressed
+     * only if 'compressionEnabled' is also set, and the server must decode them (GZIP filter on requests).
+     * @param requestCompressionEnabled
+     * 		new value for 'requestCompressionEnabled '
+     */
+    public void setRequestCompressionEnabled(boolean requestCompressionEnabled) {
+        this.requestCompressionEnabled = requestCompressionEnabled;
+    }
+
+    /**
+     * Getter accessor for attribute 'client'.
+     *
+     * @return
+     *       current value of 'client'
+     */
+    public Client getClient() {
+        return client;
+    }
+
+    /**
+     * Use a client configured outside, for instance on top of a pooling connection manager. Authorization and compression
+     * filters are added to it on first call, timeouts are left to the given client.
+     *
+     * @param client
+     * 		new value for 'client '
+     */
+    public synchronized void setClient(Client client) {
+        this.client           = client;
+        this.clientConfigured = false;
+        this.storeWebRsc      = null;
+        this.groupsWebRsc     = null;
+    }
+
     /**
      * Getter accessor for attribute 'url'.
      *
@@ -559,4 +1160,63 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
         this.url = url;
     }
 
+    /**
+     * Add 'Authorization' header to every request of the client.
+     */
+    private static final class AuthorizationFilter extends ClientFilter {
+
+        /** Header value. */
+        private final String authorization;
+
+        /**
+         * Parameterized constructor.
+         */
+        private AuthorizationFilter(String authorization) {
+            this.authorization = authorization;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ClientResponse handle(ClientRequest cr) throws ClientHandlerException {
+            if (!cr.getHeaders().containsKey(HEADER_AUTHORIZATION)) {
+                cr.getHeaders().add(HEADER_AUTHORIZATION, authorization);
+            }
+            return getNext().handle(cr);
+        }
+    }
+
+    /**
+     * Body of a response with its entity tag.
+     */
+    private static final class CachedRepresentation {
+
+        /** Entity tag, as sent in headers. */
+        private final String entityTag;
+
+        /** JSON body. */
+        private final byte[] entity;
+
+        /**
+         * Parameterized constructor.
+         */
+        private CachedRepresentation(String entityTag, byte[] entity) {
+            this.entityTag = entityTag;
+            this.entity    = entity;
+        }
+
+        /**
+         * Getter accessor for attribute 'entityTag'.
+         */
+        private String getEntityTag() {
+            return entityTag;
+        }
+
+        /**
+         * Getter accessor for attribute 'entity'.
+         */
+        private byte[] getEntity() {
+            return entity;
+        }
+    }
+
 }
@@ -0,0 +1,110 @@
+package org.ff4j.web.api;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.FF4j;
+import org.ff4j.web.api.resources.domain.FeatureChangesApiBean;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Versions and deltas of the change feed.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChangeFeedTest {
+
+    /** TDD. */
+    @Test
+    public void testSameContentGivesSameVersionOnEachNode() throws InterruptedException {
+        // Given two nodes sharing the same store
+        FF4j ff4j = new FF4j().create("f1").create("f2");
+        FeatureChangeFeed node1 = new FeatureChangeFeed(ff4j);
+        FeatureChangeFeed node2 = new FeatureChangeFeed(ff4j);
+        // When
+        FeatureChangesApiBean first = node1.waitForChanges(0, 0);
+        // Then
+        Assert.assertTrue(first.isResync());
+        Assert.assertEquals(2, first.getFeatures().size());
+        FeatureChangesApiBean other = node2.waitForChanges(first.getToVersion(), 0);
+        Assert.assertEquals(first.getToVersion(), other.getToVersion());
+        Assert.assertFalse(other.isResync());
+        Assert.assertTrue(other.isEmpty());
+    }
+
+    /** TDD. */
+    @Test
+    public void testDeltasSinceKnownVersion() throws InterruptedException {
+        // Given
+        FF4j ff4j = new FF4j().create("f1").create("f2");
+        FeatureChangeFeed feed = new FeatureChangeFeed(ff4j);
+        long v1 = feed.waitForChanges(0, 0).getToVersion();
+        // When
+        ff4j.enable("f1");
+        ff4j.delete("f2");
+        feed.requestRefresh();
+        FeatureChangesApiBean changes = feed.waitForChanges(v1, 0);
+        // Then
+        Assert.assertFalse(changes.isResync());
+        Assert.assertFalse(v1 == changes.getToVersion());
+        Assert.assertEquals(1, changes.getFeatures().size());
+        Assert.assertEquals("f1", changes.getFeatures().get(0).getUid());
+        Assert.assertEquals(1, changes.getDeletedFeatures().size());
+        Assert.assertEquals("f2", changes.getDeletedFeatures().get(0));
+    }
+
+    /** TDD. */
+    @Test
+    public void testUnknownVersionGivesResync() throws InterruptedException {
+        // Given
+        FeatureChangeFeed feed = new FeatureChangeFeed(new FF4j().create("f1"));
+        // When
+        FeatureChangesApiBean changes = feed.waitForChanges(42, 0);
+        // Then
+        Assert.assertTrue(changes.isResync());
+        Assert.assertEquals(1, changes.getFeatures().size());
+    }
+
+    /** TDD. */
+    @Test
+    public void testStopReleasesWaitingClients() throws InterruptedException {
+        // Given
+        final FeatureChangeFeed feed = new FeatureChangeFeed(new FF4j().create("f1"));
+        final long v1 = feed.waitForChanges(0, 0).getToVersion();
+        // When
+        new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                feed.stop();
+            }
+        }).start();
+        long begin = System.currentTimeMillis();
+        FeatureChangesApiBean changes = feed.waitForChanges(v1, 10000);
+        // Then
+        Assert.assertTrue(changes.isEmpty());
+        Assert.assertTrue(System.currentTimeMillis() - begin < 5000);
+    }
+
+}
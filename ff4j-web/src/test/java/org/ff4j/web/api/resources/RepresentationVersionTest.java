@@ -0,0 +1,69 @@
+package org.ff4j.web.api.resources;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Versions of representations served by the API.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RepresentationVersionTest {
+
+    /** TDD. */
+    @Test
+    public void testStoreVersionIsTheEntityTag() {
+        // When
+        RepresentationVersion v1 = RepresentationVersion.ofStore(12);
+        // Then
+        Assert.assertEquals("v12", v1.getEntityTag().getValue());
+        Assert.assertSame(v1, RepresentationVersion.ofStore(12));
+        Assert.assertFalse(v1.getEntityTag().equals(RepresentationVersion.ofStore(13).getEntityTag()));
+    }
+
+    /** TDD. */
+    @Test
+    public void testDigestVersionKeptWhileContentIsUnchanged() {
+        // When
+        RepresentationVersion v1 = RepresentationVersion.of("/ff4j/features", "{\"a\":1}");
+        // Then
+        Assert.assertSame(v1, RepresentationVersion.of("/ff4j/features", "{\"a\":1}"));
+        Assert.assertFalse(v1.getEntityTag().equals(RepresentationVersion.of("/ff4j/features", "{\"a\":2}").getEntityTag()));
+    }
+
+    /** TDD. */
+    @Test
+    public void testPathsAreBounded() {
+        // Given
+        RepresentationVersion first = RepresentationVersion.of("/ff4j/first", "{}");
+        // When
+        for (int i = 0; i < RepresentationVersion.MAX_PATHS; i++) {
+            RepresentationVersion.of("/ff4j/path" + i, "{}");
+        }
+        // Then, same tag but first path has been forgotten
+        RepresentationVersion again = RepresentationVersion.of("/ff4j/first", "{}");
+        Assert.assertEquals(first.getEntityTag(), again.getEntityTag());
+        Assert.assertNotSame(first, again);
+    }
+
+}
@@ -178,4 +178,59 @@ public class FF4JResourceTestIT extends AbstractWebResourceTestIT {
         Assert.assertFalse(Boolean.valueOf(resEntity));
     }    
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testPost_checkAll() {
+        // Given
+        assertFF4J.assertThatFeatureExist(F1);
+        assertFF4J.assertThatFeatureExist(F2);
+        // When
+        MultivaluedMap<String, String> formData = new MultivaluedMapImpl();
+        formData.add(POST_PARAMNAME_FEATURE_UID, F1);
+        formData.add(POST_PARAMNAME_FEATURE_UID, F2);
+        ClientResponse resHttp = resourceff4j().path(OPERATION_CHECK).//
+                type(MediaType.APPLICATION_FORM_URLENCODED).//
+                post(ClientResponse.class, formData);
+        String resEntity = resHttp.getEntity(String.class);
+        // Then
+        Assert.assertEquals("Expected status is 200", Status.OK.getStatusCode(), resHttp.getStatus());
+        Assert.assertTrue(resEntity.contains("\"" + F1 + "\":" + ff4j.check(F1)));
+        Assert.assertTrue(resEntity.contains("\"" + F2 + "\":" + ff4j.check(F2)));
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testPost_checkAllNotFound() {
+        // Given
+        assertFF4J.assertThatFeatureDoesNotExist(F_DOESNOTEXIST);
+        // When
+        MultivaluedMap<String, String> formData = new MultivaluedMapImpl();
+        formData.add(POST_PARAMNAME_FEATURE_UID, F1);
+        formData.add(POST_PARAMNAME_FEATURE_UID, F_DOESNOTEXIST);
+        ClientResponse resHttp = resourceff4j().path(OPERATION_CHECK).//
+                type(MediaType.APPLICATION_FORM_URLENCODED).//
+                post(ClientResponse.class, formData);
+        String resEntity = resHttp.getEntity(String.class);
+        // Then
+        Assert.assertEquals("Expected status is 404", Status.NOT_FOUND.getStatusCode(), resHttp.getStatus());
+        Assert.assertTrue(resEntity.contains("\"" + CHECK_NOT_FOUND + "\":\"" + F_DOESNOTEXIST + "\""));
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testPost_checkAllWithoutUid() {
+        // When
+        ClientResponse resHttp = resourceff4j().path(OPERATION_CHECK).//
+                type(MediaType.APPLICATION_FORM_URLENCODED).//
+                post(ClientResponse.class, new MultivaluedMapImpl());
+        // Then
+        Assert.assertEquals("Expected status is 400", Status.BAD_REQUEST.getStatusCode(), resHttp.getStatus());
+    }
+
 }
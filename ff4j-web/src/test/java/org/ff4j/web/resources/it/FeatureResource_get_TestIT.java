@@ -20,6 +20,8 @@ package org.ff4j.web.resources.it;
  * #L%
  */
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response.Status;
 
 import org.ff4j.web.api.resources.FeatureResource;
@@ -72,5 +74,28 @@ public class FeatureResource_get_TestIT extends AbstractWebResourceTestIT {
         Assert.assertTrue("Invalid error message : " + resEntity, resEntity.contains("not exist"));
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testGet_readNotModified() {
+        // Given
+        assertFF4J.assertThatFeatureExist(F4);
+        ClientResponse firstHttp = resourceFeatures().path(F4).get(ClientResponse.class);
+        EntityTag eTag = firstHttp.getEntityTag();
+        Assert.assertNotNull("Expected ETag header", eTag);
+        Assert.assertNotNull("Expected Last-Modified header", firstHttp.getLastModified());
+        // When
+        ClientResponse resHttp = resourceFeatures().path(F4).header(HttpHeaders.IF_NONE_MATCH, eTag.toString()).get(ClientResponse.class);
+        // Then
+        Assert.assertEquals("Expected status is 304", Status.NOT_MODIFIED.getStatusCode(), resHttp.getStatus());
+        // When feature changes, version changes
+        ff4j.getFeatureStore().grantRoleOnFeature(F4, "ROLE_ETAG");
+        resHttp = resourceFeatures().path(F4).header(HttpHeaders.IF_NONE_MATCH, eTag.toString()).get(ClientResponse.class);
+        ff4j.getFeatureStore().removeRoleFromFeature(F4, "ROLE_ETAG");
+        // Then
+        Assert.assertEquals("Expected status is 200", Status.OK.getStatusCode(), resHttp.getStatus());
+        Assert.assertFalse(eTag.equals(resHttp.getEntityTag()));
+    }
 
 }
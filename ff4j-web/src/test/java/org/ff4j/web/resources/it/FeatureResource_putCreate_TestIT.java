@@ -20,6 +20,7 @@ package org.ff4j.web.resources.it;
  * #L%
  */
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.Status;
 
@@ -59,5 +60,44 @@ public class FeatureResource_putCreate_TestIT extends AbstractWebResourceTestIT
         res.close();
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testPut_createOnlyExistingIsRejected() {
+        // Given
+        assertFF4J.assertThatFeatureExist(F1);
+        assertFF4J.assertThatFeatureIsEnabled(F1);
+        // When
+        Feature f = new Feature(F1, false);
+        ClientResponse res = resourceFeatures().path(F1)//
+                .type(MediaType.APPLICATION_JSON)//
+                .header(HttpHeaders.IF_NONE_MATCH, "*")//
+                .put(ClientResponse.class, new FeatureApiBean(f));
+        res.close();
+        // Then, feature is not overwritten
+        Assert.assertEquals(Status.PRECONDITION_FAILED.getStatusCode(), res.getStatus());
+        assertFF4J.assertThatFeatureIsEnabled(F1);
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testPut_createOnlyNewFeature() {
+        // Given
+        String uid = "createOnly";
+        assertFF4J.assertThatFeatureDoesNotExist(uid);
+        // When
+        ClientResponse res = resourceFeatures().path(uid)//
+                .type(MediaType.APPLICATION_JSON)//
+                .header(HttpHeaders.IF_NONE_MATCH, "*")//
+                .put(ClientResponse.class, new FeatureApiBean(new Feature(uid)));
+        res.close();
+        // Then
+        Assert.assertEquals(Status.CREATED.getStatusCode(), res.getStatus());
+        assertFF4J.assertThatFeatureExist(uid);
+        ff4j.delete(uid);
+    }
 
 }
@@ -48,4 +48,24 @@ public class FeatureStoreResourceTestIT extends AbstractWebResourceTestIT {
         Assert.assertTrue(resEntity.contains(InMemoryFeatureStore.class.getCanonicalName()));
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testGetChangesFromScratch() {
+        // Given
+        Assert.assertFalse(ff4j.getFeatureStore().readAll().isEmpty());
+        // When
+        ClientResponse resHttp = resourceStore().path(RESOURCE_CHANGES) //
+                .queryParam(PARAM_SINCE, "0") //
+                .queryParam(PARAM_TIMEOUT, "0") //
+                .get(ClientResponse.class);
+        String resEntity = resHttp.getEntity(String.class);
+        // Then, HTTPResponse
+        Assert.assertEquals("Expected status is 200", Status.OK.getStatusCode(), resHttp.getStatus());
+        // Then, whole content is sent
+        Assert.assertTrue(resEntity.contains("\"resync\":true"));
+        Assert.assertTrue(resEntity.contains(F1));
+    }
+
 }
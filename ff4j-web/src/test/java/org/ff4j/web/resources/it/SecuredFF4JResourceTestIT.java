@@ -20,12 +20,16 @@ package org.ff4j.web.resources.it;
  * #L%
  */
 
+import java.util.Map;
+
 import javax.ws.rs.Path;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.Status;
 
 import org.codehaus.jackson.map.ObjectMapper;
 import org.ff4j.FF4j;
+import org.ff4j.core.Feature;
+import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.store.InMemoryFeatureStore;
 import org.ff4j.test.AssertFf4j;
 import org.ff4j.test.TestsFf4jConstants;
@@ -215,6 +219,30 @@ public class SecuredFF4JResourceTestIT extends JerseyTest implements TestsFf4jCo
         Assert.assertEquals("Expected status is 200", Status.OK.getStatusCode(), resHttp.getStatus());
     }
     
+    /**
+     * TDD.
+     */
+    @Test
+    public void testOK_storeHttpWithApiKey() {
+        // Given
+        FeatureStoreHttp storeHttp = new FeatureStoreHttp(resourceff4j().getURI().toString(), "456");
+        // When
+        Map<String, Feature> features = storeHttp.readAll();
+        // Then, header has been sent
+        Assert.assertEquals(ff4j.getFeatureStore().readAll().size(), features.size());
+    }
+    
+    /**
+     * TDD.
+     */
+    @Test(expected = FeatureAccessException.class)
+    public void testKO_storeHttpWithoutApiKey() {
+        // Given
+        FeatureStoreHttp storeHttp = new FeatureStoreHttp(resourceff4j().getURI().toString());
+        // When
+        storeHttp.readAll();
+    }
+    
     /**
      * TDD.
      */
@@ -20,8 +20,13 @@ package org.ff4j.web.store;
  * #L%
  */
 
+import java.util.Arrays;
+import java.util.Map;
+
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureAlreadyExistException;
+import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.test.store.AbstractStoreJUnitTest;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -97,6 +102,175 @@ public class FeatureStoreHttpTest extends AbstractStoreJUnitTest {
         Assert.assertTrue(testedStore.read(F1).getPermissions().isEmpty());
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testReadWithoutCompressionNorConditionalGet() {
+        // Given
+        FeatureStoreHttp fst = new FeatureStoreHttp("http://localhost:9998/ff4j");
+        fst.setCompressionEnabled(false);
+        fst.setConditionalGetEnabled(false);
+        // When, decoded from network stream
+        Feature f1 = fst.read(F1);
+        // Then
+        Assert.assertEquals(F1, f1.getUid());
+        Assert.assertEquals(EXPECTED_FEATURES_NUMBERS, fst.readAll().size());
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testWriteWithRequestCompression() {
+        // Given, server decodes gzip requests
+        FeatureStoreHttp fst = new FeatureStoreHttp("http://localhost:9998/ff4j");
+        Assert.assertFalse(fst.isRequestCompressionEnabled());
+        fst.setRequestCompressionEnabled(true);
+        // When
+        fst.update(new Feature(F1, false, "compressed"));
+        // Then
+        Assert.assertEquals("compressed", fst.read(F1).getDescription());
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testCheckAll() {
+        // Given
+        FeatureStoreHttp fst = (FeatureStoreHttp) testedStore;
+        // When
+        Map<String, Boolean> statuses = fst.checkAll(Arrays.asList(F2, F1), null);
+        // Then, requested order is kept
+        Assert.assertEquals(Arrays.asList(F2, F1), Arrays.asList(statuses.keySet().toArray()));
+        Assert.assertEquals(testedStore.read(F1).isEnable(), statuses.get(F1));
+        Assert.assertEquals(testedStore.read(F2).isEnable(), statuses.get(F2));
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testCheckAllFeatureNotFound() {
+        // Given
+        FeatureStoreHttp fst = (FeatureStoreHttp) testedStore;
+        try {
+            // When
+            fst.checkAll(Arrays.asList(F1, "does not exist"), null);
+            Assert.fail();
+        } catch (FeatureNotFoundException fnfe) {
+            // Then, missing feature is given by the server, even with spaces in its name
+            Assert.assertEquals("does not exist", fnfe.getFeatureName());
+        }
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testSubscribedStoreReadsItsOwnWrites() {
+        // Given
+        FeatureStoreHttp fst = new FeatureStoreHttp("http://localhost:9998/ff4j");
+        fst.subscribe();
+        try {
+            Assert.assertTrue(fst.isSubscribed());
+            Assert.assertEquals(testedStore.readAll().keySet(), fst.readAll().keySet());
+            // When
+            fst.create(new Feature("subscribedWrite", true));
+            fst.update(new Feature("subscribedWrite", false, "updated"));
+            // Then, local copy is up to date when writes return
+            Assert.assertEquals("updated", fst.read("subscribedWrite").getDescription());
+            Assert.assertFalse(fst.read("subscribedWrite").isEnable());
+            // When
+            fst.delete("subscribedWrite");
+            // Then
+            Assert.assertFalse(fst.exist("subscribedWrite"));
+            Assert.assertFalse(testedStore.exist("subscribedWrite"));
+        } finally {
+            fst.unsubscribe();
+        }
+        Assert.assertFalse(fst.isSubscribed());
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testSubscribedStoreDoesNotOverwriteOnCreate() {
+        // Given
+        FeatureStoreHttp fst = new FeatureStoreHttp("http://localhost:9998/ff4j");
+        fst.subscribe();
+        try {
+            // Created by another client, local copy may not know it yet
+            testedStore.create(new Feature("createdElsewhere", true, "original"));
+            // When
+            fst.create(new Feature("createdElsewhere", false, "overwritten"));
+            Assert.fail();
+        } catch (FeatureAlreadyExistException faee) {
+            // Then, server has decided and kept the feature
+            Assert.assertEquals("original", testedStore.read("createdElsewhere").getDescription());
+        } finally {
+            fst.unsubscribe();
+            testedStore.delete("createdElsewhere");
+        }
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testSubscriberAppliesChangesOfOtherClients() throws InterruptedException {
+        // Given
+        FeatureStoreHttp fst = new FeatureStoreHttp("http://localhost:9998/ff4j");
+        fst.setChangesTimeout(1000);
+        fst.subscribe();
+        try {
+            long initialVersion = fst.getLocalVersion();
+            // When
+            testedStore.create(new Feature("otherClient", true));
+            // Then
+            waitFor(fst, "otherClient", true);
+            Assert.assertTrue(fst.read("otherClient").isEnable());
+            Assert.assertTrue(initialVersion != fst.getLocalVersion());
+            // When
+            testedStore.disable("otherClient");
+            // Then
+            long deadline = System.currentTimeMillis() + 5000;
+            while (fst.read("otherClient").isEnable() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(fst.read("otherClient").isEnable());
+            // When
+            testedStore.delete("otherClient");
+            // Then
+            waitFor(fst, "otherClient", false);
+            Assert.assertFalse(fst.exist("otherClient"));
+        } finally {
+            fst.unsubscribe();
+            if (testedStore.exist("otherClient")) {
+                testedStore.delete("otherClient");
+            }
+        }
+    }
+
+    /**
+     * Wait for local copy of a subscribed store to see a feature appear or disappear.
+     * 
+     * @param fst
+     *            subscribed store
+     * @param uid
+     *            feature identifier
+     * @param exist
+     *            expected existence
+     */
+    private void waitFor(FeatureStoreHttp fst, String uid, boolean exist) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (fst.exist(uid) != exist && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
     /**
      * Start Server Grizzly before tests on FeatureStore
      * 